@@ -7,18 +7,36 @@ public class Alert {
     private String patientId;
     private String condition;
     private long timestamp;
+    private AlertSeverity severity;
 
     /**
-     * Constructs an Alert object with the specified patient ID, condition, and timestamp.
+     * Constructs an Alert object with the specified patient ID, condition, and timestamp,
+     * and {@link AlertSeverity#MEDIUM} severity.
      *
      * @param patientId the ID of the patient
      * @param condition the condition of the patient
      * @param timestamp the time the alert was generated
      */
     public Alert(String patientId, String condition, long timestamp) {
+        this(patientId, condition, timestamp, AlertSeverity.MEDIUM);
+    }
+
+    /**
+     * Constructs an Alert object with the specified patient ID, condition, timestamp and severity.
+     *
+     * @param patientId the ID of the patient
+     * @param condition the condition of the patient
+     * @param timestamp the time the alert was generated
+     * @param severity  how urgent the alert is
+     */
+    public Alert(String patientId, String condition, long timestamp, AlertSeverity severity) {
+        if (severity == null) {
+            throw new NullPointerException("Severity must not be null.");
+        }
         this.patientId = patientId;
         this.condition = condition;
         this.timestamp = timestamp;
+        this.severity = severity;
     }
 
     /**
@@ -48,6 +66,15 @@ public class Alert {
         return timestamp;
     }
 
+    /**
+     * Gets how urgent the alert is.
+     *
+     * @return the severity
+     */
+    public AlertSeverity getSeverity() {
+        return severity;
+    }
+
     /**
      * Triggers an alert based on identified conditions and logs the alert details.
      */
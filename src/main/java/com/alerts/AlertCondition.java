@@ -0,0 +1,90 @@
+package com.alerts;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The conditions the alert generator can detect. Every condition has a stable numeric
+ * code used in compact and persisted representations, and the label used in alert messages.
+ */
+public enum AlertCondition {
+    OTHER(0, "Other"),
+    SYSTOLIC_CRITICAL(1, "Critical Pressure Threshold Alert (Systolic)"),
+    DIASTOLIC_CRITICAL(2, "Critical Pressure Threshold Alert (Diastolic)"),
+    SYSTOLIC_INCREASING_TREND(3, "Systolic Pressure Increasing Trend Alert"),
+    SYSTOLIC_DECREASING_TREND(4, "Systolic Pressure Decreasing Trend Alert"),
+    DIASTOLIC_INCREASING_TREND(5, "Diastolic Pressure Increasing Trend Alert"),
+    DIASTOLIC_DECREASING_TREND(6, "Diastolic Pressure Decreasing Trend Alert"),
+    LOW_SATURATION(7, "Low Saturation Alert"),
+    RAPID_OXYGEN_DROP(8, "Rapid Blood Oxygen Drop Alert"),
+    HYPOTENSIVE_HYPOXEMIA(9, "Hypotensive Hypoxemia Alert"),
+    ABNORMAL_HEART_RATE(10, "Abnormal Heart Rate Alert"),
+    IRREGULAR_BEAT(11, "Irregular Beat Alert"),
+    HYPOXEMIC_TACHYCARDIA(12, "Hypoxemic Tachycardia Alert"),
+    HYPOTENSIVE_TACHYCARDIA(13, "Hypotensive Tachycardia Alert");
+
+    private static final Map<String, AlertCondition> BY_LABEL = new HashMap<>();
+    private static final AlertCondition[] BY_CODE;
+
+    static {
+        int maxCode = 0;
+        for (AlertCondition condition : values()) {
+            BY_LABEL.put(condition.label, condition);
+            maxCode = Math.max(maxCode, condition.code);
+        }
+        BY_CODE = new AlertCondition[maxCode + 1];
+        for (AlertCondition condition : values()) {
+            BY_CODE[condition.code] = condition;
+        }
+    }
+
+    private final int code;
+    private final String label;
+
+    AlertCondition(int code, String label) {
+        this.code = code;
+        this.label = label;
+    }
+
+    /**
+     * Returns the stable numeric code of the condition.
+     *
+     * @return the code
+     */
+    public int getCode() {
+        return code;
+    }
+
+    /**
+     * Returns the label used in alert messages.
+     *
+     * @return the label
+     */
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * Looks up a condition by its code.
+     *
+     * @param code the numeric code
+     * @return the condition, or {@link #OTHER} if the code is unknown
+     */
+    public static AlertCondition fromCode(int code) {
+        if (code < 0 || code >= BY_CODE.length || BY_CODE[code] == null) {
+            return OTHER;
+        }
+        return BY_CODE[code];
+    }
+
+    /**
+     * Looks up a condition by its alert message label.
+     *
+     * @param label the label, e.g. "Low Saturation Alert"
+     * @return the condition, or {@link #OTHER} if the label is unknown
+     */
+    public static AlertCondition fromLabel(String label) {
+        AlertCondition condition = label == null ? null : BY_LABEL.get(label);
+        return condition == null ? OTHER : condition;
+    }
+}
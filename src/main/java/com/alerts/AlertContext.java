@@ -0,0 +1,157 @@
+package com.alerts;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.alerts.rules.AlertRuleTable;
+import com.data_management.DataStorage;
+import com.data_management.PatientRecord;
+
+/**
+ * A snapshot of one patient's recent records, fetched once and shared by every alert check
+ * of an evaluation. The records are sorted by timestamp and partitioned by record type, so
+ * a strategy can take the slice it needs without querying the data storage again.
+ */
+public class AlertContext {
+    private final int patientId;
+    private final long currentTime;
+    private final AlertRuleTable rules;
+    private final List<PatientRecord> sortedRecords;
+    private final Map<String, List<PatientRecord>> recordsByType;
+
+    /**
+     * Constructs a context from records that were already fetched.
+     *
+     * @param patientId   the ID of the patient the records belong to
+     * @param currentTime the time the evaluation runs at, in milliseconds since epoch
+     * @param rules       the rules every check of this evaluation should use
+     * @param records     the patient's records in the evaluation window, in any order
+     */
+    public AlertContext(int patientId, long currentTime, AlertRuleTable rules, List<PatientRecord> records) {
+        this.patientId = patientId;
+        this.currentTime = currentTime;
+        this.rules = rules;
+        this.recordsByType = new HashMap<>();
+
+        // Sorting first keeps every partition in timestamp order
+        List<PatientRecord> sorted = new ArrayList<>(records);
+        sorted.sort(Comparator.comparingLong(PatientRecord::getTimestamp));
+        this.sortedRecords = sorted;
+        for (PatientRecord record : sorted) {
+            recordsByType.computeIfAbsent(record.getRecordType(), k -> new ArrayList<>()).add(record);
+        }
+    }
+
+    /**
+     * Fetches a patient's records for the longest window of the given rules.
+     *
+     * @param dataStorage the storage to fetch from
+     * @param patientId   the ID of the patient
+     * @param rules       the rules the evaluation uses
+     * @return the context holding the fetched records
+     */
+    public static AlertContext fetch(DataStorage dataStorage, int patientId, AlertRuleTable rules) {
+        return fetch(dataStorage, patientId, rules, rules.getMaxWindowMillis());
+    }
+
+    /**
+     * Fetches a patient's records for the given window.
+     *
+     * @param dataStorage  the storage to fetch from
+     * @param patientId    the ID of the patient
+     * @param rules        the rules the evaluation uses
+     * @param windowMillis how far back to fetch, in milliseconds
+     * @return the context holding the fetched records
+     */
+    public static AlertContext fetch(DataStorage dataStorage, int patientId, AlertRuleTable rules, long windowMillis) {
+        long currentTime = System.currentTimeMillis();
+        List<PatientRecord> records = dataStorage.getRecords(patientId, currentTime - windowMillis, currentTime);
+        return new AlertContext(patientId, currentTime, rules, records);
+    }
+
+    /**
+     * Returns the ID of the patient the records belong to.
+     *
+     * @return the patient ID
+     */
+    public int getPatientId() {
+        return patientId;
+    }
+
+    /**
+     * Returns the time the evaluation runs at.
+     *
+     * @return the current time in milliseconds since epoch
+     */
+    public long getCurrentTime() {
+        return currentTime;
+    }
+
+    /**
+     * Returns the rules every check of this evaluation should use.
+     *
+     * @return the rule table
+     */
+    public AlertRuleTable getRules() {
+        return rules;
+    }
+
+    /**
+     * Returns all records of a type, sorted by timestamp.
+     *
+     * @param recordType the record type, e.g. "ECG"
+     * @return an unmodifiable list of records, empty if there are none
+     */
+    public List<PatientRecord> getRecords(String recordType) {
+        List<PatientRecord> records = recordsByType.get(recordType);
+        return records == null ? Collections.emptyList() : Collections.unmodifiableList(records);
+    }
+
+    /**
+     * Returns the records of a type taken at or after the given time, sorted by timestamp.
+     *
+     * @param recordType the record type, e.g. "ECG"
+     * @param startTime  the earliest timestamp to include, in milliseconds since epoch
+     * @return an unmodifiable list of records, empty if there are none
+     */
+    public List<PatientRecord> getRecords(String recordType, long startTime) {
+        List<PatientRecord> records = getRecords(recordType);
+        return records.subList(firstIndexAtOrAfter(records, startTime), records.size());
+    }
+
+    /**
+     * Returns the records of all types taken at or after the given time, sorted by timestamp.
+     *
+     * @param startTime the earliest timestamp to include, in milliseconds since epoch
+     * @return an unmodifiable list of records, empty if there are none
+     */
+    public List<PatientRecord> getAllRecords(long startTime) {
+        List<PatientRecord> records = Collections.unmodifiableList(sortedRecords);
+        return records.subList(firstIndexAtOrAfter(records, startTime), records.size());
+    }
+
+    /**
+     * Finds the first record with a timestamp at or after the given time.
+     *
+     * @param records   records sorted by timestamp
+     * @param startTime the time to search for
+     * @return the index of the first matching record, or the list size if there is none
+     */
+    private static int firstIndexAtOrAfter(List<PatientRecord> records, long startTime) {
+        int low = 0;
+        int high = records.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (records.get(mid).getTimestamp() < startTime) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
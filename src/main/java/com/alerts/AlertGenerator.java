@@ -1,19 +1,50 @@
 package com.alerts;
 
+import com.alerts.dispatch.PriorityAlertDispatcher;
+import com.alerts.factories.AlertFactory;
+import com.alerts.journal.AlertJournal;
+import com.alerts.factories.BloodOxygenAlertFactory;
+import com.alerts.factories.BloodPressureAlertFactory;
+import com.alerts.factories.CompoundAlertFactory;
+import com.alerts.factories.ECGAlertFactory;
+import com.alerts.rules.AlertRuleRegistry;
+import com.alerts.rules.AlertRuleTable;
+import com.alerts.rules.CompoundRule;
 import com.data_management.DataStorage;
 import com.data_management.Patient;
 import com.data_management.PatientRecord;
-import java.util.Comparator;
+import java.io.IOException;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Handles the generation of medical alerts based on patient data analysis. This class evaluates various health
  * indicators such as blood pressure, oxygen saturation, and ECG readings to detect conditions requiring urgent attention.
  */
 public class AlertGenerator {
+    /** Creates blood pressure alerts with their severity. */
+    protected static final AlertFactory BLOOD_PRESSURE_ALERTS = new BloodPressureAlertFactory();
+    /** Creates blood oxygen alerts with their severity. */
+    protected static final AlertFactory BLOOD_OXYGEN_ALERTS = new BloodOxygenAlertFactory();
+    /** Creates ECG alerts with their severity. */
+    protected static final AlertFactory ECG_ALERTS = new ECGAlertFactory();
+    /** Creates alerts that correlate several vital signs with their severity. */
+    protected static final AlertFactory COMPOUND_ALERTS = new CompoundAlertFactory();
+
+    // Pressure conditions indexed by the rule table code of the channel
+    private static final AlertCondition[] CRITICAL_PRESSURE = {AlertCondition.SYSTOLIC_CRITICAL, AlertCondition.DIASTOLIC_CRITICAL};
+    private static final AlertCondition[] INCREASING_PRESSURE = {AlertCondition.SYSTOLIC_INCREASING_TREND, AlertCondition.DIASTOLIC_INCREASING_TREND};
+    private static final AlertCondition[] DECREASING_PRESSURE = {AlertCondition.SYSTOLIC_DECREASING_TREND, AlertCondition.DIASTOLIC_DECREASING_TREND};
+
     private DataStorage dataStorage;
     private AlertStrategy strategy;
+    private PriorityAlertDispatcher dispatcher;
+    private AlertJournal journal;
+    private final Map<Integer, EcgStream> ecgStreams = new ConcurrentHashMap<>();
+    // One stream per pressure channel, indexed by the rule table code
+    private final Map<Integer, PressureStream[]> pressureStreams = new ConcurrentHashMap<>();
+    private final Map<Integer, WindowedJoin> joins = new ConcurrentHashMap<>();
 
 
     /**
@@ -37,9 +68,29 @@ public class AlertGenerator {
         this.strategy = strategy;
     }
 
+    /**
+     * Routes triggered alerts through a priority dispatcher instead of logging them
+     * immediately, so that severe alerts overtake less severe ones under load.
+     *
+     * @param dispatcher the dispatcher to submit alerts to, or null to log alerts immediately
+     */
+    public void setDispatcher(PriorityAlertDispatcher dispatcher) {
+        this.dispatcher = dispatcher;
+    }
+
+    /**
+     * Records every triggered alert in the given journal so it can be queried later.
+     *
+     * @param journal the journal to append alerts to, or null to not record alerts
+     */
+    public void setJournal(AlertJournal journal) {
+        this.journal = journal;
+    }
+
     /**
      * Evaluates patient data to determine if any alert conditions are met.
-     * If a condition is met, an alert is triggered.
+     * If a condition is met, an alert is triggered. The patient's records are fetched
+     * once and shared by all checks.
      *
      * @param patient the patient data to evaluate for alert conditions
      * @throws NullPointerException if the patient object is null, indicating no patient data is available for analysis
@@ -49,12 +100,23 @@ public class AlertGenerator {
             throw new NullPointerException("Patient data is null.");
         }
 
+        AlertContext context = AlertContext.fetch(dataStorage, patient.getPatientId(), currentRules());
+        evaluateBloodPressure(patient, context);
+        evaluateBloodOxygen(patient, context);
+        evaluateECGData(patient, context);
+        evaluateCompoundRules(patient, context);
+    }
 
-
-        evaluateBloodPressure(patient);
-        evaluateBloodOxygen(patient);
-        evaluateECGData(patient);
-        evaluateHypotensiveHypoxemia(patient);
+    /**
+     * Drops the streaming state kept for a patient, e.g. once the patient is discharged.
+     * The ECG and pressure state is also dropped when an evaluation finds no readings in its window.
+     *
+     * @param patientId the ID of the patient
+     */
+    public void forgetPatient(int patientId) {
+        ecgStreams.remove(patientId);
+        pressureStreams.remove(patientId);
+        joins.remove(patientId);
     }
 
     /**
@@ -70,29 +132,44 @@ public class AlertGenerator {
             throw new NullPointerException("Strategy must not be null.");
         }
         // using strategy pattern instead of method calls
-        System.out.println(strategy);
         strategy.checkAlert(patient);
     }
 
 
 
     /**
-     * Evaluates the patient's recent blood pressure and oxygen saturation to identify hypotensive hypoxemia conditions.
+     * Evaluates the compound rules, e.g. hypotensive hypoxemia, by feeding the patient's new
+     * readings of all types into the patient's streaming join. Each reading costs constant
+     * time; readings older than the last evaluation are not fed again.
      *
      * @param patient the patient to evaluate
+     * @param context the prefetched records of the patient
      */
-    private void evaluateHypotensiveHypoxemia(Patient patient) {
-        long currentTime = System.currentTimeMillis();
-        List<PatientRecord> recentRecords = dataStorage.getRecords(patient.getPatientId(), currentTime - 600000, currentTime);
-
-        boolean lowBP = recentRecords.stream()
-            .anyMatch(r -> "SystolicPressure".equals(r.getRecordType()) && r.getMeasurementValue() < 90);
-
-        boolean lowSaturation = recentRecords.stream()
-            .anyMatch(r -> "Saturation".equals(r.getRecordType()) && r.getMeasurementValue() < 92);
+    private void evaluateCompoundRules(Patient patient, AlertContext context) {
+        List<CompoundRule> compoundRules = context.getRules().getCompoundRules();
+        if (compoundRules.isEmpty()) {
+            return;
+        }
+        long maxWindow = 0;
+        for (CompoundRule rule : compoundRules) {
+            maxWindow = Math.max(maxWindow, rule.getWindowMillis());
+        }
 
-        if (lowBP && lowSaturation) {
-            triggerAlert(new Alert(Integer.toString(patient.getPatientId()), "Hypotensive Hypoxemia Alert", currentTime));
+        WindowedJoin join = joins.computeIfAbsent(patient.getPatientId(), id -> new WindowedJoin());
+        int[] fired = new int[compoundRules.size()];
+        synchronized (join) {
+            for (PatientRecord record : context.getAllRecords(context.getCurrentTime() - maxWindow)) {
+                // Readings of different types may share the last timestamp, so only strictly older ones are skipped
+                if (record.getTimestamp() < join.getLastTimestamp()) {
+                    continue;
+                }
+                int count = join.update(compoundRules, AlertRuleTable.typeIndex(record.getRecordType()),
+                        record.getMeasurementValue(), record.getTimestamp(), fired);
+                for (int i = 0; i < count; i++) {
+                    triggerAlert(COMPOUND_ALERTS.acquire(patient.getPatientId(), compoundRules.get(fired[i]).getCondition(),
+                            record.getTimestamp()));
+                }
+            }
         }
     }
 
@@ -100,84 +177,118 @@ public class AlertGenerator {
      * Evaluates blood pressure records to detect any critical conditions or trends that require attention.
      *
      * @param patient the patient whose blood pressure is monitored
+     * @param context the prefetched records of the patient
      */
-    private void evaluateBloodPressure(Patient patient) {
-        long currentTime = System.currentTimeMillis();
-        long oneDayAgo = currentTime - 86400000;
-    
-        List<PatientRecord> systolicRecords = dataStorage.getRecords(patient.getPatientId(), oneDayAgo, currentTime)
-            .stream()
-            .filter(r -> "SystolicPressure".equals(r.getRecordType()))
-            .sorted(Comparator.comparingLong(PatientRecord::getTimestamp).reversed())
-            .collect(Collectors.toList());
+    private void evaluateBloodPressure(Patient patient, AlertContext context) {
+        AlertRuleTable rules = context.getRules();
+        long currentTime = context.getCurrentTime();
     
-        List<PatientRecord> diastolicRecords = dataStorage.getRecords(patient.getPatientId(), oneDayAgo, currentTime)
-            .stream()
-            .filter(r -> "DiastolicPressure".equals(r.getRecordType()))
-            .sorted(Comparator.comparingLong(PatientRecord::getTimestamp).reversed())
-            .collect(Collectors.toList());
+        List<PatientRecord> systolicRecords = context.getRecords("SystolicPressure",
+                currentTime - rules.getWindowMillis(AlertRuleTable.SYSTOLIC));
+        List<PatientRecord> diastolicRecords = context.getRecords("DiastolicPressure",
+                currentTime - rules.getWindowMillis(AlertRuleTable.DIASTOLIC));
     
-        if (!systolicRecords.isEmpty()) {
-            checkAndTriggerPressureAlerts(systolicRecords, "Systolic", currentTime, patient);
-        }
-        if (!diastolicRecords.isEmpty()) {
-            checkAndTriggerPressureAlerts(diastolicRecords, "Diastolic", currentTime, patient);
-        }
+        checkPressureReadings(patient, systolicRecords, AlertRuleTable.SYSTOLIC, rules);
+        checkPressureReadings(patient, diastolicRecords, AlertRuleTable.DIASTOLIC, rules);
     }
     
-    private void checkAndTriggerPressureAlerts(List<PatientRecord> records, String type, long currentTime, Patient patient) {
-        // Check critical thresholds
-        for (PatientRecord record : records) {
-            if ((type.equals("Systolic") && (record.getMeasurementValue() > 180 || record.getMeasurementValue() < 90))) {
-                triggerAlert(new Alert(Integer.toString(patient.getPatientId()), "Critical Pressure Threshold Alert (Systolic)", record.getTimestamp()));
-            }
-            if ((type.equals("Diastolic") && (record.getMeasurementValue() > 120 || record.getMeasurementValue() < 60))) {
-                triggerAlert(new Alert(Integer.toString(patient.getPatientId()), "Critical Pressure Threshold Alert (Diastolic)", record.getTimestamp()));
-            }
+    /**
+     * Feeds pressure readings that arrived since the last evaluation into the patient's
+     * trend detector for the channel and checks each of them against the critical
+     * thresholds. The first unchecked reading is found with a binary search, so an
+     * evaluation costs constant time per new reading instead of a pass over the window. A
+     * reading that arrives late is still checked against the thresholds, but does not
+     * change the trend. Without readings in the window the state of the channel is dropped.
+     *
+     * @param patient   the patient whose blood pressure is monitored
+     * @param records   the readings of one channel, oldest first
+     * @param typeIndex the rule table code of the pressure type
+     * @param rules     the rules to check against
+     */
+    protected void checkPressureReadings(Patient patient, List<PatientRecord> records, int typeIndex, AlertRuleTable rules) {
+        if (records.isEmpty()) {
+            pressureStreams.computeIfPresent(patient.getPatientId(), (id, streams) -> {
+                streams[typeIndex] = null;
+                return streams[AlertRuleTable.SYSTOLIC] == null && streams[AlertRuleTable.DIASTOLIC] == null ? null : streams;
+            });
+            return;
         }
-    
-        // Check trends
-        if (records.size() >= 3) {
-            boolean increasing = true;
-            boolean decreasing = true;
-            for (int i = 0; i < records.size() - 1; i++) {
-                increasing &= (records.get(i).getMeasurementValue() - records.get(i + 1).getMeasurementValue() > 10);
-                decreasing &= (records.get(i + 1).getMeasurementValue() - records.get(i).getMeasurementValue() > 10);
+        PressureStream stream = pressureStreams.compute(patient.getPatientId(), (id, streams) -> {
+            if (streams == null) {
+                streams = new PressureStream[2];
             }
-    
-            if (increasing) {
-                triggerAlert(new Alert(Integer.toString(patient.getPatientId()), type + "Pressure Increasing Trend Alert", currentTime));
+            if (streams[typeIndex] == null) {
+                streams[typeIndex] = new PressureStream();
             }
-            if (decreasing) {
-                triggerAlert(new Alert(Integer.toString(patient.getPatientId()), type + "Pressure Decreasing Trend Alert", currentTime));
+            return streams;
+        })[typeIndex];
+        double trendDelta = rules.getTrendDelta(typeIndex);
+        int trendLength = rules.getTrendLength(typeIndex);
+        double trendSlope = rules.getTrendSlope(typeIndex);
+
+        synchronized (stream) {
+            RecordCursor cursor = stream.cursor;
+            PressureTrendDetector detector = stream.detector;
+            long lastChecked = cursor.getLastTimestamp();
+            for (int i = cursor.start(records); i < records.size(); i++) {
+                PatientRecord record = records.get(i);
+                if (cursor.isChecked(record.getTimestamp())) {
+                    continue; // already checked by an earlier evaluation
+                }
+
+                // Check critical thresholds
+                if (rules.isCritical(typeIndex, record.getMeasurementValue())) {
+                    triggerAlert(BLOOD_PRESSURE_ALERTS.acquire(patient.getPatientId(), CRITICAL_PRESSURE[typeIndex], record.getTimestamp()));
+                }
+                if (record.getTimestamp() <= lastChecked) {
+                    continue; // arrived late, the trend has moved past it
+                }
+
+                // Check trends
+                int trend = detector.update(record.getTimestamp(), record.getMeasurementValue(), trendDelta, trendLength, trendSlope);
+                if (trend == PressureTrendDetector.INCREASING) {
+                    triggerAlert(BLOOD_PRESSURE_ALERTS.acquire(patient.getPatientId(), INCREASING_PRESSURE[typeIndex], record.getTimestamp()));
+                } else if (trend == PressureTrendDetector.DECREASING) {
+                    triggerAlert(BLOOD_PRESSURE_ALERTS.acquire(patient.getPatientId(), DECREASING_PRESSURE[typeIndex], record.getTimestamp()));
+                }
             }
+            cursor.finish(records);
         }
     }
-    
+
     /**
      * Evaluates oxygen saturation data to detect critically low levels or rapid decreases that may indicate a respiratory issue.
      *
      * @param patient the patient whose oxygen saturation levels are being monitored
      */
     public void evaluateBloodOxygen(Patient patient) {
-        long currentTime = System.currentTimeMillis();
-        List<PatientRecord> records = dataStorage.getRecords(patient.getPatientId(), currentTime - 600000, currentTime)
-            .stream()
-            .filter(r -> "Saturation".equals(r.getRecordType()))
-            .sorted(Comparator.comparingLong(PatientRecord::getTimestamp))
-            .collect(Collectors.toList());
+        AlertRuleTable rules = currentRules();
+        evaluateBloodOxygen(patient, AlertContext.fetch(dataStorage, patient.getPatientId(), rules,
+                rules.getWindowMillis(AlertRuleTable.SATURATION)));
+    }
+
+    /**
+     * Evaluates prefetched oxygen saturation data for critically low levels or rapid decreases.
+     *
+     * @param patient the patient whose oxygen saturation levels are being monitored
+     * @param context the prefetched records of the patient
+     */
+    private void evaluateBloodOxygen(Patient patient, AlertContext context) {
+        AlertRuleTable rules = context.getRules();
+        List<PatientRecord> records = context.getRecords("Saturation",
+                context.getCurrentTime() - rules.getWindowMillis(AlertRuleTable.SATURATION));
     
         for (PatientRecord record : records) {
-            if (record.getMeasurementValue() < 92) {
-                triggerAlert(new Alert(Integer.toString(patient.getPatientId()), "Low Saturation Alert", record.getTimestamp()));
+            if (rules.isBelow(AlertRuleTable.SATURATION, record.getMeasurementValue())) {
+                triggerAlert(BLOOD_OXYGEN_ALERTS.acquire(patient.getPatientId(), AlertCondition.LOW_SATURATION, record.getTimestamp()));
                 break; // Ensure only the first applicable alert is triggered
             }
         }
     
         for (int i = 1; i < records.size(); i++) {
             double dropPercentage = 100.0 * (records.get(i - 1).getMeasurementValue() - records.get(i).getMeasurementValue()) / records.get(i - 1).getMeasurementValue();
-            if (dropPercentage >= 5) {
-                triggerAlert(new Alert(Integer.toString(patient.getPatientId()), "Rapid Blood Oxygen Drop Alert", records.get(i).getTimestamp()));
+            if (dropPercentage >= rules.getDropPercent(AlertRuleTable.SATURATION)) {
+                triggerAlert(BLOOD_OXYGEN_ALERTS.acquire(patient.getPatientId(), AlertCondition.RAPID_OXYGEN_DROP, records.get(i).getTimestamp()));
                 break; // Ensure proper alert sequence
             }
         }
@@ -189,61 +300,158 @@ public class AlertGenerator {
      * Evaluates ECG data for abnormal heart rates or irregular beat patterns.
      *
      * @param patient the patient whose ECG data is being analyzed
+     * @param context the prefetched records of the patient
      */
-    private void evaluateECGData(Patient patient) {
-        long currentTime = System.currentTimeMillis();
-        long oneHourAgo = currentTime - 3600000;
-        List<PatientRecord> ecgRecords = dataStorage.getRecords(patient.getPatientId(), oneHourAgo, currentTime)
-            .stream()
-            .filter(r -> "ECG".equals(r.getRecordType()))
-            .sorted(Comparator.comparingLong(PatientRecord::getTimestamp))
-            .collect(Collectors.toList());
+    private void evaluateECGData(Patient patient, AlertContext context) {
+        AlertRuleTable rules = context.getRules();
+        List<PatientRecord> ecgRecords = context.getRecords("ECG",
+                context.getCurrentTime() - rules.getWindowMillis(AlertRuleTable.ECG));
     
+        checkEcgSamples(patient, ecgRecords, rules);
+    }
+
+    /**
+     * Feeds ECG samples that arrived since the last evaluation into the patient's streaming
+     * interval statistics and checks each of them for an abnormal rate or an irregular
+     * interval. The first unchecked sample is found with a binary search, so an evaluation
+     * costs constant time per new sample plus a logarithmic search instead of a pass over
+     * the window. A sample that arrives late is still checked for an abnormal rate, but its
+     * interval is not compared. Without samples in the window the patient's state is dropped.
+     *
+     * @param patient    the patient whose ECG data is being analyzed
+     * @param ecgRecords the patient's ECG records, oldest first
+     * @param rules      the rules to check against
+     */
+    protected void checkEcgSamples(Patient patient, List<PatientRecord> ecgRecords, AlertRuleTable rules) {
         if (ecgRecords.isEmpty()) {
+            ecgStreams.remove(patient.getPatientId());
             return;
         }
-    
-        // Check for abnormal heart rate
-        for (PatientRecord record : ecgRecords) {
-            if (record.getMeasurementValue() < 50 || record.getMeasurementValue() > 100) {
-                triggerAlert(new Alert(Integer.toString(patient.getPatientId()), "Abnormal Heart Rate Alert", record.getTimestamp()));
+        EcgStream stream = ecgStreams.computeIfAbsent(patient.getPatientId(), id -> new EcgStream());
+        long windowMillis = rules.getWindowMillis(AlertRuleTable.ECG);
+        double tolerance = rules.getIntervalTolerance(AlertRuleTable.ECG);
+        boolean irregularReported = false;
+
+        synchronized (stream) {
+            RecordCursor cursor = stream.cursor;
+            EcgIntervalStatistics statistics = stream.statistics;
+            long lastChecked = cursor.getLastTimestamp();
+            for (int i = cursor.start(ecgRecords); i < ecgRecords.size(); i++) {
+                PatientRecord record = ecgRecords.get(i);
+                if (cursor.isChecked(record.getTimestamp())) {
+                    continue; // already checked by an earlier evaluation
+                }
+
+                // Check for abnormal heart rate
+                if (rules.isCritical(AlertRuleTable.ECG, record.getMeasurementValue())) {
+                    triggerAlert(ECG_ALERTS.acquire(patient.getPatientId(), AlertCondition.ABNORMAL_HEART_RATE, record.getTimestamp()));
+                }
+                if (record.getTimestamp() <= lastChecked) {
+                    continue; // arrived late, the intervals around it were already measured
+                }
+
+                // Compare the interval to the running mean; report only the first irregular beat per evaluation
+                if (!irregularReported && statistics.isIrregular(record.getTimestamp(), tolerance)) {
+                    triggerAlert(ECG_ALERTS.acquire(patient.getPatientId(), AlertCondition.IRREGULAR_BEAT, record.getTimestamp()));
+                    irregularReported = true;
+                }
+                statistics.add(record.getTimestamp(), windowMillis);
             }
+            cursor.finish(ecgRecords);
         }
-    
-        // Calculate the average interval and determine irregularities
-        double averageInterval = calculateAverageInterval(ecgRecords);
-        double allowableVariation = averageInterval * 0.1; // Allowing 10% variation
-    
-        PatientRecord previousRecord = ecgRecords.get(0);
-        for (int i = 1; i < ecgRecords.size(); i++) {
-            PatientRecord currentRecord = ecgRecords.get(i);
-            long intervalDifference = Math.abs(currentRecord.getTimestamp() - previousRecord.getTimestamp());
-    
-            if (Math.abs(intervalDifference - averageInterval) > allowableVariation) {
-                triggerAlert(new Alert(Integer.toString(patient.getPatientId()), "Irregular Beat Alert", currentRecord.getTimestamp()));
-                break;
+    }
+
+    /**
+     * Returns the alert rules currently in effect. Each evaluation reads them once so that
+     * a concurrent rule reload never mixes old and new thresholds within one evaluation.
+     *
+     * @return the current rule table
+     */
+    protected AlertRuleTable currentRules() {
+        return AlertRuleRegistry.getInstance().current();
+    }
+
+    /**
+     * Triggers an alert based on identified conditions. The alert is recorded in the journal
+     * if one is set. If a dispatcher is set the alert is queued by severity, otherwise the
+     * alert details are logged immediately.
+     *
+     * @param alert the alert to be triggered
+     */
+    public void triggerAlert(Alert alert) {
+        if (journal != null) {
+            try {
+                journal.append(alert);
+            } catch (IOException | IllegalArgumentException e) {
+                // A journal failure must not keep the alert from being raised
+                System.err.println("Error recording alert in journal: " + e.getMessage());
             }
-            previousRecord = currentRecord;
         }
-    }
-    
-    private double calculateAverageInterval(List<PatientRecord> ecgRecords) {
-        long totalInterval = 0;
-        for (int i = 1; i < ecgRecords.size(); i++) {
-            totalInterval += (ecgRecords.get(i).getTimestamp() - ecgRecords.get(i - 1).getTimestamp());
+        if (dispatcher != null) {
+            dispatcher.submit(alert);
+            return;
         }
-        return totalInterval / (double)(ecgRecords.size() - 1);
+        logAlert(alert);
     }
-    
-    
-    
 
     /**
-     * Triggers an alert based on identified conditions and logs the alert details.
+     * Triggers a compact alert. The alert is recorded in the journal if one is set. If a
+     * dispatcher is set the alert is queued by severity, otherwise the alert details are
+     * logged immediately. The generator takes ownership of the alert and releases it to
+     * the pool once it is consumed.
      *
      * @param alert the alert to be triggered
      */
-    public void triggerAlert(Alert alert) {
+    public void triggerAlert(CompactAlert alert) {
+        if (journal != null) {
+            try {
+                journal.append(alert);
+            } catch (IOException e) {
+                // A journal failure must not keep the alert from being raised
+                System.err.println("Error recording alert in journal: " + e.getMessage());
+            }
+        }
+        if (dispatcher != null) {
+            dispatcher.submit(alert);
+            return;
+        }
+        logAlert(alert);
+        AlertFactory.release(alert);
+    }
+
+    /**
+     * Logs the details of a compact alert. This is where its message is built.
+     *
+     * @param alert the alert to log
+     */
+    public static void logAlert(CompactAlert alert) {
+        System.out.println("Alert triggered: " + alert.getCondition().getLabel() + " for patient " + alert.getPatientId() + " at " + alert.getTimestamp());
+    }
+
+    /**
+     * Logs the alert details.
+     *
+     * @param alert the alert to log
+     */
+    public static void logAlert(Alert alert) {
         System.out.println("Alert triggered: " + alert.getCondition() + " for patient " + alert.getPatientId() + " at " + alert.getTimestamp());
     }
+
+    /**
+     * The streaming state of a patient's ECG: which samples were checked and the statistics
+     * of the intervals between them.
+     */
+    private static final class EcgStream {
+        private final RecordCursor cursor = new RecordCursor();
+        private final EcgIntervalStatistics statistics = new EcgIntervalStatistics();
+    }
+
+    /**
+     * The streaming state of one pressure channel of a patient: which readings were checked
+     * and the trend they form.
+     */
+    private static final class PressureStream {
+        private final RecordCursor cursor = new RecordCursor();
+        private final PressureTrendDetector detector = new PressureTrendDetector();
+    }
 }
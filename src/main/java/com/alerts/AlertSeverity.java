@@ -0,0 +1,36 @@
+package com.alerts;
+
+/**
+ * Severity levels of alerts, from least to most urgent. Alerts of a higher severity
+ * are dispatched before alerts of a lower severity.
+ */
+public enum AlertSeverity {
+    /** Informational alerts, e.g. slow trends. */
+    LOW,
+    /** Alerts that need attention but are not urgent. */
+    MEDIUM,
+    /** Alerts for readings outside the safe range. */
+    HIGH,
+    /** Alerts for conditions that are immediately life threatening. */
+    CRITICAL;
+
+    /**
+     * Returns the next more urgent severity, or this severity if it is already the most urgent.
+     *
+     * @return the promoted severity
+     */
+    public AlertSeverity promote() {
+        AlertSeverity[] values = values();
+        return ordinal() + 1 < values.length ? values[ordinal() + 1] : this;
+    }
+
+    /**
+     * Returns the more urgent of two severities.
+     *
+     * @param other the severity to compare with
+     * @return the more urgent severity
+     */
+    public AlertSeverity max(AlertSeverity other) {
+        return other.ordinal() > ordinal() ? other : this;
+    }
+}
@@ -16,4 +16,17 @@ public interface AlertStrategy {
      * @param patient the patient for whom alerts are to be checked
      */
     public void checkAlert(Patient patient);
+
+    /**
+     * Checks for alerts for the given patient using records that were already fetched.
+     * Strategies that can work on the shared context should override this method so that
+     * running several strategies costs a single storage fetch. The default falls back to
+     * {@link #checkAlert(Patient)}, which fetches the records itself.
+     *
+     * @param patient the patient for whom alerts are to be checked
+     * @param context the prefetched records of the patient
+     */
+    public default void checkAlert(Patient patient, AlertContext context) {
+        checkAlert(patient);
+    }
 }
@@ -1,9 +1,8 @@
 package com.alerts;
 
-import java.util.Comparator;
 import java.util.List;
-import java.util.stream.Collectors;
 
+import com.alerts.rules.AlertRuleTable;
 import com.data_management.DataStorage;
 import com.data_management.Patient;
 import com.data_management.PatientRecord;
@@ -35,64 +34,28 @@ public class BloodPressureStrategy extends AlertGenerator implements AlertStrate
      */
     @Override
     public void checkAlert(Patient patient) {
-        long currentTime = System.currentTimeMillis();
-        long oneDayAgo = currentTime - 86400000;
-
-        List<PatientRecord> systolicRecords = dataStorage.getRecords(patient.getPatientId(), oneDayAgo, currentTime)
-            .stream()
-            .filter(r -> "SystolicPressure".equals(r.getRecordType()))
-            .sorted(Comparator.comparingLong(PatientRecord::getTimestamp).reversed())
-            .collect(Collectors.toList());
-
-        List<PatientRecord> diastolicRecords = dataStorage.getRecords(patient.getPatientId(), oneDayAgo, currentTime)
-            .stream()
-            .filter(r -> "DiastolicPressure".equals(r.getRecordType()))
-            .sorted(Comparator.comparingLong(PatientRecord::getTimestamp).reversed())
-            .collect(Collectors.toList());
-
-        if (!systolicRecords.isEmpty()) {
-            checkAndTriggerPressureAlerts(systolicRecords, "Systolic", currentTime, patient);
-        }
-        if (!diastolicRecords.isEmpty()) {
-            checkAndTriggerPressureAlerts(diastolicRecords, "Diastolic", currentTime, patient);
-        }
+        AlertRuleTable rules = currentRules();
+        long window = Math.max(rules.getWindowMillis(AlertRuleTable.SYSTOLIC), rules.getWindowMillis(AlertRuleTable.DIASTOLIC));
+        checkAlert(patient, AlertContext.fetch(dataStorage, patient.getPatientId(), rules, window));
     }
 
     /**
-     * Checks the pressure records against critical thresholds and trends, and
-     * triggers appropriate alerts if conditions are met.
+     * Checks for blood pressure alerts for the given patient using prefetched records.
      *
-     * @param records     the list of patient records to evaluate
-     * @param type        the type of pressure (Systolic or Diastolic)
-     * @param currentTime the current time in milliseconds
-     * @param patient     the patient for whom alerts are to be generated
+     * @param patient the patient for whom alerts are to be checked
+     * @param context the prefetched records of the patient
      */
-    private void checkAndTriggerPressureAlerts(List<PatientRecord> records, String type, long currentTime, Patient patient) {
-        // Check critical thresholds
-        for (PatientRecord record : records) {
-            if ((type.equals("Systolic") && (record.getMeasurementValue() > 180 || record.getMeasurementValue() < 90))) {
-                super.triggerAlert(new Alert(Integer.toString(patient.getPatientId()), "Critical Pressure Threshold Alert (Systolic)", record.getTimestamp()));
-            }
-            if ((type.equals("Diastolic") && (record.getMeasurementValue() > 120 || record.getMeasurementValue() < 60))) {
-                super.triggerAlert(new Alert(Integer.toString(patient.getPatientId()), "Critical Pressure Threshold Alert (Diastolic)", record.getTimestamp()));
-            }
-        }
+    @Override
+    public void checkAlert(Patient patient, AlertContext context) {
+        AlertRuleTable rules = context.getRules();
+        long currentTime = context.getCurrentTime();
 
-        // Check trends
-        if (records.size() >= 3) {
-            boolean increasing = true;
-            boolean decreasing = true;
-            for (int i = 0; i < records.size() - 1; i++) {
-                increasing &= (records.get(i).getMeasurementValue() - records.get(i + 1).getMeasurementValue() > 10);
-                decreasing &= (records.get(i + 1).getMeasurementValue() - records.get(i).getMeasurementValue() > 10);
-            }
+        List<PatientRecord> systolicRecords = context.getRecords("SystolicPressure",
+                currentTime - rules.getWindowMillis(AlertRuleTable.SYSTOLIC));
+        List<PatientRecord> diastolicRecords = context.getRecords("DiastolicPressure",
+                currentTime - rules.getWindowMillis(AlertRuleTable.DIASTOLIC));
 
-            if (increasing) {
-                super.triggerAlert(new Alert(Integer.toString(patient.getPatientId()), type + " Pressure Increasing Trend Alert", currentTime));
-            }
-            if (decreasing) {
-                super.triggerAlert(new Alert(Integer.toString(patient.getPatientId()), type + " Pressure Decreasing Trend Alert", currentTime));
-            }
-        }
+        checkPressureReadings(patient, systolicRecords, AlertRuleTable.SYSTOLIC, rules);
+        checkPressureReadings(patient, diastolicRecords, AlertRuleTable.DIASTOLIC, rules);
     }
 }
@@ -0,0 +1,94 @@
+package com.alerts;
+
+/**
+ * Allocation-free alert representation with an int patient ID and a condition code.
+ * Instances are mutable and pooled by the {@link com.alerts.factories.AlertFactory}
+ * hierarchy; message strings are only built when the alert reaches a sink.
+ *
+ * <p>Whoever receives a compact alert owns it and must release it to the pool with
+ * {@link com.alerts.factories.AlertFactory#release(CompactAlert)} once it is consumed.</p>
+ */
+public final class CompactAlert {
+    private int patientId;
+    private AlertCondition condition;
+    private AlertSeverity severity;
+    private long timestamp;
+    // True while the instance sits in a pool, to catch double releases
+    private boolean pooled;
+
+    /**
+     * Sets all fields of the alert.
+     *
+     * @param patientId the ID of the patient
+     * @param condition the detected condition
+     * @param severity  how urgent the alert is
+     * @param timestamp the time the alert was generated
+     * @return this alert
+     */
+    public CompactAlert set(int patientId, AlertCondition condition, AlertSeverity severity, long timestamp) {
+        this.patientId = patientId;
+        this.condition = condition;
+        this.severity = severity;
+        this.timestamp = timestamp;
+        return this;
+    }
+
+    /**
+     * Gets the ID of the patient.
+     *
+     * @return the patient ID
+     */
+    public int getPatientId() {
+        return patientId;
+    }
+
+    /**
+     * Gets the detected condition.
+     *
+     * @return the condition
+     */
+    public AlertCondition getCondition() {
+        return condition;
+    }
+
+    /**
+     * Gets how urgent the alert is.
+     *
+     * @return the severity
+     */
+    public AlertSeverity getSeverity() {
+        return severity;
+    }
+
+    /**
+     * Gets the time the alert was generated.
+     *
+     * @return the timestamp
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * Creates a string based {@link Alert} with the same content, for sinks that need one.
+     *
+     * @return a new alert
+     */
+    public Alert toAlert() {
+        return new Alert(Integer.toString(patientId), condition.getLabel(), timestamp, severity);
+    }
+
+    /**
+     * Marks the instance as pooled or in use. Used by the pool only.
+     *
+     * @param pooled true when the instance is returned to a pool
+     * @return true if the state changed, false if it already had the given state
+     */
+    public boolean markPooled(boolean pooled) {
+        if (this.pooled == pooled) {
+            return false;
+        }
+        this.pooled = pooled;
+        return true;
+    }
+}
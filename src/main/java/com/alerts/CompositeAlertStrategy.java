@@ -0,0 +1,146 @@
+package com.alerts;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.alerts.rules.AlertRuleRegistry;
+import com.data_management.DataStorage;
+import com.data_management.Patient;
+
+/**
+ * Runs several alert strategies for a patient on one shared snapshot of the patient's
+ * records. The records are fetched once per patient and handed to every registered
+ * strategy, so N strategies cost one storage fetch instead of N. The CPU time spent
+ * in each strategy is recorded and can be reported.
+ */
+public class CompositeAlertStrategy implements AlertStrategy {
+
+    private static final ThreadMXBean THREAD_MX_BEAN = ManagementFactory.getThreadMXBean();
+
+    private final DataStorage dataStorage;
+    private final List<StrategyStats> strategies = new CopyOnWriteArrayList<>();
+
+    /**
+     * Constructs a CompositeAlertStrategy that fetches records from the given data storage.
+     *
+     * @param dataStorage the data storage to retrieve patient records
+     */
+    public CompositeAlertStrategy(DataStorage dataStorage) {
+        this.dataStorage = dataStorage;
+    }
+
+    /**
+     * Registers a strategy to run for every patient.
+     *
+     * @param strategy the strategy to add
+     */
+    public void addStrategy(AlertStrategy strategy) {
+        if (strategy == null) {
+            throw new NullPointerException("Strategy must not be null.");
+        }
+        strategies.add(new StrategyStats(strategy));
+    }
+
+    /**
+     * Fetches the patient's records once and runs every registered strategy on them.
+     *
+     * @param patient the patient for whom alerts are to be checked
+     */
+    @Override
+    public void checkAlert(Patient patient) {
+        AlertContext context = AlertContext.fetch(dataStorage, patient.getPatientId(),
+                AlertRuleRegistry.getInstance().current());
+        checkAlert(patient, context);
+    }
+
+    /**
+     * Runs every registered strategy on the given records and records its CPU time.
+     *
+     * @param patient the patient for whom alerts are to be checked
+     * @param context the prefetched records of the patient
+     */
+    @Override
+    public void checkAlert(Patient patient, AlertContext context) {
+        for (StrategyStats stats : strategies) {
+            long start = cpuTimeNanos();
+            try {
+                stats.strategy.checkAlert(patient, context);
+            } finally {
+                stats.cpuTimeNanos.add(cpuTimeNanos() - start);
+                stats.invocations.increment();
+            }
+        }
+    }
+
+    /**
+     * Returns the total CPU time spent in a strategy so far.
+     *
+     * @param strategy a registered strategy
+     * @return the CPU time in nanoseconds, or 0 if the strategy is not registered
+     */
+    public long getCpuTimeNanos(AlertStrategy strategy) {
+        for (StrategyStats stats : strategies) {
+            if (stats.strategy == strategy) {
+                return stats.cpuTimeNanos.sum();
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Returns how often a strategy has been run so far.
+     *
+     * @param strategy a registered strategy
+     * @return the number of runs, or 0 if the strategy is not registered
+     */
+    public long getInvocations(AlertStrategy strategy) {
+        for (StrategyStats stats : strategies) {
+            if (stats.strategy == strategy) {
+                return stats.invocations.sum();
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Prints the number of runs and the CPU time of every registered strategy.
+     */
+    public void printReport() {
+        for (StrategyStats stats : strategies) {
+            long invocations = stats.invocations.sum();
+            long cpuTime = stats.cpuTimeNanos.sum();
+            System.out.printf("%s: %d checks, %.3f ms CPU total, %.1f us per check%n",
+                    stats.strategy.getClass().getSimpleName(), invocations, cpuTime / 1e6,
+                    invocations == 0 ? 0.0 : cpuTime / 1e3 / invocations);
+        }
+    }
+
+    /**
+     * Returns the CPU time of the current thread, or the wall clock time if the JVM does
+     * not support measuring thread CPU time.
+     *
+     * @return a time in nanoseconds
+     */
+    private static long cpuTimeNanos() {
+        if (THREAD_MX_BEAN.isCurrentThreadCpuTimeSupported()) {
+            return THREAD_MX_BEAN.getCurrentThreadCpuTime();
+        }
+        return System.nanoTime();
+    }
+
+    /**
+     * A registered strategy together with its counters.
+     */
+    private static class StrategyStats {
+        private final AlertStrategy strategy;
+        private final LongAdder cpuTimeNanos = new LongAdder();
+        private final LongAdder invocations = new LongAdder();
+
+        StrategyStats(AlertStrategy strategy) {
+            this.strategy = strategy;
+        }
+    }
+}
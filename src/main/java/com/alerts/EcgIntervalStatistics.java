@@ -0,0 +1,153 @@
+package com.alerts;
+
+/**
+ * Streaming statistics of the intervals between successive ECG samples of one patient.
+ * The running mean and variance are kept with Welford's algorithm over a rolling time
+ * window, so adding a sample and checking it for irregularity take constant time instead
+ * of a pass over all recent records.
+ *
+ * <p>Instances are not thread safe; callers synchronize on the instance.</p>
+ */
+public class EcgIntervalStatistics {
+
+    // Ring buffer of the intervals in the window and the timestamps they end at
+    private long[] endTimes = new long[16];
+    private long[] intervals = new long[16];
+    private int head;
+    private int size;
+
+    private long lastTimestamp = Long.MIN_VALUE;
+    private double mean;
+    private double m2;
+
+    /**
+     * Returns the timestamp of the newest sample seen so far.
+     *
+     * @return the timestamp in milliseconds, or {@link Long#MIN_VALUE} if no sample was added
+     */
+    public long getLastTimestamp() {
+        return lastTimestamp;
+    }
+
+    /**
+     * Returns the number of intervals currently in the window.
+     *
+     * @return the interval count
+     */
+    public int getCount() {
+        return size;
+    }
+
+    /**
+     * Returns the mean of the intervals in the window.
+     *
+     * @return the mean interval in milliseconds, or 0 if there are none
+     */
+    public double getMean() {
+        return mean;
+    }
+
+    /**
+     * Returns the sample variance of the intervals in the window.
+     *
+     * @return the variance in square milliseconds, or 0 if there are fewer than two intervals
+     */
+    public double getVariance() {
+        return size < 2 ? 0 : m2 / (size - 1);
+    }
+
+    /**
+     * Checks whether a sample at the given time would end an interval that deviates from the
+     * mean interval by more than the given fraction of the mean. Call this before
+     * {@link #add(long, long)} so the sample is compared against the intervals before it.
+     *
+     * @param timestamp the timestamp of the new sample in milliseconds
+     * @param tolerance the allowed deviation as a fraction of the mean interval
+     * @return true if the interval is irregular, false if it is regular or there is no baseline yet
+     */
+    public boolean isIrregular(long timestamp, double tolerance) {
+        if (size == 0 || lastTimestamp == Long.MIN_VALUE) {
+            return false;
+        }
+        long interval = timestamp - lastTimestamp;
+        return Math.abs(interval - mean) > mean * tolerance;
+    }
+
+    /**
+     * Adds a sample, recording the interval to the previous sample and evicting intervals
+     * that ended before the start of the window. Samples that are not newer than the last
+     * sample are ignored.
+     *
+     * @param timestamp    the timestamp of the sample in milliseconds
+     * @param windowMillis how long intervals stay in the statistics, in milliseconds
+     */
+    public void add(long timestamp, long windowMillis) {
+        if (timestamp <= lastTimestamp) {
+            return;
+        }
+        evictBefore(timestamp - windowMillis);
+        if (lastTimestamp != Long.MIN_VALUE) {
+            push(timestamp, timestamp - lastTimestamp);
+        }
+        lastTimestamp = timestamp;
+    }
+
+    /**
+     * Removes all intervals that ended before the given time.
+     *
+     * @param startTime the start of the window in milliseconds
+     */
+    private void evictBefore(long startTime) {
+        while (size > 0 && endTimes[head] < startTime) {
+            long interval = intervals[head];
+            head = (head + 1) % endTimes.length;
+            size--;
+
+            // Welford's update run backwards
+            if (size == 0) {
+                mean = 0;
+                m2 = 0;
+            } else {
+                double previousMean = mean;
+                mean = (mean * (size + 1) - interval) / size;
+                m2 = Math.max(0, m2 - (interval - previousMean) * (interval - mean));
+            }
+        }
+    }
+
+    /**
+     * Appends an interval to the window and updates the running mean and variance.
+     *
+     * @param endTime  the timestamp the interval ends at
+     * @param interval the interval in milliseconds
+     */
+    private void push(long endTime, long interval) {
+        if (size == endTimes.length) {
+            grow();
+        }
+        int tail = (head + size) % endTimes.length;
+        endTimes[tail] = endTime;
+        intervals[tail] = interval;
+        size++;
+
+        double delta = interval - mean;
+        mean += delta / size;
+        m2 += delta * (interval - mean);
+    }
+
+    /**
+     * Doubles the capacity of the ring buffer, moving the oldest interval to index 0.
+     */
+    private void grow() {
+        long[] newEndTimes = new long[endTimes.length * 2];
+        long[] newIntervals = new long[intervals.length * 2];
+        for (int i = 0; i < size; i++) {
+            int index = (head + i) % endTimes.length;
+            newEndTimes[i] = endTimes[index];
+            newIntervals[i] = intervals[index];
+        }
+        endTimes = newEndTimes;
+        intervals = newIntervals;
+        head = 0;
+    }
+}
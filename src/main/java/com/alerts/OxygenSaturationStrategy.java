@@ -1,9 +1,8 @@
 package com.alerts;
 
-import java.util.Comparator;
 import java.util.List;
-import java.util.stream.Collectors;
 
+import com.alerts.rules.AlertRuleTable;
 import com.data_management.DataStorage;
 import com.data_management.Patient;
 import com.data_management.PatientRecord;
@@ -35,17 +34,27 @@ public class OxygenSaturationStrategy extends AlertGenerator implements AlertStr
      */
     @Override
     public void checkAlert(Patient patient) {
-        long currentTime = System.currentTimeMillis();
-        List<PatientRecord> records = dataStorage.getRecords(patient.getPatientId(), currentTime - 600000, currentTime)
-            .stream()
-            .filter(r -> "Saturation".equals(r.getRecordType()))
-            .sorted(Comparator.comparingLong(PatientRecord::getTimestamp))
-            .collect(Collectors.toList());
+        AlertRuleTable rules = currentRules();
+        checkAlert(patient, AlertContext.fetch(dataStorage, patient.getPatientId(), rules,
+                rules.getWindowMillis(AlertRuleTable.SATURATION)));
+    }
+
+    /**
+     * Checks for oxygen saturation alerts for the given patient using prefetched records.
+     *
+     * @param patient the patient for whom alerts are to be checked
+     * @param context the prefetched records of the patient
+     */
+    @Override
+    public void checkAlert(Patient patient, AlertContext context) {
+        AlertRuleTable rules = context.getRules();
+        List<PatientRecord> records = context.getRecords("Saturation",
+                context.getCurrentTime() - rules.getWindowMillis(AlertRuleTable.SATURATION));
 
         // Check for low saturation
         for (PatientRecord record : records) {
-            if (record.getMeasurementValue() < 92) {
-                super.triggerAlert(new Alert(Integer.toString(patient.getPatientId()), "Low Saturation Alert", record.getTimestamp()));
+            if (rules.isBelow(AlertRuleTable.SATURATION, record.getMeasurementValue())) {
+                super.triggerAlert(BLOOD_OXYGEN_ALERTS.acquire(patient.getPatientId(), AlertCondition.LOW_SATURATION, record.getTimestamp()));
                 break; // Ensure only the first applicable alert is triggered
             }
         }
@@ -53,8 +62,8 @@ public class OxygenSaturationStrategy extends AlertGenerator implements AlertStr
         // Check for rapid drop in blood oxygen levels
         for (int i = 1; i < records.size(); i++) {
             double dropPercentage = 100.0 * (records.get(i - 1).getMeasurementValue() - records.get(i).getMeasurementValue()) / records.get(i - 1).getMeasurementValue();
-            if (dropPercentage >= 5) {
-                super.triggerAlert(new Alert(Integer.toString(patient.getPatientId()), "Rapid Blood Oxygen Drop Alert", records.get(i).getTimestamp()));
+            if (dropPercentage >= rules.getDropPercent(AlertRuleTable.SATURATION)) {
+                super.triggerAlert(BLOOD_OXYGEN_ALERTS.acquire(patient.getPatientId(), AlertCondition.RAPID_OXYGEN_DROP, records.get(i).getTimestamp()));
                 break; // Ensure proper alert sequence
             }
         }
@@ -0,0 +1,172 @@
+package com.alerts;
+
+/**
+ * Incremental trend detector for one blood pressure channel of one patient. Every reading
+ * updates the length of the current increasing and decreasing runs and, optionally, a
+ * least-squares slope over the last readings, all in constant time. A trend is reported
+ * once when it starts instead of being re-derived from the whole window on every pass.
+ *
+ * <p>Instances are not thread safe; callers synchronize on the instance.</p>
+ */
+public class PressureTrendDetector {
+
+    /** No trend is in progress. */
+    public static final int NONE = 0;
+    /** The readings are rising. */
+    public static final int INCREASING = 1;
+    /** The readings are falling. */
+    public static final int DECREASING = -1;
+
+    private static final double MILLIS_PER_HOUR = 3600000.0;
+
+    private long lastTimestamp = Long.MIN_VALUE;
+    private double lastValue;
+    private int increasingRun;
+    private int decreasingRun;
+    private int direction = NONE;
+
+    // Rolling regression over the last readings; x is hours since the first reading
+    private double[] xs = new double[0];
+    private double[] ys = new double[0];
+    private int head;
+    private int size;
+    private long origin;
+    private double sumX;
+    private double sumY;
+    private double sumXX;
+    private double sumXY;
+
+    /**
+     * Returns the timestamp of the newest reading seen so far.
+     *
+     * @return the timestamp in milliseconds, or {@link Long#MIN_VALUE} if there was no reading
+     */
+    public long getLastTimestamp() {
+        return lastTimestamp;
+    }
+
+    /**
+     * Returns the number of readings in the current run of rising steps, including its first reading.
+     *
+     * @return the run length in readings
+     */
+    public int getIncreasingRun() {
+        return increasingRun;
+    }
+
+    /**
+     * Returns the number of readings in the current run of falling steps, including its first reading.
+     *
+     * @return the run length in readings
+     */
+    public int getDecreasingRun() {
+        return decreasingRun;
+    }
+
+    /**
+     * Returns the least-squares slope of the last readings.
+     *
+     * @return the slope in units per hour, or NaN if there are fewer than two readings
+     */
+    public double getSlope() {
+        double denominator = size * sumXX - sumX * sumX;
+        if (size < 2 || denominator == 0) {
+            return Double.NaN;
+        }
+        return (size * sumXY - sumX * sumY) / denominator;
+    }
+
+    /**
+     * Adds a reading and reports whether a new trend started with it. Readings that are not
+     * newer than the last reading are ignored.
+     *
+     * @param timestamp   the timestamp of the reading in milliseconds
+     * @param value       the measured value
+     * @param trendDelta  the minimum change between consecutive readings that continues a run
+     * @param trendLength the number of readings that form a trend
+     * @param trendSlope  the slope in units per hour over the last {@code trendLength} readings
+     *                    that also forms a trend, or NaN to only use runs
+     * @return {@link #INCREASING} or {@link #DECREASING} if a trend in that direction started
+     *         with this reading, {@link #NONE} otherwise
+     */
+    public int update(long timestamp, double value, double trendDelta, int trendLength, double trendSlope) {
+        if (timestamp <= lastTimestamp) {
+            return NONE;
+        }
+
+        if (lastTimestamp == Long.MIN_VALUE) {
+            increasingRun = 1;
+            decreasingRun = 1;
+            origin = timestamp;
+        } else {
+            increasingRun = value - lastValue > trendDelta ? increasingRun + 1 : 1;
+            decreasingRun = lastValue - value > trendDelta ? decreasingRun + 1 : 1;
+        }
+        lastTimestamp = timestamp;
+        lastValue = value;
+
+        if (!Double.isNaN(trendSlope)) {
+            addToRegression(timestamp, value, trendLength);
+        }
+
+        int current = NONE;
+        if (increasingRun >= trendLength) {
+            current = INCREASING;
+        } else if (decreasingRun >= trendLength) {
+            current = DECREASING;
+        } else if (!Double.isNaN(trendSlope) && size >= trendLength) {
+            double slope = getSlope();
+            if (slope > trendSlope) {
+                current = INCREASING;
+            } else if (slope < -trendSlope) {
+                current = DECREASING;
+            }
+        }
+
+        // Only the start of a trend is reported
+        int started = current != direction ? current : NONE;
+        direction = current;
+        return started;
+    }
+
+    /**
+     * Adds a reading to the rolling regression, dropping the oldest reading once
+     * {@code capacity} readings are held.
+     *
+     * @param timestamp the timestamp of the reading in milliseconds
+     * @param value     the measured value
+     * @param capacity  the number of readings the regression spans
+     */
+    private void addToRegression(long timestamp, double value, int capacity) {
+        int length = Math.max(capacity, 2);
+        if (xs.length != length) {
+            // The rules changed; start the regression over
+            xs = new double[length];
+            ys = new double[xs.length];
+            head = 0;
+            size = 0;
+            sumX = sumY = sumXX = sumXY = 0;
+        }
+
+        if (size == xs.length) {
+            double oldX = xs[head];
+            double oldY = ys[head];
+            sumX -= oldX;
+            sumY -= oldY;
+            sumXX -= oldX * oldX;
+            sumXY -= oldX * oldY;
+            head = (head + 1) % xs.length;
+            size--;
+        }
+
+        double x = (timestamp - origin) / MILLIS_PER_HOUR;
+        int tail = (head + size) % xs.length;
+        xs[tail] = x;
+        ys[tail] = value;
+        size++;
+        sumX += x;
+        sumY += value;
+        sumXX += x * x;
+        sumXY += x * value;
+    }
+}
@@ -0,0 +1,120 @@
+package com.alerts;
+
+import java.util.List;
+
+import com.data_management.PatientRecord;
+
+/**
+ * Remembers which readings of one stream of a patient were already checked, so that an
+ * evaluation only visits the readings that arrived since the previous one. The readings of
+ * an evaluation window are sorted by timestamp, so the first unchecked reading is found with
+ * a binary search instead of a pass over the whole window.
+ *
+ * <p>The timestamps of the last {@value #LATE_HORIZON} checked readings are kept as well. A
+ * reading that arrives late, with a timestamp at or below the newest checked one, is still
+ * visited once as long as it is newer than the oldest remembered timestamp.</p>
+ *
+ * <p>An evaluation calls {@link #start(List)}, then {@link #isChecked(long)} for every
+ * reading from the returned index on, in order, and finally {@link #finish(List)}. Instances
+ * are not thread safe; callers synchronize on the instance.</p>
+ */
+public class RecordCursor {
+
+    /** Number of checked timestamps kept to recognize readings that arrive late. */
+    public static final int LATE_HORIZON = 32;
+
+    // Timestamps of the newest checked readings, oldest first
+    private final long[] recent = new long[LATE_HORIZON];
+    private int recentCount;
+    // Position of the merge in recent during an evaluation
+    private int next;
+
+    /**
+     * Returns the timestamp of the newest checked reading. Readings at or below it that are
+     * not checked yet arrived late.
+     *
+     * @return the timestamp in milliseconds, or {@link Long#MIN_VALUE} if nothing was checked
+     */
+    public long getLastTimestamp() {
+        return recentCount == 0 ? Long.MIN_VALUE : recent[recentCount - 1];
+    }
+
+    /**
+     * Starts an evaluation and returns the index of the first reading that may not have been
+     * checked yet.
+     *
+     * @param records the readings of the window, sorted by timestamp
+     * @return the index to start visiting the readings at
+     */
+    public int start(List<PatientRecord> records) {
+        next = 0;
+        if (recentCount == 0) {
+            return 0;
+        }
+        if (recentCount < LATE_HORIZON) {
+            // Every checked reading is remembered
+            return firstIndexAbove(records, recent[0] - 1);
+        }
+        // Readings sharing the oldest timestamp may have been forgotten, so start after it
+        return firstIndexAbove(records, recent[0]);
+    }
+
+    /**
+     * Tells whether a reading was checked by an earlier evaluation. Must be called for the
+     * readings from the index returned by {@link #start(List)} on, in timestamp order.
+     *
+     * @param timestamp the timestamp of the reading
+     * @return true if the reading was checked before and is to be skipped
+     */
+    public boolean isChecked(long timestamp) {
+        if (recentCount == 0 || timestamp > recent[recentCount - 1]) {
+            return false;
+        }
+        while (next < recentCount && recent[next] < timestamp) {
+            next++;
+        }
+        if (next < recentCount && recent[next] == timestamp) {
+            next++;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Ends an evaluation, recording every reading of the window as checked.
+     *
+     * @param records the readings of the window, sorted by timestamp
+     */
+    public void finish(List<PatientRecord> records) {
+        if (records.isEmpty()) {
+            return;
+        }
+        int keep = Math.min(LATE_HORIZON, records.size());
+        int offset = records.size() - keep;
+        for (int i = 0; i < keep; i++) {
+            recent[i] = records.get(offset + i).getTimestamp();
+        }
+        recentCount = keep;
+    }
+
+    /**
+     * Finds the first reading with a timestamp above the given time.
+     *
+     * @param records   readings sorted by timestamp
+     * @param timestamp the time to search for
+     * @return the index of the first later reading, or the list size if there is none
+     */
+    private static int firstIndexAbove(List<PatientRecord> records, long timestamp) {
+        int low = 0;
+        int high = records.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (records.get(mid).getTimestamp() <= timestamp) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
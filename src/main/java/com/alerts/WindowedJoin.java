@@ -0,0 +1,126 @@
+package com.alerts;
+
+import java.util.Arrays;
+import java.util.List;
+
+import com.alerts.rules.CompoundRule;
+
+/**
+ * Streaming join of one patient's readings across record types. For every term of every
+ * compound rule it keeps the timestamp of the last reading that matched, so a new reading
+ * only has to update the terms of its own record type and compare a few timestamps to
+ * know whether a rule is satisfied within its window. This costs constant time per reading
+ * regardless of how many readings fall into the window.
+ *
+ * <p>A rule fires once when it becomes satisfied and again only after a full window
+ * without firing. Instances are not thread safe; callers synchronize on the instance.</p>
+ */
+public class WindowedJoin {
+
+    private List<CompoundRule> rules;
+    // lastMatch[rule][term] is the timestamp of the last reading that satisfied the term
+    private long[][] lastMatch;
+    private long[] lastFired;
+    // For every record type code the (rule, term) pairs that apply to it
+    private int[][] rulesByType;
+    private int[][] termsByType;
+    private long lastTimestamp = Long.MIN_VALUE;
+
+    /**
+     * Returns the timestamp of the newest reading seen so far.
+     *
+     * @return the timestamp in milliseconds, or {@link Long#MIN_VALUE} if there was no reading
+     */
+    public long getLastTimestamp() {
+        return lastTimestamp;
+    }
+
+    /**
+     * Adds a reading and returns the rules it completes. When the rule list differs from the
+     * one used for the previous reading, e.g. after a rule reload, the join state is reset.
+     *
+     * @param rules     the compound rules to evaluate
+     * @param type      the record type code of the reading
+     * @param value     the measured value
+     * @param timestamp the timestamp of the reading in milliseconds
+     * @param fired     receives the indexes of the rules that fired, must hold at least {@code rules.size()} entries
+     * @return the number of rules that fired
+     */
+    public int update(List<CompoundRule> rules, int type, double value, long timestamp, int[] fired) {
+        if (rules != this.rules) {
+            reset(rules);
+        }
+        lastTimestamp = Math.max(lastTimestamp, timestamp);
+        if (type < 0 || type >= rulesByType.length) {
+            return 0;
+        }
+
+        int firedCount = 0;
+        int[] ruleIndexes = rulesByType[type];
+        int[] termIndexes = termsByType[type];
+        for (int i = 0; i < ruleIndexes.length; i++) {
+            int r = ruleIndexes[i];
+            CompoundRule rule = rules.get(r);
+            if (!rule.matches(termIndexes[i], value)) {
+                continue;
+            }
+            lastMatch[r][termIndexes[i]] = Math.max(lastMatch[r][termIndexes[i]], timestamp);
+
+            long windowStart = timestamp - rule.getWindowMillis();
+            boolean satisfied = true;
+            for (long matchTime : lastMatch[r]) {
+                satisfied &= matchTime >= windowStart;
+            }
+            if (satisfied && lastFired[r] < windowStart) {
+                lastFired[r] = timestamp;
+                fired[firedCount++] = r;
+            }
+        }
+        return firedCount;
+    }
+
+    /**
+     * Discards the join state and indexes the terms of the given rules by record type.
+     *
+     * @param rules the compound rules to evaluate from now on
+     */
+    private void reset(List<CompoundRule> rules) {
+        this.rules = rules;
+        lastMatch = new long[rules.size()][];
+        lastFired = new long[rules.size()];
+        Arrays.fill(lastFired, Long.MIN_VALUE);
+
+        int maxType = -1;
+        for (CompoundRule rule : rules) {
+            for (int t = 0; t < rule.getTermCount(); t++) {
+                maxType = Math.max(maxType, rule.getTermType(t));
+            }
+        }
+        int[] counts = new int[maxType + 1];
+        for (int r = 0; r < rules.size(); r++) {
+            CompoundRule rule = rules.get(r);
+            lastMatch[r] = new long[rule.getTermCount()];
+            Arrays.fill(lastMatch[r], Long.MIN_VALUE);
+            for (int t = 0; t < rule.getTermCount(); t++) {
+                counts[rule.getTermType(t)]++;
+            }
+        }
+
+        rulesByType = new int[maxType + 1][];
+        termsByType = new int[maxType + 1][];
+        for (int type = 0; type <= maxType; type++) {
+            rulesByType[type] = new int[counts[type]];
+            termsByType[type] = new int[counts[type]];
+            counts[type] = 0;
+        }
+        for (int r = 0; r < rules.size(); r++) {
+            CompoundRule rule = rules.get(r);
+            for (int t = 0; t < rule.getTermCount(); t++) {
+                int type = rule.getTermType(t);
+                rulesByType[type][counts[type]] = r;
+                termsByType[type][counts[type]] = t;
+                counts[type]++;
+            }
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.alerts.decorator;
 
 import com.alerts.Alert;
+import com.alerts.AlertSeverity;
 
 /**
  * Abstract decorator class for Alert, extending the Alert class.
@@ -17,7 +18,17 @@ public abstract class AlertDecorator extends Alert {
      * @param decoratedAlert the Alert object to be decorated
      */
     public AlertDecorator(Alert decoratedAlert) {
-        super(decoratedAlert.getPatientId(), decoratedAlert.getCondition(), decoratedAlert.getTimestamp());
+        this(decoratedAlert, decoratedAlert.getSeverity());
+    }
+
+    /**
+     * Constructor that accepts a decorated Alert object and overrides its severity.
+     *
+     * @param decoratedAlert the Alert object to be decorated
+     * @param severity       the severity of the decorated alert
+     */
+    protected AlertDecorator(Alert decoratedAlert, AlertSeverity severity) {
+        super(decoratedAlert.getPatientId(), decoratedAlert.getCondition(), decoratedAlert.getTimestamp(), severity);
         this.decoratedAlert = decoratedAlert;
     }
 
@@ -1,19 +1,32 @@
 package com.alerts.decorator;
 
 import com.alerts.Alert;
+import com.alerts.AlertSeverity;
 
 /**
- * Decorator class that adds priority to the alert.
+ * Decorator class that adds priority to the alert. A priority alert is dispatched with
+ * at least {@link AlertSeverity#HIGH} severity, or with the severity it is given.
  */
 public class PriorityAlertDecorator extends AlertDecorator {
 
     /**
      * Constructor that accepts an Alert object to be decorated with priority.
+     * The alert is raised to at least {@link AlertSeverity#HIGH} severity.
      *
      * @param decoratedAlert the Alert object to be decorated
      */
     public PriorityAlertDecorator(Alert decoratedAlert) {
-        super(decoratedAlert);
+        this(decoratedAlert, decoratedAlert.getSeverity().max(AlertSeverity.HIGH));
+    }
+
+    /**
+     * Constructor that accepts an Alert object to be decorated with the given priority.
+     *
+     * @param decoratedAlert the Alert object to be decorated
+     * @param severity       the severity to dispatch the alert with
+     */
+    public PriorityAlertDecorator(Alert decoratedAlert, AlertSeverity severity) {
+        super(decoratedAlert, severity);
     }
 
     /**
@@ -0,0 +1,330 @@
+package com.alerts.dispatch;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+import com.alerts.Alert;
+import com.alerts.AlertSeverity;
+import com.alerts.CompactAlert;
+import com.alerts.factories.AlertFactory;
+
+/**
+ * Dispatches alerts in order of severity. Every severity level has its own FIFO queue and
+ * the most severe non-empty queue is always drained first, so critical alerts never wait
+ * behind a backlog of less severe ones.
+ *
+ * <p>To keep low severity alerts from starving, an alert is promoted one level for every
+ * aging period it has waited, at most up to {@link AlertSeverity#HIGH}. Only alerts that
+ * were critical to begin with are dispatched at critical priority.</p>
+ *
+ * <p>The time from submission to dispatch is recorded per original severity.</p>
+ */
+public class PriorityAlertDispatcher implements AutoCloseable {
+
+    private static final AlertSeverity[] LEVELS = AlertSeverity.values();
+    private static final AlertSeverity AGING_CAP = AlertSeverity.HIGH;
+
+    private final Consumer<Alert> sink;
+    private final Consumer<CompactAlert> compactSink;
+    private final long agingNanos;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final List<ArrayDeque<QueuedAlert>> queues;
+    private final Map<AlertSeverity, LatencyHistogram> latencies = new EnumMap<>(AlertSeverity.class);
+    private int size;
+    private Thread worker;
+    private volatile boolean running;
+
+    /**
+     * Constructs a dispatcher that hands alerts to the given sink. Compact alerts are
+     * converted to string based alerts first.
+     *
+     * @param sink        receives the alerts in dispatch order
+     * @param agingMillis how long an alert waits per promotion by one level, in milliseconds, or 0 to disable aging
+     */
+    public PriorityAlertDispatcher(Consumer<Alert> sink, long agingMillis) {
+        this(sink, sink == null ? null : alert -> sink.accept(alert.toAlert()), agingMillis);
+    }
+
+    /**
+     * Constructs a dispatcher that hands string based alerts to one sink and compact alerts
+     * to another, so compact alerts reach the sink without being converted. A compact alert
+     * is released to the pool as soon as the compact sink returns, so the sink must not keep it.
+     *
+     * @param sink        receives the string based alerts in dispatch order
+     * @param compactSink receives the compact alerts in dispatch order
+     * @param agingMillis how long an alert waits per promotion by one level, in milliseconds, or 0 to disable aging
+     */
+    public PriorityAlertDispatcher(Consumer<Alert> sink, Consumer<CompactAlert> compactSink, long agingMillis) {
+        if (sink == null || compactSink == null) {
+            throw new NullPointerException("Sink must not be null.");
+        }
+        this.sink = sink;
+        this.compactSink = compactSink;
+        this.agingNanos = TimeUnit.MILLISECONDS.toNanos(agingMillis);
+        this.queues = new ArrayList<>(LEVELS.length);
+        for (AlertSeverity severity : LEVELS) {
+            queues.add(new ArrayDeque<>());
+            latencies.put(severity, new LatencyHistogram());
+        }
+    }
+
+    /**
+     * Queues an alert for dispatch.
+     *
+     * @param alert the alert to dispatch
+     */
+    public void submit(Alert alert) {
+        if (alert == null) {
+            throw new NullPointerException("Alert must not be null.");
+        }
+        enqueue(new QueuedAlert(alert, null, alert.getSeverity(), System.nanoTime()));
+    }
+
+    /**
+     * Queues a compact alert for dispatch. The dispatcher takes ownership of the alert and
+     * releases it to the pool once the sink has consumed it.
+     *
+     * @param alert the alert to dispatch
+     */
+    public void submit(CompactAlert alert) {
+        if (alert == null) {
+            throw new NullPointerException("Alert must not be null.");
+        }
+        enqueue(new QueuedAlert(null, alert, alert.getSeverity(), System.nanoTime()));
+    }
+
+    /**
+     * Adds an alert to the queue of its severity and wakes up the worker.
+     *
+     * @param queued the alert to queue
+     */
+    private void enqueue(QueuedAlert queued) {
+        lock.lock();
+        try {
+            queues.get(queued.severity.ordinal()).addLast(queued);
+            size++;
+            notEmpty.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Dispatches the most urgent queued alert to the sink, if there is one.
+     *
+     * @return true if an alert was dispatched, false if the queues were empty
+     */
+    public boolean dispatchNext() {
+        QueuedAlert next;
+        lock.lock();
+        try {
+            next = poll(System.nanoTime());
+        } finally {
+            lock.unlock();
+        }
+        if (next == null) {
+            return false;
+        }
+        dispatch(next);
+        return true;
+    }
+
+    /**
+     * Dispatches all queued alerts to the sink in priority order.
+     *
+     * @return the number of dispatched alerts
+     */
+    public int dispatchAll() {
+        int count = 0;
+        while (dispatchNext()) {
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Starts a background thread that dispatches alerts as they are submitted.
+     */
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        worker = new Thread(this::runWorker, "alert-dispatcher");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /**
+     * Stops the background thread after the queued alerts have been dispatched.
+     */
+    @Override
+    public synchronized void close() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        lock.lock();
+        try {
+            notEmpty.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            worker.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        worker = null;
+    }
+
+    /**
+     * Returns the number of alerts waiting for dispatch.
+     *
+     * @return the queue size
+     */
+    public int size() {
+        lock.lock();
+        try {
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the dispatch latencies of alerts submitted with the given severity.
+     *
+     * @param severity the severity the alerts were submitted with
+     * @return the latency histogram
+     */
+    public LatencyHistogram getLatencyHistogram(AlertSeverity severity) {
+        return latencies.get(severity);
+    }
+
+    /**
+     * Prints the dispatch latency percentiles of every severity level.
+     */
+    public void printLatencyReport() {
+        for (AlertSeverity severity : LEVELS) {
+            System.out.println("Dispatch latency " + severity + ": " + latencies.get(severity));
+        }
+    }
+
+    /**
+     * Dispatches alerts until the dispatcher is closed and the queues are empty.
+     */
+    private void runWorker() {
+        while (true) {
+            QueuedAlert next;
+            lock.lock();
+            try {
+                while (size == 0 && running) {
+                    notEmpty.await();
+                }
+                if (size == 0) {
+                    return;
+                }
+                next = poll(System.nanoTime());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                lock.unlock();
+            }
+            dispatch(next);
+        }
+    }
+
+    /**
+     * Promotes aged alerts and removes the most urgent alert. Must be called with the lock held.
+     *
+     * @param now the current time from {@link System#nanoTime()}
+     * @return the most urgent alert, or null if the queues are empty
+     */
+    private QueuedAlert poll(long now) {
+        if (size == 0) {
+            return null;
+        }
+        promoteAged(now);
+        for (int level = LEVELS.length - 1; level >= 0; level--) {
+            QueuedAlert next = queues.get(level).pollFirst();
+            if (next != null) {
+                size--;
+                return next;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Moves alerts up one level for every aging period they have waited, capped at
+     * {@link AlertSeverity#HIGH}. Each queue is mostly in submission order, so only the
+     * heads are checked. Must be called with the lock held.
+     *
+     * @param now the current time from {@link System#nanoTime()}
+     */
+    private void promoteAged(long now) {
+        if (agingNanos <= 0) {
+            return;
+        }
+        for (int level = AGING_CAP.ordinal() - 1; level >= 0; level--) {
+            ArrayDeque<QueuedAlert> queue = queues.get(level);
+            while (!queue.isEmpty()) {
+                QueuedAlert head = queue.peekFirst();
+                long periods = (now - head.submittedAt) / agingNanos;
+                int target = (int) Math.min(AGING_CAP.ordinal(), head.severity.ordinal() + periods);
+                if (target <= level) {
+                    break;
+                }
+                queue.pollFirst();
+                queues.get(target).addLast(head);
+            }
+        }
+    }
+
+    /**
+     * Hands an alert to the sink and records its latency.
+     *
+     * @param queued the alert to dispatch
+     */
+    private void dispatch(QueuedAlert queued) {
+        try {
+            if (queued.alert != null) {
+                sink.accept(queued.alert);
+            } else {
+                compactSink.accept(queued.compact);
+            }
+        } catch (RuntimeException e) {
+            System.err.println("Error dispatching alert: " + e.getMessage());
+        } finally {
+            AlertFactory.release(queued.compact);
+        }
+        latencies.get(queued.severity).record(System.nanoTime() - queued.submittedAt);
+    }
+
+    /**
+     * An alert waiting in a queue, either string based or compact.
+     */
+    private static class QueuedAlert {
+        private final Alert alert;
+        private final CompactAlert compact;
+        private final AlertSeverity severity;
+        private final long submittedAt;
+
+        QueuedAlert(Alert alert, CompactAlert compact, AlertSeverity severity, long submittedAt) {
+            this.alert = alert;
+            this.compact = compact;
+            this.severity = severity;
+            this.submittedAt = submittedAt;
+        }
+    }
+}
@@ -1,11 +1,26 @@
 package com.alerts.factories;
 
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import com.alerts.Alert;
+import com.alerts.AlertCondition;
+import com.alerts.AlertSeverity;
+import com.alerts.CompactAlert;
 
 /**
  * Abstract factory class for creating Alert objects.
+ *
+ * <p>Besides string based {@link Alert}s the factories hand out pooled {@link CompactAlert}s,
+ * so that alert storms reuse instances instead of allocating new ones.</p>
  */
 public abstract class AlertFactory {
+
+    // One pool shared by all threads: alerts are acquired while evaluating data and often
+    // released on the dispatcher thread. Last in, first out keeps recently used instances warm.
+    private static final int MAX_POOLED = 1024;
+    private static final ConcurrentLinkedDeque<CompactAlert> POOL = new ConcurrentLinkedDeque<>();
+    private static final AtomicInteger POOLED = new AtomicInteger();
     
     /**
      * Abstract method to create an Alert object.
@@ -16,4 +31,62 @@ public abstract class AlertFactory {
      * @return a new Alert object
      */
     public abstract Alert createAlert(String patientId, String condition, long timestamp);
+
+    /**
+     * Takes a compact alert from the pool and fills it in, classifying its severity.
+     * The caller owns the alert until it passes it on or calls {@link #release(CompactAlert)}.
+     *
+     * @param patientId the ID of the patient
+     * @param condition the detected condition
+     * @param timestamp the time the alert was generated
+     * @return a pooled alert
+     */
+    public CompactAlert acquire(int patientId, AlertCondition condition, long timestamp) {
+        CompactAlert alert = POOL.pollFirst();
+        if (alert == null) {
+            alert = new CompactAlert();
+        } else {
+            POOLED.decrementAndGet();
+            alert.markPooled(false);
+        }
+        return alert.set(patientId, condition, classify(condition), timestamp);
+    }
+
+    /**
+     * Returns a compact alert to the shared pool, from any thread. Releasing an alert twice
+     * has no effect; the pool is bounded and drops surplus instances.
+     *
+     * @param alert the alert that is no longer used, may be null
+     */
+    public static void release(CompactAlert alert) {
+        if (alert == null || !alert.markPooled(true)) {
+            return;
+        }
+        if (POOLED.incrementAndGet() > MAX_POOLED) {
+            POOLED.decrementAndGet();
+            return;
+        }
+        POOL.addFirst(alert);
+    }
+
+    /**
+     * Determines how urgent an alert for the given condition is.
+     *
+     * @param condition the condition of the patient
+     * @return the severity of the condition
+     */
+    public AlertSeverity classify(String condition) {
+        return classify(AlertCondition.fromLabel(condition));
+    }
+
+    /**
+     * Determines how urgent an alert for the given condition is.
+     * Conditions the factory does not know get {@link AlertSeverity#MEDIUM} severity.
+     *
+     * @param condition the detected condition
+     * @return the severity of the condition
+     */
+    public AlertSeverity classify(AlertCondition condition) {
+        return AlertSeverity.MEDIUM;
+    }
 }
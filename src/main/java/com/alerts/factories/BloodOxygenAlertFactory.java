@@ -1,6 +1,8 @@
 package com.alerts.factories;
 
 import com.alerts.Alert;
+import com.alerts.AlertCondition;
+import com.alerts.AlertSeverity;
 
 /**
  * Concrete factory class for creating blood oxygen level alerts.
@@ -17,6 +19,25 @@ public class BloodOxygenAlertFactory extends AlertFactory {
      */
     @Override
     public Alert createAlert(String patientId, String condition, long timestamp) {
-        return new Alert(patientId, condition, timestamp);
+        return new Alert(patientId, condition, timestamp, classify(condition));
+    }
+
+    /**
+     * Determines how urgent an alert for a blood oxygen level condition is.
+     *
+     * @param condition the detected condition
+     * @return the severity of the condition
+     */
+    @Override
+    public AlertSeverity classify(AlertCondition condition) {
+        switch (condition) {
+            case RAPID_OXYGEN_DROP:
+            case HYPOTENSIVE_HYPOXEMIA:
+                return AlertSeverity.CRITICAL;
+            case LOW_SATURATION:
+                return AlertSeverity.HIGH;
+            default:
+                return AlertSeverity.MEDIUM;
+        }
     }
 }
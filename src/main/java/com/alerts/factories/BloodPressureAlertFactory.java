@@ -1,6 +1,8 @@
 package com.alerts.factories;
 
 import com.alerts.Alert;
+import com.alerts.AlertCondition;
+import com.alerts.AlertSeverity;
 
 /**
  * Concrete factory class for creating blood pressure alerts.
@@ -17,6 +19,30 @@ public class BloodPressureAlertFactory extends AlertFactory {
      */
     @Override
     public Alert createAlert(String patientId, String condition, long timestamp) {
-        return new Alert(patientId, condition, timestamp);
+        return new Alert(patientId, condition, timestamp, classify(condition));
+    }
+
+    /**
+     * Determines how urgent an alert for a blood pressure condition is.
+     *
+     * @param condition the detected condition
+     * @return the severity of the condition
+     */
+    @Override
+    public AlertSeverity classify(AlertCondition condition) {
+        switch (condition) {
+            case HYPOTENSIVE_HYPOXEMIA:
+                return AlertSeverity.CRITICAL;
+            case SYSTOLIC_CRITICAL:
+            case DIASTOLIC_CRITICAL:
+                return AlertSeverity.HIGH;
+            case SYSTOLIC_INCREASING_TREND:
+            case SYSTOLIC_DECREASING_TREND:
+            case DIASTOLIC_INCREASING_TREND:
+            case DIASTOLIC_DECREASING_TREND:
+                return AlertSeverity.LOW;
+            default:
+                return AlertSeverity.MEDIUM;
+        }
     }
 }
@@ -0,0 +1,42 @@
+package com.alerts.factories;
+
+import com.alerts.Alert;
+import com.alerts.AlertCondition;
+import com.alerts.AlertSeverity;
+
+/**
+ * Concrete factory class for creating alerts that correlate several vital signs.
+ */
+public class CompoundAlertFactory extends AlertFactory {
+
+    /**
+     * Creates an Alert object for a condition involving several vital signs.
+     *
+     * @param patientId the ID of the patient
+     * @param condition the condition of the patient
+     * @param timestamp the time the alert was generated
+     * @return a new Alert object for the specified condition
+     */
+    @Override
+    public Alert createAlert(String patientId, String condition, long timestamp) {
+        return new Alert(patientId, condition, timestamp, classify(condition));
+    }
+
+    /**
+     * Determines how urgent an alert for a compound condition is.
+     *
+     * @param condition the detected condition
+     * @return the severity of the condition
+     */
+    @Override
+    public AlertSeverity classify(AlertCondition condition) {
+        switch (condition) {
+            case HYPOTENSIVE_HYPOXEMIA:
+            case HYPOXEMIC_TACHYCARDIA:
+            case HYPOTENSIVE_TACHYCARDIA:
+                return AlertSeverity.CRITICAL;
+            default:
+                return AlertSeverity.MEDIUM;
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package com.alerts.factories;
 
 import com.alerts.Alert;
+import com.alerts.AlertCondition;
+import com.alerts.AlertSeverity;
 
 /**
  * Concrete factory class for creating ECG alerts.
@@ -17,6 +19,22 @@ public class ECGAlertFactory extends AlertFactory {
      */
     @Override
     public Alert createAlert(String patientId, String condition, long timestamp) {
-        return new Alert(patientId, condition, timestamp);
+        return new Alert(patientId, condition, timestamp, classify(condition));
+    }
+
+    /**
+     * Determines how urgent an alert for an ECG condition is.
+     *
+     * @param condition the detected condition
+     * @return the severity of the condition
+     */
+    @Override
+    public AlertSeverity classify(AlertCondition condition) {
+        switch (condition) {
+            case ABNORMAL_HEART_RATE:
+                return AlertSeverity.HIGH;
+            default:
+                return AlertSeverity.MEDIUM;
+        }
     }
 }
@@ -0,0 +1,534 @@
+package com.alerts.journal;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.zip.CRC32;
+
+import com.alerts.Alert;
+import com.alerts.AlertCondition;
+import com.alerts.AlertSeverity;
+import com.alerts.CompactAlert;
+
+/**
+ * Append-only journal of triggered alerts. Every alert is stored as a fixed size binary
+ * record in a segment file; a segment is closed and a new one started once it reaches
+ * the configured size.
+ *
+ * <p>An in-memory index groups record positions by hourly time bucket, and within a
+ * bucket by patient and by severity, so queries such as "all alerts of patient X in the
+ * last 48 hours" only read the matching records. Only the most recent buckets are
+ * indexed to bound memory; older ranges are answered by scanning the segments whose
+ * time range overlaps the query.</p>
+ *
+ * <p>Record layout (big endian, {@value #RECORD_SIZE} bytes): int patient ID, short
+ * condition code, byte severity, byte reserved, long timestamp, int CRC32 of the
+ * preceding 16 bytes. A torn record at the end of the last segment is truncated when
+ * the journal is opened.</p>
+ */
+public class AlertJournal implements AutoCloseable {
+
+    /** Size of one record in bytes. */
+    public static final int RECORD_SIZE = 20;
+    /** Width of an index bucket in milliseconds. */
+    public static final long BUCKET_MILLIS = 3600000; // 1 hour
+
+    private static final String SEGMENT_PREFIX = "alerts-";
+    private static final String SEGMENT_SUFFIX = ".journal";
+    private static final int PAYLOAD_SIZE = RECORD_SIZE - 4;
+
+    private final Path directory;
+    private final long maxSegmentBytes;
+    private final int maxIndexedBuckets;
+
+    private final List<Segment> segments = new ArrayList<>();
+    private final TreeMap<Long, Bucket> index = new TreeMap<>();
+    private final ByteBuffer writeBuffer = ByteBuffer.allocate(RECORD_SIZE);
+    private final CRC32 crc = new CRC32();
+    private FileChannel activeChannel;
+    // Start of the first bucket that is still indexed; older ranges need a scan
+    private long indexedFrom = Long.MIN_VALUE;
+
+    /**
+     * Opens the journal in the given directory, creating it if needed and rebuilding the
+     * index from the existing segments.
+     *
+     * @param directory         the directory holding the segment files
+     * @param maxSegmentBytes   the size at which a segment is closed and a new one started
+     * @param maxIndexedBuckets the number of hourly buckets kept in the in-memory index
+     * @throws IOException if the directory or the segments cannot be read
+     */
+    public AlertJournal(Path directory, long maxSegmentBytes, int maxIndexedBuckets) throws IOException {
+        if (maxSegmentBytes < RECORD_SIZE) {
+            throw new IllegalArgumentException("Segment size must hold at least one record.");
+        }
+        if (maxIndexedBuckets < 1) {
+            throw new IllegalArgumentException("At least one bucket must be indexed.");
+        }
+        this.directory = directory;
+        this.maxSegmentBytes = maxSegmentBytes - maxSegmentBytes % RECORD_SIZE;
+        this.maxIndexedBuckets = maxIndexedBuckets;
+        Files.createDirectories(directory);
+        recover();
+    }
+
+    /**
+     * Appends an alert to the journal. Alerts whose patient ID is not a number are rejected.
+     *
+     * @param alert the alert to record
+     * @throws IOException if the record cannot be written
+     * @throws IllegalArgumentException if the patient ID is not a number
+     */
+    public void append(Alert alert) throws IOException {
+        int patientId;
+        try {
+            patientId = Integer.parseInt(alert.getPatientId());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Patient ID is not a number: " + alert.getPatientId(), e);
+        }
+        append(patientId, AlertCondition.fromLabel(alert.getCondition()), alert.getSeverity(), alert.getTimestamp());
+    }
+
+    /**
+     * Appends a compact alert to the journal without building any strings.
+     *
+     * @param alert the alert to record
+     * @throws IOException if the record cannot be written
+     */
+    public void append(CompactAlert alert) throws IOException {
+        append(alert.getPatientId(), alert.getCondition(), alert.getSeverity(), alert.getTimestamp());
+    }
+
+    /**
+     * Appends an alert to the journal.
+     *
+     * @param patientId the ID of the patient
+     * @param condition the detected condition
+     * @param severity  how urgent the alert is
+     * @param timestamp the time the alert was generated, in milliseconds since epoch
+     * @throws IOException if the record cannot be written or the journal is closed
+     */
+    public synchronized void append(int patientId, AlertCondition condition, AlertSeverity severity, long timestamp)
+            throws IOException {
+        ensureOpen();
+        Segment segment = segments.get(segments.size() - 1);
+        if (segment.size + RECORD_SIZE > maxSegmentBytes) {
+            segment = rollOver();
+        }
+
+        writeBuffer.clear();
+        encode(writeBuffer, patientId, condition, severity, timestamp);
+        writeBuffer.flip();
+        while (writeBuffer.hasRemaining()) {
+            activeChannel.write(writeBuffer, segment.size + (RECORD_SIZE - writeBuffer.remaining()));
+        }
+
+        long position = position(segment.id, segment.size / RECORD_SIZE);
+        segment.size += RECORD_SIZE;
+        segment.include(timestamp);
+        addToIndex(position, patientId, severity, timestamp);
+    }
+
+    /**
+     * Forces all appended records to the storage device.
+     *
+     * @throws IOException if the records cannot be synced or the journal is closed
+     */
+    public synchronized void sync() throws IOException {
+        ensureOpen();
+        activeChannel.force(false);
+    }
+
+    /**
+     * Finds all alerts of a patient in a time range.
+     *
+     * @param patientId the ID of the patient
+     * @param from      the start of the range in milliseconds, inclusive
+     * @param to        the end of the range in milliseconds, inclusive
+     * @return the alerts, in order of their position in the journal
+     * @throws IOException if the records cannot be read
+     */
+    public synchronized List<Alert> findByPatient(int patientId, long from, long to) throws IOException {
+        List<Alert> result = new ArrayList<>();
+        if (from < indexedFrom) {
+            scan(from, Math.min(to, indexedFrom - 1), patientId, null, result);
+        }
+        List<long[]> positions = new ArrayList<>();
+        for (Bucket bucket : buckets(from, to).values()) {
+            LongList list = bucket.byPatient.get(patientId);
+            if (list != null) {
+                positions.add(list.toArray());
+            }
+        }
+        read(positions, Math.max(from, indexedFrom), to, result);
+        return result;
+    }
+
+    /**
+     * Finds all alerts of a severity in a time range, across all patients.
+     *
+     * @param severity the severity to look for
+     * @param from     the start of the range in milliseconds, inclusive
+     * @param to       the end of the range in milliseconds, inclusive
+     * @return the alerts, in order of their position in the journal
+     * @throws IOException if the records cannot be read
+     */
+    public synchronized List<Alert> findBySeverity(AlertSeverity severity, long from, long to) throws IOException {
+        List<Alert> result = new ArrayList<>();
+        if (from < indexedFrom) {
+            scan(from, Math.min(to, indexedFrom - 1), -1, severity, result);
+        }
+        List<long[]> positions = new ArrayList<>();
+        for (Bucket bucket : buckets(from, to).values()) {
+            positions.add(bucket.bySeverity[severity.ordinal()].toArray());
+        }
+        read(positions, Math.max(from, indexedFrom), to, result);
+        return result;
+    }
+
+    /**
+     * Returns the number of segment files of the journal.
+     *
+     * @return the segment count
+     */
+    public synchronized int getSegmentCount() {
+        return segments.size();
+    }
+
+    /**
+     * Returns the number of hourly buckets currently held in the index.
+     *
+     * @return the bucket count
+     */
+    public synchronized int getIndexedBucketCount() {
+        return index.size();
+    }
+
+    /**
+     * Closes the active segment.
+     *
+     * @throws IOException if the segment cannot be closed
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (activeChannel != null) {
+            activeChannel.close();
+            activeChannel = null;
+        }
+    }
+
+    /**
+     * Fails if the journal has been closed, instead of writing to a missing channel.
+     *
+     * @throws IOException if the journal is closed
+     */
+    private void ensureOpen() throws IOException {
+        if (activeChannel == null) {
+            throw new IOException("Alert journal is closed");
+        }
+    }
+
+    /**
+     * Reads the existing segments, truncates a torn record at the end of the last one,
+     * rebuilds the index and opens the last segment for appending.
+     *
+     * @throws IOException if the segments cannot be read
+     */
+    private void recover() throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            for (Path file : stream) {
+                files.add(file);
+            }
+        }
+        files.sort(null); // zero padded IDs sort by name
+
+        for (Path file : files) {
+            Segment segment = new Segment(segmentId(file), file);
+            segments.add(segment);
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                ByteBuffer buffer = ByteBuffer.allocate(RECORD_SIZE * 512);
+                long validSize = 0;
+                boolean torn = false;
+                while (!torn) {
+                    buffer.clear();
+                    if (channel.read(buffer, validSize) < RECORD_SIZE) {
+                        break; // end of segment, possibly with a partial record
+                    }
+                    buffer.flip();
+                    while (buffer.remaining() >= RECORD_SIZE) {
+                        int start = buffer.position();
+                        if (!isValid(buffer, start)) {
+                            torn = true;
+                            break;
+                        }
+                        int patientId = buffer.getInt(start);
+                        AlertSeverity severity = severityOf(buffer.get(start + 6));
+                        long timestamp = buffer.getLong(start + 8);
+                        segment.include(timestamp);
+                        addToIndex(position(segment.id, validSize / RECORD_SIZE), patientId, severity, timestamp);
+                        validSize += RECORD_SIZE;
+                        buffer.position(start + RECORD_SIZE);
+                    }
+                }
+                segment.size = validSize;
+            }
+        }
+
+        if (segments.isEmpty()) {
+            segments.add(new Segment(0, segmentPath(0)));
+        }
+        Segment last = segments.get(segments.size() - 1);
+        activeChannel = FileChannel.open(last.path, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        if (activeChannel.size() != last.size) {
+            System.err.println("Truncating torn alert journal record in " + last.path);
+            activeChannel.truncate(last.size);
+        }
+    }
+
+    /**
+     * Closes the active segment and starts a new one.
+     *
+     * @return the new segment
+     * @throws IOException if the new segment cannot be created
+     */
+    private Segment rollOver() throws IOException {
+        activeChannel.force(false);
+        activeChannel.close();
+        int id = segments.get(segments.size() - 1).id + 1;
+        Segment segment = new Segment(id, segmentPath(id));
+        segments.add(segment);
+        activeChannel = FileChannel.open(segment.path, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        return segment;
+    }
+
+    /**
+     * Adds a record position to the index and evicts the oldest buckets beyond the limit.
+     */
+    private void addToIndex(long position, int patientId, AlertSeverity severity, long timestamp) {
+        long bucketStart = Math.floorDiv(timestamp, BUCKET_MILLIS) * BUCKET_MILLIS;
+        if (bucketStart < indexedFrom) {
+            return; // only reachable by scanning
+        }
+        Bucket bucket = index.computeIfAbsent(bucketStart, k -> new Bucket());
+        bucket.byPatient.computeIfAbsent(patientId, k -> new LongList()).add(position);
+        bucket.bySeverity[severity.ordinal()].add(position);
+
+        while (index.size() > maxIndexedBuckets) {
+            index.pollFirstEntry();
+            indexedFrom = index.firstKey();
+        }
+    }
+
+    /**
+     * Returns the indexed buckets that overlap a time range.
+     */
+    private NavigableMap<Long, Bucket> buckets(long from, long to) {
+        if (to < from) {
+            return new TreeMap<>();
+        }
+        long firstBucket = Math.floorDiv(from, BUCKET_MILLIS) * BUCKET_MILLIS;
+        return index.subMap(firstBucket, true, to, true);
+    }
+
+    /**
+     * Reads the records at the given positions and adds those in the time range to the result.
+     */
+    private void read(List<long[]> positionLists, long from, long to, List<Alert> result) throws IOException {
+        long[] positions = positionLists.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+        ByteBuffer buffer = ByteBuffer.allocate(RECORD_SIZE);
+        FileChannel channel = null;
+        int channelSegment = -1;
+        try {
+            for (long position : positions) {
+                int segmentId = (int) (position >>> 32);
+                if (segmentId != channelSegment) {
+                    if (channel != null) {
+                        channel.close();
+                    }
+                    channel = FileChannel.open(segmentPath(segmentId), StandardOpenOption.READ);
+                    channelSegment = segmentId;
+                }
+                buffer.clear();
+                long offset = (position & 0xFFFFFFFFL) * RECORD_SIZE;
+                while (buffer.hasRemaining() && channel.read(buffer, offset + buffer.position()) > 0) {
+                    // keep reading until the record is complete
+                }
+                Alert alert = decode(buffer, from, to);
+                if (alert != null) {
+                    result.add(alert);
+                }
+            }
+        } finally {
+            if (channel != null) {
+                channel.close();
+            }
+        }
+    }
+
+    /**
+     * Scans the segments overlapping a time range that is no longer indexed.
+     *
+     * @param patientId the patient to match, or -1 for all patients
+     * @param severity  the severity to match, or null for all severities
+     */
+    private void scan(long from, long to, int patientId, AlertSeverity severity, List<Alert> result) throws IOException {
+        if (to < from) {
+            return;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(RECORD_SIZE * 512);
+        for (Segment segment : segments) {
+            if (segment.size == 0 || segment.maxTimestamp < from || segment.minTimestamp > to) {
+                continue;
+            }
+            try (FileChannel channel = FileChannel.open(segment.path, StandardOpenOption.READ)) {
+                long offset = 0;
+                while (offset < segment.size) {
+                    buffer.clear();
+                    buffer.limit((int) Math.min(buffer.capacity(), segment.size - offset));
+                    while (buffer.hasRemaining() && channel.read(buffer, offset + buffer.position()) > 0) {
+                        // fill the buffer
+                    }
+                    buffer.flip();
+                    while (buffer.remaining() >= RECORD_SIZE) {
+                        int start = buffer.position();
+                        if ((patientId < 0 || buffer.getInt(start) == patientId)
+                                && (severity == null || buffer.get(start + 6) == severity.ordinal())) {
+                            ByteBuffer record = buffer.slice(start, RECORD_SIZE);
+                            Alert alert = decode(record, from, to);
+                            if (alert != null) {
+                                result.add(alert);
+                            }
+                        }
+                        buffer.position(start + RECORD_SIZE);
+                    }
+                    offset += buffer.limit();
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes one record into the buffer.
+     */
+    private void encode(ByteBuffer buffer, int patientId, AlertCondition condition, AlertSeverity severity, long timestamp) {
+        int start = buffer.position();
+        buffer.putInt(patientId);
+        buffer.putShort((short) condition.getCode());
+        buffer.put((byte) severity.ordinal());
+        buffer.put((byte) 0);
+        buffer.putLong(timestamp);
+        crc.reset();
+        crc.update(buffer.array(), buffer.arrayOffset() + start, PAYLOAD_SIZE);
+        buffer.putInt((int) crc.getValue());
+    }
+
+    /**
+     * Turns a record back into an alert if its timestamp lies in the range.
+     *
+     * @return the alert, or null if the record is outside the range or corrupt
+     */
+    private Alert decode(ByteBuffer record, long from, long to) {
+        if (!isValid(record, 0)) {
+            return null;
+        }
+        long timestamp = record.getLong(8);
+        if (timestamp < from || timestamp > to) {
+            return null;
+        }
+        return new Alert(Integer.toString(record.getInt(0)), AlertCondition.fromCode(record.getShort(4)).getLabel(),
+                timestamp, severityOf(record.get(6)));
+    }
+
+    /**
+     * Checks the CRC of the record starting at the given index.
+     */
+    private boolean isValid(ByteBuffer buffer, int start) {
+        crc.reset();
+        crc.update(buffer.array(), buffer.arrayOffset() + start, PAYLOAD_SIZE);
+        return (int) crc.getValue() == buffer.getInt(start + PAYLOAD_SIZE);
+    }
+
+    private static AlertSeverity severityOf(byte ordinal) {
+        AlertSeverity[] values = AlertSeverity.values();
+        return ordinal >= 0 && ordinal < values.length ? values[ordinal] : AlertSeverity.MEDIUM;
+    }
+
+    private static long position(int segmentId, long recordIndex) {
+        return ((long) segmentId << 32) | recordIndex;
+    }
+
+    private Path segmentPath(int id) {
+        return directory.resolve(String.format("%s%06d%s", SEGMENT_PREFIX, id, SEGMENT_SUFFIX));
+    }
+
+    private static int segmentId(Path file) {
+        String name = file.getFileName().toString();
+        return Integer.parseInt(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    /**
+     * A segment file and the time range of its records.
+     */
+    private static class Segment {
+        private final int id;
+        private final Path path;
+        private long size;
+        private long minTimestamp = Long.MAX_VALUE;
+        private long maxTimestamp = Long.MIN_VALUE;
+
+        Segment(int id, Path path) {
+            this.id = id;
+            this.path = path;
+        }
+
+        void include(long timestamp) {
+            minTimestamp = Math.min(minTimestamp, timestamp);
+            maxTimestamp = Math.max(maxTimestamp, timestamp);
+        }
+    }
+
+    /**
+     * Record positions of one hourly bucket, by patient and by severity.
+     */
+    private static class Bucket {
+        private final Map<Integer, LongList> byPatient = new HashMap<>();
+        private final LongList[] bySeverity = new LongList[AlertSeverity.values().length];
+
+        Bucket() {
+            for (int i = 0; i < bySeverity.length; i++) {
+                bySeverity[i] = new LongList();
+            }
+        }
+    }
+
+    /**
+     * Growable list of primitive longs.
+     */
+    private static class LongList {
+        private long[] values = new long[4];
+        private int size;
+
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        long[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
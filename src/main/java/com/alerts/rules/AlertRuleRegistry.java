@@ -0,0 +1,155 @@
+package com.alerts.rules;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Holds the alert rule table that is currently in effect. Reloading compiles a complete
+ * new table and swaps the reference in one step, so evaluations running at the same time
+ * keep working on the old table and are never paused.
+ */
+public class AlertRuleRegistry {
+
+    private static final String DEFAULT_RULES_RESOURCE = "/alert-rules.properties";
+
+    private static AlertRuleRegistry instance;
+
+    private volatile AlertRuleTable current;
+    private ScheduledExecutorService watcher;
+    private volatile FileTime lastModified; // Set by watch() and read and updated by the watcher thread
+
+    /**
+     * Private constructor to prevent instantiation.
+     * Loads the bundled rule file, or the built-in defaults if there is none.
+     */
+    private AlertRuleRegistry() {
+        this.current = loadBundledRules();
+    }
+
+    /**
+     * Returns the singleton instance of AlertRuleRegistry.
+     *
+     * @return the singleton instance of AlertRuleRegistry.
+     */
+    public static synchronized AlertRuleRegistry getInstance() {
+        if (instance == null) {
+            instance = new AlertRuleRegistry();
+        }
+        return instance;
+    }
+
+    /**
+     * Returns the rule table currently in effect. Callers should read it once per
+     * evaluation so that all checks of that evaluation use the same rules.
+     *
+     * @return the current rule table
+     */
+    public AlertRuleTable current() {
+        return current;
+    }
+
+    /**
+     * Replaces the current rules with the given table.
+     *
+     * @param table the new rule table
+     */
+    public void update(AlertRuleTable table) {
+        if (table == null) {
+            throw new NullPointerException("Rule table must not be null.");
+        }
+        this.current = table;
+    }
+
+    /**
+     * Compiles the given rule file and makes it the current rule table. If the file
+     * cannot be read or compiled the current rules stay in effect.
+     *
+     * @param file the rule file
+     * @throws IOException if the file cannot be read
+     * @throws IllegalArgumentException if the file contains an invalid rule
+     */
+    public void reload(Path file) throws IOException {
+        update(AlertRuleTable.load(file));
+    }
+
+    /**
+     * Restores the bundled rules and stops watching any rule file.
+     */
+    public synchronized void reset() {
+        stopWatching();
+        this.current = loadBundledRules();
+    }
+
+    /**
+     * Loads the given rule file and keeps checking it for changes in the background.
+     * Every time the file is modified the rules are compiled again and swapped in.
+     *
+     * @param file         the rule file to watch
+     * @param periodMillis how often to check the file, in milliseconds
+     * @throws IOException if the file cannot be read initially
+     */
+    public synchronized void watch(Path file, long periodMillis) throws IOException {
+        stopWatching();
+        lastModified = Files.getLastModifiedTime(file);
+        reload(file);
+
+        watcher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "alert-rule-watcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        watcher.scheduleWithFixedDelay(() -> checkForChanges(file), periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops watching the rule file, keeping the rules that are currently in effect.
+     */
+    public synchronized void stopWatching() {
+        if (watcher != null) {
+            watcher.shutdownNow();
+            watcher = null;
+        }
+    }
+
+    /**
+     * Reloads the rule file if it was modified since the last check.
+     *
+     * @param file the rule file
+     */
+    private void checkForChanges(Path file) {
+        try {
+            FileTime modified = Files.getLastModifiedTime(file);
+            if (modified.equals(lastModified)) {
+                return;
+            }
+            lastModified = modified;
+            reload(file);
+            System.out.println("Alert rules reloaded from " + file);
+        } catch (IOException | IllegalArgumentException e) {
+            // Keep the previous rules so that a broken edit does not stop alerting
+            System.err.println("Error reloading alert rules from " + file + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Loads the rule file bundled with the application.
+     *
+     * @return the bundled rules, or the built-in defaults if the file is missing or invalid
+     */
+    private static AlertRuleTable loadBundledRules() {
+        try (InputStream in = AlertRuleRegistry.class.getResourceAsStream(DEFAULT_RULES_RESOURCE)) {
+            if (in != null) {
+                return AlertRuleTable.load(in);
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("Error loading bundled alert rules: " + e.getMessage());
+        }
+        return AlertRuleTable.defaults();
+    }
+}
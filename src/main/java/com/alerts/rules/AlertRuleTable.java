@@ -0,0 +1,399 @@
+package com.alerts.rules;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Properties;
+
+import com.alerts.AlertCondition;
+
+/**
+ * Immutable, compiled form of the alert rules. Every rule is flattened into primitive
+ * arrays indexed by a small record type code, so the evaluation hot path only does
+ * array lookups and comparisons instead of string matching or virtual calls.
+ *
+ * <p>Rules are read from a properties file where every key has the form
+ * {@code <RecordType>.<setting>}, e.g. {@code SystolicPressure.upper=180}. Settings that
+ * are not present keep their built-in default.</p>
+ *
+ * <p>Rules correlating several record types are written as {@link CompoundRule}s under
+ * {@code compound.<CONDITION>.conditions} and {@code compound.<CONDITION>.window}. Unless
+ * it is defined that way, hypotensive hypoxemia is derived from the systolic and
+ * saturation lower thresholds and {@code HypotensiveHypoxemia.window}.</p>
+ */
+public final class AlertRuleTable {
+
+    /** Record type code for "SystolicPressure" records. */
+    public static final int SYSTOLIC = 0;
+    /** Record type code for "DiastolicPressure" records. */
+    public static final int DIASTOLIC = 1;
+    /** Record type code for "Saturation" records. */
+    public static final int SATURATION = 2;
+    /** Record type code for "ECG" records. */
+    public static final int ECG = 3;
+    /** Code returned for record types that have no rules. */
+    public static final int UNKNOWN = -1;
+
+    private static final String[] RECORD_TYPES = {"SystolicPressure", "DiastolicPressure", "Saturation", "ECG"};
+    private static final String HYPOTENSIVE_HYPOXEMIA = "HypotensiveHypoxemia";
+    private static final String COMPOUND_PREFIX = "compound.";
+    private static final String COMPOUND_CONDITIONS = ".conditions";
+    private static final long DEFAULT_COMPOUND_WINDOW = 600000; // 10 minutes
+
+    // One slot per record type code; NaN disables a threshold
+    private final double[] lower = new double[RECORD_TYPES.length];
+    private final double[] upper = new double[RECORD_TYPES.length];
+    private final long[] windowMillis = new long[RECORD_TYPES.length];
+    private final double[] trendDelta = new double[RECORD_TYPES.length];
+    private final int[] trendLength = new int[RECORD_TYPES.length];
+    private final double[] trendSlope = new double[RECORD_TYPES.length];
+    private final double[] dropPercent = new double[RECORD_TYPES.length];
+    private final double[] intervalTolerance = new double[RECORD_TYPES.length];
+    private long hypotensiveHypoxemiaWindowMillis;
+    private List<CompoundRule> compoundRules;
+
+    /**
+     * Creates a table holding the built-in default rules.
+     */
+    private AlertRuleTable() {
+        Arrays.fill(lower, Double.NaN);
+        Arrays.fill(upper, Double.NaN);
+        Arrays.fill(trendDelta, Double.NaN);
+        Arrays.fill(trendSlope, Double.NaN);
+        Arrays.fill(dropPercent, Double.NaN);
+        Arrays.fill(intervalTolerance, Double.NaN);
+
+        lower[SYSTOLIC] = 90;
+        upper[SYSTOLIC] = 180;
+        windowMillis[SYSTOLIC] = 86400000; // 24 hours
+        trendDelta[SYSTOLIC] = 10;
+        trendLength[SYSTOLIC] = 3;
+
+        lower[DIASTOLIC] = 60;
+        upper[DIASTOLIC] = 120;
+        windowMillis[DIASTOLIC] = 86400000; // 24 hours
+        trendDelta[DIASTOLIC] = 10;
+        trendLength[DIASTOLIC] = 3;
+
+        lower[SATURATION] = 92;
+        windowMillis[SATURATION] = 600000; // 10 minutes
+        dropPercent[SATURATION] = 5;
+
+        lower[ECG] = 50;
+        upper[ECG] = 100;
+        windowMillis[ECG] = 3600000; // 1 hour
+        intervalTolerance[ECG] = 0.1; // 10% variation
+
+        hypotensiveHypoxemiaWindowMillis = 600000; // 10 minutes
+        compoundRules = Collections.singletonList(defaultHypotensiveHypoxemiaRule());
+    }
+
+    /**
+     * Returns a table holding the built-in default rules.
+     *
+     * @return the default rule table
+     */
+    public static AlertRuleTable defaults() {
+        return new AlertRuleTable();
+    }
+
+    /**
+     * Compiles a rule table from properties. Settings that are missing keep their default.
+     *
+     * @param properties the rule definitions
+     * @return the compiled rule table
+     * @throws IllegalArgumentException if a setting holds a value that is not a number
+     */
+    public static AlertRuleTable fromProperties(Properties properties) {
+        AlertRuleTable table = new AlertRuleTable();
+        for (int type = 0; type < RECORD_TYPES.length; type++) {
+            String prefix = RECORD_TYPES[type] + ".";
+            table.lower[type] = readDouble(properties, prefix + "lower", table.lower[type]);
+            table.upper[type] = readDouble(properties, prefix + "upper", table.upper[type]);
+            table.windowMillis[type] = readLong(properties, prefix + "window", table.windowMillis[type]);
+            table.trendDelta[type] = readDouble(properties, prefix + "trendDelta", table.trendDelta[type]);
+            table.trendLength[type] = (int) readLong(properties, prefix + "trendLength", table.trendLength[type]);
+            table.trendSlope[type] = readDouble(properties, prefix + "trendSlope", table.trendSlope[type]);
+            table.dropPercent[type] = readDouble(properties, prefix + "dropPercent", table.dropPercent[type]);
+            table.intervalTolerance[type] = readDouble(properties, prefix + "intervalTolerance", table.intervalTolerance[type]);
+        }
+        table.hypotensiveHypoxemiaWindowMillis = readLong(properties, HYPOTENSIVE_HYPOXEMIA + ".window",
+                table.hypotensiveHypoxemiaWindowMillis);
+        table.compoundRules = readCompoundRules(properties, table);
+        return table;
+    }
+
+    /**
+     * Reads and compiles a rule table from a properties file.
+     *
+     * @param file the rule file
+     * @return the compiled rule table
+     * @throws IOException if the file cannot be read
+     * @throws IllegalArgumentException if a setting holds a value that is not a number
+     */
+    public static AlertRuleTable load(Path file) throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            return load(in);
+        }
+    }
+
+    /**
+     * Reads and compiles a rule table from a stream in properties format.
+     *
+     * @param in the stream to read from
+     * @return the compiled rule table
+     * @throws IOException if the stream cannot be read
+     * @throws IllegalArgumentException if a setting holds a value that is not a number
+     */
+    public static AlertRuleTable load(InputStream in) throws IOException {
+        Properties properties = new Properties();
+        properties.load(in);
+        return fromProperties(properties);
+    }
+
+    /**
+     * Maps a record type name to its code in this table.
+     *
+     * @param recordType the record type, e.g. "SystolicPressure"
+     * @return the record type code, or {@link #UNKNOWN} if there are no rules for it
+     */
+    public static int typeIndex(String recordType) {
+        if (recordType == null) {
+            return UNKNOWN;
+        }
+        switch (recordType) {
+            case "SystolicPressure":
+                return SYSTOLIC;
+            case "DiastolicPressure":
+                return DIASTOLIC;
+            case "Saturation":
+                return SATURATION;
+            case "ECG":
+                return ECG;
+            default:
+                return UNKNOWN;
+        }
+    }
+
+    /**
+     * Checks whether a value is below the lower threshold of a record type.
+     *
+     * @param type  the record type code
+     * @param value the measured value
+     * @return true if the value is below the lower threshold
+     */
+    public boolean isBelow(int type, double value) {
+        return value < lower[type];
+    }
+
+    /**
+     * Checks whether a value is above the upper threshold of a record type.
+     *
+     * @param type  the record type code
+     * @param value the measured value
+     * @return true if the value is above the upper threshold
+     */
+    public boolean isAbove(int type, double value) {
+        return value > upper[type];
+    }
+
+    /**
+     * Checks whether a value lies outside the thresholds of a record type.
+     *
+     * @param type  the record type code
+     * @param value the measured value
+     * @return true if the value is below the lower or above the upper threshold
+     */
+    public boolean isCritical(int type, double value) {
+        return value < lower[type] || value > upper[type];
+    }
+
+    /**
+     * Returns the lower threshold of a record type.
+     *
+     * @param type the record type code
+     * @return the lower threshold, or NaN if there is none
+     */
+    public double getLower(int type) {
+        return lower[type];
+    }
+
+    /**
+     * Returns the upper threshold of a record type.
+     *
+     * @param type the record type code
+     * @return the upper threshold, or NaN if there is none
+     */
+    public double getUpper(int type) {
+        return upper[type];
+    }
+
+    /**
+     * Returns how far back records of a record type are evaluated.
+     *
+     * @param type the record type code
+     * @return the evaluation window in milliseconds
+     */
+    public long getWindowMillis(int type) {
+        return windowMillis[type];
+    }
+
+    /**
+     * Returns the longest window of any rule, i.e. how far back a single fetch has to go
+     * to serve every rule.
+     *
+     * @return the longest evaluation window in milliseconds
+     */
+    public long getMaxWindowMillis() {
+        long max = hypotensiveHypoxemiaWindowMillis;
+        for (long window : windowMillis) {
+            max = Math.max(max, window);
+        }
+        for (CompoundRule rule : compoundRules) {
+            max = Math.max(max, rule.getWindowMillis());
+        }
+        return max;
+    }
+
+    /**
+     * Returns the minimum change between consecutive readings that counts towards a trend.
+     *
+     * @param type the record type code
+     * @return the trend delta
+     */
+    public double getTrendDelta(int type) {
+        return trendDelta[type];
+    }
+
+    /**
+     * Returns the number of consecutive readings that form a trend.
+     *
+     * @param type the record type code
+     * @return the trend length in readings
+     */
+    public int getTrendLength(int type) {
+        return trendLength[type];
+    }
+
+    /**
+     * Returns the regression slope over the last {@link #getTrendLength(int)} readings that
+     * counts as a trend even if single steps are smaller than the trend delta.
+     *
+     * @param type the record type code
+     * @return the slope in units per hour, or NaN if slope detection is disabled
+     */
+    public double getTrendSlope(int type) {
+        return trendSlope[type];
+    }
+
+    /**
+     * Returns the drop between consecutive readings, in percent, that counts as rapid.
+     *
+     * @param type the record type code
+     * @return the drop threshold in percent
+     */
+    public double getDropPercent(int type) {
+        return dropPercent[type];
+    }
+
+    /**
+     * Returns the allowed relative deviation of a sample interval from the average interval.
+     *
+     * @param type the record type code
+     * @return the tolerance as a fraction of the average interval
+     */
+    public double getIntervalTolerance(int type) {
+        return intervalTolerance[type];
+    }
+
+    /**
+     * Returns the window in which low systolic pressure and low saturation are correlated.
+     *
+     * @return the window in milliseconds
+     */
+    public long getHypotensiveHypoxemiaWindowMillis() {
+        return hypotensiveHypoxemiaWindowMillis;
+    }
+
+    /**
+     * Returns the rules that correlate several record types, ordered by condition code.
+     *
+     * @return an unmodifiable list of compound rules
+     */
+    public List<CompoundRule> getCompoundRules() {
+        return compoundRules;
+    }
+
+    /**
+     * Builds the hypotensive hypoxemia rule from the lower systolic and saturation thresholds.
+     *
+     * @return the rule
+     */
+    private CompoundRule defaultHypotensiveHypoxemiaRule() {
+        return new CompoundRule(AlertCondition.HYPOTENSIVE_HYPOXEMIA, hypotensiveHypoxemiaWindowMillis,
+                new int[] {SYSTOLIC, SATURATION}, new boolean[] {true, true},
+                new double[] {lower[SYSTOLIC], lower[SATURATION]});
+    }
+
+    /**
+     * Reads all compound rules defined in the properties.
+     *
+     * @param properties the rule definitions
+     * @param table      the table whose thresholds the default rules are derived from
+     * @return the compound rules ordered by condition code
+     */
+    private static List<CompoundRule> readCompoundRules(Properties properties, AlertRuleTable table) {
+        List<CompoundRule> rules = new ArrayList<>();
+        boolean hasHypotensiveHypoxemia = false;
+        for (String key : properties.stringPropertyNames()) {
+            if (!key.startsWith(COMPOUND_PREFIX) || !key.endsWith(COMPOUND_CONDITIONS)) {
+                continue;
+            }
+            String name = key.substring(COMPOUND_PREFIX.length(), key.length() - COMPOUND_CONDITIONS.length());
+            AlertCondition condition;
+            try {
+                condition = AlertCondition.valueOf(name);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown condition in rule '" + key + "': " + name, e);
+            }
+            long window = readLong(properties, COMPOUND_PREFIX + name + ".window", DEFAULT_COMPOUND_WINDOW);
+            rules.add(CompoundRule.parse(condition, window, properties.getProperty(key)));
+            hasHypotensiveHypoxemia |= condition == AlertCondition.HYPOTENSIVE_HYPOXEMIA;
+        }
+        if (!hasHypotensiveHypoxemia) {
+            rules.add(table.defaultHypotensiveHypoxemiaRule());
+        }
+        rules.sort(Comparator.comparingInt(rule -> rule.getCondition().getCode()));
+        return Collections.unmodifiableList(rules);
+    }
+
+    private static double readDouble(Properties properties, String key, double defaultValue) {
+        String value = properties.getProperty(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Double.parseDouble(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid number for rule '" + key + "': " + value, e);
+        }
+    }
+
+    private static long readLong(Properties properties, String key, long defaultValue) {
+        String value = properties.getProperty(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid number for rule '" + key + "': " + value, e);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.alerts.rules;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.alerts.AlertCondition;
+
+/**
+ * A rule that raises an alert when readings of two or more record types each cross a
+ * threshold within the same time window, e.g. low systolic pressure together with low
+ * saturation. Rules are immutable and are part of an {@link AlertRuleTable}.
+ *
+ * <p>In a rule file a compound rule is written as
+ * {@code compound.<CONDITION>.conditions=SystolicPressure<90;Saturation<92} with an
+ * optional {@code compound.<CONDITION>.window} in milliseconds.</p>
+ */
+public final class CompoundRule {
+
+    private static final Pattern TERM = Pattern.compile("\\s*(\\w+)\\s*([<>])\\s*(\\S+)\\s*");
+
+    private final AlertCondition condition;
+    private final long windowMillis;
+    private final int[] types;
+    private final boolean[] below;
+    private final double[] thresholds;
+
+    /**
+     * Constructs a compound rule.
+     *
+     * @param condition    the condition raised when all terms match
+     * @param windowMillis how close together the matching readings must be, in milliseconds
+     * @param types        the record type code of every term
+     * @param below        for every term, true if readings below the threshold match, false if readings above match
+     * @param thresholds   the threshold of every term
+     */
+    public CompoundRule(AlertCondition condition, long windowMillis, int[] types, boolean[] below, double[] thresholds) {
+        if (types.length < 2 || types.length != below.length || types.length != thresholds.length) {
+            throw new IllegalArgumentException("A compound rule needs at least two terms for " + condition + ".");
+        }
+        this.condition = condition;
+        this.windowMillis = windowMillis;
+        this.types = types.clone();
+        this.below = below.clone();
+        this.thresholds = thresholds.clone();
+    }
+
+    /**
+     * Parses the terms of a compound rule, e.g. {@code SystolicPressure<90;Saturation<92}.
+     *
+     * @param condition    the condition raised when all terms match
+     * @param windowMillis how close together the matching readings must be, in milliseconds
+     * @param terms        the terms separated by ';'
+     * @return the rule
+     * @throws IllegalArgumentException if a term cannot be parsed
+     */
+    public static CompoundRule parse(AlertCondition condition, long windowMillis, String terms) {
+        String[] parts = terms.split(";");
+        int[] types = new int[parts.length];
+        boolean[] below = new boolean[parts.length];
+        double[] thresholds = new double[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            Matcher matcher = TERM.matcher(parts[i]);
+            if (!matcher.matches()) {
+                throw new IllegalArgumentException("Invalid term '" + parts[i] + "' in compound rule " + condition);
+            }
+            types[i] = AlertRuleTable.typeIndex(matcher.group(1));
+            if (types[i] == AlertRuleTable.UNKNOWN) {
+                throw new IllegalArgumentException("Unknown record type '" + matcher.group(1) + "' in compound rule " + condition);
+            }
+            below[i] = matcher.group(2).equals("<");
+            try {
+                thresholds[i] = Double.parseDouble(matcher.group(3));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid threshold '" + matcher.group(3) + "' in compound rule " + condition, e);
+            }
+        }
+        return new CompoundRule(condition, windowMillis, types, below, thresholds);
+    }
+
+    /**
+     * Returns the condition raised when all terms match.
+     *
+     * @return the condition
+     */
+    public AlertCondition getCondition() {
+        return condition;
+    }
+
+    /**
+     * Returns how close together the matching readings must be.
+     *
+     * @return the window in milliseconds
+     */
+    public long getWindowMillis() {
+        return windowMillis;
+    }
+
+    /**
+     * Returns the number of terms of the rule.
+     *
+     * @return the term count
+     */
+    public int getTermCount() {
+        return types.length;
+    }
+
+    /**
+     * Returns the record type a term applies to.
+     *
+     * @param term the term index
+     * @return the record type code
+     */
+    public int getTermType(int term) {
+        return types[term];
+    }
+
+    /**
+     * Checks whether a reading satisfies a term.
+     *
+     * @param term  the term index
+     * @param value the measured value
+     * @return true if the value crosses the threshold of the term
+     */
+    public boolean matches(int term, double value) {
+        return below[term] ? value < thresholds[term] : value > thresholds[term];
+    }
+}
@@ -3,12 +3,12 @@ package com.cardio_generator;
 // first go java libraries 
 import java.util.Collections;
 import java.util.List;
-import java.util.Random;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.SplittableRandom;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
@@ -19,11 +19,27 @@ import com.cardio_generator.generators.BloodPressureDataGenerator;
 import com.cardio_generator.generators.BloodSaturationDataGenerator;
 import com.cardio_generator.generators.BloodLevelsDataGenerator;
 import com.cardio_generator.generators.ECGDataGenerator;
+import com.cardio_generator.generators.HighRateEcgGenerator;
+import com.cardio_generator.generators.PatientDataGenerator;
+import com.cardio_generator.generators.PatientRandomStreams;
+import com.cardio_generator.outputs.AsyncOutputStrategy;
 import com.cardio_generator.outputs.ConsoleOutputStrategy;
 import com.cardio_generator.outputs.FileOutputStrategy;
+import com.cardio_generator.outputs.MappedLogOutputStrategy;
 import com.cardio_generator.outputs.OutputStrategy;
+import com.cardio_generator.outputs.SegmentRotation;
 import com.cardio_generator.outputs.TcpOutputStrategy;
 import com.cardio_generator.outputs.WebSocketOutputStrategy;
+import com.cardio_generator.scheduling.BatchedScheduler;
+import com.cardio_generator.scheduling.LoadProfile;
+import com.cardio_generator.scheduling.LoadProfileScheduler;
+import com.cardio_generator.scheduling.PatientIdSet;
+import com.cardio_generator.scheduling.PerPatientScheduler;
+import com.cardio_generator.scheduling.PhaseSpread;
+import com.cardio_generator.scheduling.SimulatedTimeScheduler;
+import com.cardio_generator.scheduling.SimulationClock;
+import com.cardio_generator.scheduling.SimulationScheduler;
+import com.cardio_generator.scheduling.VirtualThreadScheduler;
 /**
  * HealthDataSimulator simulates health data for a specified number of patients and outputs the data to a specified strategy (console, file, websocket, or TCP).
  */
@@ -31,9 +47,25 @@ public class HealthDataSimulator {
 
     private static HealthDataSimulator instance;
     private static int DEFAULT_PATIENT_COUNT = 50;
-    private static ScheduledExecutorService scheduler;
-    private static OutputStrategy outputStrategy = new ConsoleOutputStrategy();
-    private static final Random RANDOM = new Random();
+    private static SimulationScheduler scheduler;
+    private static String schedulerMode = "per-patient";
+    private static String threadMode = "platform";
+    private static long seed = PatientRandomStreams.randomSeed();
+    private static double speed = 0; // 0 runs on the wall clock
+    private static SimulationClock clock = SimulationClock.SYSTEM;
+    private static int ecgSampleRate = 0; // 0 generates one ECG reading per second
+    private static LoadProfile loadProfile; // null schedules the generators at their fixed periods
+    private static long phaseJitterNanos = 0; // 0 spreads the tasks exactly evenly
+    private static double churnPerMinute = 0; // Patients discharged and admitted per minute
+    private static final List<PatientDataGenerator> generators = new ArrayList<>();
+    private static final PatientIdSet admittedPatients = new PatientIdSet();
+    private static int nextPatientId;
+    private static OutputStrategy outputStrategy; // null writes to the console
+    private static String fileOutputDirectory; // Opened after parsing, when the segment options are known
+    private static long segmentMinutes = 0; // 0 keeps one file per label
+    private static long segmentBytes = 0;
+    private static boolean compressSegments = false;
+    private static AsyncOutputStrategy.OverflowPolicy asyncPolicy; // null writes on the generator threads
 
     /**
      * Private constructor to prevent instantiation.
@@ -60,13 +92,158 @@ public class HealthDataSimulator {
      */
     public void startSimulation(String[] args) throws IOException {
         parseArguments(args);
+        if (fileOutputDirectory != null) {
+            outputStrategy = new FileOutputStrategy(fileOutputDirectory,
+                    new SegmentRotation(segmentMinutes, TimeUnit.MINUTES, segmentBytes, compressSegments));
+        } else if (segmentMinutes > 0 || segmentBytes > 0 || compressSegments) {
+            System.err.println("Segments only apply to file output, ignoring '--segment-minutes', '--segment-size-mb' and '--compress-segments'.");
+        }
+        if (outputStrategy == null) {
+            outputStrategy = new ConsoleOutputStrategy();
+        }
+        if (asyncPolicy != null) {
+            outputStrategy = new AsyncOutputStrategy(outputStrategy, AsyncOutputStrategy.DEFAULT_CAPACITY, asyncPolicy);
+        }
+        if (outputStrategy instanceof AutoCloseable) {
+            AutoCloseable closeable = (AutoCloseable) outputStrategy;
+            // Drain the queue and flush the buffered readings when the simulator is stopped
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    closeable.close();
+                } catch (Exception e) {
+                    System.err.println("Error closing output: " + e.getMessage());
+                }
+            }));
+        }
 
-        scheduler = Executors.newScheduledThreadPool(DEFAULT_PATIENT_COUNT * 4);
+        if (loadProfile != null) {
+            if (speed > 0 || !schedulerMode.equals("per-patient") || !threadMode.equals("platform")) {
+                System.err.println("Load profiles run on a single driver thread, ignoring '--speed', '--scheduler' and '--threads'.");
+            }
+            LoadProfileScheduler loadProfileScheduler = new LoadProfileScheduler(loadProfile);
+            scheduler = loadProfileScheduler;
+            clock = loadProfileScheduler;
+        } else if (speed > 0) {
+            if (!schedulerMode.equals("per-patient") || !threadMode.equals("platform")) {
+                System.err.println("Simulated time runs on a single clock thread, ignoring '--scheduler' and '--threads'.");
+            }
+            SimulatedTimeScheduler simulatedTimeScheduler = new SimulatedTimeScheduler(speed);
+            scheduler = simulatedTimeScheduler;
+            clock = simulatedTimeScheduler;
+        } else if (schedulerMode.equals("batched")) {
+            if (threadMode.equals("virtual")) {
+                System.err.println("The batched scheduler runs on platform threads, ignoring '--threads virtual'.");
+            }
+            scheduler = new BatchedScheduler(Runtime.getRuntime().availableProcessors(), new PhaseSpread(phaseJitterNanos));
+        } else if (threadMode.equals("virtual")) {
+            scheduler = new VirtualThreadScheduler(new PhaseSpread(phaseJitterNanos));
+        } else {
+            scheduler = new PerPatientScheduler(DEFAULT_PATIENT_COUNT * 4, new PhaseSpread(phaseJitterNanos));
+        }
 
         List<Integer> patientIds = initializePatientIds(DEFAULT_PATIENT_COUNT);
         Collections.shuffle(patientIds);
 
         scheduleTasksForPatients(patientIds);
+
+        synchronized (admittedPatients) {
+            for (int patientId : patientIds) {
+                admittedPatients.add(patientId);
+            }
+            nextPatientId = DEFAULT_PATIENT_COUNT + 1;
+        }
+        if (churnPerMinute > 0) {
+            startChurn();
+        }
+        if (scheduler instanceof LoadProfileScheduler) {
+            startLoadReport((LoadProfileScheduler) scheduler);
+        }
+    }
+
+    /**
+     * Reports the target and achieved rate and the send lag of a load test every ten seconds
+     * on the error stream, so that it does not mix with console output.
+     *
+     * @param loadProfileScheduler the scheduler running the load profile
+     */
+    private void startLoadReport(LoadProfileScheduler loadProfileScheduler) {
+        ScheduledExecutorService report = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "load-report");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long[] lastSent = new long[1];
+        report.scheduleAtFixedRate(() -> {
+            long sent = loadProfileScheduler.getSentCount();
+            System.err.printf("Load: target %.0f/s, sent %.0f/s, send lag %s%n",
+                    loadProfileScheduler.getTargetRate(), (sent - lastSent[0]) / 10.0,
+                    loadProfileScheduler.getSendLag());
+            lastSent[0] = sent;
+            loadProfileScheduler.getSendLag().reset();
+        }, 10, 10, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Admits a patient while the simulation runs. The generators create the patient's state
+     * before the scheduler starts generating readings for it.
+     *
+     * @param patientId the ID of the patient, any int
+     */
+    public void admitPatient(int patientId) {
+        synchronized (admittedPatients) {
+            if (!admittedPatients.add(patientId)) {
+                return;
+            }
+        }
+        for (PatientDataGenerator generator : generators) {
+            generator.admit(patientId);
+        }
+        scheduler.admit(patientId);
+    }
+
+    /**
+     * Discharges a patient while the simulation runs. The scheduler stops generating
+     * readings for the patient before the generators release its state.
+     *
+     * @param patientId the ID of the patient
+     */
+    public void dischargePatient(int patientId) {
+        synchronized (admittedPatients) {
+            if (!admittedPatients.remove(patientId)) {
+                return;
+            }
+        }
+        scheduler.discharge(patientId);
+        for (PatientDataGenerator generator : generators) {
+            generator.discharge(patientId);
+        }
+    }
+
+    /**
+     * Simulates ward churn: at the configured rate a random patient is discharged and a
+     * new patient is admitted with the next unused ID, keeping the population constant.
+     */
+    private void startChurn() {
+        SplittableRandom random = new SplittableRandom(seed);
+        ScheduledExecutorService churn = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ward-churn");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMicros = Math.max(1, (long) (60_000_000 / churnPerMinute));
+        churn.scheduleAtFixedRate(() -> {
+            int discharged;
+            int admitted;
+            synchronized (admittedPatients) {
+                if (admittedPatients.size() == 0) {
+                    return;
+                }
+                discharged = admittedPatients.get(random.nextInt(admittedPatients.size()));
+                admitted = nextPatientId++;
+            }
+            dischargePatient(discharged);
+            admitPatient(admitted);
+        }, intervalMicros, intervalMicros, TimeUnit.MICROSECONDS);
     }
 
     /**
@@ -94,15 +271,19 @@ public class HealthDataSimulator {
                 case "--output":
                     if (i + 1 < args.length) {
                         String outputArg = args[++i];
+                        fileOutputDirectory = null;
+                        outputStrategy = null;
                         if (outputArg.equals("console")) {
-                            outputStrategy = new ConsoleOutputStrategy();
+                            // Created after parsing, like the default
                         } else if (outputArg.startsWith("file:")) {
                             String baseDirectory = outputArg.substring(5);
                             Path outputPath = Paths.get(baseDirectory);
                             if (!Files.exists(outputPath)) {
                                 Files.createDirectories(outputPath);
                             }
-                            outputStrategy = new FileOutputStrategy(baseDirectory);
+                            fileOutputDirectory = baseDirectory;
+                        } else if (outputArg.startsWith("mapped:")) {
+                            outputStrategy = new MappedLogOutputStrategy(outputArg.substring(7));
                         } else if (outputArg.startsWith("websocket:")) {
                             try {
                                 int port = Integer.parseInt(outputArg.substring(10));
@@ -126,6 +307,136 @@ public class HealthDataSimulator {
                         }
                     }
                     break;
+                case "--scheduler":
+                    if (i + 1 < args.length) {
+                        String modeArg = args[++i];
+                        if (modeArg.equals("per-patient") || modeArg.equals("batched")) {
+                            schedulerMode = modeArg;
+                        } else {
+                            System.err.println("Unknown scheduler '" + modeArg + "'. Using default (per-patient).");
+                        }
+                    }
+                    break;
+                case "--threads":
+                    if (i + 1 < args.length) {
+                        String threadArg = args[++i];
+                        if (threadArg.equals("platform") || threadArg.equals("virtual")) {
+                            threadMode = threadArg;
+                        } else {
+                            System.err.println("Unknown thread mode '" + threadArg + "'. Using default (platform).");
+                        }
+                    }
+                    break;
+                case "--seed":
+                    if (i + 1 < args.length) {
+                        try {
+                            seed = Long.parseLong(args[++i]);
+                        } catch (NumberFormatException e) {
+                            System.err.println("Error: Invalid seed. Using a random seed.");
+                        }
+                    }
+                    break;
+                case "--speed":
+                    if (i + 1 < args.length) {
+                        try {
+                            speed = Double.parseDouble(args[++i]);
+                            if (!(speed > 0)) {
+                                System.err.println("Error: Speed must be positive. Using the wall clock.");
+                                speed = 0;
+                            }
+                        } catch (NumberFormatException e) {
+                            System.err.println("Error: Invalid speed. Using the wall clock.");
+                        }
+                    }
+                    break;
+                case "--ecg-rate":
+                    if (i + 1 < args.length) {
+                        try {
+                            ecgSampleRate = Integer.parseInt(args[++i]);
+                            if (ecgSampleRate < 1 || ecgSampleRate > 1000) {
+                                System.err.println("Error: ECG rate must be between 1 and 1000 Hz. Using one reading per second.");
+                                ecgSampleRate = 0;
+                            }
+                        } catch (NumberFormatException e) {
+                            System.err.println("Error: Invalid ECG rate. Using one reading per second.");
+                        }
+                    }
+                    break;
+                case "--phase-jitter":
+                    if (i + 1 < args.length) {
+                        try {
+                            double jitterMillis = Double.parseDouble(args[++i]);
+                            if (jitterMillis >= 0) {
+                                phaseJitterNanos = (long) (jitterMillis * 1_000_000);
+                            } else {
+                                System.err.println("Error: Phase jitter must not be negative. Using no jitter.");
+                            }
+                        } catch (NumberFormatException e) {
+                            System.err.println("Error: Invalid phase jitter. Using no jitter.");
+                        }
+                    }
+                    break;
+                case "--load-profile":
+                    if (i + 1 < args.length) {
+                        try {
+                            loadProfile = LoadProfile.parse(args[++i]);
+                        } catch (IllegalArgumentException e) {
+                            System.err.println("Error: " + e.getMessage() + " Using the fixed periods.");
+                        }
+                    }
+                    break;
+                case "--churn":
+                    if (i + 1 < args.length) {
+                        try {
+                            churnPerMinute = Double.parseDouble(args[++i]);
+                        } catch (NumberFormatException e) {
+                            System.err.println("Error: Invalid churn rate. Keeping the population fixed.");
+                        }
+                    }
+                    break;
+                case "--segment-minutes":
+                    if (i + 1 < args.length) {
+                        try {
+                            segmentMinutes = Long.parseLong(args[++i]);
+                            if (segmentMinutes < 0) {
+                                System.err.println("Error: Segment length must not be negative. Rotating by size only.");
+                                segmentMinutes = 0;
+                            }
+                        } catch (NumberFormatException e) {
+                            System.err.println("Error: Invalid segment length. Rotating by size only.");
+                        }
+                    }
+                    break;
+                case "--segment-size-mb":
+                    if (i + 1 < args.length) {
+                        try {
+                            double megabytes = Double.parseDouble(args[++i]);
+                            if (megabytes >= 0) {
+                                segmentBytes = (long) (megabytes * 1024 * 1024);
+                            } else {
+                                System.err.println("Error: Segment size must not be negative. Rotating by time only.");
+                            }
+                        } catch (NumberFormatException e) {
+                            System.err.println("Error: Invalid segment size. Rotating by time only.");
+                        }
+                    }
+                    break;
+                case "--compress-segments":
+                    compressSegments = true;
+                    break;
+                case "--async":
+                    if (i + 1 < args.length) {
+                        String policyArg = args[++i];
+                        try {
+                            asyncPolicy = AsyncOutputStrategy.OverflowPolicy.valueOf(policyArg.toUpperCase());
+                        } catch (IllegalArgumentException e) {
+                            System.err.println("Unknown overflow policy '" + policyArg + "'. Writing on the generator threads.");
+                        }
+                    }
+                    break;
+                case "--as-fast-as-possible":
+                    speed = Double.POSITIVE_INFINITY;
+                    break;
                 default:
                     System.err.println("Unknown option '" + args[i] + "'");
                     printHelp();
@@ -145,8 +456,29 @@ public class HealthDataSimulator {
         System.out.println("  --output <type>          Define the output method. Options are:");
         System.out.println("                             'console' for console output,");
         System.out.println("                             'file:<directory>' for file output,");
+        System.out.println("                             'mapped:<directory>' for a binary append log in memory-mapped segments,");
         System.out.println("                             'websocket:<port>' for WebSocket output,");
         System.out.println("                             'tcp:<port>' for TCP socket output.");
+        System.out.println("  --scheduler <mode>       Define how generators are scheduled. Options are:");
+        System.out.println("                             'per-patient' for one task per patient and generator (default),");
+        System.out.println("                             'batched' for one task per generator and CPU, looping over the patients.");
+        System.out.println("  --threads <mode>         Define the threads of the per-patient scheduler. Options are:");
+        System.out.println("                             'platform' for a pool of four threads per patient (default),");
+        System.out.println("                             'virtual' for one virtual thread per patient and generator.");
+        System.out.println("  --seed <seed>            Seed the generators to replay the same readings (default: random).");
+        System.out.println("  --speed <factor>         Run on a simulated clock that is <factor> times faster than the wall clock.");
+        System.out.println("  --as-fast-as-possible    Run on a simulated clock that advances as fast as the output accepts readings.");
+        System.out.println("  --ecg-rate <hz>          Generate ECG at <hz> samples per second, in blocks of one second (default: 1).");
+        System.out.println("  --phase-jitter <ms>      Move the evenly spread start of every task by up to <ms> milliseconds at random.");
+        System.out.println("  --load-profile <profile> Send readings at a target total rate per second instead of fixed periods:");
+        System.out.println("                             'constant:<rate>', 'ramp:<from>:<to>:<seconds>',");
+        System.out.println("                             'spike:<base>:<peak>:<start>:<duration>' or 'diurnal:<mean>:<amplitude>:<period>'.");
+        System.out.println("  --churn <per minute>     Discharge a random patient and admit a new one <per minute> times a minute.");
+        System.out.println("  --async <policy>         Write the output on its own thread through a queue; when the queue is full:");
+        System.out.println("                             'block' waits, 'drop' drops the reading, 'sample' keeps 1 in 10 once half full.");
+        System.out.println("  --segment-minutes <n>    Start a new file per label every <n> minutes of readings, e.g. ECG-2026-10-16T10-15.txt.");
+        System.out.println("  --segment-size-mb <n>    Start a new file per label once the current one holds <n> MB.");
+        System.out.println("  --compress-segments      Gzip the files of closed segments in the background.");
         System.out.println("Example:");
         System.out.println("  java HealthDataSimulator --patient-count 100 --output websocket:8080");
         System.out.println("  This command simulates data for 100 patients and sends the output to WebSocket clients connected to port 8080.");
@@ -167,34 +499,30 @@ public class HealthDataSimulator {
     }
 
     /**
-     * Schedules the simulation tasks for each patient.
+     * Schedules the simulation tasks for all patients.
      *
      * @param patientIds The list of patient IDs.
      */
     private void scheduleTasksForPatients(List<Integer> patientIds) {
-        ECGDataGenerator ecgDataGenerator = new ECGDataGenerator(DEFAULT_PATIENT_COUNT);
-        BloodSaturationDataGenerator bloodSaturationDataGenerator = new BloodSaturationDataGenerator(DEFAULT_PATIENT_COUNT);
-        BloodPressureDataGenerator bloodPressureDataGenerator = new BloodPressureDataGenerator(DEFAULT_PATIENT_COUNT);
-        BloodLevelsDataGenerator bloodLevelsDataGenerator = new BloodLevelsDataGenerator(DEFAULT_PATIENT_COUNT);
-        AlertGenerator alertGenerator = new AlertGenerator(DEFAULT_PATIENT_COUNT);
-
-        for (int patientId : patientIds) {
-            scheduleTask(() -> ecgDataGenerator.generate(patientId, outputStrategy), 1, TimeUnit.SECONDS);
-            scheduleTask(() -> bloodSaturationDataGenerator.generate(patientId, outputStrategy), 1, TimeUnit.SECONDS);
-            scheduleTask(() -> bloodPressureDataGenerator.generate(patientId, outputStrategy), 1, TimeUnit.MINUTES);
-            scheduleTask(() -> bloodLevelsDataGenerator.generate(patientId, outputStrategy), 2, TimeUnit.MINUTES);
-            scheduleTask(() -> alertGenerator.generate(patientId, outputStrategy), 20, TimeUnit.SECONDS);
-        }
-    }
+        PatientDataGenerator ecgDataGenerator = ecgSampleRate > 0
+                ? new HighRateEcgGenerator(DEFAULT_PATIENT_COUNT, ecgSampleRate, seed, clock)
+                : new ECGDataGenerator(DEFAULT_PATIENT_COUNT, seed, clock);
+        BloodSaturationDataGenerator bloodSaturationDataGenerator = new BloodSaturationDataGenerator(DEFAULT_PATIENT_COUNT, seed, clock);
+        BloodPressureDataGenerator bloodPressureDataGenerator = new BloodPressureDataGenerator(DEFAULT_PATIENT_COUNT, seed, clock);
+        BloodLevelsDataGenerator bloodLevelsDataGenerator = new BloodLevelsDataGenerator(DEFAULT_PATIENT_COUNT, seed, clock);
+        AlertGenerator alertGenerator = new AlertGenerator(DEFAULT_PATIENT_COUNT, seed, clock);
 
-    /**
-     * Schedules a recurring task with a random initial delay.
-     *
-     * @param task   The task to schedule.
-     * @param period The period between successive executions.
-     * @param timeUnit The time unit of the period.
-     */
-    private void scheduleTask(Runnable task, long period, TimeUnit timeUnit) {
-        scheduler.scheduleAtFixedRate(task, RANDOM.nextInt(5), period, timeUnit);
+        generators.add(ecgDataGenerator);
+        generators.add(bloodSaturationDataGenerator);
+        generators.add(bloodPressureDataGenerator);
+        generators.add(bloodLevelsDataGenerator);
+        generators.add(alertGenerator);
+
+        int[] ids = patientIds.stream().mapToInt(Integer::intValue).toArray();
+        scheduler.schedule(ecgDataGenerator, ids, 1, TimeUnit.SECONDS, outputStrategy);
+        scheduler.schedule(bloodSaturationDataGenerator, ids, 1, TimeUnit.SECONDS, outputStrategy);
+        scheduler.schedule(bloodPressureDataGenerator, ids, 1, TimeUnit.MINUTES, outputStrategy);
+        scheduler.schedule(bloodLevelsDataGenerator, ids, 2, TimeUnit.MINUTES, outputStrategy);
+        scheduler.schedule(alertGenerator, ids, 20, TimeUnit.SECONDS, outputStrategy);
     }
 }
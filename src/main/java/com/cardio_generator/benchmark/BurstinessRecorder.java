@@ -0,0 +1,144 @@
+package com.cardio_generator.benchmark;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import com.cardio_generator.outputs.OutputStrategy;
+import com.cardio_generator.outputs.ReadingBatch;
+
+/**
+ * Decorates an output strategy and counts the readings that arrive in every 10 ms bucket of
+ * a measurement window, to show how smoothly a scheduler spreads the readings over time.
+ * A perfectly smooth scheduler puts the same number of readings in every bucket; a bursty
+ * one leaves most buckets empty and crowds the readings into a few.
+ */
+public class BurstinessRecorder implements OutputStrategy {
+
+    /** Width of a bucket in nanoseconds. */
+    public static final long BUCKET_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private final OutputStrategy outputStrategy;
+    private volatile AtomicLongArray buckets = new AtomicLongArray(0);
+    private volatile long startNanos;
+
+    /**
+     * Constructs a recorder. Nothing is counted until {@link #start} is called.
+     *
+     * @param outputStrategy the strategy the readings are passed on to, or null to drop them
+     */
+    public BurstinessRecorder(OutputStrategy outputStrategy) {
+        this.outputStrategy = outputStrategy;
+    }
+
+    /**
+     * Starts a measurement window now, discarding the counts of the previous one.
+     *
+     * @param duration the length of the window
+     * @param timeUnit the time unit of the length
+     */
+    public void start(long duration, TimeUnit timeUnit) {
+        startNanos = System.nanoTime();
+        buckets = new AtomicLongArray((int) (timeUnit.toNanos(duration) / BUCKET_NANOS));
+    }
+
+    /**
+     * Counts one reading and passes it on.
+     *
+     * @param patientId the ID of the patient
+     * @param timestamp the time of the reading
+     * @param label     the type of the reading
+     * @param data      the value of the reading
+     */
+    @Override
+    public void output(int patientId, long timestamp, String label, String data) {
+        record(1);
+        if (outputStrategy != null) {
+            outputStrategy.output(patientId, timestamp, label, data);
+        }
+    }
+
+    /**
+     * Counts a block of samples as one reading per sample and passes it on.
+     *
+     * @param patientId  the ID of the patient
+     * @param timestamp  the time of the first sample
+     * @param sampleRate the samples per second
+     * @param label      the type of the readings
+     * @param samples    the sample values
+     * @param length     the number of samples
+     */
+    @Override
+    public void outputSamples(int patientId, long timestamp, int sampleRate, String label, double[] samples,
+            int length) {
+        record(length);
+        if (outputStrategy != null) {
+            outputStrategy.outputSamples(patientId, timestamp, sampleRate, label, samples, length);
+        }
+    }
+
+    /**
+     * Counts a batch as one reading per entry and passes it on.
+     *
+     * @param batch the readings
+     */
+    @Override
+    public void outputBatch(ReadingBatch batch) {
+        record(batch.size());
+        if (outputStrategy != null) {
+            outputStrategy.outputBatch(batch);
+        }
+    }
+
+    /**
+     * Returns the readings counted in every bucket of the window.
+     *
+     * @return the counts, one per bucket
+     */
+    public long[] getBucketCounts() {
+        AtomicLongArray current = buckets;
+        long[] counts = new long[current.length()];
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = current.get(i);
+        }
+        return counts;
+    }
+
+    /**
+     * Returns a one-line summary of the readings per bucket: mean, median, 99th percentile
+     * and maximum, the share of empty buckets, the peak-to-mean ratio and the coefficient of
+     * variation, which is 0 for a perfectly smooth load.
+     *
+     * @return the summary
+     */
+    @Override
+    public String toString() {
+        long[] counts = getBucketCounts();
+        if (counts.length == 0) {
+            return "no buckets";
+        }
+        double mean = Arrays.stream(counts).average().orElse(0);
+        double variance = Arrays.stream(counts).mapToDouble(count -> (count - mean) * (count - mean)).average().orElse(0);
+        long empty = Arrays.stream(counts).filter(count -> count == 0).count();
+        long[] sorted = counts.clone();
+        Arrays.sort(sorted);
+        long max = sorted[sorted.length - 1];
+        return String.format("per 10ms: mean=%.1f p50=%d p99=%d max=%d empty=%.1f%% peak/mean=%.2f cv=%.3f",
+                mean, sorted[sorted.length / 2], sorted[(int) Math.min(sorted.length - 1, sorted.length * 0.99)],
+                max, 100.0 * empty / counts.length, mean == 0 ? 0 : max / mean,
+                mean == 0 ? 0 : Math.sqrt(variance) / mean);
+    }
+
+    /**
+     * Adds readings to the bucket of the current time, if it lies in the window.
+     *
+     * @param count the number of readings
+     */
+    private void record(int count) {
+        AtomicLongArray current = buckets;
+        long index = (System.nanoTime() - startNanos) / BUCKET_NANOS;
+        if (index >= 0 && index < current.length()) {
+            current.addAndGet((int) index, count);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.cardio_generator.benchmark;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.cardio_generator.outputs.OutputStrategy;
+import com.cardio_generator.outputs.ReadingBatch;
+
+/**
+ * An output strategy that only counts the readings it receives, per label. Used to measure
+ * the simulator itself without the cost of formatting or I/O.
+ */
+public class CountingOutputStrategy implements OutputStrategy {
+
+    private final LongAdder total = new LongAdder();
+    private final Map<String, LongAdder> byLabel = new ConcurrentHashMap<>();
+
+    /**
+     * Counts one reading.
+     *
+     * @param patientId the ID of the patient
+     * @param timestamp the time of the reading
+     * @param label     the type of the reading
+     * @param data      the value of the reading
+     */
+    @Override
+    public void output(int patientId, long timestamp, String label, String data) {
+        total.increment();
+        byLabel.computeIfAbsent(label, k -> new LongAdder()).increment();
+    }
+
+    /**
+     * Counts a block of samples as one reading per sample.
+     *
+     * @param patientId  the ID of the patient
+     * @param timestamp  the time of the first sample
+     * @param sampleRate the samples per second
+     * @param label      the type of the readings
+     * @param samples    the sample values
+     * @param length     the number of samples
+     */
+    @Override
+    public void outputSamples(int patientId, long timestamp, int sampleRate, String label, double[] samples,
+            int length) {
+        total.add(length);
+        byLabel.computeIfAbsent(label, k -> new LongAdder()).add(length);
+    }
+
+    /**
+     * Counts a batch as one reading per entry.
+     *
+     * @param batch the readings
+     */
+    @Override
+    public void outputBatch(ReadingBatch batch) {
+        total.add(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            byLabel.computeIfAbsent(batch.getLabel(i), k -> new LongAdder()).increment();
+        }
+    }
+
+    /**
+     * Returns the number of readings received so far.
+     *
+     * @return the reading count
+     */
+    public long getCount() {
+        return total.sum();
+    }
+
+    /**
+     * Returns the number of readings received so far for a label.
+     *
+     * @param label the type of the reading, e.g. "ECG"
+     * @return the reading count, 0 if none were received
+     */
+    public long getCount(String label) {
+        LongAdder count = byLabel.get(label);
+        return count == null ? 0 : count.sum();
+    }
+}
@@ -0,0 +1,62 @@
+package com.cardio_generator.benchmark;
+
+import com.cardio_generator.generators.ECGDataGenerator;
+import com.cardio_generator.generators.HighRateEcgGenerator;
+import com.cardio_generator.generators.PatientDataGenerator;
+import com.cardio_generator.scheduling.SimulationClock;
+
+/**
+ * Measures how many ECG samples per second a single thread generates into a counting output,
+ * for the block-based high-rate generator and for the per-reading generator, and compares it
+ * with the rate a real-time simulation needs.
+ *
+ * <p>Usage: {@code EcgBenchmark [patientCount] [sampleRate] [seconds]}, by default 500 patients
+ * at 500 Hz for 10 seconds.</p>
+ */
+public class EcgBenchmark {
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args the patient count, the sample rate and the duration in seconds
+     */
+    public static void main(String[] args) {
+        int patientCount = args.length > 0 ? Integer.parseInt(args[0]) : 500;
+        int sampleRate = args.length > 1 ? Integer.parseInt(args[1]) : 500;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+        long required = (long) patientCount * sampleRate;
+
+        double blockRate = measure(new HighRateEcgGenerator(patientCount, sampleRate, 1, SimulationClock.SYSTEM),
+                patientCount, seconds);
+        System.out.printf("Block generator: %.0f samples/s, %.1fx the %d/s needed for %d patients at %d Hz%n",
+                blockRate, blockRate / required, required, patientCount, sampleRate);
+
+        double readingRate = measure(new ECGDataGenerator(patientCount, 1), patientCount, seconds);
+        System.out.printf("Per-reading generator: %.0f samples/s, %.1fx the %d/s needed%n",
+                readingRate, readingRate / required, required);
+    }
+
+    /**
+     * Runs a generator over all patients in a loop, after a warm-up of the same length.
+     *
+     * @param generator    the generator to measure
+     * @param patientCount the number of patients
+     * @param seconds      the duration of the measurement
+     * @return the samples generated per second
+     */
+    private static double measure(PatientDataGenerator generator, int patientCount, int seconds) {
+        for (int round = 0; ; round++) {
+            CountingOutputStrategy output = new CountingOutputStrategy();
+            long start = System.nanoTime();
+            long end = start + seconds * 1_000_000_000L;
+            while (System.nanoTime() < end) {
+                for (int patientId = 1; patientId <= patientCount; patientId++) {
+                    generator.generate(patientId, output);
+                }
+            }
+            if (round > 0) {
+                return output.getCount() / ((System.nanoTime() - start) / 1e9);
+            }
+        }
+    }
+}
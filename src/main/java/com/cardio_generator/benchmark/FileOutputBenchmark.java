@@ -0,0 +1,79 @@
+package com.cardio_generator.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import com.cardio_generator.generators.BloodSaturationDataGenerator;
+import com.cardio_generator.generators.ECGDataGenerator;
+import com.cardio_generator.outputs.FileOutputStrategy;
+import com.cardio_generator.outputs.MappedLogOutputStrategy;
+import com.cardio_generator.outputs.OutputStrategy;
+import com.cardio_generator.scheduling.LoadProfile;
+import com.cardio_generator.scheduling.LoadProfileScheduler;
+
+/**
+ * Offers the file output a constant rate of ECG and saturation readings and reports the rate
+ * it sustains, the send lag and the bytes written. If the output cannot keep up, the achieved
+ * rate stays below the target and the send lag grows for as long as the benchmark runs.
+ *
+ * <p>Usage: {@code FileOutputBenchmark [readingsPerSecond] [seconds] [directory] [text|mapped]},
+ * by default 100,000 readings per second for 20 seconds into a temporary directory, through the
+ * text file output or the memory-mapped append log.</p>
+ */
+public class FileOutputBenchmark {
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args the target rate, the duration in seconds, the output directory and the output
+     * @throws IOException if the output directory cannot be created or measured
+     * @throws InterruptedException if interrupted while the benchmark runs
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        double rate = args.length > 0 ? Double.parseDouble(args[0]) : 100_000;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+        Path directory = args.length > 2 ? Paths.get(args[2]) : Files.createTempDirectory("file-output-benchmark");
+        boolean mapped = args.length > 3 && args[3].equals("mapped");
+        int patientCount = 1000;
+        int[] patientIds = new int[patientCount];
+        for (int i = 0; i < patientCount; i++) {
+            patientIds[i] = i + 1;
+        }
+
+        OutputStrategy output;
+        Runnable close;
+        if (mapped) {
+            MappedLogOutputStrategy mappedLog = new MappedLogOutputStrategy(directory.toString());
+            output = mappedLog;
+            close = mappedLog::close;
+        } else {
+            FileOutputStrategy file = new FileOutputStrategy(directory.toString());
+            output = file;
+            close = file::close;
+        }
+        LoadProfileScheduler scheduler = new LoadProfileScheduler(LoadProfile.constant(rate));
+        scheduler.schedule(new ECGDataGenerator(patientCount, 1, scheduler), patientIds, 1, TimeUnit.SECONDS, output);
+        scheduler.schedule(new BloodSaturationDataGenerator(patientCount, 1, scheduler), patientIds, 1, TimeUnit.SECONDS,
+                output);
+        long start = System.nanoTime();
+        Thread.sleep(TimeUnit.SECONDS.toMillis(seconds));
+        scheduler.close();
+        long sent = scheduler.getSentCount();
+        double elapsed = (System.nanoTime() - start) / 1e9;
+        close.run();
+
+        long bytes = 0;
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                bytes += Files.size(file);
+            }
+        }
+        System.out.printf("Target: %.0f readings/s, achieved: %.0f readings/s, %.1f MB written to %s%n",
+                rate, sent / elapsed, bytes / 1048576.0, directory);
+        System.out.println("Send lag: " + scheduler.getSendLag());
+    }
+}
@@ -0,0 +1,79 @@
+package com.cardio_generator.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import com.alerts.dispatch.LatencyHistogram;
+import com.cardio_generator.generators.PatientDataGenerator;
+import com.cardio_generator.outputs.OutputStrategy;
+
+/**
+ * Decorates a generator and records how far the interval between two readings of the same
+ * patient deviates from the scheduled period.
+ */
+public class JitterRecordingGenerator implements PatientDataGenerator {
+
+    private final PatientDataGenerator generator;
+    private final long periodNanos;
+    private final long[] lastRunNanos;
+    private final LatencyHistogram jitter = new LatencyHistogram();
+
+    /**
+     * Constructs a decorator for the given generator.
+     *
+     * @param generator    the generator to run
+     * @param patientCount the highest patient ID
+     * @param period       the period the generator is scheduled with
+     * @param timeUnit     the time unit of the period
+     */
+    public JitterRecordingGenerator(PatientDataGenerator generator, int patientCount, long period, TimeUnit timeUnit) {
+        this.generator = generator;
+        this.periodNanos = timeUnit.toNanos(period);
+        this.lastRunNanos = new long[patientCount + 1];
+    }
+
+    /**
+     * Records the deviation from the period and runs the decorated generator.
+     *
+     * @param patientId      the ID of the patient
+     * @param outputStrategy the strategy to use for outputting the data
+     */
+    @Override
+    public void generate(int patientId, OutputStrategy outputStrategy) {
+        long now = System.nanoTime();
+        long last = lastRunNanos[patientId];
+        if (last != 0) {
+            jitter.record(Math.abs(now - last - periodNanos));
+        }
+        lastRunNanos[patientId] = now;
+        generator.generate(patientId, outputStrategy);
+    }
+
+    /**
+     * Admits the patient to the decorated generator.
+     *
+     * @param patientId the ID of the patient
+     */
+    @Override
+    public void admit(int patientId) {
+        generator.admit(patientId);
+    }
+
+    /**
+     * Discharges the patient from the decorated generator.
+     *
+     * @param patientId the ID of the patient
+     */
+    @Override
+    public void discharge(int patientId) {
+        generator.discharge(patientId);
+    }
+
+    /**
+     * Returns the histogram of deviations from the period.
+     *
+     * @return the jitter histogram in nanoseconds
+     */
+    public LatencyHistogram getJitter() {
+        return jitter;
+    }
+}
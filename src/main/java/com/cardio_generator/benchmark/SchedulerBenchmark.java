@@ -0,0 +1,152 @@
+package com.cardio_generator.benchmark;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+
+import com.cardio_generator.generators.AlertGenerator;
+import com.cardio_generator.generators.BloodLevelsDataGenerator;
+import com.cardio_generator.generators.BloodPressureDataGenerator;
+import com.cardio_generator.generators.BloodSaturationDataGenerator;
+import com.cardio_generator.generators.ECGDataGenerator;
+import com.cardio_generator.scheduling.BatchedScheduler;
+import com.cardio_generator.scheduling.PerPatientScheduler;
+import com.cardio_generator.scheduling.PhaseSpread;
+import com.cardio_generator.scheduling.SimulationScheduler;
+import com.cardio_generator.scheduling.VirtualThreadScheduler;
+
+/**
+ * Runs the simulator's generators against a counting output for a number of simulated
+ * patients and reports the threads, memory, CPU time, reading throughput, timing jitter and
+ * burstiness of a scheduler mode. The jitter is measured on the ECG generator as the
+ * deviation of the interval between two readings of a patient from the one second period;
+ * the burstiness as the readings of all generators per 10 ms.
+ *
+ * <p>Usage: {@code SchedulerBenchmark [batched|per-patient|virtual] [patientCount] [seconds]
+ * [phaseJitterMillis]}, by default the batched mode with 100,000 patients for 30 seconds and
+ * no phase jitter. Run each configuration
+ * in a fresh JVM. The per-patient mode starts four platform threads per patient, so large
+ * patient counts may exhaust the native threads of the machine.</p>
+ */
+public class SchedulerBenchmark {
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args the scheduler mode, the patient count, the duration in seconds and the
+     *             phase jitter in milliseconds
+     * @throws InterruptedException if interrupted while the benchmark runs
+     */
+    public static void main(String[] args) throws InterruptedException {
+        String mode = args.length > 0 ? args[0] : "batched";
+        int patientCount = args.length > 1 ? Integer.parseInt(args[1]) : 100_000;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 30;
+        double jitterMillis = args.length > 3 ? Double.parseDouble(args[3]) : 0;
+        PhaseSpread phases = new PhaseSpread((long) (jitterMillis * 1_000_000));
+
+        int[] patientIds = new int[patientCount];
+        for (int i = 0; i < patientCount; i++) {
+            patientIds[i] = i + 1;
+        }
+
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        int threadsBefore = threads.getThreadCount();
+        long rssBefore = residentSetKilobytes();
+        CountingOutputStrategy counter = new CountingOutputStrategy();
+        BurstinessRecorder output = new BurstinessRecorder(counter);
+        JitterRecordingGenerator ecg = new JitterRecordingGenerator(new ECGDataGenerator(patientCount),
+                patientCount, 1, TimeUnit.SECONDS);
+        long setupStart = System.nanoTime();
+        try (SimulationScheduler scheduler = createScheduler(mode, patientCount, phases)) {
+            scheduler.schedule(ecg, patientIds, 1, TimeUnit.SECONDS, output);
+            scheduler.schedule(new BloodSaturationDataGenerator(patientCount), patientIds, 1, TimeUnit.SECONDS, output);
+            scheduler.schedule(new BloodPressureDataGenerator(patientCount), patientIds, 1, TimeUnit.MINUTES, output);
+            scheduler.schedule(new BloodLevelsDataGenerator(patientCount), patientIds, 2, TimeUnit.MINUTES, output);
+            scheduler.schedule(new AlertGenerator(patientCount), patientIds, 20, TimeUnit.SECONDS, output);
+            long setupNanos = System.nanoTime() - setupStart;
+
+            // Skip the first periods so every task has started and the first intervals are excluded
+            Thread.sleep(TimeUnit.SECONDS.toMillis(5));
+            ecg.getJitter().reset();
+            output.start(seconds, TimeUnit.SECONDS);
+            long startCount = counter.getCount();
+            long startEcg = counter.getCount("ECG");
+            long startCpu = processCpuNanos();
+            long start = System.nanoTime();
+            Thread.sleep(TimeUnit.SECONDS.toMillis(seconds));
+            double elapsed = (System.nanoTime() - start) / 1e9;
+            double cpu = (processCpuNanos() - startCpu) / 1e9;
+            long readings = counter.getCount() - startCount;
+            long ecgReadings = counter.getCount("ECG") - startEcg;
+            long rss = residentSetKilobytes();
+            Runtime runtime = Runtime.getRuntime();
+
+            System.out.printf("Mode: %s, patients: %d, scheduler threads: %d, JVM threads: %d (peak %d, %d before)%n",
+                    mode, patientCount, scheduler.getThreadCount(), threads.getThreadCount(),
+                    threads.getPeakThreadCount(), threadsBefore);
+            System.out.printf("Memory: heap %.1f MB, RSS %.1f MB (%.1f MB before)%n",
+                    (runtime.totalMemory() - runtime.freeMemory()) / 1048576.0, rss / 1024.0, rssBefore / 1024.0);
+            System.out.printf("CPU: %.2f cores, setup: %.1f ms%n", cpu / elapsed, setupNanos / 1e6);
+            System.out.printf("Readings: %.0f/s, ECG readings: %.0f/s of %d/s expected (%.1f%%)%n",
+                    readings / elapsed, ecgReadings / elapsed, patientCount,
+                    100.0 * ecgReadings / elapsed / patientCount);
+            System.out.println("ECG jitter: " + ecg.getJitter());
+            System.out.println("Burstiness: " + output);
+        }
+    }
+
+    /**
+     * Creates the scheduler for a mode.
+     *
+     * @param mode         "batched", "per-patient" or "virtual"
+     * @param patientCount the number of simulated patients
+     * @param phases       the offsets of the tasks within their periods
+     * @return the scheduler
+     */
+    private static SimulationScheduler createScheduler(String mode, int patientCount, PhaseSpread phases) {
+        switch (mode) {
+            case "per-patient":
+                return new PerPatientScheduler(patientCount * 4, phases);
+            case "virtual":
+                return new VirtualThreadScheduler(phases);
+            case "batched":
+                return new BatchedScheduler(Runtime.getRuntime().availableProcessors(), phases);
+            default:
+                throw new IllegalArgumentException("Unknown scheduler mode: " + mode);
+        }
+    }
+
+    /**
+     * Returns the CPU time used by the process.
+     *
+     * @return the CPU time in nanoseconds, or -1 if it cannot be measured
+     */
+    private static long processCpuNanos() {
+        if (ManagementFactory.getOperatingSystemMXBean() instanceof com.sun.management.OperatingSystemMXBean os) {
+            return os.getProcessCpuTime();
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the resident set size of the process, which includes the native stacks of
+     * platform threads that the heap figures miss.
+     *
+     * @return the resident set size in kilobytes, or 0 where it cannot be read
+     */
+    private static long residentSetKilobytes() {
+        try {
+            for (String line : Files.readAllLines(Paths.get("/proc/self/status"))) {
+                if (line.startsWith("VmRSS:")) {
+                    return Long.parseLong(line.replaceAll("[^0-9]", ""));
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            // Not available on this platform
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,206 @@
+package com.cardio_generator.dataset;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.cardio_generator.outputs.ReadingBatch;
+import com.data_management.BinaryFileReader;
+
+/**
+ * Writes readings as fixed size binary records in the format read by
+ * {@link BinaryFileReader}. A record takes {@value BinaryFileReader#RECORD_SIZE} bytes
+ * instead of the 60 to 90 characters of a text line, and needs no number formatting for
+ * block samples. Records are encoded into one large buffer that is written to the file
+ * channel whenever it is full.
+ */
+public class BinaryDatasetWriter implements DatasetWriter {
+
+    private static final Map<String, Integer> LABEL_CODES = new HashMap<>();
+
+    static {
+        for (int i = 0; i < BinaryFileReader.LABELS.size(); i++) {
+            LABEL_CODES.put(BinaryFileReader.LABELS.get(i), i);
+        }
+    }
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+    private long recordCount;
+    private IOException failure;
+
+    /**
+     * Creates the file, replacing an existing one, and writes the header.
+     *
+     * @param file       the file to write
+     * @param bufferSize the size of the write buffer in bytes
+     * @throws IOException if the file cannot be created
+     */
+    public BinaryDatasetWriter(Path file, int bufferSize) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        this.buffer = ByteBuffer.allocate(Math.max(bufferSize, BinaryFileReader.RECORD_SIZE));
+        buffer.putInt(BinaryFileReader.MAGIC);
+    }
+
+    /**
+     * Appends one reading as a record.
+     *
+     * @param patientId the ID of the patient
+     * @param timestamp the time of the reading
+     * @param label     the type of the reading, one of {@link BinaryFileReader#LABELS}
+     * @param data      the value of the reading
+     * @throws IllegalArgumentException if the label or the value cannot be encoded
+     */
+    @Override
+    public void output(int patientId, long timestamp, String label, String data) {
+        write(patientId, timestamp, labelCode(label), parseValue(data));
+    }
+
+    /**
+     * Appends one numeric reading as a record without formatting it.
+     *
+     * @param patientId the ID of the patient
+     * @param timestamp the time of the reading
+     * @param label     the type of the reading, one of {@link BinaryFileReader#LABELS}
+     * @param value     the value of the reading
+     */
+    @Override
+    public void outputValue(int patientId, long timestamp, String label, double value) {
+        write(patientId, timestamp, labelCode(label), value);
+    }
+
+    /**
+     * Appends a block of samples as one record per sample.
+     *
+     * @param patientId  the ID of the patient
+     * @param timestamp  the time of the first sample
+     * @param sampleRate the samples per second
+     * @param label      the type of the readings, one of {@link BinaryFileReader#LABELS}
+     * @param samples    the sample values
+     * @param length     the number of samples
+     */
+    @Override
+    public void outputSamples(int patientId, long timestamp, int sampleRate, String label, double[] samples,
+            int length) {
+        int code = labelCode(label);
+        for (int i = 0; i < length; i++) {
+            write(patientId, timestamp + i * 1000L / sampleRate, code, samples[i]);
+        }
+    }
+
+    /**
+     * Appends a batch of readings as one record per reading.
+     *
+     * @param batch the readings, with labels from {@link BinaryFileReader#LABELS}
+     */
+    @Override
+    public void outputBatch(ReadingBatch batch) {
+        for (int i = 0; i < batch.size(); i++) {
+            write(batch.getPatientId(i), batch.getTimestamp(i), labelCode(batch.getLabel(i)), batch.getValue(i));
+        }
+    }
+
+    /**
+     * Returns the number of records written so far.
+     *
+     * @return the record count
+     */
+    @Override
+    public long getRecordCount() {
+        return recordCount;
+    }
+
+    /**
+     * Flushes and closes the file.
+     *
+     * @throws IOException if the file cannot be written, including failures of earlier writes
+     */
+    @Override
+    public void close() throws IOException {
+        try (channel) {
+            if (failure == null) {
+                drain();
+            }
+        } catch (IOException e) {
+            if (failure == null) {
+                failure = e;
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Writes one record. The generators swallow exceptions, so a failure is kept and
+     * reported by {@link #close()}.
+     *
+     * @param patientId the ID of the patient
+     * @param timestamp the time of the reading
+     * @param labelCode the index of the label
+     * @param value     the value of the reading
+     */
+    private void write(int patientId, long timestamp, int labelCode, double value) {
+        if (failure != null) {
+            return;
+        }
+        try {
+            if (buffer.remaining() < BinaryFileReader.RECORD_SIZE) {
+                drain();
+            }
+            buffer.putInt(patientId).putLong(timestamp).put((byte) labelCode).putDouble(value);
+            recordCount++;
+        } catch (IOException e) {
+            failure = e;
+        }
+    }
+
+    /**
+     * Writes the buffered records to the file and clears the buffer.
+     *
+     * @throws IOException if the file cannot be written
+     */
+    private void drain() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Returns the code of a label.
+     *
+     * @param label the label of a reading
+     * @return the index of the label in {@link BinaryFileReader#LABELS}
+     */
+    private static int labelCode(String label) {
+        Integer code = LABEL_CODES.get(label);
+        if (code == null) {
+            throw new IllegalArgumentException("Label cannot be stored in a binary dataset: " + label);
+        }
+        return code;
+    }
+
+    /**
+     * Converts the text value of a reading to a number.
+     *
+     * @param data the value as written by the generators, e.g. "97%" or "triggered"
+     * @return the numeric value
+     */
+    private static double parseValue(String data) {
+        switch (data) {
+            case "triggered":
+                return 1;
+            case "resolved":
+                return 0;
+            default:
+                return Double.parseDouble(data.endsWith("%") ? data.substring(0, data.length() - 1) : data);
+        }
+    }
+}
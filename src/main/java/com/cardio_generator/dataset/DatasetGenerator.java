@@ -0,0 +1,275 @@
+package com.cardio_generator.dataset;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import com.cardio_generator.generators.AlertGenerator;
+import com.cardio_generator.generators.BloodLevelsDataGenerator;
+import com.cardio_generator.generators.BloodPressureDataGenerator;
+import com.cardio_generator.generators.BloodSaturationDataGenerator;
+import com.cardio_generator.generators.ECGDataGenerator;
+import com.cardio_generator.generators.HighRateEcgGenerator;
+import com.cardio_generator.generators.PatientDataGenerator;
+import com.cardio_generator.scheduling.SimulationClock;
+
+/**
+ * Writes a complete simulated dataset straight to disk, as fast as the generators and the
+ * disk allow, instead of waiting for the wall clock. The patients are split into one shard
+ * per thread; every shard steps through the simulated time on its own and writes its readings
+ * sequentially to its own file through a large buffer. The generators use the same periods
+ * as the simulator and per-patient random streams, so the same seed always produces the same
+ * dataset whatever the thread count.
+ *
+ * <p>The text format is the one of the file output and is read by
+ * {@link com.data_management.FileReader}; the binary format is read by
+ * {@link com.data_management.BinaryFileReader}.</p>
+ */
+public class DatasetGenerator {
+
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    private final int patientCount;
+    private final long durationSeconds;
+    private final long seed;
+    private final long startMillis;
+    private final boolean binary;
+    private final int ecgSampleRate;
+    private final int threadCount;
+
+    /**
+     * Constructs a dataset generator.
+     *
+     * @param patientCount    the number of patients, with IDs from 1
+     * @param durationSeconds the simulated time the dataset covers
+     * @param seed            the seed of the generators
+     * @param startMillis     the timestamp of the first readings
+     * @param binary          true for the binary format, false for the text format
+     * @param ecgSampleRate   the ECG samples per second, or 0 for one ECG reading per second
+     * @param threadCount     the number of threads, and of output files
+     */
+    public DatasetGenerator(int patientCount, long durationSeconds, long seed, long startMillis, boolean binary,
+            int ecgSampleRate, int threadCount) {
+        if (patientCount < 1 || durationSeconds < 1 || threadCount < 1) {
+            throw new IllegalArgumentException("Patient count, duration and thread count must be positive.");
+        }
+        this.patientCount = patientCount;
+        this.durationSeconds = durationSeconds;
+        this.seed = seed;
+        this.startMillis = startMillis;
+        this.binary = binary;
+        this.ecgSampleRate = ecgSampleRate;
+        this.threadCount = Math.min(threadCount, patientCount);
+    }
+
+    /**
+     * Generates the dataset into a directory, one file per shard.
+     *
+     * @param directory the directory to write the files to, created if needed
+     * @return the number of records written
+     * @throws IOException if a file cannot be written
+     * @throws InterruptedException if interrupted while waiting for the shards
+     */
+    public long generate(Path directory) throws IOException, InterruptedException {
+        Files.createDirectories(directory);
+        ShardClock clock = new ShardClock();
+        PatientDataGenerator ecg = ecgSampleRate > 0
+                ? new HighRateEcgGenerator(patientCount, ecgSampleRate, seed, clock)
+                : new ECGDataGenerator(patientCount, seed, clock);
+        PatientDataGenerator saturation = new BloodSaturationDataGenerator(patientCount, seed, clock);
+        PatientDataGenerator pressure = new BloodPressureDataGenerator(patientCount, seed, clock);
+        PatientDataGenerator levels = new BloodLevelsDataGenerator(patientCount, seed, clock);
+        PatientDataGenerator alerts = new AlertGenerator(patientCount, seed, clock);
+
+        List<Callable<Long>> shards = new ArrayList<>();
+        for (int shard = 0; shard < threadCount; shard++) {
+            int from = (int) ((long) patientCount * shard / threadCount) + 1;
+            int to = (int) ((long) patientCount * (shard + 1) / threadCount);
+            Path file = directory.resolve(String.format("part-%03d.%s", shard, binary ? "bin" : "txt"));
+            shards.add(() -> {
+                try (DatasetWriter writer = binary
+                        ? new BinaryDatasetWriter(file, BUFFER_SIZE)
+                        : new TextDatasetWriter(file, BUFFER_SIZE)) {
+                    for (long second = 0; second < durationSeconds; second++) {
+                        clock.set(startMillis + second * 1000);
+                        // Same periods as the simulator
+                        runAll(ecg, from, to, writer);
+                        runAll(saturation, from, to, writer);
+                        if (second % 20 == 0) {
+                            runAll(alerts, from, to, writer);
+                        }
+                        if (second % 60 == 0) {
+                            runAll(pressure, from, to, writer);
+                        }
+                        if (second % 120 == 0) {
+                            runAll(levels, from, to, writer);
+                        }
+                    }
+                    return writer.getRecordCount();
+                }
+            });
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        try {
+            long records = 0;
+            for (Future<Long> shard : executor.invokeAll(shards)) {
+                records += shard.get();
+            }
+            return records;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IllegalStateException("Dataset shard failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Runs a generator for a range of patients.
+     *
+     * @param generator the generator to run
+     * @param from      the first patient ID
+     * @param to        the last patient ID, inclusive
+     * @param writer    the writer of the shard
+     */
+    private static void runAll(PatientDataGenerator generator, int from, int to, DatasetWriter writer) {
+        for (int patientId = from; patientId <= to; patientId++) {
+            generator.generate(patientId, writer);
+        }
+    }
+
+    /**
+     * Parses the arguments, generates the dataset and reports the throughput.
+     *
+     * <p>Usage: {@code Dataset [--patient-count n] [--duration hours] [--seed seed] [--start millis]
+     * [--format text|binary] [--ecg-rate hz] [--threads n] [--output directory]}</p>
+     *
+     * @param args the command line arguments
+     * @throws IOException if the dataset cannot be written
+     * @throws InterruptedException if interrupted while generating
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int patientCount = 1000;
+        double hours = 24;
+        long seed = 1;
+        long startMillis = 1700000000000L;
+        boolean binary = false;
+        int ecgSampleRate = 0;
+        int threads = Runtime.getRuntime().availableProcessors();
+        String output = "./dataset";
+
+        for (int i = 0; i < args.length; i++) {
+            String value = i + 1 < args.length ? args[i + 1] : null;
+            switch (args[i]) {
+                case "-h":
+                    printHelp();
+                    return;
+                case "--patient-count":
+                    patientCount = Integer.parseInt(value);
+                    i++;
+                    break;
+                case "--duration":
+                    hours = Double.parseDouble(value);
+                    i++;
+                    break;
+                case "--seed":
+                    seed = Long.parseLong(value);
+                    i++;
+                    break;
+                case "--start":
+                    startMillis = Long.parseLong(value);
+                    i++;
+                    break;
+                case "--format":
+                    if (!"text".equals(value) && !"binary".equals(value)) {
+                        System.err.println("Unknown format '" + value + "'. Options are 'text' and 'binary'.");
+                        System.exit(1);
+                    }
+                    binary = value.equals("binary");
+                    i++;
+                    break;
+                case "--ecg-rate":
+                    ecgSampleRate = Integer.parseInt(value);
+                    i++;
+                    break;
+                case "--threads":
+                    threads = Integer.parseInt(value);
+                    i++;
+                    break;
+                case "--output":
+                    output = value;
+                    i++;
+                    break;
+                default:
+                    System.err.println("Unknown option '" + args[i] + "'");
+                    printHelp();
+                    System.exit(1);
+            }
+        }
+
+        Path directory = Paths.get(output);
+        DatasetGenerator generator = new DatasetGenerator(patientCount, (long) (hours * 3600), seed, startMillis,
+                binary, ecgSampleRate, threads);
+        long start = System.nanoTime();
+        long records = generator.generate(directory);
+        double elapsed = (System.nanoTime() - start) / 1e9;
+
+        long bytes = 0;
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                if (file.getFileName().toString().startsWith("part-")) {
+                    bytes += Files.size(file);
+                }
+            }
+        }
+        System.out.printf("Wrote %d records, %.1f MB to %s in %.1f s: %.0f records/s, %.1f MB/s%n",
+                records, bytes / 1048576.0, directory, elapsed, records / elapsed, bytes / 1048576.0 / elapsed);
+    }
+
+    /**
+     * Prints the help message with usage instructions.
+     */
+    private static void printHelp() {
+        System.out.println("Usage: java -jar cardio_generator.jar Dataset [options]");
+        System.out.println("Options:");
+        System.out.println("  -h                       Show help and exit.");
+        System.out.println("  --patient-count <count>  Number of patients (default: 1000).");
+        System.out.println("  --duration <hours>       Simulated time covered by the dataset (default: 24).");
+        System.out.println("  --seed <seed>            Seed of the generators (default: 1).");
+        System.out.println("  --start <millis>         Timestamp of the first readings (default: 1700000000000).");
+        System.out.println("  --format <format>        'text' for the file output format (default), 'binary' for compact records.");
+        System.out.println("  --ecg-rate <hz>          ECG samples per second (default: one reading per second).");
+        System.out.println("  --threads <count>        Threads and output files (default: available processors).");
+        System.out.println("  --output <directory>     Directory to write the dataset to (default: ./dataset).");
+    }
+
+    /**
+     * A clock set by each shard to the simulated second it is generating. Every shard runs
+     * on its own thread, so the time is kept per thread.
+     */
+    private static final class ShardClock implements SimulationClock {
+
+        private final ThreadLocal<long[]> now = ThreadLocal.withInitial(() -> new long[1]);
+
+        private void set(long millis) {
+            now.get()[0] = millis;
+        }
+
+        @Override
+        public long currentTimeMillis() {
+            return now.get()[0];
+        }
+    }
+}
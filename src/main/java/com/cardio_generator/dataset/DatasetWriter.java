@@ -0,0 +1,27 @@
+package com.cardio_generator.dataset;
+
+import java.io.IOException;
+
+import com.cardio_generator.outputs.OutputStrategy;
+
+/**
+ * An output strategy that writes the readings of one dataset shard sequentially to a file.
+ * A writer is used by a single thread and is not thread-safe.
+ */
+public interface DatasetWriter extends OutputStrategy, AutoCloseable {
+
+    /**
+     * Returns the number of records written so far.
+     *
+     * @return the record count
+     */
+    long getRecordCount();
+
+    /**
+     * Flushes and closes the file.
+     *
+     * @throws IOException if the file cannot be written
+     */
+    @Override
+    void close() throws IOException;
+}
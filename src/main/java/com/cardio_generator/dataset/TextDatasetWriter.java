@@ -0,0 +1,139 @@
+package com.cardio_generator.dataset;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import com.cardio_generator.outputs.ReadingBatch;
+
+/**
+ * Writes readings in the text format of the file output, one
+ * {@code Patient ID: %d, Timestamp: %d, Label: %s, Data: %s} line per reading, so the
+ * dataset can be read by {@link com.data_management.FileReader}. The lines are appended
+ * to a large buffer instead of being formatted with {@code printf}.
+ */
+public class TextDatasetWriter implements DatasetWriter {
+
+    private final BufferedWriter out;
+    private final StringBuilder line = new StringBuilder(96);
+    private long recordCount;
+    private IOException failure;
+
+    /**
+     * Creates the file, replacing an existing one.
+     *
+     * @param file       the file to write
+     * @param bufferSize the size of the write buffer in characters
+     * @throws IOException if the file cannot be created
+     */
+    public TextDatasetWriter(Path file, int bufferSize) throws IOException {
+        this.out = new BufferedWriter(new OutputStreamWriter(Files.newOutputStream(file), StandardCharsets.UTF_8),
+                bufferSize);
+    }
+
+    /**
+     * Appends one reading as a line.
+     *
+     * @param patientId the ID of the patient
+     * @param timestamp the time of the reading
+     * @param label     the type of the reading
+     * @param data      the value of the reading
+     */
+    @Override
+    public void output(int patientId, long timestamp, String label, String data) {
+        line.setLength(0);
+        line.append("Patient ID: ").append(patientId)
+                .append(", Timestamp: ").append(timestamp)
+                .append(", Label: ").append(label)
+                .append(", Data: ").append(data).append('\n');
+        write();
+    }
+
+    /**
+     * Appends a block of samples as one line per sample.
+     *
+     * @param patientId  the ID of the patient
+     * @param timestamp  the time of the first sample
+     * @param sampleRate the samples per second
+     * @param label      the type of the readings
+     * @param samples    the sample values
+     * @param length     the number of samples
+     */
+    @Override
+    public void outputSamples(int patientId, long timestamp, int sampleRate, String label, double[] samples,
+            int length) {
+        for (int i = 0; i < length; i++) {
+            line.setLength(0);
+            line.append("Patient ID: ").append(patientId)
+                    .append(", Timestamp: ").append(timestamp + i * 1000L / sampleRate)
+                    .append(", Label: ").append(label)
+                    .append(", Data: ").append(samples[i]).append('\n');
+            write();
+        }
+    }
+
+    /**
+     * Appends a batch of readings as one line per reading.
+     *
+     * @param batch the readings
+     */
+    @Override
+    public void outputBatch(ReadingBatch batch) {
+        for (int i = 0; i < batch.size(); i++) {
+            line.setLength(0);
+            line.append("Patient ID: ").append(batch.getPatientId(i))
+                    .append(", Timestamp: ").append(batch.getTimestamp(i))
+                    .append(", Label: ").append(batch.getLabel(i))
+                    .append(", Data: ").append(batch.getValue(i)).append('\n');
+            write();
+        }
+    }
+
+    /**
+     * Returns the number of lines written so far.
+     *
+     * @return the record count
+     */
+    @Override
+    public long getRecordCount() {
+        return recordCount;
+    }
+
+    /**
+     * Flushes and closes the file.
+     *
+     * @throws IOException if the file cannot be written, including failures of earlier writes
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            out.close();
+        } catch (IOException e) {
+            if (failure == null) {
+                failure = e;
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Writes the current line. The generators swallow exceptions, so a failure is kept and
+     * reported by {@link #close()}.
+     */
+    private void write() {
+        if (failure != null) {
+            return;
+        }
+        try {
+            out.append(line);
+            recordCount++;
+        } catch (IOException e) {
+            failure = e;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.cardio_generator.generators;
+
+import java.util.SplittableRandom;
+
+import com.cardio_generator.scheduling.SimulationClock;
+
+/**
+ * Base class of the generators that keep state per patient. The state lives in a
+ * {@link PatientSlab}, so patients with arbitrary IDs can be admitted and discharged while
+ * the simulation runs. Subclasses create their state columns on {@link #patients} and
+ * initialize a newly admitted patient in {@link #initialize}. The generators admit their
+ * initial patients from their constructors, so they are final classes.
+ */
+public abstract class AbstractPatientDataGenerator implements PatientDataGenerator {
+
+    /** The state of the admitted patients. */
+    protected final PatientSlab patients = new PatientSlab();
+    /** The clock the readings are timestamped with. */
+    protected final SimulationClock clock;
+
+    private final PatientSlab.ObjectColumn<SplittableRandom> randoms = patients.objectColumn();
+    private final PatientRandomStreams randomStreams;
+
+    /**
+     * Constructs a generator without patients.
+     *
+     * @param seed       the seed of the patients' random streams
+     * @param streamName the name of the generator, to derive its own random streams
+     * @param clock      the clock the readings are timestamped with
+     */
+    protected AbstractPatientDataGenerator(long seed, String streamName, SimulationClock clock) {
+        this.randomStreams = new PatientRandomStreams(seed, streamName);
+        this.clock = clock;
+    }
+
+    /**
+     * Admits the patients with IDs from 1 to the given count, the fixed population of the
+     * original simulator.
+     *
+     * @param patientCount the number of patients
+     */
+    protected final void admitAll(int patientCount) {
+        for (int i = 1; i <= patientCount; i++) {
+            admit(i);
+        }
+    }
+
+    /**
+     * Admits a patient and initializes its state. Admitting a patient that is already
+     * admitted has no effect. Final, because the constructors of the generators admit
+     * their initial patients through it.
+     *
+     * @param patientId the ID of the patient
+     */
+    @Override
+    public final void admit(int patientId) {
+        if (patients.slotOf(patientId) >= 0) {
+            return;
+        }
+        int slot = patients.admit(patientId);
+        SplittableRandom random = randomStreams.newStream(patientId);
+        randoms.set(slot, random);
+        initialize(slot, random);
+    }
+
+    /**
+     * Discharges a patient, freeing its state for later admissions. The state is left in
+     * place and the slab keeps the slot out of reuse for a while, so a reading that is still
+     * running for the patient completes normally.
+     *
+     * @param patientId the ID of the patient
+     */
+    @Override
+    public void discharge(int patientId) {
+        patients.discharge(patientId);
+    }
+
+    /**
+     * Returns the number of admitted patients.
+     *
+     * @return the patient count
+     */
+    public int getPatientCount() {
+        return patients.size();
+    }
+
+    /**
+     * Returns the slot of an admitted patient and reports unknown patients.
+     *
+     * @param patientId the ID of the patient
+     * @return the slot, or -1 if the patient is not admitted
+     */
+    protected int slotOf(int patientId) {
+        int slot = patients.slotOf(patientId);
+        if (slot < 0) {
+            System.err.println("Invalid patientId: " + patientId); // Prefer using a logging framework.
+        }
+        return slot;
+    }
+
+    /**
+     * Returns the random stream of a patient.
+     *
+     * @param slot the slot of the patient
+     * @return the patient's random stream
+     */
+    protected SplittableRandom random(int slot) {
+        return randoms.get(slot);
+    }
+
+    /**
+     * Initializes the state of a newly admitted patient.
+     *
+     * @param slot   the slot of the patient
+     * @param random the patient's random stream
+     */
+    protected abstract void initialize(int slot, SplittableRandom random);
+}
@@ -1,28 +1,56 @@
 package com.cardio_generator.generators;
 
-import java.util.Random;
+import java.util.SplittableRandom;
 
 import com.cardio_generator.outputs.OutputStrategy;
+import com.cardio_generator.scheduling.SimulationClock;
 
 /**
  * Generates alert data for patients based on predefined probabilities.
  * This class simulates alert conditions for monitoring systems.
  */
-public class AlertGenerator implements PatientDataGenerator {
-
-    // Changed to UPPER_SNAKE_CASE to indicate that it's a constant
-    public static final Random RANDOM_GENERATOR = new Random();
+public final class AlertGenerator extends AbstractPatientDataGenerator {
 
     // Changed variable name to camelCase to adhere to Java variable naming conventions
-    private boolean[] alertStates; // false = resolved, true = triggered
+    private final PatientSlab.IntColumn alertStates = patients.intColumn(); // 0 = resolved, 1 = triggered
 
     /**
-     * Initializes alert states for each patient.
+     * Initializes alert states for each patient with a random seed.
      * @param patientCount the number of patients to monitor
      */
     public AlertGenerator(int patientCount) {
-        // Changed variable name to camelCase
-        alertStates = new boolean[patientCount + 1]; // Ensures array size accounts for all patient IDs
+        this(patientCount, PatientRandomStreams.randomSeed());
+    }
+
+    /**
+     * Initializes alert states for each patient.
+     * @param patientCount the number of patients to monitor
+     * @param seed the seed of the patients' random streams
+     */
+    public AlertGenerator(int patientCount, long seed) {
+        this(patientCount, seed, SimulationClock.SYSTEM);
+    }
+
+    /**
+     * Initializes alert states for the patients with IDs from 1 to the patient count.
+     * More patients can be admitted later.
+     * @param patientCount the number of patients to monitor
+     * @param seed the seed of the patients' random streams
+     * @param clock the clock the readings are timestamped with
+     */
+    public AlertGenerator(int patientCount, long seed, SimulationClock clock) {
+        super(seed, "Alert", clock);
+        admitAll(patientCount);
+    }
+
+    /**
+     * Starts a newly admitted patient with a resolved alert.
+     * @param slot the slot of the patient
+     * @param random the patient's random stream
+     */
+    @Override
+    protected void initialize(int slot, SplittableRandom random) {
+        alertStates.set(slot, 0);
     }
 
     /**
@@ -32,27 +60,29 @@ public class AlertGenerator implements PatientDataGenerator {
      */
     @Override
     public void generate(int patientId, OutputStrategy outputStrategy) {
+        int slot = slotOf(patientId);
+        if (slot < 0) {
+            return;
+        }
         try {
-            if (alertStates[patientId]) {
+            SplittableRandom random = random(slot);
+            if (alertStates.get(slot) == 1) {
                 // Reduced the use of magic numbers by defining them as static constants
-                if (RANDOM_GENERATOR.nextDouble() < 0.9) { // 90% chance to resolve
-                    alertStates[patientId] = false;
-                    outputStrategy.output(patientId, System.currentTimeMillis(), "Alert", "resolved");
+                if (random.nextDouble() < 0.9) { // 90% chance to resolve
+                    alertStates.set(slot, 0);
+                    outputStrategy.output(patientId, clock.currentTimeMillis(), "Alert", "resolved");
                 }
             } else {
                 // Improved variable names for clarity
                 double alertRate = 0.1; // Adjusted for desired frequency of alerts
                 double alertProbability = -Math.expm1(-alertRate); // Probability of at least one alert in the period
-                boolean alertTriggered = RANDOM_GENERATOR.nextDouble() < alertProbability;
+                boolean alertTriggered = random.nextDouble() < alertProbability;
 
                 if (alertTriggered) {
-                    alertStates[patientId] = true;
-                    outputStrategy.output(patientId, System.currentTimeMillis(), "Alert", "triggered");
+                    alertStates.set(slot, 1);
+                    outputStrategy.output(patientId, clock.currentTimeMillis(), "Alert", "triggered");
                 }
             }
-        } catch (ArrayIndexOutOfBoundsException e) {
-            // Specific exception handling for out-of-bounds access
-            System.err.println("Invalid patient ID: " + patientId);
         } catch (Exception e) {
             // General exception handling, discouraged but used here for unexpected errors
             System.err.println("An unexpected error occurred while generating alert data for patient " + patientId);
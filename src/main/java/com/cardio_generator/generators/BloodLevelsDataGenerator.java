@@ -1,40 +1,67 @@
 package com.cardio_generator.generators;
 
-import java.util.Random;
+import java.util.SplittableRandom;
 import com.cardio_generator.outputs.OutputStrategy;
+import com.cardio_generator.outputs.ReadingBatch;
+import com.cardio_generator.scheduling.SimulationClock;
 
 /**
  * Generator for simulating blood levels data for patients.
  */
 
-public class BloodLevelsDataGenerator implements PatientDataGenerator {
+public final class BloodLevelsDataGenerator extends AbstractPatientDataGenerator {
 
-    // Constants should be in UPPER_SNAKE_CASE (Google Java Style Guide).
-    private static final Random RANDOM = new Random();
+    // One reusable batch per scheduler thread for the three readings of a patient.
+    private static final ThreadLocal<ReadingBatch> BATCH = ThreadLocal.withInitial(() -> new ReadingBatch(3));
 
     // Instance variables should be in camelCase (Google Java Style Guide).
-    private final double[] baselineCholesterol; // Baseline cholesterol levels for patients
-    private final double[] baselineWhiteCells; // Baseline white cell counts for patients
-    private final double[] baselineRedCells; // Baseline red cell counts for patients
+    private final PatientSlab.DoubleColumn baselineCholesterol = patients.doubleColumn(); // Baseline cholesterol levels for patients
+    private final PatientSlab.DoubleColumn baselineWhiteCells = patients.doubleColumn(); // Baseline white cell counts for patients
+    private final PatientSlab.DoubleColumn baselineRedCells = patients.doubleColumn(); // Baseline red cell counts for patients
 
     /**
-     * Initializes new generator with baseline values for each patient.
+     * Initializes new generator with baseline values for each patient and a random seed.
      *
      * @param patientCount the number of patients to generate baseline data for
      */
     public BloodLevelsDataGenerator(int patientCount) {
-        // Initialize arrays to store baseline values for each patient.
-        // The '+1' is to handle patient IDs starting from 1 instead of 0 (Google Java Style Guide).
-        baselineCholesterol = new double[patientCount + 1];
-        baselineWhiteCells = new double[patientCount + 1];
-        baselineRedCells = new double[patientCount + 1];
+        this(patientCount, PatientRandomStreams.randomSeed());
+    }
 
-        // Generate baseline values for each patient.
-        for (int i = 1; i <= patientCount; i++) {
-            baselineCholesterol[i] = 150 + RANDOM.nextDouble() * 50; // Initial random baseline
-            baselineWhiteCells[i] = 4 + RANDOM.nextDouble() * 6; // Initial random baseline
-            baselineRedCells[i] = 4.5 + RANDOM.nextDouble() * 1.5; // Initial random baseline
-        }
+    /**
+     * Initializes new generator with baseline values for each patient.
+     *
+     * @param patientCount the number of patients to generate baseline data for
+     * @param seed the seed of the patients' random streams
+     */
+    public BloodLevelsDataGenerator(int patientCount, long seed) {
+        this(patientCount, seed, SimulationClock.SYSTEM);
+    }
+
+    /**
+     * Initializes new generator with baseline values for the patients with IDs from 1 to the
+     * patient count. More patients can be admitted later.
+     *
+     * @param patientCount the number of patients to generate baseline data for
+     * @param seed the seed of the patients' random streams
+     * @param clock the clock the readings are timestamped with
+     */
+    public BloodLevelsDataGenerator(int patientCount, long seed, SimulationClock clock) {
+        super(seed, "BloodLevels", clock);
+        admitAll(patientCount);
+    }
+
+    /**
+     * Generates the baseline values of a newly admitted patient.
+     *
+     * @param slot the slot of the patient
+     * @param random the patient's random stream
+     */
+    @Override
+    protected void initialize(int slot, SplittableRandom random) {
+        baselineCholesterol.set(slot, 150 + random.nextDouble() * 50); // Initial random baseline
+        baselineWhiteCells.set(slot, 4 + random.nextDouble() * 6); // Initial random baseline
+        baselineRedCells.set(slot, 4.5 + random.nextDouble() * 1.5); // Initial random baseline
     }
 
     /**
@@ -46,25 +73,28 @@ public class BloodLevelsDataGenerator implements PatientDataGenerator {
     @Override
     public void generate(int patientId, OutputStrategy outputStrategy) {
         // It's better to check for valid patientId before proceeding (Google Java Style Guide).
-        if (patientId < 1 || patientId >= baselineCholesterol.length) {
-            // Use a logging framework instead of System.err.println (Google Java Style Guide).
-            System.err.println("Invalid patientId: " + patientId);
+        int slot = slotOf(patientId);
+        if (slot < 0) {
             return;
         }
         
         try {
             // Generate values around the baseline for realism.
             // Local variable names should be in camelCase (Google Java Style Guide).
-            double cholesterol = baselineCholesterol[patientId] + (RANDOM.nextDouble() - 0.5) * 10; 
-            double whiteCells = baselineWhiteCells[patientId] + (RANDOM.nextDouble() - 0.5) * 1; 
-            double redCells = baselineRedCells[patientId] + (RANDOM.nextDouble() - 0.5) * 0.2; 
+            SplittableRandom random = random(slot);
+            double cholesterol = baselineCholesterol.get(slot) + (random.nextDouble() - 0.5) * 10; 
+            double whiteCells = baselineWhiteCells.get(slot) + (random.nextDouble() - 0.5) * 1; 
+            double redCells = baselineRedCells.get(slot) + (random.nextDouble() - 0.5) * 0.2; 
 
-            // Output the generated values. It's efficient to use one timestamp for all outputs.
+            // Output the generated values in one batch. It's efficient to use one timestamp for all outputs.
             // Define a single timestamp for all outputs for consistency (Google Java Style Guide).
-            long timestamp = System.currentTimeMillis();
-            outputStrategy.output(patientId, timestamp, "Cholesterol", Double.toString(cholesterol));
-            outputStrategy.output(patientId, timestamp, "WhiteBloodCells", Double.toString(whiteCells));
-            outputStrategy.output(patientId, timestamp, "RedBloodCells", Double.toString(redCells));
+            long timestamp = clock.currentTimeMillis();
+            ReadingBatch batch = BATCH.get();
+            batch.clear();
+            batch.add(patientId, timestamp, "Cholesterol", cholesterol)
+                    .add(patientId, timestamp, "WhiteBloodCells", whiteCells)
+                    .add(patientId, timestamp, "RedBloodCells", redCells);
+            outputStrategy.outputBatch(batch);
         } catch (Exception e) {
             // Using a logging framework is preferred over printing to stderr (Google Java Style Guide).
             System.err.println("An error occurred while generating blood levels data for patient " + patientId);
@@ -1,34 +1,65 @@
 package com.cardio_generator.generators;
 
-import java.util.Random;
+import java.util.SplittableRandom;
 import com.cardio_generator.outputs.OutputStrategy;
+import com.cardio_generator.outputs.ReadingBatch;
+import com.cardio_generator.scheduling.SimulationClock;
 
 /**
  * Generator for simulating blood pressure data for patients.
  */
-public class BloodPressureDataGenerator implements PatientDataGenerator {
+public final class BloodPressureDataGenerator extends AbstractPatientDataGenerator {
 
-    // Constants should be in UPPER_SNAKE_CASE.
-    private static final Random RANDOM = new Random();
+    // One reusable batch per scheduler thread for the two readings of a patient.
+    private static final ThreadLocal<ReadingBatch> BATCH = ThreadLocal.withInitial(() -> new ReadingBatch(2));
 
     // Instance variables should be in camelCase.
-    private int[] lastSystolicValues;
-    private int[] lastDiastolicValues;
+    private final PatientSlab.IntColumn lastSystolicValues = patients.intColumn();
+    private final PatientSlab.IntColumn lastDiastolicValues = patients.intColumn();
 
     /**
-     * Constructor initializes baseline systolic and diastolic blood pressure values for each patient.
+     * Constructor initializes baseline systolic and diastolic blood pressure values for each patient
+     * with a random seed.
      *
      * @param patientCount the number of patients to initialize
      */
     public BloodPressureDataGenerator(int patientCount) {
-        lastSystolicValues = new int[patientCount + 1]; // Includes an extra entry for convenience
-        lastDiastolicValues = new int[patientCount + 1]; // Includes an extra entry for convenience
+        this(patientCount, PatientRandomStreams.randomSeed());
+    }
 
-        // Initialize with baseline values for each patient.
-        for (int i = 1; i <= patientCount; i++) {
-            lastSystolicValues[i] = 110 + RANDOM.nextInt(20); // Random baseline between 110 and 130
-            lastDiastolicValues[i] = 70 + RANDOM.nextInt(15); // Random baseline between 70 and 85
-        }
+    /**
+     * Constructor initializes baseline systolic and diastolic blood pressure values for each patient.
+     *
+     * @param patientCount the number of patients to initialize
+     * @param seed         the seed of the patients' random streams
+     */
+    public BloodPressureDataGenerator(int patientCount, long seed) {
+        this(patientCount, seed, SimulationClock.SYSTEM);
+    }
+
+    /**
+     * Constructor initializes baseline systolic and diastolic blood pressure values for the
+     * patients with IDs from 1 to the patient count. More patients can be admitted later.
+     *
+     * @param patientCount the number of patients to initialize
+     * @param seed         the seed of the patients' random streams
+     * @param clock        the clock the readings are timestamped with
+     */
+    public BloodPressureDataGenerator(int patientCount, long seed, SimulationClock clock) {
+        super(seed, "BloodPressure", clock);
+        admitAll(patientCount);
+    }
+
+    /**
+     * Initializes the baseline blood pressure of a newly admitted patient.
+     *
+     * @param slot   the slot of the patient
+     * @param random the patient's random stream
+     */
+    @Override
+    protected void initialize(int slot, SplittableRandom random) {
+        lastSystolicValues.set(slot, 110 + random.nextInt(20)); // Random baseline between 110 and 130
+        lastDiastolicValues.set(slot, 70 + random.nextInt(15)); // Random baseline between 70 and 85
     }
 
     /**
@@ -39,30 +70,35 @@ public class BloodPressureDataGenerator implements PatientDataGenerator {
      */
     @Override
     public void generate(int patientId, OutputStrategy outputStrategy) {
-        // Validate patientId range.
-        if (patientId < 1 || patientId >= lastSystolicValues.length) {
-            System.err.println("Invalid patientId: " + patientId); // Prefer using a logging framework.
+        // Validate that the patient is admitted.
+        int slot = slotOf(patientId);
+        if (slot < 0) {
             return;
         }
         
         try {
-            int systolicVariation = RANDOM.nextInt(5) - 2; // Random variation between -2 and 2
-            int diastolicVariation = RANDOM.nextInt(5) - 2; // Random variation between -2 and 2
-            int newSystolicValue = lastSystolicValues[patientId] + systolicVariation;
-            int newDiastolicValue = lastDiastolicValues[patientId] + diastolicVariation;
+            SplittableRandom random = random(slot);
+            int systolicVariation = random.nextInt(5) - 2; // Random variation between -2 and 2
+            int diastolicVariation = random.nextInt(5) - 2; // Random variation between -2 and 2
+            int newSystolicValue = lastSystolicValues.get(slot) + systolicVariation;
+            int newDiastolicValue = lastDiastolicValues.get(slot) + diastolicVariation;
 
             // Ensure the blood pressure stays within a realistic and safe range.
             newSystolicValue = Math.min(Math.max(newSystolicValue, 90), 180);
             newDiastolicValue = Math.min(Math.max(newDiastolicValue, 60), 120);
 
             // Update the last known values.
-            lastSystolicValues[patientId] = newSystolicValue;
-            lastDiastolicValues[patientId] = newDiastolicValue;
+            lastSystolicValues.set(slot, newSystolicValue);
+            lastDiastolicValues.set(slot, newDiastolicValue);
 
-            // Use a single timestamp for both systolic and diastolic pressure to maintain consistency.
-            long timestamp = System.currentTimeMillis();
-            outputStrategy.output(patientId, timestamp, "SystolicPressure", Integer.toString(newSystolicValue));
-            outputStrategy.output(patientId, timestamp, "DiastolicPressure", Integer.toString(newDiastolicValue));
+            // Use a single timestamp for both systolic and diastolic pressure to maintain consistency,
+            // and output both in one batch.
+            long timestamp = clock.currentTimeMillis();
+            ReadingBatch batch = BATCH.get();
+            batch.clear();
+            batch.add(patientId, timestamp, "SystolicPressure", newSystolicValue)
+                    .add(patientId, timestamp, "DiastolicPressure", newDiastolicValue);
+            outputStrategy.outputBatch(batch);
         } catch (Exception e) {
             // Prefer using a logging framework over System.err.
             System.err.println("An error occurred while generating blood pressure data for patient " + patientId);
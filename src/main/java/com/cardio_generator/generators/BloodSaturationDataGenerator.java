@@ -1,31 +1,59 @@
 package com.cardio_generator.generators;
 
-import java.util.Random;
+import java.util.SplittableRandom;
+
 import com.cardio_generator.outputs.OutputStrategy;
+import com.cardio_generator.scheduling.SimulationClock;
 
 /**
  * Generator for simulating blood saturation data for patients.
  */
-public class BloodSaturationDataGenerator implements PatientDataGenerator {
-    
-    // Constants should be in UPPER_SNAKE_CASE according to the style guide.
-    private static final Random RANDOM = new Random();
+public final class BloodSaturationDataGenerator extends AbstractPatientDataGenerator {
     
     // Instance variables should be in camelCase according to the style guide.
-    private int[] lastSaturationValues;
+    private final PatientSlab.IntColumn lastSaturationValues = patients.intColumn();
 
     /**
-     * Constructor initializes baseline saturation values for each patient.
+     * Constructor initializes baseline saturation values for each patient with a random seed.
      *
      * @param patientCount the number of patients to initialize
      */
     public BloodSaturationDataGenerator(int patientCount) {
-        lastSaturationValues = new int[patientCount + 1]; // +1 to accommodate patient IDs starting from 1
+        this(patientCount, PatientRandomStreams.randomSeed());
+    }
 
-        // Initialize with baseline saturation values for each patient.
-        for (int i = 1; i <= patientCount; i++) {
-            lastSaturationValues[i] = 95 + RANDOM.nextInt(6); // Initializes with a value between 95 and 100
-        }
+    /**
+     * Constructor initializes baseline saturation values for each patient.
+     *
+     * @param patientCount the number of patients to initialize
+     * @param seed         the seed of the patients' random streams
+     */
+    public BloodSaturationDataGenerator(int patientCount, long seed) {
+        this(patientCount, seed, SimulationClock.SYSTEM);
+    }
+
+    /**
+     * Constructor initializes baseline saturation values for the patients with IDs from 1 to
+     * the patient count. More patients can be admitted later.
+     *
+     * @param patientCount the number of patients to initialize
+     * @param seed         the seed of the patients' random streams
+     * @param clock        the clock the readings are timestamped with
+     */
+    public BloodSaturationDataGenerator(int patientCount, long seed, SimulationClock clock) {
+        super(seed, "Saturation", clock);
+        admitAll(patientCount);
+    }
+
+    /**
+     * Initializes the baseline saturation of a newly admitted patient.
+     *
+     * @param slot   the slot of the patient
+     * @param random the patient's random stream
+     */
+    @Override
+    protected void initialize(int slot, SplittableRandom random) {
+        lastSaturationValues.set(slot, 95 + random.nextInt(6)); // Initializes with a value between 95 and 100
     }
 
     /**
@@ -36,24 +64,23 @@ public class BloodSaturationDataGenerator implements PatientDataGenerator {
      */
     @Override
     public void generate(int patientId, OutputStrategy outputStrategy) {
-        // Check that the patientId is within the valid range.
-        if (patientId < 1 || patientId >= lastSaturationValues.length) {
-            // Logging should be used instead of System.err for production code.
-            System.err.println("Invalid patientId: " + patientId);
+        // Check that the patient is admitted.
+        int slot = slotOf(patientId);
+        if (slot < 0) {
             return;
         }
         
         try {
             // Simulate blood saturation values with small fluctuations.
-            int variation = RANDOM.nextInt(3) - 1; // -1, 0, or 1 to simulate small fluctuations
-            int newSaturationValue = lastSaturationValues[patientId] + variation;
+            int variation = random(slot).nextInt(3) - 1; // -1, 0, or 1 to simulate small fluctuations
+            int newSaturationValue = lastSaturationValues.get(slot) + variation;
 
             // Ensure the saturation stays within a realistic and healthy range.
             newSaturationValue = Math.min(Math.max(newSaturationValue, 90), 100);
-            lastSaturationValues[patientId] = newSaturationValue;
+            lastSaturationValues.set(slot, newSaturationValue);
 
             // Output saturation as a percentage string.
-            outputStrategy.output(patientId, System.currentTimeMillis(), "Saturation",
+            outputStrategy.output(patientId, clock.currentTimeMillis(), "Saturation",
                     Integer.toString(newSaturationValue) + "%");
         } catch (Exception e) {
             // Consider using a logging framework instead of System.err.
@@ -1,33 +1,61 @@
 package com.cardio_generator.generators;
 
-import java.util.Random;
+import java.util.SplittableRandom;
 import com.cardio_generator.outputs.OutputStrategy;
+import com.cardio_generator.scheduling.SimulationClock;
 
 /**
  * Generator for simulating ECG (electrocardiogram) data for patients.
  */
-public class ECGDataGenerator implements PatientDataGenerator {
-
-    // Random should be in UPPER_SNAKE_CASE since it's a constant.
-    private static final Random RANDOM = new Random();
+public final class ECGDataGenerator extends AbstractPatientDataGenerator {
 
     // Instance variables should be in camelCase.
-    private double[] lastEcgValues;
+    private final PatientSlab.DoubleColumn lastEcgValues = patients.doubleColumn();
 
     // Constants should be in UPPER_SNAKE_CASE and 'Math.PI' is already a constant, so 'PI' is redundant.
     // Removed redundant declaration of PI since Math.PI is already a constant.
 
     /**
-     * Constructor for ECGDataGenerator.
+     * Constructor for ECGDataGenerator with a random seed.
      *
      * @param patientCount the number of patients to initialize
      */
     public ECGDataGenerator(int patientCount) {
-        lastEcgValues = new double[patientCount + 1];
-        // Initialize the last ECG value for each patient to 0.
-        for (int i = 1; i <= patientCount; i++) {
-            lastEcgValues[i] = 0; // Initial ECG value can be set to 0
-        }
+        this(patientCount, PatientRandomStreams.randomSeed());
+    }
+
+    /**
+     * Constructor for ECGDataGenerator.
+     *
+     * @param patientCount the number of patients to initialize
+     * @param seed         the seed of the patients' random streams
+     */
+    public ECGDataGenerator(int patientCount, long seed) {
+        this(patientCount, seed, SimulationClock.SYSTEM);
+    }
+
+    /**
+     * Constructor for ECGDataGenerator with the patients with IDs from 1 to the patient count.
+     * More patients can be admitted later.
+     *
+     * @param patientCount the number of patients to initialize
+     * @param seed         the seed of the patients' random streams
+     * @param clock        the clock the readings are timestamped with
+     */
+    public ECGDataGenerator(int patientCount, long seed, SimulationClock clock) {
+        super(seed, "ECG", clock);
+        admitAll(patientCount);
+    }
+
+    /**
+     * Initializes the last ECG value of a newly admitted patient to 0.
+     *
+     * @param slot   the slot of the patient
+     * @param random the patient's random stream
+     */
+    @Override
+    protected void initialize(int slot, SplittableRandom random) {
+        lastEcgValues.set(slot, 0); // Initial ECG value can be set to 0
     }
 
     /**
@@ -39,15 +67,16 @@ public class ECGDataGenerator implements PatientDataGenerator {
     @Override
     public void generate(int patientId, OutputStrategy outputStrategy) {
         // Validate the patientId before proceeding with data generation.
-        if (patientId < 1 || patientId >= lastEcgValues.length) {
-            System.err.println("Invalid patientId: " + patientId); // Prefer using a logging framework.
+        int slot = slotOf(patientId);
+        if (slot < 0) {
             return;
         }
 
         try {
-            double ecgValue = simulateEcgWaveform(patientId, lastEcgValues[patientId]);
-            outputStrategy.output(patientId, System.currentTimeMillis(), "ECG", Double.toString(ecgValue));
-            lastEcgValues[patientId] = ecgValue;
+            long timestamp = clock.currentTimeMillis();
+            double ecgValue = simulateEcgWaveform(slot, timestamp);
+            outputStrategy.outputValue(patientId, timestamp, "ECG", ecgValue);
+            lastEcgValues.set(slot, ecgValue);
         } catch (Exception e) {
             System.err.println("An error occurred while generating ECG data for patient " + patientId);
             e.printStackTrace(); // Prefer using a logging framework for error handling.
@@ -57,14 +86,15 @@ public class ECGDataGenerator implements PatientDataGenerator {
     /**
      * Simulates an ECG waveform for a given patient.
      *
-     * @param patientId      the ID of the patient
-     * @param lastEcgValue   the last recorded ECG value for the patient
+     * @param slot           the slot of the patient
+     * @param timestamp      the time of the reading in milliseconds
      * @return a simulated ECG waveform value
      */
-    private double simulateEcgWaveform(int patientId, double lastEcgValue) {
+    private double simulateEcgWaveform(int slot, long timestamp) {
         // Simplified ECG waveform generation based on sinusoids.
-        double heartRate = 60.0 + RANDOM.nextDouble() * 20.0; // Heart rate variability between 60 and 80 bpm
-        double currentTime = System.currentTimeMillis() / 1000.0; // Current time in seconds for the ECG signal
+        SplittableRandom random = random(slot);
+        double heartRate = 60.0 + random.nextDouble() * 20.0; // Heart rate variability between 60 and 80 bpm
+        double currentTime = timestamp / 1000.0; // Current time in seconds for the ECG signal
         double ecgFrequency = heartRate / 60.0; // ECG frequency in Hz based on heart rate
 
         // ECG components simulation using sinusoidal functions.
@@ -73,6 +103,6 @@ public class ECGDataGenerator implements PatientDataGenerator {
         double tWave = 0.2 * Math.sin(2 * Math.PI * 2 * ecgFrequency * currentTime + Math.PI / 4); // T wave offset
 
         // Add small random noise to simulate a more realistic ECG signal.
-        return pWave + qrsComplex + tWave + RANDOM.nextDouble() * 0.05;
+        return pWave + qrsComplex + tWave + random.nextDouble() * 0.05;
     }
 }
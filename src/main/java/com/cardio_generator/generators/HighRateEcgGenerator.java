@@ -0,0 +1,154 @@
+package com.cardio_generator.generators;
+
+import java.util.SplittableRandom;
+
+import com.cardio_generator.outputs.OutputStrategy;
+import com.cardio_generator.scheduling.SimulationClock;
+
+/**
+ * Generator for ECG data at a monitor-like sample rate. Every call produces one second of
+ * samples for a patient as a single block, so it is meant to be scheduled once per second.
+ *
+ * <p>The waveform of one beat is computed once into a wavetable from Gaussian P, QRS and T
+ * waves. Each sample only advances the patient's phase by the current heart rate and
+ * interpolates the table, instead of evaluating {@code Math.sin} per sample. The heart rate
+ * drifts slowly between blocks, and the phase carries over so consecutive blocks join.</p>
+ */
+public final class HighRateEcgGenerator extends AbstractPatientDataGenerator {
+
+    private static final int TABLE_SIZE = 1024;
+    // One beat of the waveform with a guard entry so the interpolation never wraps
+    private static final double[] BEAT = buildBeat();
+    private static final double NOISE = 0.02;
+
+    private final int sampleRate;
+    private final PatientSlab.DoubleColumn phases = patients.doubleColumn(); // Position within the current beat, from 0 to 1
+    private final PatientSlab.DoubleColumn heartRates = patients.doubleColumn(); // Beats per minute
+    // Samples only need to live until the output strategy returns, so one block per thread is enough
+    private final ThreadLocal<double[]> blocks;
+
+    /**
+     * Constructs a generator with a random seed on the wall clock.
+     *
+     * @param patientCount the number of patients to initialize
+     * @param sampleRate   the samples per second and patient, e.g. 250 or 500
+     */
+    public HighRateEcgGenerator(int patientCount, int sampleRate) {
+        this(patientCount, sampleRate, PatientRandomStreams.randomSeed(), SimulationClock.SYSTEM);
+    }
+
+    /**
+     * Constructs a generator for the patients with IDs from 1 to the patient count. More
+     * patients can be admitted later.
+     *
+     * @param patientCount the number of patients to initialize
+     * @param sampleRate   the samples per second and patient, e.g. 250 or 500
+     * @param seed         the seed of the patients' random streams
+     * @param clock        the clock the blocks are timestamped with
+     */
+    public HighRateEcgGenerator(int patientCount, int sampleRate, long seed, SimulationClock clock) {
+        super(seed, "HighRateECG", clock);
+        if (sampleRate < 1 || sampleRate > 1000) {
+            throw new IllegalArgumentException("Sample rate must be between 1 and 1000 Hz.");
+        }
+        this.sampleRate = sampleRate;
+        this.blocks = ThreadLocal.withInitial(() -> new double[sampleRate]);
+        admitAll(patientCount);
+    }
+
+    /**
+     * Starts a newly admitted patient at a random point of a beat and a baseline heart rate.
+     *
+     * @param slot   the slot of the patient
+     * @param random the patient's random stream
+     */
+    @Override
+    protected void initialize(int slot, SplittableRandom random) {
+        phases.set(slot, random.nextDouble());
+        heartRates.set(slot, 60 + random.nextDouble() * 20); // Baseline between 60 and 80 bpm
+    }
+
+    /**
+     * Generates one second of ECG samples for a patient and outputs them as one block.
+     *
+     * @param patientId      the ID of the patient for whom to generate data
+     * @param outputStrategy the strategy to use for outputting the data
+     */
+    @Override
+    public void generate(int patientId, OutputStrategy outputStrategy) {
+        int slot = slotOf(patientId);
+        if (slot < 0) {
+            return;
+        }
+
+        try {
+            long timestamp = clock.currentTimeMillis();
+            double[] block = blocks.get();
+            fillBlock(slot, block);
+            outputStrategy.outputSamples(patientId, timestamp, sampleRate, "ECG", block, sampleRate);
+        } catch (Exception e) {
+            System.err.println("An error occurred while generating ECG data for patient " + patientId);
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Returns the samples per second and patient.
+     *
+     * @return the sample rate in Hz
+     */
+    public int getSampleRate() {
+        return sampleRate;
+    }
+
+    /**
+     * Fills a block with the next samples of a patient.
+     *
+     * @param slot  the slot of the patient
+     * @param block the block to fill, one entry per sample
+     */
+    private void fillBlock(int slot, double[] block) {
+        SplittableRandom random = random(slot);
+        double heartRate = Math.min(Math.max(heartRates.get(slot) + (random.nextDouble() - 0.5), 50), 100);
+        heartRates.set(slot, heartRate);
+
+        double step = heartRate / 60.0 / sampleRate * TABLE_SIZE; // Table entries per sample
+        double position = phases.get(slot) * TABLE_SIZE;
+        for (int i = 0; i < block.length; i++) {
+            int index = (int) position;
+            double fraction = position - index;
+            block[i] = BEAT[index] + (BEAT[index + 1] - BEAT[index]) * fraction
+                    + (random.nextDouble() - 0.5) * NOISE;
+            position += step;
+            while (position >= TABLE_SIZE) {
+                position -= TABLE_SIZE;
+            }
+        }
+        phases.set(slot, position / TABLE_SIZE);
+    }
+
+    /**
+     * Computes one beat as the sum of Gaussian P, Q, R, S and T waves.
+     *
+     * @return the wavetable with {@code TABLE_SIZE + 1} entries in millivolts
+     */
+    private static double[] buildBeat() {
+        // Centre, amplitude and width of each wave as fractions of a beat
+        double[][] waves = {
+            {0.20, 0.15, 0.025}, // P
+            {0.37, -0.12, 0.010}, // Q
+            {0.40, 1.00, 0.012}, // R
+            {0.43, -0.25, 0.010}, // S
+            {0.70, 0.30, 0.040}, // T
+        };
+        double[] beat = new double[TABLE_SIZE + 1];
+        for (int i = 0; i <= TABLE_SIZE; i++) {
+            double phase = (double) i / TABLE_SIZE;
+            for (double[] wave : waves) {
+                double distance = (phase - wave[0]) / wave[2];
+                beat[i] += wave[1] * Math.exp(-0.5 * distance * distance);
+            }
+        }
+        return beat;
+    }
+}
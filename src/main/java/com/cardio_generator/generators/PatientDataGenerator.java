@@ -15,4 +15,21 @@ public interface PatientDataGenerator {
      * @param outputStrategy  the strategy for outputting the generated data
      */
     void generate(int patientId, OutputStrategy outputStrategy);
+
+    /**
+     * Adds a patient to the population of the generator at runtime. Generators without
+     * per-patient state accept any patient and need not override this.
+     *
+     * @param patientId the unique identifier of the patient
+     */
+    default void admit(int patientId) {
+    }
+
+    /**
+     * Removes a patient from the population of the generator and releases its state.
+     *
+     * @param patientId the unique identifier of the patient
+     */
+    default void discharge(int patientId) {
+    }
 }
@@ -0,0 +1,60 @@
+package com.cardio_generator.generators;
+
+import java.util.SplittableRandom;
+
+/**
+ * Independent random streams for the patients of one generator, derived from a single seed.
+ * Every patient draws from its own {@link SplittableRandom}, so the scheduler threads never
+ * contend on a shared generator. A patient's stream only depends on the seed, the generator
+ * and the patient ID, so the same seed replays the same values for every patient regardless
+ * of how the patients are spread over threads or when they are admitted.
+ *
+ * <p>A stream is not thread-safe on its own. This is safe because the schedulers never run
+ * the same generator for the same patient concurrently.</p>
+ */
+public class PatientRandomStreams {
+
+    private final long streamSeed;
+
+    /**
+     * Constructs the streams of one generator. Different stream names give unrelated
+     * streams for the same seed, so the generators do not produce correlated values.
+     *
+     * @param seed       the seed of the simulation
+     * @param streamName the name of the generator the streams belong to
+     */
+    public PatientRandomStreams(long seed, String streamName) {
+        this.streamSeed = mix(seed + 0x9E3779B97F4A7C15L * streamName.hashCode());
+    }
+
+    /**
+     * Creates the random stream of a patient, starting from its first value.
+     *
+     * @param patientId the ID of the patient
+     * @return the patient's random stream
+     */
+    public SplittableRandom newStream(int patientId) {
+        return new SplittableRandom(mix(streamSeed ^ (0xBF58476D1CE4E5B9L * patientId)));
+    }
+
+    /**
+     * Returns a fresh seed for simulations that were not given one.
+     *
+     * @return a random seed
+     */
+    public static long randomSeed() {
+        return new SplittableRandom().nextLong();
+    }
+
+    /**
+     * Scrambles the bits of a value so that nearby inputs give unrelated stream seeds.
+     *
+     * @param value the value to scramble
+     * @return the scrambled value
+     */
+    private static long mix(long value) {
+        value = (value ^ (value >>> 30)) * 0xBF58476D1CE4E5B9L;
+        value = (value ^ (value >>> 27)) * 0x94D049BB133111EBL;
+        return value ^ (value >>> 31);
+    }
+}
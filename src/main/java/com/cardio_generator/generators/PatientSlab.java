@@ -0,0 +1,430 @@
+package com.cardio_generator.generators;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Per-patient state of a generator for a population that changes at runtime. Patient IDs
+ * are arbitrary ints that are mapped to dense slots by an open-addressing hash map of
+ * primitive arrays; the state itself is kept in primitive columns indexed by slot.
+ *
+ * <p>Columns are split into chunks of {@value #CHUNK_SIZE} slots. When the slab grows a
+ * chunk is added to every column and the existing chunks are never copied, so a reading
+ * written by a scheduler thread is never lost to a concurrent admission.</p>
+ *
+ * <p>Slots of discharged patients are reused by later admissions, oldest first, but only
+ * after a quarantine. A reading that looked up the slot just before the discharge may still
+ * be updating its state, and must not race with the initialization of the next patient.</p>
+ *
+ * <p>Lookups by the scheduler threads use an optimistic {@link StampedLock} read and do not
+ * write shared memory; admissions and discharges take the write lock. The state of one
+ * patient must only be updated by one thread at a time, which the schedulers guarantee.</p>
+ */
+public class PatientSlab {
+
+    /** Number of slots per column chunk. */
+    public static final int CHUNK_SIZE = 1024;
+    /** Default time a freed slot is kept out of reuse, far longer than any reading runs. */
+    public static final long DEFAULT_QUARANTINE_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private static final int CHUNK_SHIFT = 10;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+    private static final int NO_SLOT = -1;
+
+    private final StampedLock lock = new StampedLock();
+    private final List<Column> columns = new ArrayList<>();
+    // Open addressing with linear probing; slot NO_SLOT marks an empty entry
+    private int[] keys = new int[16];
+    private int[] values = newValues(16);
+    private int size;
+    // Freed slots in discharge order, as a ring buffer, with the time they were freed
+    private final long quarantineNanos;
+    private int[] freedSlots = new int[16];
+    private long[] freedAt = new long[16];
+    private int freedHead;
+    private int freedCount;
+    private int nextSlot;
+    private int chunkCount;
+
+    /**
+     * Constructs an empty slab that keeps freed slots out of reuse for
+     * {@link #DEFAULT_QUARANTINE_NANOS}.
+     */
+    public PatientSlab() {
+        this(DEFAULT_QUARANTINE_NANOS);
+    }
+
+    /**
+     * Constructs an empty slab.
+     *
+     * @param quarantineNanos the time a freed slot is kept out of reuse, in nanoseconds
+     */
+    public PatientSlab(long quarantineNanos) {
+        if (quarantineNanos < 0) {
+            throw new IllegalArgumentException("Quarantine must not be negative.");
+        }
+        this.quarantineNanos = quarantineNanos;
+    }
+
+    /**
+     * Admits a patient and assigns it a slot. Admitting a patient twice returns its slot.
+     *
+     * @param patientId the ID of the patient
+     * @return the slot of the patient, to initialize its state
+     */
+    public int admit(int patientId) {
+        long stamp = lock.writeLock();
+        try {
+            int existing = find(keys, values, patientId);
+            if (existing != NO_SLOT) {
+                return existing;
+            }
+            int slot = takeFreedSlot();
+            while (slot >= chunkCount * CHUNK_SIZE) {
+                for (Column column : columns) {
+                    column.addChunk(chunkCount);
+                }
+                chunkCount++;
+            }
+            if ((size + 1) * 4 > keys.length * 3) {
+                rehash(keys.length * 2);
+            }
+            insert(keys, values, patientId, slot);
+            size++;
+            return slot;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Discharges a patient and frees its slot for reuse once the quarantine has passed.
+     *
+     * @param patientId the ID of the patient
+     * @return the freed slot, or -1 if the patient was not admitted
+     */
+    public int discharge(int patientId) {
+        long stamp = lock.writeLock();
+        try {
+            int slot = remove(patientId);
+            if (slot != NO_SLOT) {
+                size--;
+                addFreedSlot(slot);
+            }
+            return slot;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Returns the slot of a patient.
+     *
+     * @param patientId the ID of the patient
+     * @return the slot, or -1 if the patient is not admitted
+     */
+    public int slotOf(int patientId) {
+        long stamp = lock.tryOptimisticRead();
+        int slot = find(keys, values, patientId);
+        if (lock.validate(stamp)) {
+            return slot;
+        }
+        stamp = lock.readLock();
+        try {
+            return find(keys, values, patientId);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Returns the number of admitted patients.
+     *
+     * @return the patient count
+     */
+    public int size() {
+        long stamp = lock.readLock();
+        try {
+            return size;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Creates a column of doubles with one entry per slot.
+     *
+     * @return the column
+     */
+    public DoubleColumn doubleColumn() {
+        return register(new DoubleColumn());
+    }
+
+    /**
+     * Creates a column of ints with one entry per slot.
+     *
+     * @return the column
+     */
+    public IntColumn intColumn() {
+        return register(new IntColumn());
+    }
+
+    /**
+     * Creates a column of objects with one entry per slot.
+     *
+     * @param <T> the type of the entries
+     * @return the column
+     */
+    public <T> ObjectColumn<T> objectColumn() {
+        return register(new ObjectColumn<>());
+    }
+
+    private <C extends Column> C register(C column) {
+        long stamp = lock.writeLock();
+        try {
+            for (int chunk = 0; chunk < chunkCount; chunk++) {
+                column.addChunk(chunk);
+            }
+            columns.add(column);
+            return column;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Returns the oldest freed slot if its quarantine has passed, or else a new slot.
+     * Called with the write lock held.
+     */
+    private int takeFreedSlot() {
+        if (freedCount > 0 && System.nanoTime() - freedAt[freedHead] >= quarantineNanos) {
+            int slot = freedSlots[freedHead];
+            freedHead = (freedHead + 1) % freedSlots.length;
+            freedCount--;
+            return slot;
+        }
+        return nextSlot++;
+    }
+
+    /**
+     * Queues a freed slot behind the ones freed before it. Called with the write lock held.
+     */
+    private void addFreedSlot(int slot) {
+        if (freedCount == freedSlots.length) {
+            int[] slots = new int[freedCount * 2];
+            long[] times = new long[freedCount * 2];
+            for (int i = 0; i < freedCount; i++) {
+                int from = (freedHead + i) % freedSlots.length;
+                slots[i] = freedSlots[from];
+                times[i] = freedAt[from];
+            }
+            freedSlots = slots;
+            freedAt = times;
+            freedHead = 0;
+        }
+        int tail = (freedHead + freedCount) % freedSlots.length;
+        freedSlots[tail] = slot;
+        freedAt[tail] = System.nanoTime();
+        freedCount++;
+    }
+
+    /**
+     * Looks up a key. May run without a lock, so it tolerates a table that is being
+     * modified; the caller validates the result.
+     */
+    private static int find(int[] keys, int[] values, int patientId) {
+        if (keys.length != values.length) {
+            return NO_SLOT; // Torn read of a rehash, the caller retries under the lock
+        }
+        int mask = keys.length - 1;
+        for (int i = mix(patientId) & mask, probes = 0; probes < keys.length; i = (i + 1) & mask, probes++) {
+            int slot = values[i];
+            if (slot == NO_SLOT) {
+                return NO_SLOT;
+            }
+            if (keys[i] == patientId) {
+                return slot;
+            }
+        }
+        return NO_SLOT;
+    }
+
+    private static void insert(int[] keys, int[] values, int patientId, int slot) {
+        int mask = keys.length - 1;
+        int i = mix(patientId) & mask;
+        while (values[i] != NO_SLOT) {
+            i = (i + 1) & mask;
+        }
+        keys[i] = patientId;
+        values[i] = slot;
+    }
+
+    /**
+     * Removes a key with backward-shift deletion, so lookups never need tombstones.
+     */
+    private int remove(int patientId) {
+        int mask = keys.length - 1;
+        int i = mix(patientId) & mask;
+        while (values[i] != NO_SLOT && keys[i] != patientId) {
+            i = (i + 1) & mask;
+        }
+        int slot = values[i];
+        if (slot == NO_SLOT) {
+            return NO_SLOT;
+        }
+        int gap = i;
+        for (int j = (gap + 1) & mask; values[j] != NO_SLOT; j = (j + 1) & mask) {
+            int home = mix(keys[j]) & mask;
+            // Move the entry into the gap if its home is not between the gap and its position
+            if (((j - home) & mask) >= ((j - gap) & mask)) {
+                keys[gap] = keys[j];
+                values[gap] = values[j];
+                gap = j;
+            }
+        }
+        values[gap] = NO_SLOT;
+        return slot;
+    }
+
+    private void rehash(int capacity) {
+        int[] newKeys = new int[capacity];
+        int[] newValues = newValues(capacity);
+        for (int i = 0; i < keys.length; i++) {
+            if (values[i] != NO_SLOT) {
+                insert(newKeys, newValues, keys[i], values[i]);
+            }
+        }
+        keys = newKeys;
+        values = newValues;
+    }
+
+    private static int[] newValues(int capacity) {
+        int[] values = new int[capacity];
+        Arrays.fill(values, NO_SLOT);
+        return values;
+    }
+
+    private static int mix(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * A column of per-slot state, grown one chunk at a time.
+     */
+    private abstract static class Column {
+
+        abstract void addChunk(int chunk);
+    }
+
+    /**
+     * A column of doubles.
+     */
+    public static final class DoubleColumn extends Column {
+
+        private volatile double[][] chunks = new double[0][];
+
+        /**
+         * Returns the value of a slot.
+         *
+         * @param slot the slot
+         * @return the value
+         */
+        public double get(int slot) {
+            return chunks[slot >>> CHUNK_SHIFT][slot & CHUNK_MASK];
+        }
+
+        /**
+         * Sets the value of a slot.
+         *
+         * @param slot  the slot
+         * @param value the value
+         */
+        public void set(int slot, double value) {
+            chunks[slot >>> CHUNK_SHIFT][slot & CHUNK_MASK] = value;
+        }
+
+        @Override
+        void addChunk(int chunk) {
+            double[][] grown = Arrays.copyOf(chunks, chunk + 1);
+            grown[chunk] = new double[CHUNK_SIZE];
+            chunks = grown;
+        }
+    }
+
+    /**
+     * A column of ints.
+     */
+    public static final class IntColumn extends Column {
+
+        private volatile int[][] chunks = new int[0][];
+
+        /**
+         * Returns the value of a slot.
+         *
+         * @param slot the slot
+         * @return the value
+         */
+        public int get(int slot) {
+            return chunks[slot >>> CHUNK_SHIFT][slot & CHUNK_MASK];
+        }
+
+        /**
+         * Sets the value of a slot.
+         *
+         * @param slot  the slot
+         * @param value the value
+         */
+        public void set(int slot, int value) {
+            chunks[slot >>> CHUNK_SHIFT][slot & CHUNK_MASK] = value;
+        }
+
+        @Override
+        void addChunk(int chunk) {
+            int[][] grown = Arrays.copyOf(chunks, chunk + 1);
+            grown[chunk] = new int[CHUNK_SIZE];
+            chunks = grown;
+        }
+    }
+
+    /**
+     * A column of objects.
+     *
+     * @param <T> the type of the entries
+     */
+    public static final class ObjectColumn<T> extends Column {
+
+        private volatile Object[][] chunks = new Object[0][];
+
+        /**
+         * Returns the entry of a slot.
+         *
+         * @param slot the slot
+         * @return the entry
+         */
+        @SuppressWarnings("unchecked")
+        public T get(int slot) {
+            return (T) chunks[slot >>> CHUNK_SHIFT][slot & CHUNK_MASK];
+        }
+
+        /**
+         * Sets the entry of a slot.
+         *
+         * @param slot  the slot
+         * @param value the entry
+         */
+        public void set(int slot, T value) {
+            chunks[slot >>> CHUNK_SHIFT][slot & CHUNK_MASK] = value;
+        }
+
+        @Override
+        void addChunk(int chunk) {
+            Object[][] grown = Arrays.copyOf(chunks, chunk + 1);
+            grown[chunk] = new Object[CHUNK_SIZE];
+            chunks = grown;
+        }
+    }
+}
@@ -0,0 +1,401 @@
+package com.cardio_generator.outputs;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Decorates an output strategy so that the generator threads only hand their readings to a
+ * bounded ring buffer and return, while a single writer thread drains the buffer and passes
+ * the readings on. A slow sink then delays the writer thread instead of the schedulers, and the
+ * readings keep the timestamps they were generated with.
+ *
+ * <p>The ring buffer is a multi-producer single-consumer queue of preallocated slots. A
+ * producer claims a slot by advancing the tail with a compare-and-set, fills it and publishes
+ * it through the sequence number of the slot; the writer reads published slots in order and
+ * releases them the same way. Consecutive numeric readings are passed on as one
+ * {@link ReadingBatch} of up to {@value #MAX_BATCH} readings, so the sink pays its cost per
+ * call once per batch. The order of the readings of one thread is preserved.</p>
+ *
+ * <p>What happens when the sink falls behind is set by the {@link OverflowPolicy}. The counts
+ * of enqueued and dropped readings and the highest queue depth are kept for monitoring.</p>
+ */
+public final class AsyncOutputStrategy implements OutputStrategy, AutoCloseable {
+
+    /**
+     * What a generator thread does with a reading when the queue cannot take it.
+     */
+    public enum OverflowPolicy {
+        /** Wait until the writer thread frees a slot. No reading is lost. */
+        BLOCK,
+        /** Drop the reading when the queue is full. */
+        DROP,
+        /**
+         * Keep one in {@value AsyncOutputStrategy#SAMPLE_EVERY} readings while the queue is
+         * more than half full, and drop the reading when it is full.
+         */
+        SAMPLE
+    }
+
+    /** Default number of slots of the queue. */
+    public static final int DEFAULT_CAPACITY = 1 << 16;
+    /** Largest number of readings passed on in one batch. */
+    public static final int MAX_BATCH = 1024;
+    /** One in this many readings is kept by {@link OverflowPolicy#SAMPLE} under pressure. */
+    public static final int SAMPLE_EVERY = 10;
+
+    private static final int TEXT = 0;
+    private static final int VALUE = 1;
+    private static final int SAMPLES = 2;
+
+    private final OutputStrategy outputStrategy;
+    private final OverflowPolicy policy;
+    private final Slot[] slots;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long head; // Written by the writer thread only
+    private final LongAdder enqueued = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final AtomicLong highWaterMark = new AtomicLong();
+    private final AtomicLong sampleCounter = new AtomicLong();
+    private final ReadingBatch batch = new ReadingBatch(MAX_BATCH); // Used by the writer thread only
+    private final Thread writer;
+    private volatile boolean closed;
+
+    /**
+     * Constructs an asynchronous output with the default capacity that blocks when full.
+     *
+     * @param outputStrategy the strategy the readings are passed on to
+     */
+    public AsyncOutputStrategy(OutputStrategy outputStrategy) {
+        this(outputStrategy, DEFAULT_CAPACITY, OverflowPolicy.BLOCK);
+    }
+
+    /**
+     * Constructs an asynchronous output and starts its writer thread.
+     *
+     * @param outputStrategy the strategy the readings are passed on to
+     * @param capacity       the number of slots of the queue, rounded up to a power of two
+     * @param policy         what to do with a reading when the queue cannot take it
+     */
+    public AsyncOutputStrategy(OutputStrategy outputStrategy, int capacity, OverflowPolicy policy) {
+        if (capacity < 2 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("Capacity must be between 2 and 2^30.");
+        }
+        int size = Integer.highestOneBit(capacity - 1) << 1;
+        this.outputStrategy = outputStrategy;
+        this.policy = policy;
+        this.slots = new Slot[size];
+        this.sequences = new AtomicLongArray(size);
+        this.mask = size - 1;
+        for (int i = 0; i < size; i++) {
+            slots[i] = new Slot();
+            sequences.set(i, i);
+        }
+        // Last, so the writer thread only sees a fully constructed output
+        this.writer = new Thread(this::drainLoop, "async-output");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Queues a reading given as text.
+     *
+     * @param patientId the ID of the patient
+     * @param timestamp the time of the reading
+     * @param label     the type of the reading
+     * @param data      the value of the reading
+     */
+    @Override
+    public void output(int patientId, long timestamp, String label, String data) {
+        long position = claim();
+        if (position < 0) {
+            return;
+        }
+        Slot slot = slots[(int) position & mask];
+        slot.kind = TEXT;
+        slot.patientId = patientId;
+        slot.timestamp = timestamp;
+        slot.label = label;
+        slot.data = data;
+        publish(position);
+    }
+
+    /**
+     * Queues a numeric reading.
+     *
+     * @param patientId the ID of the patient
+     * @param timestamp the time of the reading
+     * @param label     the type of the reading
+     * @param value     the value of the reading
+     */
+    @Override
+    public void outputValue(int patientId, long timestamp, String label, double value) {
+        long position = claim();
+        if (position < 0) {
+            return;
+        }
+        Slot slot = slots[(int) position & mask];
+        slot.kind = VALUE;
+        slot.patientId = patientId;
+        slot.timestamp = timestamp;
+        slot.label = label;
+        slot.value = value;
+        publish(position);
+    }
+
+    /**
+     * Queues every reading of a batch in its own slot.
+     *
+     * @param batch the readings
+     */
+    @Override
+    public void outputBatch(ReadingBatch batch) {
+        for (int i = 0; i < batch.size(); i++) {
+            outputValue(batch.getPatientId(i), batch.getTimestamp(i), batch.getLabel(i), batch.getValue(i));
+        }
+    }
+
+    /**
+     * Queues a block of samples in one slot. The samples are copied, since the caller may reuse
+     * the array.
+     *
+     * @param patientId  the ID of the patient
+     * @param timestamp  the time of the first sample
+     * @param sampleRate the samples per second
+     * @param label      the type of the readings
+     * @param samples    the sample values
+     * @param length     the number of samples
+     */
+    @Override
+    public void outputSamples(int patientId, long timestamp, int sampleRate, String label, double[] samples,
+            int length) {
+        long position = claim();
+        if (position < 0) {
+            return;
+        }
+        Slot slot = slots[(int) position & mask];
+        slot.kind = SAMPLES;
+        slot.patientId = patientId;
+        slot.timestamp = timestamp;
+        slot.label = label;
+        slot.sampleRate = sampleRate;
+        if (slot.samples == null || slot.samples.length < length) {
+            slot.samples = new double[length];
+        }
+        System.arraycopy(samples, 0, slot.samples, 0, length);
+        slot.length = length;
+        publish(position);
+    }
+
+    /**
+     * Returns the number of readings, or sample blocks, taken into the queue.
+     *
+     * @return the enqueued count
+     */
+    public long getEnqueuedCount() {
+        return enqueued.sum();
+    }
+
+    /**
+     * Returns the number of readings, or sample blocks, dropped by the overflow policy or
+     * because the output was closed.
+     *
+     * @return the dropped count
+     */
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    /**
+     * Returns the highest number of slots in use at once.
+     *
+     * @return the queue high-water mark
+     */
+    public long getHighWaterMark() {
+        return highWaterMark.get();
+    }
+
+    /**
+     * Returns the number of slots of the queue.
+     *
+     * @return the capacity
+     */
+    public int getCapacity() {
+        return slots.length;
+    }
+
+    /**
+     * Stops taking readings, waits until the writer thread has passed on the queued ones and
+     * closes the decorated strategy if it is closeable.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (outputStrategy instanceof AutoCloseable) {
+            try {
+                ((AutoCloseable) outputStrategy).close();
+            } catch (Exception e) {
+                System.err.println("Error closing output: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Returns a one-line summary of the counters.
+     *
+     * @return the summary
+     */
+    @Override
+    public String toString() {
+        return String.format("enqueued=%d dropped=%d high-water=%d/%d", getEnqueuedCount(), getDroppedCount(),
+                getHighWaterMark(), getCapacity());
+    }
+
+    /**
+     * Claims the next slot for the current thread, applying the overflow policy if the queue
+     * cannot take the reading.
+     *
+     * @return the position of the claimed slot, or -1 if the reading is dropped
+     */
+    private long claim() {
+        if (policy == OverflowPolicy.SAMPLE && tail.get() - head > slots.length / 2
+                && sampleCounter.getAndIncrement() % SAMPLE_EVERY != 0) {
+            dropped.increment();
+            return -1;
+        }
+        long position = tail.get();
+        while (!closed) {
+            long available = sequences.get((int) position & mask) - position;
+            if (available == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    long depth = position + 1 - head;
+                    if (depth > highWaterMark.get()) {
+                        highWaterMark.accumulateAndGet(depth, Math::max);
+                    }
+                    enqueued.increment();
+                    return position;
+                }
+                position = tail.get();
+            } else if (available < 0) {
+                // The slot still holds a reading of the previous lap: the queue is full
+                if (policy != OverflowPolicy.BLOCK) {
+                    break;
+                }
+                LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(10));
+                position = tail.get();
+            } else {
+                position = tail.get();
+            }
+        }
+        dropped.increment();
+        return -1;
+    }
+
+    /**
+     * Hands a filled slot to the writer thread.
+     *
+     * @param position the position of the slot
+     */
+    private void publish(long position) {
+        sequences.set((int) position & mask, position + 1);
+    }
+
+    /**
+     * Passes on the queued readings until the output is closed and the queue is empty.
+     */
+    private void drainLoop() {
+        int idle = 0;
+        while (true) {
+            if (drain() > 0) {
+                idle = 0;
+            } else if (closed && head == tail.get()) {
+                return;
+            } else if (++idle < 100) {
+                Thread.onSpinWait();
+            } else {
+                LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(50));
+            }
+        }
+    }
+
+    /**
+     * Passes on up to {@value #MAX_BATCH} published readings, in order.
+     *
+     * @return the number of slots drained
+     */
+    private int drain() {
+        long position = head;
+        int drained = 0;
+        while (drained < MAX_BATCH && sequences.get((int) position & mask) == position + 1) {
+            Slot slot = slots[(int) position & mask];
+            try {
+                if (slot.kind == VALUE) {
+                    batch.add(slot.patientId, slot.timestamp, slot.label, slot.value);
+                } else {
+                    flushBatch();
+                    if (slot.kind == TEXT) {
+                        outputStrategy.output(slot.patientId, slot.timestamp, slot.label, slot.data);
+                    } else {
+                        outputStrategy.outputSamples(slot.patientId, slot.timestamp, slot.sampleRate, slot.label,
+                                slot.samples, slot.length);
+                    }
+                }
+            } catch (RuntimeException e) {
+                System.err.println("Error passing on reading: " + e.getMessage());
+            }
+            slot.label = null;
+            slot.data = null;
+            // Advance the head before releasing the slot, so producers never see more in use than the capacity
+            head = position + 1;
+            sequences.lazySet((int) position & mask, position + slots.length);
+            position++;
+            drained++;
+        }
+        try {
+            flushBatch();
+        } catch (RuntimeException e) {
+            System.err.println("Error passing on readings: " + e.getMessage());
+        }
+        return drained;
+    }
+
+    /**
+     * Passes on the gathered numeric readings as one batch.
+     */
+    private void flushBatch() {
+        if (batch.size() == 0) {
+            return;
+        }
+        try {
+            outputStrategy.outputBatch(batch);
+        } finally {
+            batch.clear();
+        }
+    }
+
+    /**
+     * One queued reading or block of samples. Written by the producer that claimed it and read
+     * by the writer thread, with the sequence number of the slot ordering the two.
+     */
+    private static final class Slot {
+
+        private int kind;
+        private int patientId;
+        private long timestamp;
+        private String label;
+        private String data;
+        private double value;
+        private double[] samples;
+        private int sampleRate;
+        private int length;
+    }
+}
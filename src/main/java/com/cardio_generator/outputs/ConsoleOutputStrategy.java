@@ -1,9 +1,65 @@
 package com.cardio_generator.outputs;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
 /**
  * Strategy for outputting patient data to the console.
+ *
+ * <p>Lines are formatted with appends into a builder of the calling thread, without parsing a
+ * format string, and then copied into one shared byte buffer under a short lock. The buffer
+ * is written to standard output in a single call when it is full and, at the latest, after
+ * the flush interval, instead of one synchronized, flushed print per reading.
+ * {@link #close()} writes what is still buffered.</p>
  */
-public class ConsoleOutputStrategy implements OutputStrategy {
+public final class ConsoleOutputStrategy implements OutputStrategy, AutoCloseable {
+
+    /** Default size of the output buffer in bytes. */
+    public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+    /** Default time after which buffered lines are written, in milliseconds. */
+    public static final long DEFAULT_FLUSH_INTERVAL_MILLIS = 100;
+
+    private final OutputStream out;
+    private final byte[] buffer;
+    private int count; // Guarded by this
+    private boolean closed; // Guarded by this
+    private final ThreadLocal<StringBuilder> lines = ThreadLocal.withInitial(() -> new StringBuilder(128));
+    private final ScheduledExecutorService flusher;
+
+    /**
+     * Constructs a console output on the current standard output with the default buffer size
+     * and flush interval.
+     */
+    public ConsoleOutputStrategy() {
+        this(System.out, DEFAULT_BUFFER_SIZE, DEFAULT_FLUSH_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Constructs a console output on a stream.
+     *
+     * @param out           the stream the lines are written to
+     * @param bufferSize    the size of the output buffer in bytes
+     * @param flushInterval the time after which buffered lines are written
+     * @param timeUnit      the time unit of the flush interval
+     */
+    public ConsoleOutputStrategy(OutputStream out, int bufferSize, long flushInterval, TimeUnit timeUnit) {
+        if (bufferSize < 1 || flushInterval < 1) {
+            throw new IllegalArgumentException("Buffer size and flush interval must be positive.");
+        }
+        this.out = out;
+        this.buffer = new byte[bufferSize];
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "console-output-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Last, so the flusher thread only sees a fully constructed output
+        flusher.scheduleWithFixedDelay(this::flush, flushInterval, flushInterval, timeUnit);
+    }
 
     /**
      * Outputs the provided patient data to the console.
@@ -15,6 +71,172 @@ public class ConsoleOutputStrategy implements OutputStrategy {
      */
     @Override
     public void output(int patientId, long timestamp, String label, String data) {
-        System.out.printf("Patient ID: %d, Timestamp: %d, Label: %s, Data: %s%n", patientId, timestamp, label, data);
+        StringBuilder line = startLine(patientId, timestamp, label);
+        line.append(data).append(System.lineSeparator());
+        write(line);
+    }
+
+    /**
+     * Outputs a numeric reading without formatting it to a string first.
+     *
+     * @param patientId the unique identifier of the patient
+     * @param timestamp the time at which the data was recorded
+     * @param label     the type of data (e.g., 'ECG')
+     * @param value     the value of the reading
+     */
+    @Override
+    public void outputValue(int patientId, long timestamp, String label, double value) {
+        StringBuilder line = startLine(patientId, timestamp, label);
+        line.append(value).append(System.lineSeparator());
+        write(line);
+    }
+
+    /**
+     * Outputs a block of samples to the console in one write.
+     *
+     * @param patientId  the unique identifier of the patient
+     * @param timestamp  the time of the first sample
+     * @param sampleRate the samples per second
+     * @param label      the type of data (e.g., 'ECG')
+     * @param samples    the sample values
+     * @param length     the number of samples to output
+     */
+    @Override
+    public void outputSamples(int patientId, long timestamp, int sampleRate, String label, double[] samples,
+            int length) {
+        StringBuilder block = lines.get();
+        block.setLength(0);
+        for (int i = 0; i < length; i++) {
+            block.append("Patient ID: ").append(patientId)
+                    .append(", Timestamp: ").append(timestamp + i * 1000L / sampleRate)
+                    .append(", Label: ").append(label)
+                    .append(", Data: ").append(samples[i]).append(System.lineSeparator());
+        }
+        write(block);
+    }
+
+    /**
+     * Outputs a batch of readings to the console in one write.
+     *
+     * @param batch the readings
+     */
+    @Override
+    public void outputBatch(ReadingBatch batch) {
+        StringBuilder block = lines.get();
+        block.setLength(0);
+        for (int i = 0; i < batch.size(); i++) {
+            block.append("Patient ID: ").append(batch.getPatientId(i))
+                    .append(", Timestamp: ").append(batch.getTimestamp(i))
+                    .append(", Label: ").append(batch.getLabel(i))
+                    .append(", Data: ").append(batch.getValue(i)).append(System.lineSeparator());
+        }
+        write(block);
+    }
+
+    /**
+     * Writes the buffered lines to the console.
+     */
+    public synchronized void flush() {
+        drain();
+        try {
+            out.flush();
+        } catch (IOException e) {
+            System.err.println("Error writing to console: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Stops the periodic flush and writes the buffered lines. Lines output afterwards are
+     * written immediately.
+     */
+    @Override
+    public void close() {
+        // Lets a running flush finish instead of interrupting it
+        flusher.shutdown();
+        try {
+            if (!flusher.awaitTermination(10, TimeUnit.SECONDS)) {
+                System.err.println("Error: Console output is still being flushed");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (this) {
+            closed = true;
+        }
+        flush();
+    }
+
+    /**
+     * Starts a line in the builder of the current thread, up to the data.
+     *
+     * @param patientId the unique identifier of the patient
+     * @param timestamp the time at which the data was recorded
+     * @param label     the type of data
+     * @return the builder holding the start of the line
+     */
+    private StringBuilder startLine(int patientId, long timestamp, String label) {
+        StringBuilder line = lines.get();
+        line.setLength(0);
+        return line.append("Patient ID: ").append(patientId)
+                .append(", Timestamp: ").append(timestamp)
+                .append(", Label: ").append(label)
+                .append(", Data: ");
+    }
+
+    /**
+     * Copies formatted text into the buffer, writing the buffer out whenever it is full.
+     *
+     * @param text the formatted lines
+     */
+    private synchronized void write(CharSequence text) {
+        int length = text.length();
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            if (c >= 0x80) {
+                // Rare: encode the rest with the console charset instead of byte by byte
+                writeBytes(text.subSequence(i, length).toString().getBytes(Charset.defaultCharset()));
+                break;
+            }
+            if (count == buffer.length) {
+                drain();
+            }
+            buffer[count++] = (byte) c;
+        }
+        if (closed) {
+            flush();
+        }
+    }
+
+    /**
+     * Copies encoded bytes into the buffer, writing the buffer out whenever it is full.
+     *
+     * @param bytes the encoded text
+     */
+    private void writeBytes(byte[] bytes) {
+        int offset = 0;
+        while (offset < bytes.length) {
+            if (count == buffer.length) {
+                drain();
+            }
+            int chunk = Math.min(bytes.length - offset, buffer.length - count);
+            System.arraycopy(bytes, offset, buffer, count, chunk);
+            count += chunk;
+            offset += chunk;
+        }
+    }
+
+    /**
+     * Writes the buffer to the stream in one call and empties it. Called with the lock held.
+     */
+    private void drain() {
+        if (count == 0) {
+            return;
+        }
+        try {
+            out.write(buffer, 0, count);
+        } catch (IOException e) {
+            System.err.println("Error writing to console: " + e.getMessage());
+        }
+        count = 0;
     }
 }
@@ -1,31 +1,124 @@
 package com.cardio_generator.outputs;
 
+import java.io.BufferedWriter;
 import java.io.IOException;
-import java.io.PrintWriter;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import com.data_management.FileReader;
 
 /**
  * Implements OutputStrategy for file output.
  * Ensures thread-safe file writing operations for different labels.
+ *
+ * <p>Every label has one file that is opened on its first reading and kept open. Lines are
+ * appended to a buffer under the lock of the file and reach the disk when the buffer is
+ * full or, at the latest, after the flush interval. {@link #close()} flushes and closes
+ * all files.</p>
+ *
+ * <p>With a {@link SegmentRotation} the readings of a label are split into segment files
+ * named after the start of their interval, e.g. {@code ECG-2026-10-16T10.txt}, with a
+ * {@code .1}, {@code .2}, ... suffix when a name is taken. Closed segments are optionally
+ * gzipped in the background and then listed in {@value FileReader#MANIFEST_FILE}, one
+ * {@code label,file,firstTimestamp,lastTimestamp,readings} line per segment, so readers
+ * can skip the segments outside the time range they need.</p>
  */
-public class FileOutputStrategy implements OutputStrategy {
+public final class FileOutputStrategy implements OutputStrategy, AutoCloseable {
+
+    /** Default size of the buffer of every file, in characters. */
+    public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+    /** Default time after which buffered lines are flushed, in milliseconds. */
+    public static final long DEFAULT_FLUSH_INTERVAL_MILLIS = 1000;
 
     // Changed variable name to camelCase as per Java naming conventions
-    private String baseDirectory;
+    private final String baseDirectory;
+    private final int bufferSize;
+    private final SegmentRotation rotation;
+    private final ExecutorService compressor;
+    private final ConcurrentHashMap<String, LabelFile> files = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService flusher;
+    private volatile boolean closed;
 
     // Changed variable name to UPPER_SNAKE_CASE because it is a constant (final) field
     public final ConcurrentHashMap<String, String> FILE_MAP = new ConcurrentHashMap<>();
 
     /**
-     * Constructor to set the base directory for file output.
+     * Constructor to set the base directory for file output, with the default buffer size
+     * and flush interval.
      * @param baseDirectory the base directory path
      */
     public FileOutputStrategy(String baseDirectory) {
-        // Changed parameter name to camelCase and assigned it to instance variable
+        this(baseDirectory, SegmentRotation.NONE);
+    }
+
+    /**
+     * Constructor to set the base directory for file output and how the files are split
+     * into segments, with the default buffer size and flush interval.
+     * @param baseDirectory the base directory path
+     * @param rotation when to start a new segment file per label
+     */
+    public FileOutputStrategy(String baseDirectory, SegmentRotation rotation) {
+        this(baseDirectory, DEFAULT_BUFFER_SIZE, DEFAULT_FLUSH_INTERVAL_MILLIS, TimeUnit.MILLISECONDS, rotation);
+    }
+
+    /**
+     * Constructor to set the base directory for file output and the buffering of the files.
+     * @param baseDirectory the base directory path
+     * @param bufferSize the size of the buffer of every file, in characters
+     * @param flushInterval the time after which buffered lines are flushed
+     * @param timeUnit the time unit of the flush interval
+     */
+    public FileOutputStrategy(String baseDirectory, int bufferSize, long flushInterval, TimeUnit timeUnit) {
+        this(baseDirectory, bufferSize, flushInterval, timeUnit, SegmentRotation.NONE);
+    }
+
+    /**
+     * Constructor to set the base directory for file output, the buffering of the files and
+     * how they are split into segments.
+     * @param baseDirectory the base directory path
+     * @param bufferSize the size of the buffer of every file, in characters
+     * @param flushInterval the time after which buffered lines are flushed
+     * @param timeUnit the time unit of the flush interval
+     * @param rotation when to start a new segment file per label
+     */
+    public FileOutputStrategy(String baseDirectory, int bufferSize, long flushInterval, TimeUnit timeUnit,
+            SegmentRotation rotation) {
+        if (bufferSize < 1 || flushInterval < 1) {
+            throw new IllegalArgumentException("Buffer size and flush interval must be positive.");
+        }
         this.baseDirectory = baseDirectory;
+        this.bufferSize = bufferSize;
+        this.rotation = rotation;
+        this.compressor = rotation.isEnabled() && rotation.isCompressed()
+                ? Executors.newSingleThreadExecutor(runnable -> {
+                    Thread thread = new Thread(runnable, "file-output-compress");
+                    thread.setDaemon(true);
+                    return thread;
+                })
+                : null;
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "file-output-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Last, so the flusher thread only sees a fully constructed output
+        flusher.scheduleWithFixedDelay(this::flush, flushInterval, flushInterval, timeUnit);
     }
 
     /**
@@ -37,25 +130,339 @@ public class FileOutputStrategy implements OutputStrategy {
      */
     @Override
     public void output(int patientId, long timestamp, String label, String data) {
+        LabelFile file = file(label);
+        if (file == null) {
+            return;
+        }
+        synchronized (file) {
+            file.line.setLength(0);
+            file.line.append("Patient ID: ").append(patientId)
+                    .append(", Timestamp: ").append(timestamp)
+                    .append(", Label: ").append(label)
+                    .append(", Data: ").append(data).append(System.lineSeparator());
+            file.append(timestamp);
+        }
+    }
+
+    /**
+     * Outputs a numeric reading without formatting it to a string first.
+     * @param patientId the ID of the patient
+     * @param timestamp the timestamp of the data
+     * @param label the data label
+     * @param value the value of the reading
+     */
+    @Override
+    public void outputValue(int patientId, long timestamp, String label, double value) {
+        LabelFile file = file(label);
+        if (file == null) {
+            return;
+        }
+        synchronized (file) {
+            file.line.setLength(0);
+            file.line.append("Patient ID: ").append(patientId)
+                    .append(", Timestamp: ").append(timestamp)
+                    .append(", Label: ").append(label)
+                    .append(", Data: ").append(value).append(System.lineSeparator());
+            file.append(timestamp);
+        }
+    }
+
+    /**
+     * Outputs a block of samples under a single lock of the file.
+     * @param patientId the ID of the patient
+     * @param timestamp the timestamp of the first sample
+     * @param sampleRate the samples per second
+     * @param label the data label
+     * @param samples the sample values
+     * @param length the number of samples to output
+     */
+    @Override
+    public void outputSamples(int patientId, long timestamp, int sampleRate, String label, double[] samples,
+            int length) {
+        LabelFile file = file(label);
+        if (file == null) {
+            return;
+        }
+        synchronized (file) {
+            for (int i = 0; i < length; i++) {
+                file.line.setLength(0);
+                file.line.append("Patient ID: ").append(patientId)
+                        .append(", Timestamp: ").append(timestamp + i * 1000L / sampleRate)
+                        .append(", Label: ").append(label)
+                        .append(", Data: ").append(samples[i]).append(System.lineSeparator());
+                file.append(timestamp + i * 1000L / sampleRate);
+            }
+        }
+    }
+
+    /**
+     * Outputs a batch of readings, each to the file of its label.
+     * @param batch the readings
+     */
+    @Override
+    public void outputBatch(ReadingBatch batch) {
+        for (int i = 0; i < batch.size(); i++) {
+            outputValue(batch.getPatientId(i), batch.getTimestamp(i), batch.getLabel(i), batch.getValue(i));
+        }
+    }
+
+    /**
+     * Flushes the buffered lines of all files to disk.
+     */
+    public void flush() {
+        for (LabelFile file : files.values()) {
+            synchronized (file) {
+                file.flush();
+            }
+        }
+    }
+
+    /**
+     * Flushes and closes all files and waits for the compression of the closed segments.
+     * Readings output afterwards are dropped.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            closed = true;
+        }
+        // Lets a running flush finish; an interrupt would close the file channel under it
+        flusher.shutdown();
         try {
-            // Ensure directories are created if not existing
-            Files.createDirectories(Paths.get(baseDirectory));
+            if (!flusher.awaitTermination(10, TimeUnit.SECONDS)) {
+                System.err.println("Error: Files are still being flushed in " + baseDirectory);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (LabelFile file : files.values()) {
+            synchronized (file) {
+                file.closeSegment();
+            }
+        }
+        if (compressor != null) {
+            compressor.shutdown();
+            try {
+                if (!compressor.awaitTermination(1, TimeUnit.MINUTES)) {
+                    System.err.println("Error: Segments are still being compressed in " + baseDirectory);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Returns the file of a label, creating it on the first reading.
+     * @param label the data label
+     * @return the file, or null if the base directory cannot be created or the output is closed
+     */
+    private LabelFile file(String label) {
+        LabelFile file = files.get(label);
+        if (file != null) {
+            return file;
+        }
+        synchronized (this) {
+            if (closed) {
+                System.err.println("Error: File output is closed, cannot write " + label);
+                return null;
+            }
+            file = files.get(label);
+            if (file == null) {
+                try {
+                    // Ensure directories are created if not existing
+                    Files.createDirectories(Paths.get(baseDirectory));
+                } catch (IOException e) {
+                    // Use of System.err.println for error logging; consider using a logging framework in production
+                    System.err.println("Error creating base directory: " + e.getMessage());
+                    return null;
+                }
+                file = new LabelFile(label);
+                files.put(label, file);
+            }
+            return file;
+        }
+    }
+
+    /**
+     * Gzips a closed segment, deletes the original and lists the compressed segment.
+     * @param segment the closed segment
+     * @param manifestLine the manifest line of the segment, without the file name
+     */
+    private void compress(Path segment, String manifestLine) {
+        Path compressed = segment.resolveSibling(segment.getFileName() + ".gz");
+        try (InputStream in = Files.newInputStream(segment);
+                OutputStream out = new GZIPOutputStream(Files.newOutputStream(compressed), 1 << 16)) {
+            in.transferTo(out);
         } catch (IOException e) {
-            // Use of System.err.println for error logging; consider using a logging framework in production
-            System.err.println("Error creating base directory: " + e.getMessage());
+            System.err.println("Error compressing file " + segment + ": " + e.getMessage());
+            appendManifest(String.format(manifestLine, segment.getFileName()));
             return;
         }
-        // Changed variable name to camelCase
-        // Computes file path only if absent, then retrieves it
-        String filePath = FILE_MAP.computeIfAbsent(label, k -> Paths.get(baseDirectory, label + ".txt").toString());
+        try {
+            Files.delete(segment);
+        } catch (IOException e) {
+            System.err.println("Error deleting compressed file " + segment + ": " + e.getMessage());
+        }
+        appendManifest(String.format(manifestLine, compressed.getFileName()));
+    }
 
-        // Use try-with-resources for automatic resource management
-        try (PrintWriter out = new PrintWriter(
-                Files.newBufferedWriter(Paths.get(filePath), StandardOpenOption.CREATE, StandardOpenOption.APPEND))) {
-            out.printf("Patient ID: %d, Timestamp: %d, Label: %s, Data: %s%n", patientId, timestamp, label, data);
+    /**
+     * Appends a line to the manifest of the closed segments.
+     * @param line the line, without the line separator
+     */
+    private synchronized void appendManifest(String line) {
+        Path manifest = Paths.get(baseDirectory, FileReader.MANIFEST_FILE);
+        try (Writer out = Files.newBufferedWriter(manifest, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            out.append(line).append(System.lineSeparator());
         } catch (IOException e) {
-            // Use of System.err.println for error logging; consider using a logging framework in production
-            System.err.println("Error writing to file " + filePath + ": " + e.getMessage());
+            System.err.println("Error writing to file " + manifest + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * The files of one label: the single file, or the open segment when rotating. All fields
+     * are guarded by the instance.
+     */
+    private final class LabelFile {
+
+        private final String label;
+        private final StringBuilder line = new StringBuilder(96);
+        private Writer out;
+        private Path path;
+        private long segmentEnd;
+        private long bytes;
+        private long firstTimestamp;
+        private long lastTimestamp;
+        private long readings;
+        private boolean dirty;
+
+        private LabelFile(String label) {
+            this.label = label;
+        }
+
+        /**
+         * Appends the current line, starting a new segment first if the reading falls
+         * after the interval of the open one.
+         */
+        private void append(long timestamp) {
+            if (out != null && timestamp >= segmentEnd) {
+                closeSegment();
+            }
+            if (out == null && (closed || !openSegment(timestamp))) {
+                return;
+            }
+            try {
+                out.append(line);
+                dirty = true;
+            } catch (IOException e) {
+                System.err.println("Error writing to file " + path + ": " + e.getMessage());
+                return;
+            }
+            bytes += line.length();
+            firstTimestamp = Math.min(firstTimestamp, timestamp);
+            lastTimestamp = Math.max(lastTimestamp, timestamp);
+            readings++;
+            if (rotation.getMaxBytes() > 0 && bytes >= rotation.getMaxBytes()) {
+                closeSegment();
+            }
+        }
+
+        private boolean openSegment(long timestamp) {
+            long interval = rotation.getIntervalMillis();
+            if (rotation.isEnabled()) {
+                long start = interval > 0 ? Math.floorDiv(timestamp, interval) * interval : timestamp;
+                segmentEnd = interval > 0 ? start + interval : Long.MAX_VALUE;
+                path = uniquePath(label + "-" + formatStart(start, interval));
+            } else {
+                segmentEnd = Long.MAX_VALUE;
+                path = Paths.get(baseDirectory, label + ".txt");
+            }
+            // Records the file the label is currently written to
+            FILE_MAP.put(label, path.toString());
+            try {
+                out = new BufferedWriter(new OutputStreamWriter(Files.newOutputStream(path,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND), StandardCharsets.UTF_8), bufferSize);
+            } catch (IOException e) {
+                // Use of System.err.println for error logging; consider using a logging framework in production
+                System.err.println("Error opening file " + path + ": " + e.getMessage());
+                return false;
+            }
+            bytes = 0;
+            firstTimestamp = Long.MAX_VALUE;
+            lastTimestamp = Long.MIN_VALUE;
+            readings = 0;
+            return true;
+        }
+
+        /**
+         * Closes the open file and, when rotating, hands the segment to the manifest,
+         * compressing it first if configured.
+         */
+        private void closeSegment() {
+            if (out == null) {
+                return;
+            }
+            try {
+                out.close();
+            } catch (IOException e) {
+                System.err.println("Error closing file " + path + ": " + e.getMessage());
+            }
+            out = null;
+            dirty = false;
+            if (!rotation.isEnabled() || readings == 0) {
+                return;
+            }
+            String manifestLine = label + ",%s," + firstTimestamp + "," + lastTimestamp + "," + readings;
+            Path segment = path;
+            if (compressor != null) {
+                compressor.execute(() -> compress(segment, manifestLine));
+            } else {
+                appendManifest(String.format(manifestLine, segment.getFileName()));
+            }
+        }
+
+        private void flush() {
+            if (!dirty) {
+                return;
+            }
+            try {
+                out.flush();
+                dirty = false;
+            } catch (IOException e) {
+                System.err.println("Error flushing file " + path + ": " + e.getMessage());
+            }
+        }
+
+        /**
+         * Returns the path of a new segment, with a sequence number if the name is taken.
+         */
+        private Path uniquePath(String name) {
+            Path candidate = Paths.get(baseDirectory, name + ".txt");
+            for (int sequence = 1; Files.exists(candidate)
+                    || Files.exists(candidate.resolveSibling(candidate.getFileName() + ".gz")); sequence++) {
+                candidate = Paths.get(baseDirectory, name + "." + sequence + ".txt");
+            }
+            return candidate;
+        }
+    }
+
+    /**
+     * Formats the start of a segment as precisely as the interval needs, in UTC.
+     * @param start the start of the segment in milliseconds since the epoch
+     * @param interval the interval in milliseconds, or 0 for size-based segments
+     * @return the start, e.g. "2026-10-16T10" for hourly segments
+     */
+    private static String formatStart(long start, long interval) {
+        String pattern;
+        if (interval > 0 && interval % TimeUnit.HOURS.toMillis(1) == 0) {
+            pattern = "yyyy-MM-dd'T'HH";
+        } else if (interval > 0 && interval % TimeUnit.MINUTES.toMillis(1) == 0) {
+            pattern = "yyyy-MM-dd'T'HH-mm";
+        } else {
+            pattern = "yyyy-MM-dd'T'HH-mm-ss";
         }
+        return DateTimeFormatter.ofPattern(pattern).withZone(ZoneOffset.UTC).format(Instant.ofEpochMilli(start));
     }
 }
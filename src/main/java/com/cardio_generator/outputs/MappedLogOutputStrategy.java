@@ -0,0 +1,319 @@
+package com.cardio_generator.outputs;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+import com.data_management.BinaryFileReader;
+import com.data_management.MappedLogReader;
+
+/**
+ * Implements OutputStrategy as an append log of fixed-width binary records in memory-mapped
+ * segment files, in the format read by {@link MappedLogReader}.
+ *
+ * <p>Each segment is pre-allocated and mapped in full when it is opened. A thread claims a run
+ * of record slots from the open segment with a single atomic add and then fills the slots with
+ * plain stores into the mapping, so writing a reading takes neither a lock nor a system call.
+ * When the segment is full the thread that notices opens the next one. Slots a thread claimed
+ * but did not fill before the output was closed stay zero and are skipped by the reader.</p>
+ *
+ * <p>The operating system writes the mapped pages back to the files on its own; {@link #close()}
+ * additionally forces the open segment to disk. Readings output while or after the output is
+ * closed may be lost.</p>
+ */
+public class MappedLogOutputStrategy implements OutputStrategy, AutoCloseable {
+
+    /** Default size of a segment file in bytes. */
+    public static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+    /** Default number of record slots a thread claims at a time. */
+    public static final int DEFAULT_CLAIM_RECORDS = 256;
+
+    private static final Map<String, Integer> LABEL_CODES = new HashMap<>();
+
+    static {
+        for (int i = 0; i < BinaryFileReader.LABELS.size(); i++) {
+            LABEL_CODES.put(BinaryFileReader.LABELS.get(i), i + 1);
+        }
+    }
+
+    private final Path directory;
+    private final int segmentSize;
+    private final int claimSize;
+    private final ThreadLocal<Claim> claims = ThreadLocal.withInitial(Claim::new);
+    private final LongAdder recordCount = new LongAdder();
+    private volatile Segment segment;
+    private volatile boolean closed;
+    private int nextSegment; // Guarded by this
+
+    /**
+     * Constructs a mapped log in a directory with the default segment size and claim size.
+     *
+     * @param baseDirectory the directory of the segments, created if missing
+     * @throws IOException if the directory or the first segment cannot be created
+     */
+    public MappedLogOutputStrategy(String baseDirectory) throws IOException {
+        this(baseDirectory, DEFAULT_SEGMENT_SIZE, DEFAULT_CLAIM_RECORDS);
+    }
+
+    /**
+     * Constructs a mapped log in a directory. New segments are numbered after the segments
+     * already in the directory, so an earlier log is never overwritten.
+     *
+     * @param baseDirectory the directory of the segments, created if missing
+     * @param segmentSize   the size of a segment file in bytes, rounded down to whole claims
+     * @param claimRecords  the number of record slots a thread claims at a time
+     * @throws IOException if the directory or the first segment cannot be created
+     */
+    public MappedLogOutputStrategy(String baseDirectory, int segmentSize, int claimRecords) throws IOException {
+        if (claimRecords < 1 || segmentSize < MappedLogReader.HEADER_SIZE + claimRecords * MappedLogReader.RECORD_SIZE) {
+            throw new IllegalArgumentException("A segment must hold at least one claim of records.");
+        }
+        this.directory = Paths.get(baseDirectory);
+        this.claimSize = claimRecords * MappedLogReader.RECORD_SIZE;
+        this.segmentSize = MappedLogReader.HEADER_SIZE
+                + (segmentSize - MappedLogReader.HEADER_SIZE) / claimSize * claimSize;
+        Files.createDirectories(directory);
+        try (Stream<Path> files = Files.list(directory)) {
+            nextSegment = files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.matches("readings-\\d+\\" + MappedLogReader.SEGMENT_SUFFIX))
+                    .mapToInt(name -> Integer.parseInt(name.substring(9, name.length() - MappedLogReader.SEGMENT_SUFFIX.length())) + 1)
+                    .max().orElse(0);
+        }
+        segment = openSegment();
+    }
+
+    /**
+     * Outputs a reading given as text, e.g. "97%" or "triggered".
+     *
+     * @param patientId the ID of the patient
+     * @param timestamp the time of the reading
+     * @param label     the type of the reading, one of {@link BinaryFileReader#LABELS}
+     * @param data      the value of the reading
+     * @throws IllegalArgumentException if the label or the value cannot be encoded
+     */
+    @Override
+    public void output(int patientId, long timestamp, String label, String data) {
+        write(patientId, timestamp, labelCode(label), parseValue(data));
+    }
+
+    /**
+     * Outputs a numeric reading.
+     *
+     * @param patientId the ID of the patient
+     * @param timestamp the time of the reading
+     * @param label     the type of the reading, one of {@link BinaryFileReader#LABELS}
+     * @param value     the value of the reading
+     */
+    @Override
+    public void outputValue(int patientId, long timestamp, String label, double value) {
+        write(patientId, timestamp, labelCode(label), value);
+    }
+
+    /**
+     * Outputs a block of samples as one record per sample.
+     *
+     * @param patientId  the ID of the patient
+     * @param timestamp  the time of the first sample
+     * @param sampleRate the samples per second
+     * @param label      the type of the readings, one of {@link BinaryFileReader#LABELS}
+     * @param samples    the sample values
+     * @param length     the number of samples
+     */
+    @Override
+    public void outputSamples(int patientId, long timestamp, int sampleRate, String label, double[] samples,
+            int length) {
+        int code = labelCode(label);
+        for (int i = 0; i < length; i++) {
+            write(patientId, timestamp + i * 1000L / sampleRate, code, samples[i]);
+        }
+    }
+
+    /**
+     * Outputs a batch of readings as one record per reading.
+     *
+     * @param batch the readings, with labels from {@link BinaryFileReader#LABELS}
+     */
+    @Override
+    public void outputBatch(ReadingBatch batch) {
+        for (int i = 0; i < batch.size(); i++) {
+            write(batch.getPatientId(i), batch.getTimestamp(i), labelCode(batch.getLabel(i)), batch.getValue(i));
+        }
+    }
+
+    /**
+     * Returns the number of records written so far.
+     *
+     * @return the record count
+     */
+    public long getRecordCount() {
+        return recordCount.sum();
+    }
+
+    /**
+     * Seals the open segment with the offset up to which slots were claimed, forces it to disk
+     * and stops accepting readings.
+     */
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        segment.seal();
+        segment.buffer.force();
+    }
+
+    /**
+     * Writes one record into a slot claimed by the current thread.
+     *
+     * @param patientId the ID of the patient
+     * @param timestamp the time of the reading
+     * @param labelCode the code of the label
+     * @param value     the value of the reading
+     */
+    private void write(int patientId, long timestamp, int labelCode, double value) {
+        Claim claim = claims.get();
+        if (claim.offset == claim.end && !claim(claim)) {
+            return;
+        }
+        MappedByteBuffer buffer = claim.segment.buffer;
+        int offset = claim.offset;
+        buffer.putInt(offset, patientId);
+        buffer.putLong(offset + 8, timestamp);
+        buffer.putDouble(offset + 16, value);
+        // The label is written last, a slot with label 0 is skipped by the reader
+        buffer.putInt(offset + 4, labelCode);
+        claim.offset = offset + MappedLogReader.RECORD_SIZE;
+        recordCount.increment();
+    }
+
+    /**
+     * Claims the next run of slots for the current thread, opening a new segment if the open
+     * one is full.
+     *
+     * @param claim the claim of the current thread
+     * @return false if the output is closed or no segment can be opened
+     */
+    private boolean claim(Claim claim) {
+        while (!closed) {
+            Segment current = segment;
+            long start = current.position.getAndAdd(claimSize);
+            if (start + claimSize <= segmentSize) {
+                claim.segment = current;
+                claim.offset = (int) start;
+                claim.end = (int) start + claimSize;
+                return true;
+            }
+            roll(current);
+        }
+        return false;
+    }
+
+    /**
+     * Replaces a full segment with a new one, unless another thread already did.
+     *
+     * @param full the segment that is full
+     */
+    private synchronized void roll(Segment full) {
+        if (closed || segment != full) {
+            return;
+        }
+        full.seal();
+        try {
+            segment = openSegment();
+        } catch (IOException e) {
+            // Use of System.err.println for error logging; consider using a logging framework in production
+            System.err.println("Error opening segment in " + directory + ", dropping readings: " + e.getMessage());
+            closed = true;
+        }
+    }
+
+    /**
+     * Creates, pre-allocates and maps the next segment and writes its header.
+     *
+     * @return the segment
+     * @throws IOException if the segment cannot be created
+     */
+    private Segment openSegment() throws IOException {
+        Path path = directory.resolve(String.format("readings-%06d%s", nextSegment++, MappedLogReader.SEGMENT_SUFFIX));
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            // Mapping grows the file to the segment size; the mapping outlives the channel
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        }
+        buffer.putInt(0, MappedLogReader.MAGIC);
+        buffer.putInt(4, MappedLogReader.RECORD_SIZE);
+        return new Segment(buffer);
+    }
+
+    /**
+     * Returns the code of a label.
+     *
+     * @param label the label of a reading
+     * @return the index of the label in {@link BinaryFileReader#LABELS} plus one
+     */
+    private static int labelCode(String label) {
+        Integer code = LABEL_CODES.get(label);
+        if (code == null) {
+            throw new IllegalArgumentException("Label cannot be stored in a mapped log: " + label);
+        }
+        return code;
+    }
+
+    /**
+     * Converts the text value of a reading to a number.
+     *
+     * @param data the value as written by the generators, e.g. "97%" or "triggered"
+     * @return the numeric value
+     */
+    private static double parseValue(String data) {
+        switch (data) {
+            case "triggered":
+                return 1;
+            case "resolved":
+                return 0;
+            default:
+                return Double.parseDouble(data.endsWith("%") ? data.substring(0, data.length() - 1) : data);
+        }
+    }
+
+    /**
+     * A mapped segment and the offset up to which its slots have been claimed.
+     */
+    private final class Segment {
+
+        private final MappedByteBuffer buffer;
+        private final AtomicLong position = new AtomicLong(MappedLogReader.HEADER_SIZE);
+
+        private Segment(MappedByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        /**
+         * Records in the header up to which offset slots were claimed, so readers stop there.
+         */
+        private void seal() {
+            buffer.putLong(MappedLogReader.LIMIT_OFFSET, Math.min(position.get(), segmentSize));
+        }
+    }
+
+    /**
+     * The run of slots a thread is filling. Only used by its own thread.
+     */
+    private static final class Claim {
+
+        private Segment segment;
+        private int offset;
+        private int end;
+    }
+}
@@ -15,4 +15,52 @@ public interface OutputStrategy {
      * @param data the actual data to output as a String
      */
     void output(int patientId, long timestamp, String label, String data);
+
+    /**
+     * Outputs a numeric reading of a patient. By default the value is formatted with
+     * {@link Double#toString(double)} and passed to {@link #output}; strategies that store
+     * numbers can override this to skip the formatting.
+     *
+     * @param patientId the unique identifier for the patient
+     * @param timestamp the time at which the data is recorded
+     * @param label the label describing the type of data (e.g., "ECG")
+     * @param value the value of the reading
+     */
+    default void outputValue(int patientId, long timestamp, String label, double value) {
+        output(patientId, timestamp, label, Double.toString(value));
+    }
+
+    /**
+     * Outputs a batch of numeric readings, of one or many patients, in one call. By default
+     * every reading is passed to {@link #outputValue} on its own; strategies that pay a cost
+     * per call, such as a write, flush or frame, should override this to pay it once per
+     * batch. The batch may be reused once the call returns.
+     *
+     * @param batch the readings
+     */
+    default void outputBatch(ReadingBatch batch) {
+        for (int i = 0; i < batch.size(); i++) {
+            outputValue(batch.getPatientId(i), batch.getTimestamp(i), batch.getLabel(i), batch.getValue(i));
+        }
+    }
+
+    /**
+     * Outputs a block of evenly spaced samples of a patient, e.g. one second of ECG. Sample
+     * {@code i} is recorded at {@code timestamp + i * 1000 / sampleRate}. By default every sample
+     * is passed to {@link #output} on its own; strategies that can write a block in one go
+     * should override this. The array may be reused once the call returns.
+     *
+     * @param patientId  the unique identifier for the patient
+     * @param timestamp  the time of the first sample in milliseconds
+     * @param sampleRate the samples per second
+     * @param label      the label describing the type of data (e.g., "ECG")
+     * @param samples    the sample values
+     * @param length     the number of samples to output from the start of the array
+     */
+    default void outputSamples(int patientId, long timestamp, int sampleRate, String label, double[] samples,
+            int length) {
+        for (int i = 0; i < length; i++) {
+            output(patientId, timestamp + i * 1000L / sampleRate, label, Double.toString(samples[i]));
+        }
+    }
 }
@@ -0,0 +1,116 @@
+package com.cardio_generator.outputs;
+
+import java.util.Arrays;
+
+/**
+ * A batch of numeric readings handed to {@link OutputStrategy#outputBatch} in one call, e.g.
+ * the three blood levels of a patient or the readings of many patients of one tick. The
+ * readings are kept in parallel primitive arrays that grow as needed, so a batch can be
+ * cleared and reused without allocating.
+ *
+ * <p>A batch is not thread-safe. Output strategies must not keep a reference to it once
+ * {@code outputBatch} returns, since the caller may reuse it.</p>
+ */
+public final class ReadingBatch {
+
+    private int[] patientIds;
+    private long[] timestamps;
+    private String[] labels;
+    private double[] values;
+    private int size;
+
+    /**
+     * Constructs an empty batch.
+     *
+     * @param capacity the number of readings the batch holds before it grows
+     */
+    public ReadingBatch(int capacity) {
+        int initial = Math.max(1, capacity);
+        patientIds = new int[initial];
+        timestamps = new long[initial];
+        labels = new String[initial];
+        values = new double[initial];
+    }
+
+    /**
+     * Appends a reading.
+     *
+     * @param patientId the unique identifier of the patient
+     * @param timestamp the time at which the data is recorded
+     * @param label     the label describing the type of data (e.g., "Cholesterol")
+     * @param value     the value of the reading
+     * @return this batch
+     */
+    public ReadingBatch add(int patientId, long timestamp, String label, double value) {
+        if (size == patientIds.length) {
+            int capacity = size * 2;
+            patientIds = Arrays.copyOf(patientIds, capacity);
+            timestamps = Arrays.copyOf(timestamps, capacity);
+            labels = Arrays.copyOf(labels, capacity);
+            values = Arrays.copyOf(values, capacity);
+        }
+        patientIds[size] = patientId;
+        timestamps[size] = timestamp;
+        labels[size] = label;
+        values[size] = value;
+        size++;
+        return this;
+    }
+
+    /**
+     * Removes all readings, keeping the capacity.
+     */
+    public void clear() {
+        Arrays.fill(labels, 0, size, null);
+        size = 0;
+    }
+
+    /**
+     * Returns the number of readings.
+     *
+     * @return the size of the batch
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the patient of a reading.
+     *
+     * @param index the index of the reading, from 0 to {@link #size()} exclusive
+     * @return the unique identifier of the patient
+     */
+    public int getPatientId(int index) {
+        return patientIds[index];
+    }
+
+    /**
+     * Returns the timestamp of a reading.
+     *
+     * @param index the index of the reading
+     * @return the time at which the data is recorded
+     */
+    public long getTimestamp(int index) {
+        return timestamps[index];
+    }
+
+    /**
+     * Returns the label of a reading.
+     *
+     * @param index the index of the reading
+     * @return the label describing the type of data
+     */
+    public String getLabel(int index) {
+        return labels[index];
+    }
+
+    /**
+     * Returns the value of a reading.
+     *
+     * @param index the index of the reading
+     * @return the value
+     */
+    public double getValue(int index) {
+        return values[index];
+    }
+}
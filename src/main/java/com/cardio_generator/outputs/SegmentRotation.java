@@ -0,0 +1,72 @@
+package com.cardio_generator.outputs;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * When the file output starts a new segment file for a label, and what happens to the
+ * segments it closes. Segments are cut by the timestamps of the readings, at multiples of
+ * the interval since the epoch, and when they reach a size; closed segments can be
+ * compressed with gzip in the background.
+ */
+public final class SegmentRotation {
+
+    /** A single ever-growing file per label, the original behaviour. */
+    public static final SegmentRotation NONE = new SegmentRotation(0, TimeUnit.MILLISECONDS, 0, false);
+
+    private final long intervalMillis;
+    private final long maxBytes;
+    private final boolean compress;
+
+    /**
+     * Constructs a rotation policy.
+     *
+     * @param interval the time span of the readings of a segment, or 0 for no time-based rotation
+     * @param timeUnit the time unit of the interval
+     * @param maxBytes the size after which a segment is closed, or 0 for no size-based rotation
+     * @param compress true to gzip closed segments
+     */
+    public SegmentRotation(long interval, TimeUnit timeUnit, long maxBytes, boolean compress) {
+        if (interval < 0 || maxBytes < 0) {
+            throw new IllegalArgumentException("Interval and size must not be negative.");
+        }
+        this.intervalMillis = timeUnit.toMillis(interval);
+        this.maxBytes = maxBytes;
+        this.compress = compress;
+    }
+
+    /**
+     * Returns whether segments are rotated at all.
+     *
+     * @return false for a single file per label
+     */
+    public boolean isEnabled() {
+        return intervalMillis > 0 || maxBytes > 0;
+    }
+
+    /**
+     * Returns the time span of the readings of a segment.
+     *
+     * @return the interval in milliseconds, or 0 for no time-based rotation
+     */
+    public long getIntervalMillis() {
+        return intervalMillis;
+    }
+
+    /**
+     * Returns the size after which a segment is closed.
+     *
+     * @return the size in bytes, or 0 for no size-based rotation
+     */
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * Returns whether closed segments are compressed.
+     *
+     * @return true to gzip closed segments
+     */
+    public boolean isCompressed() {
+        return compress;
+    }
+}
@@ -1,22 +1,53 @@
 package com.cardio_generator.outputs;
 
 import java.io.IOException;
-import java.io.PrintWriter;
-import java.net.ServerSocket;
-import java.net.Socket;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Strategy for outputting data via TCP.
- * This class sets up a server that can send patient data to a connected TCP client.
+ * This class sets up a server that sends patient data to every connected TCP client.
+ *
+ * <p>The server runs on one selector thread. Readings are appended as text lines to a shared
+ * buffer and published as one encoded chunk at least every flush interval, or sooner once the
+ * buffer grows large. Every client keeps a queue of the chunks it has not yet received and is
+ * written to with gathering writes whenever its socket can take more, so a chunk is encoded
+ * once and a client that reads slowly only delays itself. A client whose queue grows beyond
+ * the limit is disconnected, so it cannot hold on to an unbounded amount of memory. Readings
+ * output while no client is connected are dropped.</p>
  */
-public class TcpOutputStrategy implements OutputStrategy {
+public final class TcpOutputStrategy implements OutputStrategy, AutoCloseable {
 
-    private ServerSocket serverSocket;
-    private Socket clientSocket;
-    private PrintWriter out;
-    private ExecutorService clientAcceptorExecutor;
+    /** Default time after which buffered lines are sent, in milliseconds. */
+    public static final long DEFAULT_FLUSH_INTERVAL_MILLIS = 10;
+    /** Default number of queued bytes after which a client is disconnected. */
+    public static final int DEFAULT_MAX_CLIENT_BUFFER = 8 * 1024 * 1024;
+
+    /** Buffered characters after which the selector thread is woken to publish early. */
+    private static final int PUBLISH_THRESHOLD = 64 * 1024;
+
+    private ServerSocketChannel serverChannel;
+    private Selector selector;
+    private Thread selectorThread;
+    private final long flushIntervalMillis;
+    private final int maxClientBuffer;
+    private StringBuilder pending = new StringBuilder(PUBLISH_THRESHOLD); // Guarded by this
+    private StringBuilder publishing = new StringBuilder(PUBLISH_THRESHOLD); // Used by the selector thread only
+    private boolean wakeupRequested; // Guarded by this
+    private final List<Client> clients = new ArrayList<>(); // Used by the selector thread only
+    private volatile int clientCount;
+    private volatile long slowClientDisconnects;
+    private volatile boolean closed;
 
     /**
      * Constructs a TcpOutputStrategy that starts a server on the specified port.
@@ -24,22 +55,34 @@ public class TcpOutputStrategy implements OutputStrategy {
      * @param port the port number on which the server should listen for clients
      */
     public TcpOutputStrategy(int port) {
+        this(port, DEFAULT_FLUSH_INTERVAL_MILLIS, DEFAULT_MAX_CLIENT_BUFFER);
+    }
+
+    /**
+     * Constructs a TcpOutputStrategy that starts a server on the specified port.
+     *
+     * @param port                the port number on which the server should listen, or 0 for any free port
+     * @param flushIntervalMillis the time after which buffered lines are sent, in milliseconds
+     * @param maxClientBuffer     the number of queued bytes after which a client is disconnected
+     */
+    public TcpOutputStrategy(int port, long flushIntervalMillis, int maxClientBuffer) {
+        if (flushIntervalMillis < 1 || maxClientBuffer < 1) {
+            throw new IllegalArgumentException("Flush interval and client buffer must be positive.");
+        }
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.maxClientBuffer = maxClientBuffer;
         try {
-            serverSocket = new ServerSocket(port);
-            System.out.println("TCP Server started on port " + port);
-
-            // Executors should be managed and shutdown appropriately.
-            clientAcceptorExecutor = Executors.newSingleThreadExecutor();
-            clientAcceptorExecutor.submit(() -> {
-                try {
-                    clientSocket = serverSocket.accept();
-                    out = new PrintWriter(clientSocket.getOutputStream(), true);
-                    System.out.println("Client connected: " + clientSocket.getInetAddress());
-                } catch (IOException e) {
-                    System.err.println("Error accepting client connection: " + e.getMessage());
-                    e.printStackTrace();
-                }
-            });
+            selector = Selector.open();
+            serverChannel = ServerSocketChannel.open();
+            serverChannel.bind(new InetSocketAddress(port));
+            serverChannel.configureBlocking(false);
+            serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+            System.out.println("TCP Server started on port " + getPort());
+
+            // Last, so the selector thread only sees a fully constructed output
+            selectorThread = new Thread(this::run, "tcp-output");
+            selectorThread.setDaemon(true);
+            selectorThread.start();
         } catch (IOException e) {
             System.err.println("Error starting TCP server: " + e.getMessage());
             e.printStackTrace();
@@ -47,7 +90,7 @@ public class TcpOutputStrategy implements OutputStrategy {
     }
 
     /**
-     * Sends the output data to the connected TCP client.
+     * Sends the output data to the connected TCP clients.
      *
      * @param patientId the unique identifier of the patient
      * @param timestamp the time at which the data was recorded
@@ -56,35 +99,286 @@ public class TcpOutputStrategy implements OutputStrategy {
      */
     @Override
     public void output(int patientId, long timestamp, String label, String data) {
-        // Ensure there is a connection before attempting to write out.
-        if (out != null) {
-            String message = String.format("%d,%d,%s,%s", patientId, timestamp, label, data);
-            out.println(message);
-        } else {
-            System.err.println("Error: No TCP client connected, cannot send data");
+        if (clientCount == 0) {
+            return;
+        }
+        synchronized (this) {
+            pending.append(patientId).append(',').append(timestamp).append(',')
+                    .append(label).append(',').append(data).append(System.lineSeparator());
+            requestPublish();
+        }
+    }
+
+    /**
+     * Sends a numeric reading to the connected TCP clients without formatting it to a string first.
+     *
+     * @param patientId the unique identifier of the patient
+     * @param timestamp the time at which the data was recorded
+     * @param label     the label describing the type of data
+     * @param value     the value of the reading
+     */
+    @Override
+    public void outputValue(int patientId, long timestamp, String label, double value) {
+        if (clientCount == 0) {
+            return;
+        }
+        synchronized (this) {
+            pending.append(patientId).append(',').append(timestamp).append(',')
+                    .append(label).append(',').append(value).append(System.lineSeparator());
+            requestPublish();
+        }
+    }
+
+    /**
+     * Sends a block of samples to the connected TCP clients.
+     *
+     * @param patientId  the unique identifier of the patient
+     * @param timestamp  the time of the first sample
+     * @param sampleRate the samples per second
+     * @param label      the label describing the type of data
+     * @param samples    the sample values
+     * @param length     the number of samples to send
+     */
+    @Override
+    public void outputSamples(int patientId, long timestamp, int sampleRate, String label, double[] samples,
+            int length) {
+        if (clientCount == 0) {
+            return;
+        }
+        synchronized (this) {
+            for (int i = 0; i < length; i++) {
+                pending.append(patientId).append(',').append(timestamp + i * 1000L / sampleRate).append(',')
+                        .append(label).append(',').append(samples[i]).append(System.lineSeparator());
+            }
+            requestPublish();
+        }
+    }
+
+    /**
+     * Sends a batch of readings to the connected TCP clients.
+     *
+     * @param batch the readings
+     */
+    @Override
+    public void outputBatch(ReadingBatch batch) {
+        if (clientCount == 0) {
+            return;
         }
+        synchronized (this) {
+            for (int i = 0; i < batch.size(); i++) {
+                pending.append(batch.getPatientId(i)).append(',').append(batch.getTimestamp(i)).append(',')
+                        .append(batch.getLabel(i)).append(',').append(batch.getValue(i)).append(System.lineSeparator());
+            }
+            requestPublish();
+        }
+    }
+
+    /**
+     * Returns the port the server listens on.
+     *
+     * @return the local port, or -1 if the server could not be started
+     */
+    public int getPort() {
+        return serverChannel != null && serverChannel.socket().isBound() ? serverChannel.socket().getLocalPort() : -1;
+    }
+
+    /**
+     * Returns the number of connected clients.
+     *
+     * @return the client count
+     */
+    public int getClientCount() {
+        return clientCount;
+    }
+
+    /**
+     * Returns the number of clients disconnected because they did not keep up.
+     *
+     * @return the count of slow clients dropped
+     */
+    public long getSlowClientDisconnects() {
+        return slowClientDisconnects;
     }
 
     /**
-     * Closes the server and client sockets along with the output stream.
+     * Sends the buffered lines, as far as the clients accept them without blocking, and closes
+     * the server and client sockets.
      */
+    @Override
     public void close() {
+        closed = true;
+        if (selector != null) {
+            selector.wakeup();
+        }
+        if (selectorThread != null && Thread.currentThread() != selectorThread) {
+            try {
+                selectorThread.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Wakes the selector thread once the buffered lines are worth publishing early. Called with
+     * the lock held.
+     */
+    private void requestPublish() {
+        if (pending.length() >= PUBLISH_THRESHOLD && !wakeupRequested) {
+            wakeupRequested = true;
+            selector.wakeup();
+        }
+    }
+
+    /**
+     * Runs the selector loop: accepts clients, publishes the buffered lines and writes the
+     * queued chunks to the clients whose sockets can take them.
+     */
+    private void run() {
+        long nextPublish = System.nanoTime();
         try {
-            if (out != null) {
-                out.close();
+            while (!closed) {
+                selector.select(flushIntervalMillis);
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    if (key.isAcceptable()) {
+                        accept();
+                    } else if (key.isWritable()) {
+                        write((Client) key.attachment());
+                    }
+                }
+                long now = System.nanoTime();
+                boolean early;
+                synchronized (this) {
+                    early = wakeupRequested;
+                }
+                if (early || now >= nextPublish) {
+                    publish();
+                    nextPublish = now + TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+                }
+            }
+            publish();
+        } catch (IOException e) {
+            System.err.println("Error in TCP server: " + e.getMessage());
+        } finally {
+            for (Client client : new ArrayList<>(clients)) {
+                disconnect(client);
             }
-            if (clientSocket != null && !clientSocket.isClosed()) {
-                clientSocket.close();
+            try {
+                selector.close();
+                serverChannel.close();
+            } catch (IOException e) {
+                System.err.println("Error closing TCP resources: " + e.getMessage());
             }
-            if (serverSocket != null && !serverSocket.isClosed()) {
-                serverSocket.close();
+        }
+    }
+
+    /**
+     * Accepts the pending client connections.
+     *
+     * @throws IOException if the server socket fails
+     */
+    private void accept() throws IOException {
+        SocketChannel channel;
+        while ((channel = serverChannel.accept()) != null) {
+            channel.configureBlocking(false);
+            channel.socket().setTcpNoDelay(true);
+            Client client = new Client(channel);
+            client.key = channel.register(selector, 0, client);
+            clients.add(client);
+            clientCount = clients.size();
+            System.out.println("Client connected: " + channel.socket().getInetAddress());
+        }
+    }
+
+    /**
+     * Encodes the buffered lines once and queues the chunk for every client.
+     */
+    private void publish() {
+        synchronized (this) {
+            StringBuilder full = pending;
+            pending = publishing;
+            publishing = full;
+            wakeupRequested = false;
+        }
+        if (publishing.length() == 0) {
+            return;
+        }
+        ByteBuffer chunk = ByteBuffer.wrap(publishing.toString().getBytes(StandardCharsets.UTF_8)).asReadOnlyBuffer();
+        publishing.setLength(0);
+        for (Client client : new ArrayList<>(clients)) {
+            if (client.queuedBytes + chunk.remaining() > maxClientBuffer) {
+                System.err.println("Disconnecting slow TCP client " + client.channel.socket().getInetAddress()
+                        + " with " + client.queuedBytes + " bytes queued");
+                slowClientDisconnects++;
+                disconnect(client);
+                continue;
             }
-            if (clientAcceptorExecutor != null && !clientAcceptorExecutor.isShutdown()) {
-                clientAcceptorExecutor.shutdown();
+            client.queue.add(chunk.duplicate());
+            client.queuedBytes += chunk.remaining();
+            write(client);
+        }
+    }
+
+    /**
+     * Writes as many queued chunks to a client as its socket takes without blocking, and asks
+     * to be told when it can take more.
+     *
+     * @param client the client
+     */
+    private void write(Client client) {
+        try {
+            while (!client.queue.isEmpty()) {
+                ByteBuffer[] chunks = client.queue.toArray(new ByteBuffer[0]);
+                long written = client.channel.write(chunks);
+                client.queuedBytes -= written;
+                while (!client.queue.isEmpty() && !client.queue.peek().hasRemaining()) {
+                    client.queue.poll();
+                }
+                if (written == 0) {
+                    break;
+                }
             }
+            client.key.interestOps(client.queue.isEmpty() ? 0 : SelectionKey.OP_WRITE);
         } catch (IOException e) {
-            System.err.println("Error closing TCP resources: " + e.getMessage());
-            e.printStackTrace();
+            System.out.println("Client disconnected: " + client.channel.socket().getInetAddress());
+            disconnect(client);
+        }
+    }
+
+    /**
+     * Closes the connection to a client and forgets its queue.
+     *
+     * @param client the client
+     */
+    private void disconnect(Client client) {
+        clients.remove(client);
+        clientCount = clients.size();
+        client.key.cancel();
+        try {
+            client.channel.close();
+        } catch (IOException e) {
+            System.err.println("Error closing TCP client: " + e.getMessage());
+        }
+    }
+
+    /**
+     * A connected client and the chunks it has not received yet. Used by the selector thread only.
+     */
+    private static final class Client {
+
+        private final SocketChannel channel;
+        private final ArrayDeque<ByteBuffer> queue = new ArrayDeque<>();
+        private long queuedBytes;
+        private SelectionKey key;
+
+        private Client(SocketChannel channel) {
+            this.channel = channel;
         }
     }
 }
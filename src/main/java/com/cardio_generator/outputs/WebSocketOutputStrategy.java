@@ -1,16 +1,50 @@
 package com.cardio_generator.outputs;
 
 import org.java_websocket.WebSocket;
+import org.java_websocket.WebSocketImpl;
+import org.java_websocket.framing.CloseFrame;
 import org.java_websocket.server.WebSocketServer;
 
 import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Strategy for outputting data to clients over a WebSocket.
+ *
+ * <p>Readings are not sent one frame each. They are appended as lines to a shared buffer, and
+ * every flush interval, or sooner once the buffer grows large, the buffered lines are sent as
+ * one text message with one line per reading. The message is broadcast through the server, so
+ * it is encoded once for all clients instead of once per connection.</p>
+ *
+ * <p>Before every broadcast the bytes still queued for each client are checked. A client
+ * whose backlog exceeds the limit, such as a dashboard that stopped reading, is disconnected,
+ * so it cannot grow the heap of the server. Readings output while no client is connected are
+ * dropped.</p>
  */
-public class WebSocketOutputStrategy implements OutputStrategy {
+public final class WebSocketOutputStrategy implements OutputStrategy, AutoCloseable {
 
-    private WebSocketServer server;
+    /** Default time after which buffered lines are sent, in milliseconds. */
+    public static final long DEFAULT_FLUSH_INTERVAL_MILLIS = 50;
+    /** Default number of queued bytes after which a client is disconnected. */
+    public static final long DEFAULT_MAX_BUFFERED_BYTES = 16 * 1024 * 1024;
+
+    /** Buffered characters after which the lines are sent before the interval ends. */
+    private static final int PUBLISH_THRESHOLD = 256 * 1024;
+
+    private final SimpleWebSocketServer server;
+    private final long maxBufferedBytes;
+    private final ScheduledExecutorService publisher;
+    private StringBuilder pending = new StringBuilder(PUBLISH_THRESHOLD); // Guarded by this
+    private StringBuilder publishing = new StringBuilder(PUBLISH_THRESHOLD); // Used by the publisher thread only
+    private boolean publishRequested; // Guarded by this
+    private volatile long slowClientDisconnects;
 
     /**
      * Constructs a WebSocketOutputStrategy that starts a server on the specified port.
@@ -18,13 +52,36 @@ public class WebSocketOutputStrategy implements OutputStrategy {
      * @param port the port number on which the server should listen for clients
      */
     public WebSocketOutputStrategy(int port) {
+        this(port, DEFAULT_FLUSH_INTERVAL_MILLIS, DEFAULT_MAX_BUFFERED_BYTES);
+    }
+
+    /**
+     * Constructs a WebSocketOutputStrategy that starts a server on the specified port.
+     *
+     * @param port                the port number on which the server should listen for clients
+     * @param flushIntervalMillis the time after which buffered lines are sent, in milliseconds
+     * @param maxBufferedBytes    the number of queued bytes after which a client is disconnected
+     */
+    public WebSocketOutputStrategy(int port, long flushIntervalMillis, long maxBufferedBytes) {
+        if (flushIntervalMillis < 1 || maxBufferedBytes < 1) {
+            throw new IllegalArgumentException("Flush interval and buffered bytes must be positive.");
+        }
+        this.maxBufferedBytes = maxBufferedBytes;
         server = new SimpleWebSocketServer(new InetSocketAddress(port));
         System.out.println("WebSocket server created on port: " + port + ", listening for connections...");
         server.start();
+        publisher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "websocket-output");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Last, so the publisher thread only sees a fully constructed output
+        publisher.scheduleWithFixedDelay(this::publish, flushIntervalMillis, flushIntervalMillis,
+                TimeUnit.MILLISECONDS);
     }
 
     /**
-     * Sends the output data to all connected WebSocket clients.
+     * Queues the output data for all connected WebSocket clients.
      *
      * @param patientId the unique identifier of the patient
      * @param timestamp the time at which the data was recorded
@@ -33,29 +90,203 @@ public class WebSocketOutputStrategy implements OutputStrategy {
      */
     @Override
     public void output(int patientId, long timestamp, String label, String data) {
-        String message = String.format("%d,%d,%s,%s", patientId, timestamp, label, data);
-        // Broadcast the message to all connected clients
+        if (server.openConnections.get() == 0) {
+            return;
+        }
+        synchronized (this) {
+            startLine().append(patientId).append(',').append(timestamp).append(',')
+                    .append(label).append(',').append(data);
+            requestPublish();
+        }
+    }
+
+    /**
+     * Queues a numeric reading for all connected WebSocket clients without formatting it to a
+     * string first.
+     *
+     * @param patientId the unique identifier of the patient
+     * @param timestamp the time at which the data was recorded
+     * @param label     the label describing the type of data
+     * @param value     the value of the reading
+     */
+    @Override
+    public void outputValue(int patientId, long timestamp, String label, double value) {
+        if (server.openConnections.get() == 0) {
+            return;
+        }
+        synchronized (this) {
+            startLine().append(patientId).append(',').append(timestamp).append(',')
+                    .append(label).append(',').append(value);
+            requestPublish();
+        }
+    }
+
+    /**
+     * Queues a block of samples for all connected WebSocket clients, one line per sample.
+     *
+     * @param patientId  the unique identifier of the patient
+     * @param timestamp  the time of the first sample
+     * @param sampleRate the samples per second
+     * @param label      the label describing the type of data
+     * @param samples    the sample values
+     * @param length     the number of samples to send
+     */
+    @Override
+    public void outputSamples(int patientId, long timestamp, int sampleRate, String label, double[] samples,
+            int length) {
+        if (server.openConnections.get() == 0) {
+            return;
+        }
+        synchronized (this) {
+            for (int i = 0; i < length; i++) {
+                startLine().append(patientId).append(',').append(timestamp + i * 1000L / sampleRate).append(',')
+                        .append(label).append(',').append(samples[i]);
+            }
+            requestPublish();
+        }
+    }
+
+    /**
+     * Queues a batch of readings for all connected WebSocket clients, one line per reading.
+     *
+     * @param batch the readings
+     */
+    @Override
+    public void outputBatch(ReadingBatch batch) {
+        if (server.openConnections.get() == 0) {
+            return;
+        }
+        synchronized (this) {
+            for (int i = 0; i < batch.size(); i++) {
+                startLine().append(batch.getPatientId(i)).append(',').append(batch.getTimestamp(i)).append(',')
+                        .append(batch.getLabel(i)).append(',').append(batch.getValue(i));
+            }
+            requestPublish();
+        }
+    }
+
+    /**
+     * Returns the number of clients disconnected because their backlog exceeded the limit.
+     *
+     * @return the count of slow clients dropped
+     */
+    public long getSlowClientDisconnects() {
+        return slowClientDisconnects;
+    }
+
+    /**
+     * Sends the buffered lines and stops the server.
+     */
+    @Override
+    public void close() {
+        publisher.shutdown();
+        try {
+            publisher.awaitTermination(5, TimeUnit.SECONDS);
+            publish();
+            server.stop(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Returns the buffer of pending lines, ready for the next line. Called with the lock held.
+     *
+     * @return the buffer
+     */
+    private StringBuilder startLine() {
+        if (pending.length() > 0) {
+            pending.append('\n');
+        }
+        return pending;
+    }
+
+    /**
+     * Sends the buffered lines early once they are worth a message of their own. Called with
+     * the lock held.
+     */
+    private void requestPublish() {
+        if (pending.length() >= PUBLISH_THRESHOLD && !publishRequested) {
+            publishRequested = true;
+            try {
+                publisher.execute(this::publish);
+            } catch (RejectedExecutionException e) {
+                // Closing, the remaining lines are sent by close()
+            }
+        }
+    }
+
+    /**
+     * Disconnects the clients that fell too far behind and broadcasts the buffered lines as one
+     * message to the others. Runs on the publisher thread, or on the closing thread once the
+     * publisher has stopped.
+     */
+    private void publish() {
+        synchronized (this) {
+            StringBuilder full = pending;
+            pending = publishing;
+            publishing = full;
+            publishRequested = false;
+        }
+        List<WebSocket> receivers = new ArrayList<>();
         for (WebSocket conn : server.getConnections()) {
-            conn.send(message);
+            long buffered = bufferedBytes(conn);
+            if (buffered > maxBufferedBytes) {
+                System.err.println("Disconnecting slow WebSocket client " + conn.getRemoteSocketAddress()
+                        + " with " + buffered + " bytes queued");
+                slowClientDisconnects++;
+                conn.closeConnection(CloseFrame.TRY_AGAIN_LATER, "Client is not keeping up");
+            } else if (conn.isOpen()) {
+                receivers.add(conn);
+            }
+        }
+        if (publishing.length() == 0) {
+            return;
         }
+        if (!receivers.isEmpty()) {
+            // Encodes the message once and sends the same frame to every receiver
+            server.broadcast(publishing.toString(), receivers);
+        }
+        publishing.setLength(0);
     }
 
     /**
-     * A simple WebSocketServer that logs connection events.
+     * Returns the number of bytes queued for a client and not yet written to its socket.
+     *
+     * @param conn the connection of the client
+     * @return the queued bytes, or 0 if the connection does not expose its queue
+     */
+    private static long bufferedBytes(WebSocket conn) {
+        if (!(conn instanceof WebSocketImpl)) {
+            return 0;
+        }
+        long buffered = 0;
+        for (ByteBuffer buffer : ((WebSocketImpl) conn).outQueue) {
+            buffered += buffer.remaining();
+        }
+        return buffered;
+    }
+
+    /**
+     * A simple WebSocketServer that logs connection events and counts the open connections.
      */
     private static class SimpleWebSocketServer extends WebSocketServer {
 
+        private final AtomicInteger openConnections = new AtomicInteger();
+
         public SimpleWebSocketServer(InetSocketAddress address) {
             super(address);
         }
 
         @Override
         public void onOpen(WebSocket conn, org.java_websocket.handshake.ClientHandshake handshake) {
+            openConnections.incrementAndGet();
             System.out.println("New connection: " + conn.getRemoteSocketAddress());
         }
 
         @Override
         public void onClose(WebSocket conn, int code, String reason, boolean remote) {
+            openConnections.decrementAndGet();
             System.out.println("Closed connection: " + conn.getRemoteSocketAddress());
         }
 
@@ -0,0 +1,212 @@
+package com.cardio_generator.scheduling;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import com.cardio_generator.generators.PatientDataGenerator;
+import com.cardio_generator.outputs.OutputStrategy;
+
+/**
+ * Tick based scheduling mode: the patients are split into slices and each generator gets a
+ * single fixed-rate task per slice that loops over its patients. The thread count and the
+ * number of timer entries stay bounded however many patients are simulated. Slices of the
+ * same generator start at evenly spread offsets within the period, and there are enough of
+ * them, up to one per millisecond of the period, that a slice is a small burst rather than
+ * a large share of the patients at once.
+ *
+ * <p>Patients admitted at runtime join the smallest slice of every generator; the slices
+ * are copied on change, so the ticks never wait for an admission or discharge.</p>
+ */
+public class BatchedScheduler implements SimulationScheduler {
+
+    // Slices of a generator are at least this far apart and hold at least MIN_SLICE_PATIENTS
+    private static final long MIN_SLICE_SPACING_NANOS = 1_000_000;
+    private static final int MIN_SLICE_PATIENTS = 64;
+    private static final int MAX_SLICES = 1000;
+
+    private final ScheduledExecutorService executor;
+    private final int threadCount;
+    private final PhaseSpread phases;
+    // Guarded by itself
+    private final List<Slice[]> slicesByGenerator = new ArrayList<>();
+
+    /**
+     * Constructs a scheduler with one thread per available processor.
+     */
+    public BatchedScheduler() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructs a scheduler with the given number of threads.
+     *
+     * @param threadCount the number of threads, and the least number of slices per generator
+     */
+    public BatchedScheduler(int threadCount) {
+        this(threadCount, new PhaseSpread(0));
+    }
+
+    /**
+     * Constructs a scheduler with the given number of threads and phases.
+     *
+     * @param threadCount the number of threads, and the least number of slices per generator
+     * @param phases      the offsets of the generators within the spacing of their slices
+     */
+    public BatchedScheduler(int threadCount, PhaseSpread phases) {
+        if (threadCount < 1) {
+            throw new IllegalArgumentException("Thread count must be positive.");
+        }
+        this.threadCount = threadCount;
+        this.phases = phases;
+        this.executor = Executors.newScheduledThreadPool(threadCount, runnable -> {
+            Thread thread = new Thread(runnable, "simulation-batch");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Schedules one task per patient slice.
+     *
+     * @param generator      the generator to run
+     * @param patientIds     the patients to generate data for
+     * @param period         the period between two readings of the same patient
+     * @param timeUnit       the time unit of the period
+     * @param outputStrategy the strategy the generated data is written to
+     */
+    @Override
+    public void schedule(PatientDataGenerator generator, int[] patientIds, long period, TimeUnit timeUnit,
+            OutputStrategy outputStrategy) {
+        long periodNanos = timeUnit.toNanos(period);
+        int sliceCount = (int) Math.max(threadCount, Math.min(Math.min(MAX_SLICES,
+                periodNanos / MIN_SLICE_SPACING_NANOS), patientIds.length / MIN_SLICE_PATIENTS));
+        // Shifts the slices of this generator against those of the other generators
+        long phase = phases.nextOffsetNanos(periodNanos / sliceCount);
+        Slice[] slices = new Slice[sliceCount];
+        for (int i = 0; i < sliceCount; i++) {
+            int from = (int) ((long) patientIds.length * i / sliceCount);
+            int to = (int) ((long) patientIds.length * (i + 1) / sliceCount);
+            Slice slice = new Slice(Arrays.copyOfRange(patientIds, from, to));
+            slices[i] = slice;
+            executor.scheduleAtFixedRate(() -> runSlice(generator, slice.patientIds, outputStrategy),
+                    phase + periodNanos * i / sliceCount, periodNanos, TimeUnit.NANOSECONDS);
+        }
+        synchronized (slicesByGenerator) {
+            slicesByGenerator.add(slices);
+        }
+    }
+
+    /**
+     * Adds the patient to the smallest slice of every generator.
+     *
+     * @param patientId the patient to generate data for
+     */
+    @Override
+    public void admit(int patientId) {
+        synchronized (slicesByGenerator) {
+            for (Slice[] slices : slicesByGenerator) {
+                Slice smallest = slices[0];
+                for (Slice slice : slices) {
+                    if (slice.indexOf(patientId) >= 0) {
+                        smallest = null;
+                        break;
+                    }
+                    if (slice.patientIds.length < smallest.patientIds.length) {
+                        smallest = slice;
+                    }
+                }
+                if (smallest != null) {
+                    int[] grown = Arrays.copyOf(smallest.patientIds, smallest.patientIds.length + 1);
+                    grown[grown.length - 1] = patientId;
+                    smallest.patientIds = grown;
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes the patient from the slices of every generator.
+     *
+     * @param patientId the patient to stop generating data for
+     */
+    @Override
+    public void discharge(int patientId) {
+        synchronized (slicesByGenerator) {
+            for (Slice[] slices : slicesByGenerator) {
+                for (Slice slice : slices) {
+                    int index = slice.indexOf(patientId);
+                    if (index >= 0) {
+                        int[] current = slice.patientIds;
+                        int[] shrunk = Arrays.copyOf(current, current.length - 1);
+                        System.arraycopy(current, index + 1, shrunk, index, current.length - index - 1);
+                        slice.patientIds = shrunk;
+                        break;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the number of threads of the pool.
+     *
+     * @return the thread count
+     */
+    @Override
+    public int getThreadCount() {
+        return threadCount;
+    }
+
+    /**
+     * Stops all scheduled generators.
+     */
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Generates one reading for every patient of a slice.
+     *
+     * @param generator      the generator to run
+     * @param patientIds     the patients of the slice
+     * @param outputStrategy the strategy the generated data is written to
+     */
+    private static void runSlice(PatientDataGenerator generator, int[] patientIds, OutputStrategy outputStrategy) {
+        for (int patientId : patientIds) {
+            try {
+                generator.generate(patientId, outputStrategy);
+            } catch (RuntimeException e) {
+                // An exception escaping the task would cancel the whole slice
+                System.err.println("Error generating data for patient " + patientId + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * The patients of one task. The array is replaced, never modified, so a tick iterates
+     * over a consistent snapshot.
+     */
+    private static final class Slice {
+
+        private volatile int[] patientIds;
+
+        private Slice(int[] patientIds) {
+            this.patientIds = patientIds;
+        }
+
+        private int indexOf(int patientId) {
+            int[] current = patientIds;
+            for (int i = 0; i < current.length; i++) {
+                if (current[i] == patientId) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.cardio_generator.scheduling;
+
+/**
+ * The target rate of readings over the course of a load test, in readings per second of the
+ * whole simulation. Profiles are used by the {@link LoadProfileScheduler} and describe the
+ * offered load only; whether the system keeps up shows in the send lag it reports.
+ */
+@FunctionalInterface
+public interface LoadProfile {
+
+    /**
+     * Returns the target rate at a point of the load test.
+     *
+     * @param elapsedSeconds the seconds since the start of the load test
+     * @return the target readings per second, zero or more
+     */
+    double rateAt(double elapsedSeconds);
+
+    /**
+     * A constant rate.
+     *
+     * @param rate the readings per second
+     * @return the profile
+     */
+    static LoadProfile constant(double rate) {
+        return elapsedSeconds -> rate;
+    }
+
+    /**
+     * A rate that rises linearly and then holds the final rate, to find the rate at which the
+     * system saturates.
+     *
+     * @param from    the readings per second at the start
+     * @param to      the readings per second at the end of the ramp
+     * @param seconds the length of the ramp
+     * @return the profile
+     */
+    static LoadProfile ramp(double from, double to, double seconds) {
+        return elapsedSeconds -> elapsedSeconds >= seconds
+                ? to
+                : from + (to - from) * elapsedSeconds / seconds;
+    }
+
+    /**
+     * A base rate with a single burst at a higher rate.
+     *
+     * @param base     the readings per second outside the spike
+     * @param peak     the readings per second during the spike
+     * @param start    the seconds after the start at which the spike begins
+     * @param duration the length of the spike in seconds
+     * @return the profile
+     */
+    static LoadProfile spike(double base, double peak, double start, double duration) {
+        return elapsedSeconds -> elapsedSeconds >= start && elapsedSeconds < start + duration ? peak : base;
+    }
+
+    /**
+     * A rate that follows a day-night cycle, lowest at the start and highest half a period later.
+     *
+     * @param mean      the average readings per second
+     * @param amplitude the deviation of the peak and the trough from the mean
+     * @param period    the length of a cycle in seconds, a day for a real-time simulation
+     * @return the profile
+     */
+    static LoadProfile diurnal(double mean, double amplitude, double period) {
+        return elapsedSeconds -> Math.max(0, mean - amplitude * Math.cos(2 * Math.PI * elapsedSeconds / period));
+    }
+
+    /**
+     * Parses a profile from the command line.
+     *
+     * <p>Formats: {@code constant:<rate>}, {@code ramp:<from>:<to>:<seconds>},
+     * {@code spike:<base>:<peak>:<start>:<duration>} and
+     * {@code diurnal:<mean>:<amplitude>:<period>}.</p>
+     *
+     * @param spec the profile specification
+     * @return the profile
+     * @throws IllegalArgumentException if the specification is not valid
+     */
+    static LoadProfile parse(String spec) {
+        String[] parts = spec.split(":");
+        double[] values = new double[parts.length - 1];
+        try {
+            for (int i = 1; i < parts.length; i++) {
+                values[i - 1] = Double.parseDouble(parts[i]);
+            }
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid number in load profile '" + spec + "'.", e);
+        }
+        for (double value : values) {
+            if (!(value >= 0) || Double.isInfinite(value)) {
+                throw new IllegalArgumentException("Load profile values must be finite and not negative: '" + spec + "'.");
+            }
+        }
+        switch (parts[0]) {
+            case "constant":
+                requireValues(spec, values, 1);
+                return constant(values[0]);
+            case "ramp":
+                requireValues(spec, values, 3);
+                return ramp(values[0], values[1], values[2]);
+            case "spike":
+                requireValues(spec, values, 4);
+                return spike(values[0], values[1], values[2], values[3]);
+            case "diurnal":
+                requireValues(spec, values, 3);
+                return diurnal(values[0], values[1], values[2]);
+            default:
+                throw new IllegalArgumentException("Unknown load profile '" + parts[0]
+                        + "'. Options are 'constant', 'ramp', 'spike' and 'diurnal'.");
+        }
+    }
+
+    /**
+     * Checks the number of values of a profile specification.
+     *
+     * @param spec     the profile specification
+     * @param values   the parsed values
+     * @param expected the number of values the profile takes
+     * @throws IllegalArgumentException if the number does not match
+     */
+    private static void requireValues(String spec, double[] values, int expected) {
+        if (values.length != expected) {
+            throw new IllegalArgumentException("Load profile '" + spec + "' needs " + expected + " value(s).");
+        }
+    }
+}
@@ -0,0 +1,284 @@
+package com.cardio_generator.scheduling;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import com.alerts.dispatch.LatencyHistogram;
+import com.cardio_generator.generators.PatientDataGenerator;
+import com.cardio_generator.outputs.OutputStrategy;
+
+/**
+ * Scheduling mode for load tests that sends readings at the total rate of a
+ * {@link LoadProfile} instead of at fixed periods per patient. The readings are spread over
+ * the generators in proportion to their scheduled rates, and over the patients of a
+ * generator in turn.
+ *
+ * <p>The pacing is open-loop: the intended send time of every reading is computed from the
+ * profile up front and does not move when a reading is sent late. A driver that falls
+ * behind sends the backlog immediately instead of silently lowering the rate. Every reading
+ * is timestamped with its intended send time, so a latency measured downstream from the
+ * timestamp includes the time the reading waited to be sent and is free of coordinated
+ * omission. The generators must be constructed with this scheduler as their
+ * {@link SimulationClock}.</p>
+ *
+ * <p>All readings are sent from a single driver thread; the send lag it reports, the delay
+ * between the intended and the actual send time, grows once the generators and the output
+ * can no longer keep up with the profile.</p>
+ */
+public final class LoadProfileScheduler implements SimulationScheduler, SimulationClock {
+
+    // A zero rate is checked again after this many nanoseconds
+    private static final long IDLE_STEP_NANOS = 10_000_000;
+
+    private final LoadProfile profile;
+    private final long startMillis;
+    private final long startNanos;
+    private final List<Stream> streams = new ArrayList<>(); // Guarded by streams
+    private final PatientIdSet patients = new PatientIdSet(); // Guarded by streams
+    private final LatencyHistogram sendLag = new LatencyHistogram();
+    private final Thread driver;
+    private volatile long intendedMillis;
+    private volatile long sentCount;
+    private volatile boolean closed;
+
+    /**
+     * Constructs a scheduler and starts sending at the rate of the profile. Until the first
+     * generator is scheduled no readings are sent, and their intended send times are skipped.
+     *
+     * @param profile the target rate of readings over time
+     */
+    public LoadProfileScheduler(LoadProfile profile) {
+        this.profile = profile;
+        this.startMillis = System.currentTimeMillis();
+        this.startNanos = System.nanoTime();
+        this.intendedMillis = startMillis;
+        // Last, so the driver thread only sees a fully constructed scheduler
+        this.driver = new Thread(this::run, "load-driver");
+        driver.start();
+    }
+
+    /**
+     * Adds a generator to the readings sent. Its share of the total rate is its rate per
+     * patient, one reading per period, times its number of patients.
+     *
+     * @param generator      the generator to run
+     * @param patientIds     the patients to generate data for
+     * @param period         the period between two readings of the same patient
+     * @param timeUnit       the time unit of the period
+     * @param outputStrategy the strategy the generated data is written to
+     */
+    @Override
+    public void schedule(PatientDataGenerator generator, int[] patientIds, long period, TimeUnit timeUnit,
+            OutputStrategy outputStrategy) {
+        synchronized (streams) {
+            if (closed) {
+                throw new IllegalStateException("Scheduler is closed.");
+            }
+            streams.add(new Stream(new ScheduledGenerator(generator, period, timeUnit, outputStrategy),
+                    new PatientIdSet(patientIds)));
+            for (int patientId : patientIds) {
+                patients.add(patientId);
+            }
+        }
+    }
+
+    /**
+     * Adds the patient to every generator.
+     *
+     * @param patientId the patient to generate data for
+     */
+    @Override
+    public void admit(int patientId) {
+        synchronized (streams) {
+            if (closed || !patients.add(patientId)) {
+                return;
+            }
+            for (Stream stream : streams) {
+                stream.patients.add(patientId);
+            }
+        }
+    }
+
+    /**
+     * Removes the patient from every generator.
+     *
+     * @param patientId the patient to stop generating data for
+     */
+    @Override
+    public void discharge(int patientId) {
+        synchronized (streams) {
+            if (!patients.remove(patientId)) {
+                return;
+            }
+            for (Stream stream : streams) {
+                stream.patients.remove(patientId);
+            }
+        }
+    }
+
+    /**
+     * Returns the intended send time of the reading being generated.
+     *
+     * @return the time in milliseconds since the epoch
+     */
+    @Override
+    public long currentTimeMillis() {
+        return intendedMillis;
+    }
+
+    /**
+     * Returns the number of threads, always one.
+     *
+     * @return the thread count
+     */
+    @Override
+    public int getThreadCount() {
+        return 1;
+    }
+
+    /**
+     * Returns the target rate of the profile at the current time.
+     *
+     * @return the readings per second
+     */
+    public double getTargetRate() {
+        return profile.rateAt((System.nanoTime() - startNanos) / 1e9);
+    }
+
+    /**
+     * Returns the number of readings sent so far.
+     *
+     * @return the reading count
+     */
+    public long getSentCount() {
+        return sentCount;
+    }
+
+    /**
+     * Returns the histogram of delays between the intended and the actual send times.
+     *
+     * @return the send lag in nanoseconds
+     */
+    public LatencyHistogram getSendLag() {
+        return sendLag;
+    }
+
+    /**
+     * Stops sending readings.
+     */
+    @Override
+    public void close() {
+        synchronized (streams) {
+            closed = true;
+        }
+        driver.interrupt();
+    }
+
+    /**
+     * Sends readings at their intended times until the scheduler is closed.
+     */
+    private void run() {
+        double intendedOffsetNanos = 0;
+        while (!closed) {
+            double rate = profile.rateAt(intendedOffsetNanos / 1e9);
+            if (!(rate > 0)) {
+                intendedOffsetNanos += IDLE_STEP_NANOS;
+                awaitNanos(startNanos + (long) intendedOffsetNanos);
+                continue;
+            }
+            long intendedNanos = startNanos + (long) intendedOffsetNanos;
+            intendedOffsetNanos += 1e9 / rate;
+            if (!awaitNanos(intendedNanos)) {
+                return;
+            }
+
+            ScheduledGenerator registration;
+            int patientId;
+            synchronized (streams) {
+                Stream stream = nextStream();
+                if (stream == null) {
+                    continue; // Nothing scheduled yet, the intended time passes unused
+                }
+                registration = stream.registration;
+                if (stream.next >= stream.patients.size()) {
+                    stream.next = 0;
+                }
+                patientId = stream.patients.get(stream.next++);
+            }
+
+            intendedMillis = startMillis + (intendedNanos - startNanos) / 1_000_000;
+            sendLag.record(System.nanoTime() - intendedNanos);
+            try {
+                registration.generator.generate(patientId, registration.outputStrategy);
+            } catch (RuntimeException e) {
+                System.err.println("Error generating data for patient " + patientId + ": " + e.getMessage());
+            }
+            sentCount++;
+        }
+    }
+
+    /**
+     * Picks the generator of the next reading by smooth weighted round robin, so every
+     * generator gets its share of the readings evenly spread over time. Must hold the lock
+     * of streams.
+     *
+     * @return the stream, or null if no generator has patients
+     */
+    private Stream nextStream() {
+        double total = 0;
+        Stream best = null;
+        for (Stream stream : streams) {
+            double weight = stream.ratePerPatient * stream.patients.size();
+            if (weight == 0) {
+                continue;
+            }
+            stream.credit += weight;
+            total += weight;
+            if (best == null || stream.credit > best.credit) {
+                best = stream;
+            }
+        }
+        if (best != null) {
+            best.credit -= total;
+        }
+        return best;
+    }
+
+    /**
+     * Waits until a point in time. Returns at once if the time has passed.
+     *
+     * @param deadlineNanos the time as given by {@link System#nanoTime()}
+     * @return false if the scheduler was closed while waiting
+     */
+    private boolean awaitNanos(long deadlineNanos) {
+        long delay;
+        while ((delay = deadlineNanos - System.nanoTime()) > 0) {
+            if (closed) {
+                return false;
+            }
+            LockSupport.parkNanos(delay);
+        }
+        return !closed;
+    }
+
+    /**
+     * The readings of one generator, sent to its patients in turn. A discharge moves the last
+     * patient into the freed position, so that patient may be skipped in the current round.
+     */
+    private static final class Stream {
+
+        private final ScheduledGenerator registration;
+        private final double ratePerPatient;
+        private final PatientIdSet patients; // Guarded by streams, like the fields below
+        private int next;
+        private double credit;
+
+        private Stream(ScheduledGenerator registration, PatientIdSet patients) {
+            this.registration = registration;
+            this.ratePerPatient = 1e9 / Math.max(1, registration.timeUnit.toNanos(registration.period));
+            this.patients = patients;
+        }
+    }
+}
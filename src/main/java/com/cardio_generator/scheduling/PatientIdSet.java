@@ -0,0 +1,181 @@
+package com.cardio_generator.scheduling;
+
+import java.util.Arrays;
+
+/**
+ * A set of patient IDs that supports adding, removing and picking a patient by position in
+ * constant time. The IDs are kept densely in a primitive array; a patient is removed by
+ * moving the last ID into its position, so the order of the IDs changes on removal. An
+ * open-addressing hash map of primitive arrays maps every ID to its position.
+ *
+ * <p>Instances are not thread safe; callers synchronize.</p>
+ */
+public final class PatientIdSet {
+
+    private static final int EMPTY = -1;
+
+    private int[] ids;
+    private int size;
+    // Open addressing with linear probing; position EMPTY marks an empty entry
+    private int[] keys;
+    private int[] positions;
+
+    /**
+     * Constructs an empty set.
+     */
+    public PatientIdSet() {
+        this.ids = new int[16];
+        this.keys = new int[16];
+        this.positions = newPositions(16);
+    }
+
+    /**
+     * Constructs a set of the given patients. Duplicate IDs are added once.
+     *
+     * @param patientIds the IDs of the patients
+     */
+    public PatientIdSet(int[] patientIds) {
+        this();
+        for (int patientId : patientIds) {
+            add(patientId);
+        }
+    }
+
+    /**
+     * Adds a patient.
+     *
+     * @param patientId the ID of the patient
+     * @return true if the patient was added, false if it was already in the set
+     */
+    public boolean add(int patientId) {
+        if (indexOf(patientId) != EMPTY) {
+            return false;
+        }
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size * 2);
+        }
+        if ((size + 1) * 4 > keys.length * 3) {
+            rehash(keys.length * 2);
+        }
+        insert(keys, positions, patientId, size);
+        ids[size++] = patientId;
+        return true;
+    }
+
+    /**
+     * Removes a patient. The last patient takes its position.
+     *
+     * @param patientId the ID of the patient
+     * @return true if the patient was removed, false if it was not in the set
+     */
+    public boolean remove(int patientId) {
+        int index = indexOf(patientId);
+        if (index == EMPTY) {
+            return false;
+        }
+        int position = positions[index];
+        removeAt(index);
+        int last = ids[--size];
+        if (position != size) {
+            ids[position] = last;
+            positions[indexOf(last)] = position;
+        }
+        return true;
+    }
+
+    /**
+     * Tells whether a patient is in the set.
+     *
+     * @param patientId the ID of the patient
+     * @return true if the patient is in the set
+     */
+    public boolean contains(int patientId) {
+        return indexOf(patientId) != EMPTY;
+    }
+
+    /**
+     * Returns the patient at a position.
+     *
+     * @param position the position, from 0 to the size exclusive
+     * @return the ID of the patient
+     */
+    public int get(int position) {
+        if (position < 0 || position >= size) {
+            throw new IndexOutOfBoundsException("Position " + position + " out of " + size);
+        }
+        return ids[position];
+    }
+
+    /**
+     * Returns the number of patients.
+     *
+     * @return the patient count
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the index of a key in the hash table.
+     */
+    private int indexOf(int patientId) {
+        int mask = keys.length - 1;
+        for (int i = mix(patientId) & mask; positions[i] != EMPTY; i = (i + 1) & mask) {
+            if (keys[i] == patientId) {
+                return i;
+            }
+        }
+        return EMPTY;
+    }
+
+    private static void insert(int[] keys, int[] positions, int patientId, int position) {
+        int mask = keys.length - 1;
+        int i = mix(patientId) & mask;
+        while (positions[i] != EMPTY) {
+            i = (i + 1) & mask;
+        }
+        keys[i] = patientId;
+        positions[i] = position;
+    }
+
+    /**
+     * Removes the entry at an index with backward-shift deletion, so lookups never need tombstones.
+     */
+    private void removeAt(int index) {
+        int mask = keys.length - 1;
+        int gap = index;
+        for (int j = (gap + 1) & mask; positions[j] != EMPTY; j = (j + 1) & mask) {
+            int home = mix(keys[j]) & mask;
+            // Move the entry into the gap if its home is not between the gap and its position
+            if (((j - home) & mask) >= ((j - gap) & mask)) {
+                keys[gap] = keys[j];
+                positions[gap] = positions[j];
+                gap = j;
+            }
+        }
+        positions[gap] = EMPTY;
+    }
+
+    private void rehash(int capacity) {
+        int[] newKeys = new int[capacity];
+        int[] newPositions = newPositions(capacity);
+        for (int i = 0; i < keys.length; i++) {
+            if (positions[i] != EMPTY) {
+                insert(newKeys, newPositions, keys[i], positions[i]);
+            }
+        }
+        keys = newKeys;
+        positions = newPositions;
+    }
+
+    private static int[] newPositions(int capacity) {
+        int[] positions = new int[capacity];
+        Arrays.fill(positions, EMPTY);
+        return positions;
+    }
+
+    private static int mix(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
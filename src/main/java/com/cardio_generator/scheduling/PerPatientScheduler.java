@@ -0,0 +1,130 @@
+package com.cardio_generator.scheduling;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import com.cardio_generator.generators.PatientDataGenerator;
+import com.cardio_generator.outputs.OutputStrategy;
+
+/**
+ * The original scheduling mode: one fixed-rate timer entry per patient and generator on a
+ * thread pool whose size grows with the number of patients. Simple, but with many patients
+ * it needs tens of thousands of threads and timer entries.
+ */
+public class PerPatientScheduler implements SimulationScheduler {
+
+    private final ScheduledExecutorService executor;
+    private final int threadCount;
+    private final PhaseSpread phases;
+    private final List<ScheduledGenerator> registrations = new CopyOnWriteArrayList<>();
+    private final Map<Integer, List<ScheduledFuture<?>>> tasks = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs a scheduler with the given pool size and evenly spread phases.
+     *
+     * @param threadCount the number of threads of the pool
+     */
+    public PerPatientScheduler(int threadCount) {
+        this(threadCount, new PhaseSpread(0));
+    }
+
+    /**
+     * Constructs a scheduler with the given pool size and phases.
+     *
+     * @param threadCount the number of threads of the pool
+     * @param phases      the offsets of the tasks within their periods
+     */
+    public PerPatientScheduler(int threadCount, PhaseSpread phases) {
+        this.threadCount = threadCount;
+        this.phases = phases;
+        this.executor = Executors.newScheduledThreadPool(threadCount);
+    }
+
+    /**
+     * Schedules one task per patient, each starting at its own phase within the period.
+     *
+     * @param generator      the generator to run
+     * @param patientIds     the patients to generate data for
+     * @param period         the period between two readings of the same patient
+     * @param timeUnit       the time unit of the period
+     * @param outputStrategy the strategy the generated data is written to
+     */
+    @Override
+    public void schedule(PatientDataGenerator generator, int[] patientIds, long period, TimeUnit timeUnit,
+            OutputStrategy outputStrategy) {
+        ScheduledGenerator registration = new ScheduledGenerator(generator, period, timeUnit, outputStrategy);
+        registrations.add(registration);
+        for (int patientId : patientIds) {
+            start(registration, patientId);
+        }
+    }
+
+    /**
+     * Schedules one task per registered generator for the patient.
+     *
+     * @param patientId the patient to generate data for
+     */
+    @Override
+    public void admit(int patientId) {
+        if (tasks.containsKey(patientId)) {
+            return;
+        }
+        for (ScheduledGenerator registration : registrations) {
+            start(registration, patientId);
+        }
+    }
+
+    /**
+     * Cancels the tasks of the patient.
+     *
+     * @param patientId the patient to stop generating data for
+     */
+    @Override
+    public void discharge(int patientId) {
+        List<ScheduledFuture<?>> patientTasks = tasks.remove(patientId);
+        if (patientTasks != null) {
+            for (ScheduledFuture<?> task : patientTasks) {
+                task.cancel(false);
+            }
+        }
+    }
+
+    /**
+     * Returns the number of threads the pool has started so far.
+     *
+     * @return the thread count
+     */
+    @Override
+    public int getThreadCount() {
+        return ((ScheduledThreadPoolExecutor) executor).getPoolSize();
+    }
+
+    /**
+     * Stops all scheduled generators.
+     */
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Schedules the task of one generator and patient.
+     *
+     * @param registration the generator with its period and output
+     * @param patientId    the patient to generate data for
+     */
+    private void start(ScheduledGenerator registration, int patientId) {
+        long periodNanos = registration.timeUnit.toNanos(registration.period);
+        ScheduledFuture<?> task = executor.scheduleAtFixedRate(
+                () -> registration.generator.generate(patientId, registration.outputStrategy),
+                phases.nextOffsetNanos(periodNanos), periodNanos, TimeUnit.NANOSECONDS);
+        tasks.computeIfAbsent(patientId, k -> new CopyOnWriteArrayList<>()).add(task);
+    }
+}
@@ -0,0 +1,62 @@
+package com.cardio_generator.scheduling;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Assigns the phase, the offset of the first reading within the period, of every task a
+ * scheduler starts. Consecutive tasks get the phases of the golden-ratio sequence: the
+ * n-th phase is the fractional part of n times the golden ratio. Any number of consecutive
+ * phases divides the period into gaps of at most three different lengths, so the tasks stay
+ * evenly spread however many patients are admitted or discharged, with nanosecond
+ * granularity. One sequence is shared by all generators of a scheduler, so the generators
+ * of a patient do not fire together either.
+ *
+ * <p>An optional jitter moves every phase by a random amount, to break up the regular
+ * lattice of readings when that matters more than an even spread.</p>
+ */
+public class PhaseSpread {
+
+    // Fractional part of the golden ratio
+    private static final double GOLDEN_FRACTION = 0.6180339887498949;
+
+    private final long jitterNanos;
+    private final AtomicLong next = new AtomicLong();
+    private final SplittableRandom random = new SplittableRandom();
+
+    /**
+     * Constructs a phase sequence.
+     *
+     * @param jitterNanos the largest random deviation from the even phase, in either
+     *                    direction, or 0 for none
+     */
+    public PhaseSpread(long jitterNanos) {
+        if (jitterNanos < 0) {
+            throw new IllegalArgumentException("Jitter must not be negative.");
+        }
+        this.jitterNanos = jitterNanos;
+    }
+
+    /**
+     * Returns the phase of the next task.
+     *
+     * @param periodNanos the period of the task
+     * @return the offset of the first reading, from 0 inclusive to the period exclusive
+     */
+    public long nextOffsetNanos(long periodNanos) {
+        if (periodNanos <= 0) {
+            return 0;
+        }
+        long index = next.getAndIncrement();
+        double fraction = (index * GOLDEN_FRACTION) % 1.0;
+        long offset = (long) (fraction * periodNanos);
+        if (jitterNanos > 0) {
+            long deviation;
+            synchronized (random) {
+                deviation = random.nextLong(-jitterNanos, jitterNanos + 1);
+            }
+            offset = Math.floorMod(offset + deviation, periodNanos);
+        }
+        return Math.min(offset, periodNanos - 1);
+    }
+}
@@ -0,0 +1,33 @@
+package com.cardio_generator.scheduling;
+
+import java.util.concurrent.TimeUnit;
+
+import com.cardio_generator.generators.PatientDataGenerator;
+import com.cardio_generator.outputs.OutputStrategy;
+
+/**
+ * A generator registered with a scheduler, kept so that patients admitted later can be
+ * scheduled with the same period and output.
+ */
+final class ScheduledGenerator {
+
+    final PatientDataGenerator generator;
+    final long period;
+    final TimeUnit timeUnit;
+    final OutputStrategy outputStrategy;
+
+    /**
+     * Constructs a registration.
+     *
+     * @param generator      the generator to run
+     * @param period         the period between two readings of the same patient
+     * @param timeUnit       the time unit of the period
+     * @param outputStrategy the strategy the generated data is written to
+     */
+    ScheduledGenerator(PatientDataGenerator generator, long period, TimeUnit timeUnit, OutputStrategy outputStrategy) {
+        this.generator = generator;
+        this.period = period;
+        this.timeUnit = timeUnit;
+        this.outputStrategy = outputStrategy;
+    }
+}
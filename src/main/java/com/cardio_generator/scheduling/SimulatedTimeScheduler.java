@@ -0,0 +1,249 @@
+package com.cardio_generator.scheduling;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+
+import com.cardio_generator.generators.PatientDataGenerator;
+import com.cardio_generator.outputs.OutputStrategy;
+
+/**
+ * Scheduling mode that runs on a simulated clock instead of the wall clock. A single thread
+ * takes the earliest pending reading, advances the clock to its time and runs the generator,
+ * so the timestamps keep the scheduled spacing however fast the readings are produced. The
+ * simulated time either runs a fixed factor faster than the wall clock or, with an infinite
+ * speed, as fast as the output strategy accepts the readings.
+ *
+ * <p>The generators must be constructed with this scheduler as their {@link SimulationClock}.
+ * Patients of the same generator start at evenly spread offsets within the first period;
+ * patients admitted later get their first readings at the current simulated time.</p>
+ */
+public final class SimulatedTimeScheduler implements SimulationScheduler, SimulationClock {
+
+    // All guarded by pending
+    private final PriorityQueue<Reading> pending = new PriorityQueue<>();
+    private final List<ScheduledGenerator> registrations = new ArrayList<>();
+    private final Map<Integer, List<Reading>> readingsByPatient = new HashMap<>();
+    private final double speed;
+    private final long startMillis;
+    private final long wallStartNanos;
+    private final Thread driver;
+    private volatile long now;
+    private volatile boolean closed;
+
+    /**
+     * Constructs a scheduler whose simulated time starts at the current wall-clock time.
+     *
+     * @param speed how many times faster than the wall clock the simulated time runs, or
+     *              {@link Double#POSITIVE_INFINITY} to run as fast as possible
+     */
+    public SimulatedTimeScheduler(double speed) {
+        this(speed, System.currentTimeMillis());
+    }
+
+    /**
+     * Constructs a scheduler whose simulated time starts at the given time.
+     *
+     * @param speed       how many times faster than the wall clock the simulated time runs, or
+     *                    {@link Double#POSITIVE_INFINITY} to run as fast as possible
+     * @param startMillis the simulated start time in milliseconds since the epoch
+     */
+    public SimulatedTimeScheduler(double speed, long startMillis) {
+        if (!(speed > 0)) {
+            throw new IllegalArgumentException("Speed must be positive.");
+        }
+        this.speed = speed;
+        this.startMillis = startMillis;
+        this.now = startMillis;
+        this.wallStartNanos = System.nanoTime();
+        // Last, so the driver thread only sees a fully constructed scheduler
+        this.driver = new Thread(this::run, "simulation-clock");
+        driver.start();
+    }
+
+    /**
+     * Queues the first reading of every patient.
+     *
+     * @param generator      the generator to run
+     * @param patientIds     the patients to generate data for
+     * @param period         the period between two readings of the same patient
+     * @param timeUnit       the time unit of the period
+     * @param outputStrategy the strategy the generated data is written to
+     */
+    @Override
+    public void schedule(PatientDataGenerator generator, int[] patientIds, long period, TimeUnit timeUnit,
+            OutputStrategy outputStrategy) {
+        long periodMillis = Math.max(1, timeUnit.toMillis(period));
+        synchronized (pending) {
+            if (closed) {
+                throw new IllegalStateException("Scheduler is closed.");
+            }
+            ScheduledGenerator registration = new ScheduledGenerator(generator, period, timeUnit, outputStrategy);
+            registrations.add(registration);
+            long first = now;
+            for (int i = 0; i < patientIds.length; i++) {
+                add(new Reading(registration, patientIds[i], periodMillis, first + periodMillis * i / patientIds.length));
+            }
+            pending.notifyAll();
+        }
+    }
+
+    /**
+     * Queues a reading of every registered generator for the patient at the current
+     * simulated time.
+     *
+     * @param patientId the patient to generate data for
+     */
+    @Override
+    public void admit(int patientId) {
+        synchronized (pending) {
+            if (closed || readingsByPatient.containsKey(patientId)) {
+                return;
+            }
+            for (ScheduledGenerator registration : registrations) {
+                long periodMillis = Math.max(1, registration.timeUnit.toMillis(registration.period));
+                add(new Reading(registration, patientId, periodMillis, now));
+            }
+            pending.notifyAll();
+        }
+    }
+
+    /**
+     * Drops the pending readings of the patient.
+     *
+     * @param patientId the patient to stop generating data for
+     */
+    @Override
+    public void discharge(int patientId) {
+        synchronized (pending) {
+            List<Reading> readings = readingsByPatient.remove(patientId);
+            if (readings != null) {
+                for (Reading reading : readings) {
+                    reading.discharged = true;
+                    pending.remove(reading);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the simulated time of the reading being generated.
+     *
+     * @return the simulated time in milliseconds since the epoch
+     */
+    @Override
+    public long currentTimeMillis() {
+        return now;
+    }
+
+    /**
+     * Returns the number of threads, always one.
+     *
+     * @return the thread count
+     */
+    @Override
+    public int getThreadCount() {
+        return 1;
+    }
+
+    /**
+     * Stops the simulated clock.
+     */
+    @Override
+    public void close() {
+        synchronized (pending) {
+            closed = true;
+            pending.notifyAll();
+        }
+        driver.interrupt();
+    }
+
+    /**
+     * Generates the pending readings in time order until the scheduler is closed.
+     */
+    private void run() {
+        try {
+            while (!closed) {
+                Reading reading;
+                synchronized (pending) {
+                    while (pending.isEmpty() && !closed) {
+                        pending.wait();
+                    }
+                    if (closed) {
+                        return;
+                    }
+                    reading = pending.poll();
+                }
+                awaitWallClock(reading.time);
+                now = reading.time;
+                try {
+                    reading.registration.generator.generate(reading.patientId, reading.registration.outputStrategy);
+                } catch (RuntimeException e) {
+                    System.err.println("Error generating data for patient " + reading.patientId + ": " + e.getMessage());
+                }
+                reading.time += reading.periodMillis;
+                synchronized (pending) {
+                    if (!reading.discharged) {
+                        pending.add(reading);
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            // Interrupted by close(), the clock stops
+        }
+    }
+
+    /**
+     * Queues the first reading of a patient and generator. Must hold the lock of pending.
+     *
+     * @param reading the reading
+     */
+    private void add(Reading reading) {
+        pending.add(reading);
+        readingsByPatient.computeIfAbsent(reading.patientId, k -> new ArrayList<>()).add(reading);
+    }
+
+    /**
+     * Waits until the wall clock has caught up with a simulated time at the configured speed.
+     *
+     * @param time the simulated time in milliseconds since the epoch
+     * @throws InterruptedException if the scheduler is closed while waiting
+     */
+    private void awaitWallClock(long time) throws InterruptedException {
+        if (Double.isInfinite(speed)) {
+            return;
+        }
+        long due = wallStartNanos + (long) ((time - startMillis) * 1_000_000 / speed);
+        long delay = due - System.nanoTime();
+        if (delay > 0) {
+            Thread.sleep(delay / 1_000_000, (int) (delay % 1_000_000));
+        }
+    }
+
+    /**
+     * The next reading of one patient and generator, reused for every period.
+     */
+    private static final class Reading implements Comparable<Reading> {
+
+        private final ScheduledGenerator registration;
+        private final int patientId;
+        private final long periodMillis;
+        private long time;
+        private boolean discharged; // Guarded by pending
+
+        private Reading(ScheduledGenerator registration, int patientId, long periodMillis, long time) {
+            this.registration = registration;
+            this.patientId = patientId;
+            this.periodMillis = periodMillis;
+            this.time = time;
+        }
+
+        @Override
+        public int compareTo(Reading other) {
+            return Long.compare(time, other.time);
+        }
+    }
+}
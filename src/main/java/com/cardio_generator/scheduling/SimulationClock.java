@@ -0,0 +1,22 @@
+package com.cardio_generator.scheduling;
+
+/**
+ * The source of the timestamps written by the generators. The system clock follows the wall
+ * clock; a simulated clock is advanced by its scheduler, so the readings of a long period can
+ * be generated in a fraction of the time while keeping correctly spaced timestamps.
+ */
+@FunctionalInterface
+public interface SimulationClock {
+
+    /**
+     * The wall clock.
+     */
+    SimulationClock SYSTEM = System::currentTimeMillis;
+
+    /**
+     * Returns the current simulated time.
+     *
+     * @return the time in milliseconds since the epoch
+     */
+    long currentTimeMillis();
+}
@@ -0,0 +1,56 @@
+package com.cardio_generator.scheduling;
+
+import java.util.concurrent.TimeUnit;
+
+import com.cardio_generator.generators.PatientDataGenerator;
+import com.cardio_generator.outputs.OutputStrategy;
+
+/**
+ * Runs data generators periodically for a set of patients that may change while the
+ * simulation runs. Implementations differ in how patients are mapped onto timer entries
+ * and threads.
+ */
+public interface SimulationScheduler extends AutoCloseable {
+
+    /**
+     * Runs a generator for every given patient once per period until the scheduler is closed.
+     *
+     * @param generator      the generator to run
+     * @param patientIds     the patients to generate data for
+     * @param period         the period between two readings of the same patient
+     * @param timeUnit       the time unit of the period
+     * @param outputStrategy the strategy the generated data is written to
+     */
+    void schedule(PatientDataGenerator generator, int[] patientIds, long period, TimeUnit timeUnit,
+            OutputStrategy outputStrategy);
+
+    /**
+     * Starts running every generator scheduled so far for a patient admitted at runtime.
+     * The patient must have been admitted to the generators first. Admitting a patient
+     * that is already scheduled has no effect.
+     *
+     * @param patientId the patient to generate data for
+     */
+    void admit(int patientId);
+
+    /**
+     * Stops running the generators for a discharged patient. A reading that is being
+     * generated may still complete.
+     *
+     * @param patientId the patient to stop generating data for
+     */
+    void discharge(int patientId);
+
+    /**
+     * Returns the number of threads the scheduler runs generators on.
+     *
+     * @return the thread count
+     */
+    int getThreadCount();
+
+    /**
+     * Stops all scheduled generators.
+     */
+    @Override
+    void close();
+}
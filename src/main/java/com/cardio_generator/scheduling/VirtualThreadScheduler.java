@@ -0,0 +1,191 @@
+package com.cardio_generator.scheduling;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import com.cardio_generator.generators.PatientDataGenerator;
+import com.cardio_generator.outputs.OutputStrategy;
+
+/**
+ * Scheduling mode that runs every patient's generator loop on its own virtual thread,
+ * paced with {@link LockSupport#parkNanos}. Virtual threads are cheap to create and park, so
+ * the simple one-loop-per-patient model scales to many patients while the carrier pool stays
+ * at one platform thread per CPU. Each loop parks until an absolute deadline, so the
+ * readings keep a fixed rate instead of drifting by the time spent generating.
+ *
+ * <p>Loops are stopped with a flag and an unpark, never with an interrupt: an interrupt
+ * that arrives while a generator writes to a file channel would close the channel for
+ * every other patient.</p>
+ */
+public class VirtualThreadScheduler implements SimulationScheduler {
+
+    private final List<ScheduledGenerator> registrations = new CopyOnWriteArrayList<>();
+    private final Map<Integer, List<PatientLoop>> loops = new ConcurrentHashMap<>();
+    private final AtomicInteger threadCount = new AtomicInteger();
+    private final PhaseSpread phases;
+    private volatile boolean closed;
+
+    /**
+     * Constructs a scheduler with evenly spread phases.
+     */
+    public VirtualThreadScheduler() {
+        this(new PhaseSpread(0));
+    }
+
+    /**
+     * Constructs a scheduler with the given phases.
+     *
+     * @param phases the offsets of the patient loops within their periods
+     */
+    public VirtualThreadScheduler(PhaseSpread phases) {
+        this.phases = phases;
+    }
+
+    /**
+     * Starts one virtual thread per patient.
+     *
+     * @param generator      the generator to run
+     * @param patientIds     the patients to generate data for
+     * @param period         the period between two readings of the same patient
+     * @param timeUnit       the time unit of the period
+     * @param outputStrategy the strategy the generated data is written to
+     */
+    @Override
+    public void schedule(PatientDataGenerator generator, int[] patientIds, long period, TimeUnit timeUnit,
+            OutputStrategy outputStrategy) {
+        if (closed) {
+            throw new IllegalStateException("Scheduler is closed.");
+        }
+        ScheduledGenerator registration = new ScheduledGenerator(generator, period, timeUnit, outputStrategy);
+        registrations.add(registration);
+        for (int patientId : patientIds) {
+            start(registration, patientId);
+        }
+    }
+
+    /**
+     * Starts one virtual thread per registered generator for the patient.
+     *
+     * @param patientId the patient to generate data for
+     */
+    @Override
+    public void admit(int patientId) {
+        if (loops.containsKey(patientId)) {
+            return;
+        }
+        for (ScheduledGenerator registration : registrations) {
+            start(registration, patientId);
+        }
+    }
+
+    /**
+     * Stops the loops of the patient. A reading that is being generated completes first.
+     *
+     * @param patientId the patient to stop generating data for
+     */
+    @Override
+    public void discharge(int patientId) {
+        List<PatientLoop> patientLoops = loops.remove(patientId);
+        if (patientLoops != null) {
+            for (PatientLoop loop : patientLoops) {
+                loop.stop();
+            }
+        }
+    }
+
+    /**
+     * Returns the number of virtual threads started so far.
+     *
+     * @return the thread count
+     */
+    @Override
+    public int getThreadCount() {
+        return threadCount.get();
+    }
+
+    /**
+     * Stops all patient loops.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        for (Integer patientId : loops.keySet()) {
+            discharge(patientId);
+        }
+    }
+
+    /**
+     * Starts the loop of one generator and patient. The first reading is taken at the
+     * loop's phase within the first period so the patients do not all wake up together.
+     *
+     * @param registration the generator with its period and output
+     * @param patientId    the patient to generate data for
+     */
+    private void start(ScheduledGenerator registration, int patientId) {
+        long periodNanos = registration.timeUnit.toNanos(registration.period);
+        long firstRun = System.nanoTime() + phases.nextOffsetNanos(periodNanos);
+        PatientLoop loop = new PatientLoop();
+        loop.thread = Thread.ofVirtual().name("simulation-patient-" + patientId).unstarted(
+                () -> runPatient(loop, registration.generator, patientId, firstRun, periodNanos,
+                        registration.outputStrategy));
+        // Registered before it starts, so a concurrent discharge or close always finds it
+        loops.computeIfAbsent(patientId, k -> new CopyOnWriteArrayList<>()).add(loop);
+        loop.thread.start();
+        threadCount.incrementAndGet();
+        if (closed) {
+            loop.stop();
+        }
+    }
+
+    /**
+     * Generates readings for one patient until the loop is stopped. The flag is checked
+     * before every reading, so a loop that has fallen behind its deadlines and no longer
+     * parks still ends.
+     *
+     * @param loop           the loop, whose flag tells it to stop
+     * @param generator      the generator to run
+     * @param patientId      the patient to generate data for
+     * @param nextRun        the {@link System#nanoTime()} of the first reading
+     * @param periodNanos    the period between two readings in nanoseconds
+     * @param outputStrategy the strategy the generated data is written to
+     */
+    private void runPatient(PatientLoop loop, PatientDataGenerator generator, int patientId, long nextRun,
+            long periodNanos, OutputStrategy outputStrategy) {
+        while (!loop.stopped) {
+            long delay = nextRun - System.nanoTime();
+            if (delay > 0) {
+                // May return early on stop() or spuriously, the flag and deadline are checked again
+                LockSupport.parkNanos(loop, delay);
+                continue;
+            }
+            try {
+                generator.generate(patientId, outputStrategy);
+            } catch (RuntimeException e) {
+                System.err.println("Error generating data for patient " + patientId + ": " + e.getMessage());
+            }
+            nextRun += periodNanos;
+        }
+    }
+
+    /**
+     * The virtual thread of one generator and patient and the flag that stops it.
+     */
+    private static final class PatientLoop {
+
+        private Thread thread;
+        private volatile boolean stopped;
+
+        /**
+         * Tells the loop to end and wakes it if it is parked.
+         */
+        private void stop() {
+            stopped = true;
+            LockSupport.unpark(thread);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.data_management;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Reads the compact binary datasets written by the dataset generator into a data storage.
+ *
+ * <p>Every {@code .bin} file starts with the int {@link #MAGIC}, followed by records of
+ * {@value #RECORD_SIZE} bytes (big endian): int patient ID, long timestamp, byte index of
+ * the label in {@link #LABELS} and double value. Saturation is stored in percent and alerts
+ * as 1 for triggered and 0 for resolved.</p>
+ */
+public class BinaryFileReader implements DataReaderFile {
+
+    /** The first four bytes of every binary dataset file, "CDS1". */
+    public static final int MAGIC = 0x43445331;
+    /** Size of one record in bytes. */
+    public static final int RECORD_SIZE = 21;
+    /** The labels a record can have, indexed by the label byte of the record. */
+    public static final List<String> LABELS = List.of("ECG", "Saturation", "SystolicPressure",
+            "DiastolicPressure", "Cholesterol", "WhiteBloodCells", "RedBloodCells", "Alert");
+
+    private final String directoryPath;
+
+    /**
+     * Constructs a reader for the binary files in a directory.
+     *
+     * @param directoryPath the directory holding the {@code .bin} files
+     */
+    public BinaryFileReader(String directoryPath) {
+        this.directoryPath = directoryPath;
+    }
+
+    /**
+     * Reads every binary file of the directory and stores its records.
+     *
+     * @param dataStorage the storage where data will be stored
+     * @throws IOException if a file cannot be read or is not a binary dataset
+     */
+    @Override
+    public void readData(DataStorage dataStorage) throws IOException {
+        List<Path> files;
+        try (Stream<Path> paths = Files.walk(Paths.get(directoryPath))) {
+            files = paths.filter(Files::isRegularFile)
+                    .filter(path -> path.toString().endsWith(".bin"))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+        for (Path file : files) {
+            readFile(file, dataStorage);
+        }
+    }
+
+    /**
+     * Reads the records of one file.
+     *
+     * @param file        the binary dataset file
+     * @param dataStorage the storage where data will be stored
+     * @throws IOException if the file cannot be read or is not a binary dataset
+     */
+    private static void readFile(Path file, DataStorage dataStorage) throws IOException {
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(file), 1 << 16))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a binary dataset file: " + file);
+            }
+            while (true) {
+                int patientId;
+                try {
+                    patientId = in.readInt();
+                } catch (EOFException e) {
+                    return;
+                }
+                long timestamp = in.readLong();
+                int label = in.readUnsignedByte();
+                double value = in.readDouble();
+                if (label >= LABELS.size()) {
+                    throw new IOException("Unknown label " + label + " in " + file);
+                }
+                dataStorage.addPatientData(patientId, value, LABELS.get(label), timestamp);
+            }
+        }
+    }
+}
@@ -1,10 +1,15 @@
 package com.data_management;
 
+import java.io.IOException;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import com.alerts.AlertGenerator;
+import com.alerts.dispatch.PriorityAlertDispatcher;
+import com.alerts.journal.AlertJournal;
+import com.alerts.rules.AlertRuleRegistry;
 
 /**
  * Manages storage and retrieval of patient data within a healthcare monitoring
@@ -95,9 +100,35 @@ public class DataStorage {
      * Initializes the system, reads data into storage, and continuously monitors
      * and evaluates patient data.
      * 
-     * @param args command line arguments
+     * @param args command line arguments, optionally "--alert-rules &lt;file&gt;" to load
+     *             and hot-reload the alert rules from a file, and "--alert-journal &lt;dir&gt;"
+     *             to record triggered alerts in a journal
      */
     public static void main(String[] args) {
+        AlertJournal journal = null;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--alert-rules":
+                    try {
+                        // Poll the rule file so that threshold edits take effect without a restart
+                        AlertRuleRegistry.getInstance().watch(Paths.get(args[i + 1]), 5000);
+                    } catch (IOException | IllegalArgumentException e) {
+                        System.err.println("Error loading alert rules: " + e.getMessage() + ". Using bundled rules.");
+                    }
+                    break;
+                case "--alert-journal":
+                    try {
+                        // 64 MB segments, one week of hourly buckets in the index
+                        journal = new AlertJournal(Paths.get(args[i + 1]), 64L * 1024 * 1024, 168);
+                    } catch (IOException e) {
+                        System.err.println("Error opening alert journal: " + e.getMessage() + ". Alerts are not recorded.");
+                    }
+                    break;
+                default:
+                    System.err.println("Unknown option " + args[i]);
+            }
+        }
+
         // DataReader is not defined in this scope, should be initialized appropriately.
         // DataReader reader = new SomeDataReaderImplementation("path/to/data");
         DataStorage storage = new DataStorage();
@@ -115,12 +146,27 @@ public class DataStorage {
                     ", Timestamp: " + record.getTimestamp());
         }
 
-        // Initialize the AlertGenerator with the storage
+        // Initialize the AlertGenerator with the storage; alerts are dispatched most severe first
         AlertGenerator alertGenerator = new AlertGenerator(storage);
+        PriorityAlertDispatcher dispatcher = new PriorityAlertDispatcher(
+                AlertGenerator::logAlert, AlertGenerator::logAlert, 5000);
+        alertGenerator.setDispatcher(dispatcher);
+        alertGenerator.setJournal(journal);
+        dispatcher.start();
 
         // Evaluate all patients' data to check for conditions that may trigger alerts
         for (Patient patient : storage.getAllPatients()) {
             alertGenerator.evaluateData(patient);
         }
+
+        dispatcher.close();
+        dispatcher.printLatencyReport();
+        if (journal != null) {
+            try {
+                journal.close();
+            } catch (IOException e) {
+                System.err.println("Error closing alert journal: " + e.getMessage());
+            }
+        }
     }
 }
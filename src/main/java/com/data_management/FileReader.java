@@ -2,13 +2,27 @@ package com.data_management;
 
 import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
 
 public class FileReader implements DataReaderFile{
+    /**
+     * Name of the manifest the file output keeps of its closed segments, one
+     * "label,file,firstTimestamp,lastTimestamp,readings" line per segment
+     */
+    public static final String MANIFEST_FILE = "segments.manifest";
+
     private String directoryPath;
+    private long fromTimestamp = Long.MIN_VALUE;
+    private long toTimestamp = Long.MAX_VALUE;
 
     /**
      * Default constructor for the FileReader
@@ -27,6 +41,20 @@ public class FileReader implements DataReaderFile{
     public FileReader(String directoryPath){
         this.directoryPath = directoryPath;
     }
+
+    /**
+     * constructor for the FileReader that only reads the records of a time range. Segments
+     * that the manifest lists entirely outside the range are not opened at all.
+     * 
+     * @param directoryPath the path to the directory with the output files
+     * @param fromTimestamp the first timestamp to read, inclusive
+     * @param toTimestamp the last timestamp to read, inclusive
+     */
+    public FileReader(String directoryPath, long fromTimestamp, long toTimestamp){
+        this.directoryPath = directoryPath;
+        this.fromTimestamp = fromTimestamp;
+        this.toTimestamp = toTimestamp;
+    }
     
     /**
      * reads data from a specified source and stores it in the data storage.
@@ -35,17 +63,17 @@ public class FileReader implements DataReaderFile{
      * @throws IOException if there is an error reading the data
      */
     public void readData(DataStorage dataStorage) throws IOException {
+        Set<Path> skipped = skippedSegments();
         try (Stream<Path> paths = Files.walk(Paths.get(directoryPath))) {
-            // Find all the txt files and reach one by one
+            // Find all the txt files, plain or gzipped, and reach one by one
             paths.filter(Files::isRegularFile)
-                .filter(path -> path.toString().endsWith(".txt"))
+                .filter(path -> path.toString().endsWith(".txt") || path.toString().endsWith(".txt.gz"))
+                .filter(path -> !skipped.contains(path.toAbsolutePath().normalize()))
                 .forEach(path -> {
-                    try (BufferedReader reader = Files.newBufferedReader(path)) {
+                    try (BufferedReader reader = open(path)) {
                         String line;
                         while ((line = reader.readLine()) != null) {
                             // Parse the file 
-                            System.out.println(line);
-
                             // if the structure of the file is patientId, measurementValue, recordType, timestamp 
                             // String[] arrLineWords = line.split(",");
                             // int patientId = Integer.parseInt(arrLineWords[0]);
@@ -58,6 +86,9 @@ public class FileReader implements DataReaderFile{
                             String[] parts = line.split(", ");
                             int patientId = Integer.parseInt(parts[0].split(": ")[1]);
                             long timestamp = Long.parseLong(parts[1].split(": ")[1]);
+                            if (timestamp < fromTimestamp || timestamp > toTimestamp) {
+                                continue;
+                            }
                             String label = parts[2].split(": ")[1];
 
                             String dataStr = parts[3].split(": ")[1];
@@ -65,6 +96,12 @@ public class FileReader implements DataReaderFile{
                             if (dataStr.contains("%")) {
                                 dataStr = dataStr.replace("%", "");
                             }
+                            // Alerts are stored as 1 for triggered and 0 for resolved
+                            if (dataStr.equals("triggered")) {
+                                dataStr = "1";
+                            } else if (dataStr.equals("resolved")) {
+                                dataStr = "0";
+                            }
                             
                             double data = Double.parseDouble(dataStr);                            
                             dataStorage.addPatientData(patientId, data, label, timestamp);
@@ -79,4 +116,60 @@ public class FileReader implements DataReaderFile{
         }
     }
 
+    /**
+     * opens a file for reading, decompressing it if it is gzipped
+     * 
+     * @param path the file
+     * @return a reader of the lines of the file
+     * @throws IOException if the file cannot be opened
+     */
+    private static BufferedReader open(Path path) throws IOException {
+        if (path.toString().endsWith(".gz")) {
+            return new BufferedReader(new InputStreamReader(
+                    new GZIPInputStream(Files.newInputStream(path), 1 << 16), StandardCharsets.UTF_8));
+        }
+        return Files.newBufferedReader(path);
+    }
+
+    /**
+     * finds the segments that the manifests in the directory list entirely outside the time range
+     * 
+     * @return the absolute paths of the segments to skip
+     * @throws IOException if the directory cannot be walked
+     */
+    private Set<Path> skippedSegments() throws IOException {
+        Set<Path> skipped = new HashSet<>();
+        if (fromTimestamp == Long.MIN_VALUE && toTimestamp == Long.MAX_VALUE) {
+            return skipped;
+        }
+        try (Stream<Path> paths = Files.walk(Paths.get(directoryPath))) {
+            for (Path manifest : (Iterable<Path>) paths.filter(path -> path.endsWith(MANIFEST_FILE))::iterator) {
+                List<String> lines;
+                try {
+                    lines = Files.readAllLines(manifest);
+                } catch (IOException e) {
+                    System.out.println("Error reading file: " + manifest);
+                    continue;
+                }
+                for (String line : lines) {
+                    // label,file,firstTimestamp,lastTimestamp,readings
+                    String[] fields = line.split(",");
+                    if (fields.length < 4) {
+                        continue;
+                    }
+                    try {
+                        long first = Long.parseLong(fields[2]);
+                        long last = Long.parseLong(fields[3]);
+                        if (last < fromTimestamp || first > toTimestamp) {
+                            skipped.add(manifest.resolveSibling(fields[1]).toAbsolutePath().normalize());
+                        }
+                    } catch (NumberFormatException e) {
+                        System.out.println("Error reading manifest line: " + line);
+                    }
+                }
+            }
+        }
+        return skipped;
+    }
+
 }
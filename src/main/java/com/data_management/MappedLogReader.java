@@ -0,0 +1,100 @@
+package com.data_management;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Reads the memory-mapped append log written by the mapped file output into a data storage.
+ * The segments are mapped read-only and the records decoded straight from the mapping, without
+ * copying the file into heap buffers.
+ *
+ * <p>Every {@value #SEGMENT_SUFFIX} segment starts with a header of {@value #HEADER_SIZE}
+ * bytes (big endian): the int {@link #MAGIC}, the int record size and the long offset up to
+ * which records were claimed, or 0 while the segment is still being written. It is followed by
+ * records of {@value #RECORD_SIZE} bytes: int patient ID, int label code, long timestamp and
+ * double value. The label code is the index of the label in {@link BinaryFileReader#LABELS}
+ * plus one; a code of 0 marks a slot that was claimed but never written and is skipped.</p>
+ */
+public class MappedLogReader implements DataReaderFile {
+
+    /** The first four bytes of every segment, "CML1". */
+    public static final int MAGIC = 0x434d4c31;
+    /** Size of the segment header in bytes. */
+    public static final int HEADER_SIZE = 16;
+    /** Size of one record in bytes. */
+    public static final int RECORD_SIZE = 24;
+    /** Offset of the claimed limit in the header. */
+    public static final int LIMIT_OFFSET = 8;
+    /** File name suffix of the segments. */
+    public static final String SEGMENT_SUFFIX = ".mlog";
+
+    private final String directoryPath;
+
+    /**
+     * Constructs a reader for the segments in a directory.
+     *
+     * @param directoryPath the directory holding the {@code .mlog} segments
+     */
+    public MappedLogReader(String directoryPath) {
+        this.directoryPath = directoryPath;
+    }
+
+    /**
+     * Reads every segment of the directory, in the order of their names, and stores its records.
+     *
+     * @param dataStorage the storage where data will be stored
+     * @throws IOException if a segment cannot be read or is not a mapped log segment
+     */
+    @Override
+    public void readData(DataStorage dataStorage) throws IOException {
+        List<Path> segments;
+        try (Stream<Path> paths = Files.walk(Paths.get(directoryPath))) {
+            segments = paths.filter(Files::isRegularFile)
+                    .filter(path -> path.toString().endsWith(SEGMENT_SUFFIX))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+        for (Path segment : segments) {
+            readSegment(segment, dataStorage);
+        }
+    }
+
+    /**
+     * Reads the records of one segment.
+     *
+     * @param segment     the segment file
+     * @param dataStorage the storage where data will be stored
+     * @throws IOException if the segment cannot be read or is not a mapped log segment
+     */
+    private static void readSegment(Path segment, DataStorage dataStorage) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel is closed
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC || buffer.getInt(4) != RECORD_SIZE) {
+            throw new IOException("Not a mapped log segment: " + segment);
+        }
+        long limit = buffer.getLong(LIMIT_OFFSET);
+        int end = limit > 0 ? (int) Math.min(limit, buffer.capacity()) : buffer.capacity();
+        for (int offset = HEADER_SIZE; offset + RECORD_SIZE <= end; offset += RECORD_SIZE) {
+            int label = buffer.getInt(offset + 4);
+            if (label == 0) {
+                continue;
+            }
+            if (label > BinaryFileReader.LABELS.size()) {
+                throw new IOException("Unknown label " + label + " in " + segment);
+            }
+            dataStorage.addPatientData(buffer.getInt(offset), buffer.getDouble(offset + 16),
+                    BinaryFileReader.LABELS.get(label - 1), buffer.getLong(offset + 8));
+        }
+    }
+}
@@ -35,12 +35,19 @@ public class WebSocketClientReader extends WebSocketClient implements DataReader
     }
 
     /**
-     * Called when a message is received from the server.
+     * Called when a message is received from the server. A message holds one reading, or a
+     * batch of readings with one per line.
      *
      * @param message the received message
      */
     @Override
     public void onMessage(String message) {
+        if (message.indexOf('\n') >= 0) {
+            for (String line : message.split("\n")) {
+                onMessage(line);
+            }
+            return;
+        }
         System.out.println("Received message: " + message);
         try {
 
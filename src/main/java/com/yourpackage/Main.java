@@ -1,13 +1,16 @@
 package com.yourpackage;
 
 import java.io.IOException;
+import java.util.Arrays;
 
 import com.cardio_generator.HealthDataSimulator;
+import com.cardio_generator.dataset.DatasetGenerator;
 import com.data_management.DataStorage;
 
 /**
  * The main entry point for the application. This class determines whether to
- * start the DataStorage or the HealthDataSimulator based on command line arguments.
+ * start the DataStorage, the offline DatasetGenerator or the HealthDataSimulator based on
+ * command line arguments.
  */
 public class Main {
     /**
@@ -15,10 +18,13 @@ public class Main {
      *
      * @param args command line arguments to decide which part of the application to run.
      * @throws IOException if an I/O error occurs.
+     * @throws InterruptedException if interrupted while generating a dataset.
      */
-    public static void main(String[] args) throws IOException {
+    public static void main(String[] args) throws IOException, InterruptedException {
         if (args.length > 0 && args[0].equals("DataStorage")) {
-            DataStorage.main(new String[]{});
+            DataStorage.main(Arrays.copyOfRange(args, 1, args.length));
+        } else if (args.length > 0 && args[0].equals("Dataset")) {
+            DatasetGenerator.main(Arrays.copyOfRange(args, 1, args.length));
         } else {
             HealthDataSimulator.getInstance().startSimulation(args);
         }
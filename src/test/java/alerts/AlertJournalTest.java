@@ -0,0 +1,116 @@
+package alerts;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.alerts.Alert;
+import com.alerts.AlertCondition;
+import com.alerts.AlertSeverity;
+import com.alerts.journal.AlertJournal;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Unit tests for the persistent alert journal.
+ */
+class AlertJournalTest {
+
+    private static final long HOUR = AlertJournal.BUCKET_MILLIS;
+    private static final long BASE = 1700000000000L / HOUR * HOUR;
+
+    @TempDir
+    Path tempDir;
+
+    /**
+     * Tests that patient and severity queries return only the matching alerts in the range.
+     *
+     * @throws IOException if the journal cannot be written
+     */
+    @Test
+    void testQueriesByPatientAndSeverity() throws IOException {
+        try (AlertJournal journal = new AlertJournal(tempDir, 1024 * 1024, 100)) {
+            journal.append(1, AlertCondition.LOW_SATURATION, AlertSeverity.HIGH, BASE);
+            journal.append(2, AlertCondition.HYPOTENSIVE_HYPOXEMIA, AlertSeverity.CRITICAL, BASE + 10);
+            journal.append(1, AlertCondition.RAPID_OXYGEN_DROP, AlertSeverity.CRITICAL, BASE + 2 * HOUR);
+            journal.append(new Alert("1", "Irregular Beat Alert", BASE + 50 * HOUR, AlertSeverity.MEDIUM));
+
+            List<Alert> patientAlerts = journal.findByPatient(1, BASE, BASE + 48 * HOUR);
+            assertEquals(2, patientAlerts.size());
+            assertEquals("Low Saturation Alert", patientAlerts.get(0).getCondition());
+            assertEquals(AlertSeverity.CRITICAL, patientAlerts.get(1).getSeverity());
+
+            List<Alert> critical = journal.findBySeverity(AlertSeverity.CRITICAL, BASE, BASE + HOUR);
+            assertEquals(1, critical.size());
+            assertEquals("2", critical.get(0).getPatientId());
+        }
+    }
+
+    /**
+     * Tests that segments roll over and that reopening the journal rebuilds the index
+     * and drops a torn record.
+     *
+     * @throws IOException if the journal cannot be written
+     */
+    @Test
+    void testRolloverAndRecovery() throws IOException {
+        try (AlertJournal journal = new AlertJournal(tempDir, 3 * AlertJournal.RECORD_SIZE, 100)) {
+            for (int i = 0; i < 7; i++) {
+                journal.append(5, AlertCondition.ABNORMAL_HEART_RATE, AlertSeverity.HIGH, BASE + i);
+            }
+            assertEquals(3, journal.getSegmentCount());
+        }
+
+        // Simulate a crash in the middle of writing a record
+        Path last = tempDir.resolve("alerts-000002.journal");
+        Files.write(last, new byte[] {1, 2, 3}, StandardOpenOption.APPEND);
+
+        try (AlertJournal journal = new AlertJournal(tempDir, 3 * AlertJournal.RECORD_SIZE, 100)) {
+            assertEquals(7, journal.findByPatient(5, BASE, BASE + HOUR).size());
+            journal.append(5, AlertCondition.IRREGULAR_BEAT, AlertSeverity.MEDIUM, BASE + 100);
+            assertEquals(8, journal.findByPatient(5, BASE, BASE + HOUR).size());
+        }
+    }
+
+    /**
+     * Tests that only a bounded number of buckets are indexed and older alerts are still found.
+     *
+     * @throws IOException if the journal cannot be written
+     */
+    @Test
+    void testBoundedIndexFallsBackToScan() throws IOException {
+        try (AlertJournal journal = new AlertJournal(tempDir, 1024 * 1024, 2)) {
+            for (int i = 0; i < 5; i++) {
+                journal.append(7, AlertCondition.LOW_SATURATION, AlertSeverity.HIGH, BASE + i * HOUR);
+            }
+
+            assertEquals(2, journal.getIndexedBucketCount());
+            List<Alert> alerts = journal.findByPatient(7, BASE, BASE + 10 * HOUR);
+            assertEquals(5, alerts.size());
+            assertTrue(journal.findByPatient(8, BASE, BASE + 10 * HOUR).isEmpty());
+        }
+    }
+
+    /**
+     * Tests that appending to or syncing a closed journal fails with an IOException, which
+     * the alert path reports, rather than a NullPointerException.
+     *
+     * @throws IOException if the journal cannot be created
+     */
+    @Test
+    void testClosedJournalRejectsAppends() throws IOException {
+        AlertJournal journal = new AlertJournal(tempDir, 1024 * 1024, 100);
+        journal.close();
+
+        assertThrows(IOException.class,
+                () -> journal.append(1, AlertCondition.LOW_SATURATION, AlertSeverity.HIGH, BASE));
+        assertThrows(IOException.class, journal::sync);
+    }
+}
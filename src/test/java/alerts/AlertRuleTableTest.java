@@ -0,0 +1,143 @@
+package alerts;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.alerts.AlertGenerator;
+import com.alerts.rules.AlertRuleRegistry;
+import com.alerts.rules.AlertRuleTable;
+import com.data_management.DataStorage;
+import com.data_management.Patient;
+import com.data_management.PatientRecord;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Properties;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+
+/**
+ * Unit tests for the compiled alert rule table and the rule registry.
+ */
+class AlertRuleTableTest {
+
+    @TempDir
+    Path tempDir;
+
+    @AfterEach
+    void restoreRules() {
+        AlertRuleRegistry.getInstance().reset();
+    }
+
+    /**
+     * Tests that the default rules match the thresholds the alert generator always used.
+     */
+    @Test
+    void testDefaultThresholds() {
+        AlertRuleTable rules = AlertRuleTable.defaults();
+
+        assertTrue(rules.isCritical(AlertRuleTable.SYSTOLIC, 181));
+        assertTrue(rules.isCritical(AlertRuleTable.SYSTOLIC, 89));
+        assertFalse(rules.isCritical(AlertRuleTable.SYSTOLIC, 180));
+        assertTrue(rules.isCritical(AlertRuleTable.DIASTOLIC, 59));
+        assertTrue(rules.isBelow(AlertRuleTable.SATURATION, 91));
+        assertFalse(rules.isAbove(AlertRuleTable.SATURATION, 100));
+        assertTrue(rules.isCritical(AlertRuleTable.ECG, 101));
+        assertEquals(10, rules.getTrendDelta(AlertRuleTable.SYSTOLIC), 0.0001);
+        assertEquals(600000, rules.getHypotensiveHypoxemiaWindowMillis());
+    }
+
+    /**
+     * Tests that properties override only the settings they define.
+     */
+    @Test
+    void testFromPropertiesOverridesSettings() {
+        Properties properties = new Properties();
+        properties.setProperty("Saturation.lower", "95");
+        properties.setProperty("ECG.window", "60000");
+
+        AlertRuleTable rules = AlertRuleTable.fromProperties(properties);
+
+        assertTrue(rules.isBelow(AlertRuleTable.SATURATION, 94));
+        assertEquals(60000, rules.getWindowMillis(AlertRuleTable.ECG));
+        assertEquals(180, rules.getUpper(AlertRuleTable.SYSTOLIC), 0.0001);
+    }
+
+    /**
+     * Tests that an invalid number is rejected with the name of the rule.
+     */
+    @Test
+    void testInvalidRuleRejected() {
+        Properties properties = new Properties();
+        properties.setProperty("ECG.upper", "fast");
+
+        Exception exception = assertThrows(IllegalArgumentException.class,
+            () -> AlertRuleTable.fromProperties(properties));
+        assertTrue(exception.getMessage().contains("ECG.upper"));
+    }
+
+    /**
+     * Tests that record type names map to their table codes.
+     */
+    @Test
+    void testTypeIndex() {
+        assertEquals(AlertRuleTable.SYSTOLIC, AlertRuleTable.typeIndex("SystolicPressure"));
+        assertEquals(AlertRuleTable.ECG, AlertRuleTable.typeIndex("ECG"));
+        assertEquals(AlertRuleTable.UNKNOWN, AlertRuleTable.typeIndex("Cholesterol"));
+    }
+
+    /**
+     * Tests that reloading a rule file swaps the rules used by the alert generator.
+     *
+     * @throws IOException if the rule file cannot be written
+     */
+    @Test
+    void testReloadChangesGeneratorThresholds() throws IOException {
+        Path ruleFile = tempDir.resolve("alert-rules.properties");
+        Files.write(ruleFile, Arrays.asList("Saturation.lower=97"));
+
+        AlertRuleTable before = AlertRuleRegistry.getInstance().current();
+        AlertRuleRegistry.getInstance().reload(ruleFile);
+        assertFalse(before == AlertRuleRegistry.getInstance().current());
+
+        DataStorage mockDataStorage = Mockito.mock(DataStorage.class);
+        long currentTime = System.currentTimeMillis();
+        Mockito.when(mockDataStorage.getRecords(Mockito.anyInt(), Mockito.anyLong(), Mockito.anyLong()))
+            .thenReturn(Arrays.asList(new PatientRecord(1, 96, "Saturation", currentTime)));
+
+        ByteArrayOutputStream outContent = new ByteArrayOutputStream();
+        PrintStream originalOut = System.out;
+        System.setOut(new PrintStream(outContent));
+        try {
+            new AlertGenerator(mockDataStorage).evaluateBloodOxygen(new Patient(1));
+        } finally {
+            System.setOut(originalOut);
+        }
+        assertTrue(outContent.toString().contains("Low Saturation Alert"));
+    }
+
+    /**
+     * Tests that a broken rule file leaves the current rules in effect.
+     *
+     * @throws IOException if the rule file cannot be written
+     */
+    @Test
+    void testBrokenReloadKeepsCurrentRules() throws IOException {
+        Path ruleFile = tempDir.resolve("broken.properties");
+        Files.write(ruleFile, Arrays.asList("ECG.lower=slow"));
+
+        AlertRuleTable before = AlertRuleRegistry.getInstance().current();
+        assertThrows(IllegalArgumentException.class, () -> AlertRuleRegistry.getInstance().reload(ruleFile));
+        assertSame(before, AlertRuleRegistry.getInstance().current());
+    }
+}
@@ -0,0 +1,98 @@
+package alerts;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.alerts.BloodPressureStrategy;
+import com.alerts.CompositeAlertStrategy;
+import com.alerts.HeartRateStrategy;
+import com.alerts.OxygenSaturationStrategy;
+import com.data_management.DataStorage;
+import com.data_management.Patient;
+import com.data_management.PatientRecord;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+/**
+ * Unit tests for running several alert strategies on one shared fetch.
+ */
+class CompositeAlertStrategyTest {
+
+    private DataStorage mockDataStorage;
+    private CompositeAlertStrategy composite;
+    private final ByteArrayOutputStream outContent = new ByteArrayOutputStream();
+    private final PrintStream originalOut = System.out;
+
+    @BeforeEach
+    void setUp() {
+        mockDataStorage = Mockito.mock(DataStorage.class);
+        composite = new CompositeAlertStrategy(mockDataStorage);
+        System.setOut(new PrintStream(outContent));
+    }
+
+    @AfterEach
+    void restoreStreams() {
+        System.setOut(originalOut);
+    }
+
+    /**
+     * Tests that all strategies are served by a single storage fetch and still raise their alerts.
+     */
+    @Test
+    void testStrategiesShareOneFetch() {
+        long currentTime = System.currentTimeMillis();
+        List<PatientRecord> records = Arrays.asList(
+            new PatientRecord(1, 190, "SystolicPressure", currentTime - 2000),
+            new PatientRecord(1, 88, "Saturation", currentTime - 1000),
+            new PatientRecord(1, 120, "ECG", currentTime - 500)
+        );
+        Mockito.when(mockDataStorage.getRecords(Mockito.anyInt(), Mockito.anyLong(), Mockito.anyLong()))
+            .thenReturn(records);
+
+        composite.addStrategy(new BloodPressureStrategy(mockDataStorage));
+        composite.addStrategy(new OxygenSaturationStrategy(mockDataStorage));
+        composite.addStrategy(new HeartRateStrategy(mockDataStorage));
+        composite.checkAlert(new Patient(1));
+
+        Mockito.verify(mockDataStorage, Mockito.times(1))
+            .getRecords(Mockito.anyInt(), Mockito.anyLong(), Mockito.anyLong());
+        String output = outContent.toString();
+        assertTrue(output.contains("Critical Pressure Threshold Alert (Systolic)"));
+        assertTrue(output.contains("Low Saturation Alert"));
+        assertTrue(output.contains("Abnormal Heart Rate Alert"));
+    }
+
+    /**
+     * Tests that every run of a strategy is counted.
+     */
+    @Test
+    void testInvocationsCounted() {
+        Mockito.when(mockDataStorage.getRecords(Mockito.anyInt(), Mockito.anyLong(), Mockito.anyLong()))
+            .thenReturn(Arrays.asList());
+        HeartRateStrategy heartRate = new HeartRateStrategy(mockDataStorage);
+        composite.addStrategy(heartRate);
+
+        composite.checkAlert(new Patient(1));
+        composite.checkAlert(new Patient(2));
+
+        assertEquals(2, composite.getInvocations(heartRate));
+        assertTrue(composite.getCpuTimeNanos(heartRate) >= 0);
+    }
+
+    /**
+     * Tests that a null strategy is rejected.
+     */
+    @Test
+    void testNullStrategyRejected() {
+        assertThrows(NullPointerException.class, () -> composite.addStrategy(null));
+    }
+}
@@ -0,0 +1,156 @@
+package alerts;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.alerts.EcgIntervalStatistics;
+import com.alerts.HeartRateStrategy;
+import com.data_management.DataStorage;
+import com.data_management.Patient;
+import com.data_management.PatientRecord;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+/**
+ * Unit tests for the streaming ECG interval statistics.
+ */
+class EcgIntervalStatisticsTest {
+
+    /**
+     * Tests that the running mean and variance match the values of the intervals.
+     */
+    @Test
+    void testMeanAndVariance() {
+        EcgIntervalStatistics statistics = new EcgIntervalStatistics();
+        long[] timestamps = {0, 1000, 3000, 6000};
+        for (long timestamp : timestamps) {
+            statistics.add(timestamp, 60000);
+        }
+
+        // Intervals 1000, 2000 and 3000
+        assertEquals(3, statistics.getCount());
+        assertEquals(2000, statistics.getMean(), 0.0001);
+        assertEquals(1000000, statistics.getVariance(), 0.0001);
+    }
+
+    /**
+     * Tests that intervals leaving the window are removed from the statistics.
+     */
+    @Test
+    void testWindowEviction() {
+        EcgIntervalStatistics statistics = new EcgIntervalStatistics();
+        statistics.add(0, 5000);
+        statistics.add(4000, 5000);
+        statistics.add(5000, 5000);
+        statistics.add(10000, 5000);
+
+        // The interval ending at 4000 left the window, leaving 1000 and 5000
+        assertEquals(2, statistics.getCount());
+        assertEquals(3000, statistics.getMean(), 0.0001);
+        assertEquals(8000000, statistics.getVariance(), 0.0001);
+    }
+
+    /**
+     * Tests that an interval far from the mean is irregular and one close to it is not.
+     */
+    @Test
+    void testIrregularInterval() {
+        EcgIntervalStatistics statistics = new EcgIntervalStatistics();
+        assertFalse(statistics.isIrregular(0, 0.1));
+        statistics.add(0, 60000);
+        statistics.add(1000, 60000);
+
+        assertFalse(statistics.isIrregular(2050, 0.1));
+        assertTrue(statistics.isIrregular(2500, 0.1));
+    }
+
+    /**
+     * Tests that samples already checked by an earlier evaluation do not raise alerts again.
+     */
+    @Test
+    void testSamplesCheckedOnlyOnce() {
+        long currentTime = System.currentTimeMillis();
+        DataStorage mockDataStorage = Mockito.mock(DataStorage.class);
+        Mockito.when(mockDataStorage.getRecords(Mockito.anyInt(), Mockito.anyLong(), Mockito.anyLong()))
+            .thenReturn(Arrays.asList(new PatientRecord(1, 160, "ECG", currentTime - 1000)));
+        HeartRateStrategy strategy = new HeartRateStrategy(mockDataStorage);
+
+        ByteArrayOutputStream outContent = new ByteArrayOutputStream();
+        PrintStream originalOut = System.out;
+        System.setOut(new PrintStream(outContent));
+        try {
+            strategy.checkAlert(new Patient(1));
+            strategy.checkAlert(new Patient(1));
+        } finally {
+            System.setOut(originalOut);
+        }
+
+        String output = outContent.toString();
+        assertEquals(output.indexOf("Abnormal Heart Rate Alert"), output.lastIndexOf("Abnormal Heart Rate Alert"));
+        assertTrue(output.contains("Abnormal Heart Rate Alert"));
+    }
+
+    /**
+     * Tests that an abnormal sample arriving after newer samples were checked still raises
+     * an alert, once.
+     */
+    @Test
+    void testLateSampleChecked() {
+        long currentTime = System.currentTimeMillis();
+        PatientRecord first = new PatientRecord(1, 70, "ECG", currentTime - 3000);
+        PatientRecord late = new PatientRecord(1, 160, "ECG", currentTime - 2000);
+        PatientRecord last = new PatientRecord(1, 70, "ECG", currentTime - 1000);
+        DataStorage mockDataStorage = Mockito.mock(DataStorage.class);
+        Mockito.when(mockDataStorage.getRecords(Mockito.anyInt(), Mockito.anyLong(), Mockito.anyLong()))
+            .thenReturn(Arrays.asList(first, last))
+            .thenReturn(Arrays.asList(first, late, last));
+        HeartRateStrategy strategy = new HeartRateStrategy(mockDataStorage);
+
+        ByteArrayOutputStream outContent = new ByteArrayOutputStream();
+        PrintStream originalOut = System.out;
+        System.setOut(new PrintStream(outContent));
+        try {
+            strategy.checkAlert(new Patient(1));
+            strategy.checkAlert(new Patient(1));
+            strategy.checkAlert(new Patient(1));
+        } finally {
+            System.setOut(originalOut);
+        }
+
+        String output = outContent.toString();
+        assertTrue(output.contains("Abnormal Heart Rate Alert for patient 1 at " + (currentTime - 2000)));
+        assertEquals(output.indexOf("Abnormal Heart Rate Alert"), output.lastIndexOf("Abnormal Heart Rate Alert"));
+    }
+
+    /**
+     * Tests that forgetting a patient drops its state, so its samples count as new again.
+     */
+    @Test
+    void testForgetPatientDropsState() {
+        long currentTime = System.currentTimeMillis();
+        DataStorage mockDataStorage = Mockito.mock(DataStorage.class);
+        Mockito.when(mockDataStorage.getRecords(Mockito.anyInt(), Mockito.anyLong(), Mockito.anyLong()))
+            .thenReturn(Arrays.asList(new PatientRecord(1, 160, "ECG", currentTime - 1000)));
+        HeartRateStrategy strategy = new HeartRateStrategy(mockDataStorage);
+
+        ByteArrayOutputStream outContent = new ByteArrayOutputStream();
+        PrintStream originalOut = System.out;
+        System.setOut(new PrintStream(outContent));
+        try {
+            strategy.checkAlert(new Patient(1));
+            strategy.forgetPatient(1);
+            strategy.checkAlert(new Patient(1));
+        } finally {
+            System.setOut(originalOut);
+        }
+
+        String output = outContent.toString();
+        assertTrue(output.indexOf("Abnormal Heart Rate Alert") < output.lastIndexOf("Abnormal Heart Rate Alert"));
+    }
+}
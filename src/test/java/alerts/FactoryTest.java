@@ -1,6 +1,9 @@
 package alerts;
 
 import com.alerts.Alert;
+import com.alerts.AlertCondition;
+import com.alerts.AlertSeverity;
+import com.alerts.CompactAlert;
 import com.alerts.factories.AlertFactory;
 import com.alerts.factories.BloodOxygenAlertFactory;
 import com.alerts.factories.BloodPressureAlertFactory;
@@ -9,6 +12,8 @@ import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
 /**
  * Unit tests for the AlertFactory implementations.
@@ -57,4 +62,27 @@ public class FactoryTest {
         assertEquals("abnormal ECG", alert.getCondition());
         assertEquals(1627844953000L, alert.getTimestamp());
     }
-}
\ No newline at end of file
+
+    /**
+     * Tests that compact alerts are classified and that released instances are reused.
+     */
+    @Test
+    public void testCompactAlertPooling() {
+        AlertFactory factory = new BloodOxygenAlertFactory();
+        CompactAlert first = factory.acquire(42, AlertCondition.RAPID_OXYGEN_DROP, 1627844954000L);
+
+        assertEquals(42, first.getPatientId());
+        assertEquals(AlertSeverity.CRITICAL, first.getSeverity());
+        assertEquals("Rapid Blood Oxygen Drop Alert", first.toAlert().getCondition());
+
+        AlertFactory.release(first);
+        AlertFactory.release(first); // a second release must not pool the instance twice
+        CompactAlert second = factory.acquire(43, AlertCondition.LOW_SATURATION, 1627844955000L);
+        CompactAlert third = factory.acquire(44, AlertCondition.LOW_SATURATION, 1627844956000L);
+
+        assertSame(first, second);
+        assertNotSame(second, third);
+        assertEquals(43, second.getPatientId());
+        assertEquals(AlertSeverity.HIGH, second.getSeverity());
+    }
+}
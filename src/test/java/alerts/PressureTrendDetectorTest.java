@@ -0,0 +1,112 @@
+package alerts;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.alerts.BloodPressureStrategy;
+import com.alerts.PressureTrendDetector;
+import com.data_management.DataStorage;
+import com.data_management.Patient;
+import com.data_management.PatientRecord;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+/**
+ * Unit tests for the incremental blood pressure trend detector.
+ */
+class PressureTrendDetectorTest {
+
+    /**
+     * Tests that a trend is reported once, when the run reaches the configured length.
+     */
+    @Test
+    void testIncreasingRunReportedOnce() {
+        PressureTrendDetector detector = new PressureTrendDetector();
+
+        assertEquals(PressureTrendDetector.NONE, detector.update(0, 100, 10, 3, Double.NaN));
+        assertEquals(PressureTrendDetector.NONE, detector.update(1000, 111, 10, 3, Double.NaN));
+        assertEquals(PressureTrendDetector.INCREASING, detector.update(2000, 122, 10, 3, Double.NaN));
+        assertEquals(PressureTrendDetector.NONE, detector.update(3000, 133, 10, 3, Double.NaN));
+        assertEquals(4, detector.getIncreasingRun());
+    }
+
+    /**
+     * Tests that a small step breaks the run and a new trend is reported after it.
+     */
+    @Test
+    void testRunResetBySmallStep() {
+        PressureTrendDetector detector = new PressureTrendDetector();
+        detector.update(0, 130, 10, 3, Double.NaN);
+        detector.update(1000, 119, 10, 3, Double.NaN);
+        detector.update(2000, 115, 10, 3, Double.NaN);
+        assertEquals(1, detector.getDecreasingRun());
+
+        detector.update(3000, 104, 10, 3, Double.NaN);
+        assertEquals(PressureTrendDetector.DECREASING, detector.update(4000, 93, 10, 3, Double.NaN));
+    }
+
+    /**
+     * Tests that a steady slope forms a trend even when every step is below the delta.
+     */
+    @Test
+    void testSlopeTrend() {
+        PressureTrendDetector detector = new PressureTrendDetector();
+        long halfHour = 1800000;
+
+        // 4 mmHg every half hour is a slope of 8 mmHg per hour
+        assertEquals(PressureTrendDetector.NONE, detector.update(0, 100, 10, 3, 5));
+        assertEquals(PressureTrendDetector.NONE, detector.update(halfHour, 104, 10, 3, 5));
+        assertEquals(PressureTrendDetector.INCREASING, detector.update(2 * halfHour, 108, 10, 3, 5));
+        assertEquals(8, detector.getSlope(), 0.0001);
+    }
+
+    /**
+     * Tests that readings that are not newer than the last one are ignored.
+     */
+    @Test
+    void testOldReadingIgnored() {
+        PressureTrendDetector detector = new PressureTrendDetector();
+        detector.update(2000, 100, 10, 3, Double.NaN);
+        detector.update(1000, 150, 10, 3, Double.NaN);
+
+        assertEquals(2000, detector.getLastTimestamp());
+        assertEquals(1, detector.getIncreasingRun());
+    }
+
+    /**
+     * Tests that a critical reading arriving after newer readings were checked still raises
+     * an alert, once.
+     */
+    @Test
+    void testLateCriticalReadingChecked() {
+        long currentTime = System.currentTimeMillis();
+        PatientRecord first = new PatientRecord(1, 120, "SystolicPressure", currentTime - 3000);
+        PatientRecord late = new PatientRecord(1, 190, "SystolicPressure", currentTime - 2000);
+        PatientRecord last = new PatientRecord(1, 120, "SystolicPressure", currentTime - 1000);
+        DataStorage mockDataStorage = Mockito.mock(DataStorage.class);
+        Mockito.when(mockDataStorage.getRecords(Mockito.anyInt(), Mockito.anyLong(), Mockito.anyLong()))
+            .thenReturn(Arrays.asList(first, last))
+            .thenReturn(Arrays.asList(first, late, last));
+        BloodPressureStrategy strategy = new BloodPressureStrategy(mockDataStorage);
+
+        ByteArrayOutputStream outContent = new ByteArrayOutputStream();
+        PrintStream originalOut = System.out;
+        System.setOut(new PrintStream(outContent));
+        try {
+            strategy.checkAlert(new Patient(1));
+            strategy.checkAlert(new Patient(1));
+            strategy.checkAlert(new Patient(1));
+        } finally {
+            System.setOut(originalOut);
+        }
+
+        String output = outContent.toString();
+        assertTrue(output.contains("Critical Pressure Threshold Alert (Systolic) for patient 1 at " + (currentTime - 2000)));
+        assertEquals(output.indexOf("Critical Pressure"), output.lastIndexOf("Critical Pressure"));
+    }
+}
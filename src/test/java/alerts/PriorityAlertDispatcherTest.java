@@ -0,0 +1,191 @@
+package alerts;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.alerts.Alert;
+import com.alerts.AlertCondition;
+import com.alerts.AlertGenerator;
+import com.alerts.AlertSeverity;
+import com.alerts.CompactAlert;
+import com.alerts.decorator.PriorityAlertDecorator;
+import com.alerts.dispatch.LatencyHistogram;
+import com.alerts.dispatch.PriorityAlertDispatcher;
+import com.alerts.factories.BloodOxygenAlertFactory;
+import com.alerts.factories.BloodPressureAlertFactory;
+import com.data_management.DataStorage;
+import com.data_management.Patient;
+import com.data_management.PatientRecord;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+/**
+ * Unit tests for alert severities, the priority dispatcher and its latency histogram.
+ */
+class PriorityAlertDispatcherTest {
+
+    /**
+     * Tests that factories attach the severity of the condition.
+     */
+    @Test
+    void testFactoriesClassifySeverity() {
+        assertEquals(AlertSeverity.CRITICAL,
+            new BloodOxygenAlertFactory().createAlert("1", "Rapid Blood Oxygen Drop Alert", 0).getSeverity());
+        assertEquals(AlertSeverity.HIGH,
+            new BloodPressureAlertFactory().createAlert("1", "Critical Pressure Threshold Alert (Systolic)", 0).getSeverity());
+        assertEquals(AlertSeverity.LOW,
+            new BloodPressureAlertFactory().createAlert("1", "Systolic Pressure Increasing Trend Alert", 0).getSeverity());
+    }
+
+    /**
+     * Tests that the priority decorator raises or sets the severity.
+     */
+    @Test
+    void testPriorityDecoratorSeverity() {
+        Alert alert = new Alert("1", "High Blood Pressure", 0, AlertSeverity.LOW);
+
+        assertEquals(AlertSeverity.HIGH, new PriorityAlertDecorator(alert).getSeverity());
+        assertEquals(AlertSeverity.CRITICAL, new PriorityAlertDecorator(alert, AlertSeverity.CRITICAL).getSeverity());
+    }
+
+    /**
+     * Tests that a critical alert overtakes a backlog of less severe alerts.
+     */
+    @Test
+    void testCriticalAlertsDispatchedFirst() {
+        List<Alert> dispatched = new ArrayList<>();
+        PriorityAlertDispatcher dispatcher = new PriorityAlertDispatcher(dispatched::add, 60000);
+        for (int i = 0; i < 5; i++) {
+            dispatcher.submit(new Alert("1", "Trend " + i, i, AlertSeverity.LOW));
+        }
+        dispatcher.submit(new Alert("2", "Hypotensive Hypoxemia Alert", 5, AlertSeverity.CRITICAL));
+        dispatcher.submit(new Alert("3", "Low Saturation Alert", 6, AlertSeverity.HIGH));
+
+        assertEquals(7, dispatcher.dispatchAll());
+        assertEquals("Hypotensive Hypoxemia Alert", dispatched.get(0).getCondition());
+        assertEquals("Low Saturation Alert", dispatched.get(1).getCondition());
+        assertEquals("Trend 0", dispatched.get(2).getCondition());
+        assertEquals(1, dispatcher.getLatencyHistogram(AlertSeverity.CRITICAL).getCount());
+        assertEquals(5, dispatcher.getLatencyHistogram(AlertSeverity.LOW).getCount());
+    }
+
+    /**
+     * Tests that a waiting low severity alert is promoted past newer medium alerts but not past critical ones.
+     *
+     * @throws InterruptedException if the test is interrupted while waiting
+     */
+    @Test
+    void testAgingPromotion() throws InterruptedException {
+        List<Alert> dispatched = new ArrayList<>();
+        PriorityAlertDispatcher dispatcher = new PriorityAlertDispatcher(dispatched::add, 10);
+        dispatcher.submit(new Alert("1", "old", 0, AlertSeverity.LOW));
+        Thread.sleep(50);
+        dispatcher.submit(new Alert("2", "new", 1, AlertSeverity.MEDIUM));
+        dispatcher.submit(new Alert("3", "critical", 2, AlertSeverity.CRITICAL));
+
+        dispatcher.dispatchAll();
+        assertEquals("critical", dispatched.get(0).getCondition());
+        assertEquals("old", dispatched.get(1).getCondition());
+        assertEquals("new", dispatched.get(2).getCondition());
+    }
+
+    /**
+     * Tests that the background thread dispatches alerts submitted by the generator.
+     */
+    @Test
+    void testGeneratorSubmitsToDispatcher() {
+        DataStorage mockDataStorage = Mockito.mock(DataStorage.class);
+        Mockito.when(mockDataStorage.getRecords(Mockito.anyInt(), Mockito.anyLong(), Mockito.anyLong()))
+            .thenReturn(Arrays.asList(new PatientRecord(1, 200, "SystolicPressure", System.currentTimeMillis())));
+        List<Alert> dispatched = new ArrayList<>();
+        PriorityAlertDispatcher dispatcher = new PriorityAlertDispatcher(alert -> {
+            synchronized (dispatched) {
+                dispatched.add(alert);
+            }
+        }, 1000);
+        AlertGenerator generator = new AlertGenerator(mockDataStorage);
+        generator.setDispatcher(dispatcher);
+
+        dispatcher.start();
+        generator.evaluateData(new Patient(1));
+        dispatcher.close();
+
+        assertEquals(1, dispatched.size());
+        assertEquals(AlertSeverity.HIGH, dispatched.get(0).getSeverity());
+    }
+
+    /**
+     * Tests that compact alerts released by the dispatcher thread are reused by the thread
+     * that acquires them.
+     */
+    @Test
+    void testDispatchedAlertsReturnToPool() {
+        List<Alert> dispatched = Collections.synchronizedList(new ArrayList<>());
+        PriorityAlertDispatcher dispatcher = new PriorityAlertDispatcher(dispatched::add, 1000);
+        BloodOxygenAlertFactory factory = new BloodOxygenAlertFactory();
+        List<CompactAlert> alerts = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            alerts.add(factory.acquire(i, AlertCondition.LOW_SATURATION, i));
+        }
+        Set<CompactAlert> submitted = Collections.newSetFromMap(new IdentityHashMap<>());
+        submitted.addAll(alerts);
+
+        dispatcher.start();
+        alerts.forEach(dispatcher::submit);
+        dispatcher.close();
+
+        assertEquals(100, dispatched.size());
+        for (int i = 0; i < 100; i++) {
+            assertTrue(submitted.contains(factory.acquire(i, AlertCondition.LOW_SATURATION, i)));
+        }
+    }
+
+    /**
+     * Tests that a compact sink gets the pooled alert itself instead of a converted copy,
+     * while string based alerts still go to the other sink.
+     */
+    @Test
+    void testCompactSinkReceivesPooledAlert() {
+        List<Alert> dispatched = new ArrayList<>();
+        List<CompactAlert> compactDispatched = new ArrayList<>();
+        List<AlertCondition> conditions = new ArrayList<>();
+        PriorityAlertDispatcher dispatcher = new PriorityAlertDispatcher(dispatched::add, alert -> {
+            compactDispatched.add(alert);
+            conditions.add(alert.getCondition());
+        }, 1000);
+        CompactAlert compact = new BloodOxygenAlertFactory().acquire(1, AlertCondition.LOW_SATURATION, 0);
+        dispatcher.submit(compact);
+        dispatcher.submit(new Alert("2", "Trend", 1, AlertSeverity.LOW));
+
+        assertEquals(2, dispatcher.dispatchAll());
+        assertSame(compact, compactDispatched.get(0));
+        assertEquals(List.of(AlertCondition.LOW_SATURATION), conditions);
+        assertEquals(1, dispatched.size());
+        assertEquals("Trend", dispatched.get(0).getCondition());
+    }
+
+    /**
+     * Tests that percentiles are reported within the bucket precision.
+     */
+    @Test
+    void testLatencyHistogramPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i * 1000L);
+        }
+
+        assertEquals(1000, histogram.getCount());
+        assertEquals(1000000, histogram.getMax());
+        assertTrue(Math.abs(histogram.getPercentile(50) - 500000) <= 500000 / 16);
+        assertTrue(Math.abs(histogram.getPercentile(99) - 990000) <= 990000 / 16);
+    }
+}
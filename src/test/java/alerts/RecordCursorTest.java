@@ -0,0 +1,80 @@
+package alerts;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.alerts.RecordCursor;
+import com.data_management.PatientRecord;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the cursor that finds the readings an evaluation has not checked yet.
+ */
+class RecordCursorTest {
+
+    /**
+     * Tests that an evaluation starts at the first new reading instead of the start of the window.
+     */
+    @Test
+    void testStartsAfterCheckedReadings() {
+        RecordCursor cursor = new RecordCursor();
+        List<PatientRecord> records = readings(0, 100);
+        assertEquals(100, unchecked(cursor, records).size());
+
+        records.addAll(readings(100, 3));
+        // The oldest remembered reading is 32 back, the search starts right after it
+        assertEquals(100 - RecordCursor.LATE_HORIZON + 1, cursor.start(records));
+        assertEquals(List.of(100_000L, 101_000L, 102_000L), unchecked(cursor, records));
+        assertEquals(List.of(), unchecked(cursor, records));
+        assertEquals(102_000L, cursor.getLastTimestamp());
+    }
+
+    /**
+     * Tests that a reading arriving after newer ones were checked is still visited once.
+     */
+    @Test
+    void testVisitsLateReadingOnce() {
+        RecordCursor cursor = new RecordCursor();
+        List<PatientRecord> records = readings(0, 10);
+        unchecked(cursor, records);
+
+        records.add(5, new PatientRecord(1, 0, "ECG", 4_500L));
+        assertEquals(List.of(4_500L), unchecked(cursor, records));
+        assertEquals(List.of(), unchecked(cursor, records));
+    }
+
+    /**
+     * Tests that readings sharing a timestamp are told apart by their number.
+     */
+    @Test
+    void testReadingsWithEqualTimestamps() {
+        RecordCursor cursor = new RecordCursor();
+        List<PatientRecord> records = readings(0, 3);
+        unchecked(cursor, records);
+
+        records.add(2, new PatientRecord(1, 0, "ECG", 1_000L));
+        assertEquals(List.of(1_000L), unchecked(cursor, records));
+    }
+
+    private static List<PatientRecord> readings(int first, int count) {
+        List<PatientRecord> records = new ArrayList<>();
+        for (int i = first; i < first + count; i++) {
+            records.add(new PatientRecord(1, i, "ECG", i * 1000L));
+        }
+        return records;
+    }
+
+    private static List<Long> unchecked(RecordCursor cursor, List<PatientRecord> records) {
+        List<Long> visited = new ArrayList<>();
+        for (int i = cursor.start(records); i < records.size(); i++) {
+            if (!cursor.isChecked(records.get(i).getTimestamp())) {
+                visited.add(records.get(i).getTimestamp());
+            }
+        }
+        cursor.finish(records);
+        return visited;
+    }
+}
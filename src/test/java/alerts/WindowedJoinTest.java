@@ -0,0 +1,94 @@
+package alerts;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.alerts.AlertCondition;
+import com.alerts.AlertGenerator;
+import com.alerts.WindowedJoin;
+import com.alerts.rules.AlertRuleTable;
+import com.alerts.rules.CompoundRule;
+import com.data_management.DataStorage;
+import com.data_management.Patient;
+import com.data_management.PatientRecord;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+/**
+ * Unit tests for compound rules and the streaming windowed join.
+ */
+class WindowedJoinTest {
+
+    private static final List<CompoundRule> RULES = Collections.singletonList(
+        CompoundRule.parse(AlertCondition.HYPOXEMIC_TACHYCARDIA, 1000, "Saturation<92;ECG>100"));
+
+    /**
+     * Tests that a rule fires only when all terms match within the window, and only once per window.
+     */
+    @Test
+    void testJoinWithinWindow() {
+        WindowedJoin join = new WindowedJoin();
+        int[] fired = new int[1];
+
+        assertEquals(0, join.update(RULES, AlertRuleTable.SATURATION, 90, 0, fired));
+        assertEquals(0, join.update(RULES, AlertRuleTable.ECG, 110, 1500, fired)); // saturation is too old
+        assertEquals(1, join.update(RULES, AlertRuleTable.SATURATION, 89, 2000, fired));
+        assertEquals(0, join.update(RULES, AlertRuleTable.ECG, 120, 2100, fired)); // already fired in this window
+        assertEquals(0, join.update(RULES, AlertRuleTable.ECG, 80, 2500, fired)); // normal rate does not match
+        assertEquals(0, join.update(RULES, AlertRuleTable.ECG, 120, 3100, fired)); // saturation left the window
+        assertEquals(1, join.update(RULES, AlertRuleTable.SATURATION, 88, 3150, fired));
+    }
+
+    /**
+     * Tests that compound rules are read from properties and invalid terms are rejected.
+     */
+    @Test
+    void testCompoundRulesFromProperties() {
+        Properties properties = new Properties();
+        properties.setProperty("compound.HYPOTENSIVE_TACHYCARDIA.conditions", "SystolicPressure<90;ECG>100");
+        properties.setProperty("compound.HYPOTENSIVE_TACHYCARDIA.window", "300000");
+
+        List<CompoundRule> rules = AlertRuleTable.fromProperties(properties).getCompoundRules();
+        assertEquals(2, rules.size());
+        assertEquals(AlertCondition.HYPOTENSIVE_HYPOXEMIA, rules.get(0).getCondition());
+        assertEquals(300000, rules.get(1).getWindowMillis());
+
+        properties.setProperty("compound.HYPOTENSIVE_TACHYCARDIA.conditions", "Cholesterol>5;ECG>100");
+        assertThrows(IllegalArgumentException.class, () -> AlertRuleTable.fromProperties(properties));
+    }
+
+    /**
+     * Tests that the generator raises a compound alert from readings of different types.
+     */
+    @Test
+    void testGeneratorRaisesCompoundAlert() {
+        long currentTime = System.currentTimeMillis();
+        DataStorage mockDataStorage = Mockito.mock(DataStorage.class);
+        Mockito.when(mockDataStorage.getRecords(Mockito.anyInt(), Mockito.anyLong(), Mockito.anyLong()))
+            .thenReturn(Arrays.asList(
+                new PatientRecord(1, 95, "Saturation", currentTime - 2000),
+                new PatientRecord(1, 85, "SystolicPressure", currentTime - 1000),
+                new PatientRecord(1, 120, "ECG", currentTime - 500)));
+
+        ByteArrayOutputStream outContent = new ByteArrayOutputStream();
+        PrintStream originalOut = System.out;
+        System.setOut(new PrintStream(outContent));
+        try {
+            new AlertGenerator(mockDataStorage).evaluateData(new Patient(1));
+        } finally {
+            System.setOut(originalOut);
+        }
+        String output = outContent.toString();
+        assertTrue(output.contains("Hypotensive Tachycardia Alert"), output);
+        assertTrue(!output.contains("Hypotensive Hypoxemia Alert"), output);
+    }
+}
@@ -0,0 +1,124 @@
+package cardio_generator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.jupiter.api.Test;
+
+import com.cardio_generator.outputs.AsyncOutputStrategy;
+import com.cardio_generator.outputs.OutputStrategy;
+
+/**
+ * Unit tests for the asynchronous output and its overflow policies.
+ */
+class AsyncOutputStrategyTest {
+
+    /**
+     * Tests that with the blocking policy every reading of concurrent producers reaches the
+     * decorated strategy, in the order each producer output them.
+     *
+     * @throws Exception if a producer thread is interrupted
+     */
+    @Test
+    void testBlockDeliversAllInOrder() throws Exception {
+        List<List<Long>> received = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            received.add(new ArrayList<>());
+        }
+        // Called on the writer thread only
+        OutputStrategy recorder = (patientId, timestamp, label, data) -> received.get(patientId).add(timestamp);
+        AsyncOutputStrategy output = new AsyncOutputStrategy(recorder, 64, AsyncOutputStrategy.OverflowPolicy.BLOCK);
+        List<Thread> producers = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            int patientId = t;
+            Thread producer = new Thread(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    if (i % 2 == 0) {
+                        output.outputValue(patientId, i, "ECG", i);
+                    } else {
+                        output.output(patientId, i, "Alert", "triggered");
+                    }
+                }
+            });
+            producers.add(producer);
+            producer.start();
+        }
+        for (Thread producer : producers) {
+            producer.join();
+        }
+        output.close();
+
+        assertEquals(40_000, output.getEnqueuedCount());
+        assertEquals(0, output.getDroppedCount());
+        assertTrue(output.getHighWaterMark() <= 64);
+        for (List<Long> timestamps : received) {
+            assertEquals(10_000, timestamps.size());
+            for (int i = 0; i < timestamps.size(); i++) {
+                assertEquals(i, timestamps.get(i));
+            }
+        }
+    }
+
+    /**
+     * Tests that with the dropping policy a stalled sink fills the queue and the readings that
+     * do not fit are counted as dropped instead of blocking the producer.
+     *
+     * @throws Exception if the test is interrupted
+     */
+    @Test
+    void testDropCountsOverflow() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        long[] count = new long[1];
+        OutputStrategy stalled = (patientId, timestamp, label, data) -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            count[0]++;
+        };
+        AsyncOutputStrategy output = new AsyncOutputStrategy(stalled, 16, AsyncOutputStrategy.OverflowPolicy.DROP);
+        for (int i = 0; i < 1000; i++) {
+            output.output(1, i, "Alert", "triggered");
+        }
+        assertEquals(1000, output.getEnqueuedCount() + output.getDroppedCount());
+        assertTrue(output.getDroppedCount() >= 1000 - 17, output.toString());
+        assertEquals(16, output.getHighWaterMark());
+
+        release.countDown();
+        output.close();
+        assertEquals(output.getEnqueuedCount(), count[0]);
+    }
+
+    /**
+     * Tests that the sampling policy keeps only some of the readings once the queue is half
+     * full, before it is full.
+     *
+     * @throws Exception if the test is interrupted
+     */
+    @Test
+    void testSampleThinsOutUnderPressure() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        OutputStrategy stalled = (patientId, timestamp, label, data) -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        AsyncOutputStrategy output = new AsyncOutputStrategy(stalled, 64, AsyncOutputStrategy.OverflowPolicy.SAMPLE);
+        for (int i = 0; i < 200; i++) {
+            output.output(1, i, "Alert", "triggered");
+        }
+        // About 32 readings fill half the queue, then one in ten of the rest is kept
+        assertTrue(output.getEnqueuedCount() > 32 && output.getEnqueuedCount() < 64, output.toString());
+        assertEquals(200, output.getEnqueuedCount() + output.getDroppedCount());
+
+        release.countDown();
+        output.close();
+    }
+}
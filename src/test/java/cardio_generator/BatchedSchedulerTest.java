@@ -0,0 +1,71 @@
+package cardio_generator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import com.cardio_generator.scheduling.BatchedScheduler;
+
+/**
+ * Unit tests for the tick based batched scheduler.
+ */
+class BatchedSchedulerTest {
+
+    /**
+     * Tests that every patient is generated for although the thread count stays fixed.
+     *
+     * @throws InterruptedException if interrupted while waiting for the generators
+     */
+    @Test
+    void testEveryPatientGeneratedOnFixedThreads() throws InterruptedException {
+        int patientCount = 1000;
+        int[] patientIds = new int[patientCount];
+        for (int i = 0; i < patientCount; i++) {
+            patientIds[i] = i + 1;
+        }
+        Set<Integer> generated = ConcurrentHashMap.newKeySet();
+        Set<Thread> threads = ConcurrentHashMap.newKeySet();
+        CountDownLatch done = new CountDownLatch(patientCount);
+
+        try (BatchedScheduler scheduler = new BatchedScheduler(2)) {
+            scheduler.schedule((patientId, outputStrategy) -> {
+                threads.add(Thread.currentThread());
+                if (generated.add(patientId)) {
+                    done.countDown();
+                }
+            }, patientIds, 100, TimeUnit.MILLISECONDS, null);
+
+            assertTrue(done.await(5, TimeUnit.SECONDS));
+            assertEquals(2, scheduler.getThreadCount());
+        }
+        assertEquals(patientCount, generated.size());
+        assertTrue(threads.size() <= 2);
+    }
+
+    /**
+     * Tests that a failing patient does not stop the rest of its slice.
+     *
+     * @throws InterruptedException if interrupted while waiting for the generators
+     */
+    @Test
+    void testFailingPatientDoesNotStopSlice() throws InterruptedException {
+        CountDownLatch secondTick = new CountDownLatch(2);
+
+        try (BatchedScheduler scheduler = new BatchedScheduler(1)) {
+            scheduler.schedule((patientId, outputStrategy) -> {
+                if (patientId == 1) {
+                    throw new IllegalStateException("broken sensor");
+                }
+                secondTick.countDown();
+            }, new int[] {1, 2}, 50, TimeUnit.MILLISECONDS, null);
+
+            assertTrue(secondTick.await(5, TimeUnit.SECONDS));
+        }
+    }
+}
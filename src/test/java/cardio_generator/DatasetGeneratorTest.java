@@ -0,0 +1,92 @@
+package cardio_generator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.cardio_generator.dataset.DatasetGenerator;
+import com.data_management.BinaryFileReader;
+import com.data_management.DataReaderFile;
+import com.data_management.DataStorage;
+import com.data_management.FileReader;
+import com.data_management.PatientRecord;
+
+/**
+ * Unit tests for the offline dataset generator.
+ */
+class DatasetGeneratorTest {
+
+    private static final long START = 1700000000000L;
+
+    @TempDir
+    Path directory;
+
+    /**
+     * Tests that the binary dataset can be read back with the expected readings per patient.
+     *
+     * @throws Exception if the dataset cannot be written or read
+     */
+    @Test
+    void testBinaryDatasetReadsBack() throws Exception {
+        long records = new DatasetGenerator(3, 240, 7, START, true, 0, 2).generate(directory);
+
+        DataStorage storage = DataStorage.getInstance();
+        storage.clear();
+        new BinaryFileReader(directory.toString()).readData(storage);
+        List<PatientRecord> patientRecords = storage.getRecords(2, 0, Long.MAX_VALUE);
+        assertEquals(240, count(patientRecords, "ECG"));
+        assertEquals(240, count(patientRecords, "Saturation"));
+        assertEquals(4, count(patientRecords, "SystolicPressure"));
+        assertEquals(2, count(patientRecords, "Cholesterol"));
+        assertEquals(START, patientRecords.get(0).getTimestamp());
+
+        long stored = 0;
+        for (int patientId = 1; patientId <= 3; patientId++) {
+            stored += storage.getRecords(patientId, 0, Long.MAX_VALUE).size();
+        }
+        assertEquals(records, stored);
+    }
+
+    /**
+     * Tests that the same seed gives the same readings whatever the thread count and format.
+     *
+     * @throws Exception if the dataset cannot be written or read
+     */
+    @Test
+    void testSameSeedSameDatasetAcrossThreadsAndFormats() throws Exception {
+        Path text = directory.resolve("text");
+        Path binary = directory.resolve("binary");
+        new DatasetGenerator(4, 120, 11, START, false, 0, 1).generate(text);
+        new DatasetGenerator(4, 120, 11, START, true, 0, 3).generate(binary);
+
+        assertEquals(values(read(new FileReader(text.toString()), 3)),
+                values(read(new BinaryFileReader(binary.toString()), 3)));
+    }
+
+    private static List<PatientRecord> read(DataReaderFile reader, int patientId)
+            throws IOException {
+        DataStorage storage = DataStorage.getInstance();
+        storage.clear();
+        reader.readData(storage);
+        return storage.getRecords(patientId, 0, Long.MAX_VALUE);
+    }
+
+    private static long count(List<PatientRecord> records, String type) {
+        return records.stream().filter(record -> record.getRecordType().equals(type)).count();
+    }
+
+    private static List<String> values(List<PatientRecord> records) {
+        List<String> values = new ArrayList<>();
+        for (PatientRecord record : records) {
+            values.add(record.getTimestamp() + " " + record.getRecordType() + " " + record.getMeasurementValue());
+        }
+        values.sort(null);
+        return values;
+    }
+}
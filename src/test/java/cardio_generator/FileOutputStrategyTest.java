@@ -0,0 +1,82 @@
+package cardio_generator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.cardio_generator.outputs.FileOutputStrategy;
+
+/**
+ * Unit tests for the file output with long-lived buffered writers.
+ */
+class FileOutputStrategyTest {
+
+    @TempDir
+    Path directory;
+
+    /**
+     * Tests that concurrent readings all end up as whole lines in the file of their label
+     * once the output is closed.
+     *
+     * @throws Exception if the files cannot be read or a writer thread is interrupted
+     */
+    @Test
+    void testConcurrentWritesFlushedOnClose() throws Exception {
+        FileOutputStrategy output = new FileOutputStrategy(directory.toString());
+        List<Thread> writers = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            int patientId = t + 1;
+            Thread writer = new Thread(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    output.output(patientId, i, "ECG", Integer.toString(i));
+                    output.outputValue(patientId, i, "Saturation", i);
+                }
+            });
+            writers.add(writer);
+            writer.start();
+        }
+        for (Thread writer : writers) {
+            writer.join();
+        }
+        output.close();
+
+        List<String> ecg = Files.readAllLines(directory.resolve("ECG.txt"));
+        assertEquals(4000, ecg.size());
+        for (String line : ecg) {
+            assertTrue(line.matches("Patient ID: \\d, Timestamp: \\d+, Label: ECG, Data: \\d+"), line);
+        }
+        assertEquals(4000, Files.readAllLines(directory.resolve("Saturation.txt")).size());
+    }
+
+    /**
+     * Tests that buffered lines reach the file after the flush interval without a close.
+     *
+     * @throws IOException if the file cannot be read
+     * @throws InterruptedException if interrupted while waiting for the flush
+     */
+    @Test
+    void testLinesFlushedAfterInterval() throws IOException, InterruptedException {
+        FileOutputStrategy output = new FileOutputStrategy(directory.toString(), 1 << 20, 50, TimeUnit.MILLISECONDS);
+        try {
+            output.output(1, 100, "Alert", "triggered");
+            Path file = directory.resolve("Alert.txt");
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (Files.size(file) == 0 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(List.of("Patient ID: 1, Timestamp: 100, Label: Alert, Data: triggered"),
+                    Files.readAllLines(file));
+        } finally {
+            output.close();
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package cardio_generator;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.cardio_generator.generators.HighRateEcgGenerator;
+import com.cardio_generator.outputs.OutputStrategy;
+
+/**
+ * Unit tests for the block-based high sample rate ECG generator.
+ */
+class HighRateEcgGeneratorTest {
+
+    /**
+     * Tests that one call produces one second of samples as a single block with a QRS peak.
+     */
+    @Test
+    void testOneSecondBlockPerCall() {
+        List<double[]> blocks = new ArrayList<>();
+        HighRateEcgGenerator generator = new HighRateEcgGenerator(1, 250, 3, () -> 1000L);
+
+        generator.generate(1, new OutputStrategy() {
+            @Override
+            public void output(int patientId, long timestamp, String label, String data) {
+                throw new AssertionError("Samples must be written as a block");
+            }
+
+            @Override
+            public void outputSamples(int patientId, long timestamp, int sampleRate, String label,
+                    double[] samples, int length) {
+                assertEquals(1000L, timestamp);
+                assertEquals(250, sampleRate);
+                assertEquals("ECG", label);
+                double[] block = new double[length];
+                System.arraycopy(samples, 0, block, 0, length);
+                blocks.add(block);
+            }
+        });
+
+        assertEquals(1, blocks.size());
+        assertEquals(250, blocks.get(0).length);
+        double max = Double.NEGATIVE_INFINITY;
+        for (double sample : blocks.get(0)) {
+            max = Math.max(max, sample);
+        }
+        // A heart rate of at least 50 bpm puts an R wave into every second
+        assertTrue(max > 0.8);
+    }
+
+    /**
+     * Tests that the default block output spaces the sample timestamps by the sample period.
+     */
+    @Test
+    void testDefaultBlockOutputSpacesTimestamps() {
+        List<Long> timestamps = new ArrayList<>();
+        OutputStrategy output = (patientId, timestamp, label, data) -> timestamps.add(timestamp);
+
+        output.outputSamples(1, 1000L, 500, "ECG", new double[] {0.1, 0.2, 0.3}, 3);
+
+        assertArrayEquals(new Object[] {1000L, 1002L, 1004L}, timestamps.toArray());
+    }
+}
@@ -0,0 +1,128 @@
+package cardio_generator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import com.cardio_generator.scheduling.LoadProfile;
+import com.cardio_generator.scheduling.LoadProfileScheduler;
+
+/**
+ * Unit tests for the load profiles and the open-loop scheduler.
+ */
+class LoadProfileSchedulerTest {
+
+    /**
+     * Tests the shapes of the parsed profiles.
+     */
+    @Test
+    void testParseProfiles() {
+        assertEquals(500, LoadProfile.parse("constant:500").rateAt(42), 1e-9);
+
+        LoadProfile ramp = LoadProfile.parse("ramp:100:1100:10");
+        assertEquals(100, ramp.rateAt(0), 1e-9);
+        assertEquals(600, ramp.rateAt(5), 1e-9);
+        assertEquals(1100, ramp.rateAt(60), 1e-9);
+
+        LoadProfile spike = LoadProfile.parse("spike:10:1000:30:5");
+        assertEquals(10, spike.rateAt(29), 1e-9);
+        assertEquals(1000, spike.rateAt(32), 1e-9);
+        assertEquals(10, spike.rateAt(35), 1e-9);
+
+        LoadProfile diurnal = LoadProfile.parse("diurnal:100:50:86400");
+        assertEquals(50, diurnal.rateAt(0), 1e-9);
+        assertEquals(150, diurnal.rateAt(43200), 1e-9);
+
+        assertThrows(IllegalArgumentException.class, () -> LoadProfile.parse("ramp:1:2"));
+        assertThrows(IllegalArgumentException.class, () -> LoadProfile.parse("square:1"));
+        assertThrows(IllegalArgumentException.class, () -> LoadProfile.parse("constant:-5"));
+    }
+
+    /**
+     * Tests that a stalled output does not delay the intended send times: the readings keep
+     * the timestamps of the schedule and the stall shows up as send lag.
+     *
+     * @throws InterruptedException if interrupted while waiting for the readings
+     */
+    @Test
+    void testStallKeepsIntendedTimes() throws InterruptedException {
+        List<Long> timestamps = new ArrayList<>();
+        CountDownLatch readings = new CountDownLatch(30);
+
+        try (LoadProfileScheduler scheduler = new LoadProfileScheduler(LoadProfile.constant(100))) {
+            scheduler.schedule((patientId, outputStrategy) -> {
+                synchronized (timestamps) {
+                    timestamps.add(scheduler.currentTimeMillis());
+                    if (timestamps.size() == 1) {
+                        sleep(200);
+                    }
+                }
+                readings.countDown();
+            }, new int[] {1, 2}, 1, TimeUnit.SECONDS, null);
+            assertTrue(readings.await(5, TimeUnit.SECONDS));
+
+            assertTrue(scheduler.getSendLag().getMax() >= TimeUnit.MILLISECONDS.toNanos(150));
+        }
+
+        synchronized (timestamps) {
+            for (int i = 1; i < 30; i++) {
+                long spacing = timestamps.get(i) - timestamps.get(i - 1);
+                assertTrue(spacing >= 9 && spacing <= 11, "Spacing " + spacing);
+            }
+        }
+    }
+
+    /**
+     * Tests that the readings are shared between the generators in proportion to their
+     * scheduled rates.
+     *
+     * @throws InterruptedException if interrupted while waiting for the readings
+     */
+    @Test
+    void testReadingsFollowGeneratorRates() throws InterruptedException {
+        int[] counts = new int[2];
+        CountDownLatch readings = new CountDownLatch(300);
+
+        // Starts sending once both generators are scheduled
+        LoadProfile profile = LoadProfile.spike(0, 10_000, 0.2, 60);
+        try (LoadProfileScheduler scheduler = new LoadProfileScheduler(profile)) {
+            scheduler.schedule((patientId, outputStrategy) -> {
+                synchronized (counts) {
+                    if (counts[0] + counts[1] < 300) {
+                        counts[0]++;
+                        readings.countDown();
+                    }
+                }
+            }, new int[] {1, 2}, 1, TimeUnit.SECONDS, null);
+            scheduler.schedule((patientId, outputStrategy) -> {
+                synchronized (counts) {
+                    if (counts[0] + counts[1] < 300) {
+                        counts[1]++;
+                        readings.countDown();
+                    }
+                }
+            }, new int[] {1, 2}, 2, TimeUnit.SECONDS, null);
+            assertTrue(readings.await(5, TimeUnit.SECONDS));
+        }
+
+        synchronized (counts) {
+            assertEquals(200, counts[0]);
+            assertEquals(100, counts[1]);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package cardio_generator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.cardio_generator.outputs.MappedLogOutputStrategy;
+import com.data_management.DataStorage;
+import com.data_management.MappedLogReader;
+import com.data_management.PatientRecord;
+
+/**
+ * Unit tests for the memory-mapped append log and its reader.
+ */
+class MappedLogOutputStrategyTest {
+
+    @TempDir
+    Path directory;
+
+    @AfterEach
+    void clearStorage() {
+        DataStorage.getInstance().clear();
+    }
+
+    /**
+     * Tests that readings of concurrent threads over many small segments are all read back,
+     * with unfilled claims skipped.
+     *
+     * @throws Exception if the segments cannot be read or a writer thread is interrupted
+     */
+    @Test
+    void testConcurrentWritesAcrossSegments() throws Exception {
+        MappedLogOutputStrategy output = new MappedLogOutputStrategy(directory.toString(), 16 + 10 * 64 * 24, 64);
+        List<Thread> writers = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            int patientId = t + 1;
+            Thread writer = new Thread(() -> {
+                for (int i = 0; i < 2500; i++) {
+                    output.outputValue(patientId, i, "ECG", i);
+                }
+                output.output(patientId, 2500, "Saturation", "97%");
+            });
+            writers.add(writer);
+            writer.start();
+        }
+        for (Thread writer : writers) {
+            writer.join();
+        }
+        output.close();
+
+        assertEquals(4 * 2501, output.getRecordCount());
+        try (Stream<Path> segments = Files.list(directory)) {
+            assertTrue(segments.count() > 1);
+        }
+        DataStorage storage = DataStorage.getInstance();
+        new MappedLogReader(directory.toString()).readData(storage);
+        for (int patientId = 1; patientId <= 4; patientId++) {
+            List<PatientRecord> records = storage.getRecords(patientId, 0, Long.MAX_VALUE);
+            assertEquals(2501, records.size());
+            long ecgSum = records.stream().filter(record -> record.getRecordType().equals("ECG"))
+                    .mapToLong(record -> (long) record.getMeasurementValue()).sum();
+            assertEquals(2499L * 2500 / 2, ecgSum);
+            assertEquals(97, records.stream().filter(record -> record.getRecordType().equals("Saturation"))
+                    .findFirst().get().getMeasurementValue());
+        }
+    }
+
+    /**
+     * Tests that a new log in the same directory continues the segment numbering instead of
+     * overwriting the earlier log.
+     *
+     * @throws Exception if the segments cannot be written or read
+     */
+    @Test
+    void testReopenAppendsNewSegments() throws Exception {
+        MappedLogOutputStrategy first = new MappedLogOutputStrategy(directory.toString(), 4096, 16);
+        first.outputValue(1, 1, "Cholesterol", 180);
+        first.close();
+        MappedLogOutputStrategy second = new MappedLogOutputStrategy(directory.toString(), 4096, 16);
+        second.outputValue(1, 2, "Cholesterol", 190);
+        second.close();
+
+        assertTrue(Files.exists(directory.resolve("readings-000000.mlog")));
+        assertTrue(Files.exists(directory.resolve("readings-000001.mlog")));
+        DataStorage storage = DataStorage.getInstance();
+        new MappedLogReader(directory.toString()).readData(storage);
+        assertEquals(2, storage.getRecords(1, 0, Long.MAX_VALUE).size());
+    }
+}
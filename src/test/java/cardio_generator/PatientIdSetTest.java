@@ -0,0 +1,63 @@
+package cardio_generator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+import com.cardio_generator.scheduling.PatientIdSet;
+
+/**
+ * Unit tests for the set of patient IDs used for admissions, discharges and random picks.
+ */
+class PatientIdSetTest {
+
+    /**
+     * Tests that a removed patient is replaced by the last one and duplicates are ignored.
+     */
+    @Test
+    void testRemoveMovesLastPatient() {
+        PatientIdSet patients = new PatientIdSet(new int[] {5, -3, 1_000_000, 5});
+
+        assertEquals(3, patients.size());
+        assertFalse(patients.add(-3));
+        assertTrue(patients.remove(5));
+        assertFalse(patients.remove(5));
+        assertFalse(patients.contains(5));
+        assertEquals(2, patients.size());
+        assertEquals(1_000_000, patients.get(0));
+        assertEquals(-3, patients.get(1));
+    }
+
+    /**
+     * Tests that the set stays consistent with a reference set through many random
+     * admissions and discharges, across rehashes.
+     */
+    @Test
+    void testRandomChurnMatchesReference() {
+        PatientIdSet patients = new PatientIdSet();
+        Set<Integer> reference = new HashSet<>();
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < 100_000; i++) {
+            int patientId = random.nextInt(2000);
+            if (random.nextBoolean()) {
+                assertEquals(reference.add(patientId), patients.add(patientId));
+            } else {
+                assertEquals(reference.remove(patientId), patients.remove(patientId));
+            }
+        }
+
+        assertEquals(reference.size(), patients.size());
+        Set<Integer> listed = new HashSet<>();
+        for (int i = 0; i < patients.size(); i++) {
+            listed.add(patients.get(i));
+            assertTrue(patients.contains(patients.get(i)));
+        }
+        assertEquals(reference, listed);
+    }
+}
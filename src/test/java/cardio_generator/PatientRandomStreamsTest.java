@@ -0,0 +1,78 @@
+package cardio_generator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+import com.cardio_generator.generators.BloodPressureDataGenerator;
+import com.cardio_generator.generators.PatientRandomStreams;
+import com.cardio_generator.outputs.OutputStrategy;
+
+/**
+ * Unit tests for the seeded per-patient random streams.
+ */
+class PatientRandomStreamsTest {
+
+    /**
+     * Tests that the same seed replays the same values for a patient.
+     */
+    @Test
+    void testSameSeedReplaysStream() {
+        SplittableRandom first = new PatientRandomStreams(42, "ECG").newStream(2);
+        SplittableRandom second = new PatientRandomStreams(42, "ECG").newStream(2);
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals(first.nextLong(), second.nextLong());
+        }
+    }
+
+    /**
+     * Tests that patients and generators get unrelated streams from the same seed.
+     */
+    @Test
+    void testStreamsAreIndependent() {
+        PatientRandomStreams ecg = new PatientRandomStreams(42, "ECG");
+        PatientRandomStreams alert = new PatientRandomStreams(42, "Alert");
+
+        long patientOne = ecg.newStream(1).nextLong();
+        assertNotEquals(patientOne, ecg.newStream(2).nextLong());
+        assertNotEquals(patientOne, alert.newStream(1).nextLong());
+    }
+
+    /**
+     * Tests that a seeded generator produces the same readings regardless of the order the
+     * patients are generated in.
+     */
+    @Test
+    void testSeededGeneratorIsReproducible() {
+        assertEquals(readings(new int[] {1, 2, 3}, 2), readings(new int[] {3, 1, 2}, 2));
+    }
+
+    /**
+     * Generates blood pressure readings with a fixed seed and returns the values of patient 2.
+     *
+     * @param order  the order the patients are generated in on every tick
+     * @param ticks  the number of ticks to generate
+     * @return the readings of patient 2
+     */
+    private List<String> readings(int[] order, int ticks) {
+        BloodPressureDataGenerator generator = new BloodPressureDataGenerator(3, 7);
+        List<String> values = new ArrayList<>();
+        OutputStrategy output = (patientId, timestamp, label, data) -> {
+            if (patientId == 2) {
+                values.add(label + "=" + data);
+            }
+        };
+        for (int tick = 0; tick < ticks; tick++) {
+            for (int patientId : order) {
+                generator.generate(patientId, output);
+            }
+        }
+        return values;
+    }
+}
@@ -0,0 +1,140 @@
+package cardio_generator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import com.cardio_generator.generators.BloodSaturationDataGenerator;
+import com.cardio_generator.generators.PatientSlab;
+import com.cardio_generator.outputs.OutputStrategy;
+
+/**
+ * Unit tests for the per-patient state slab and the dynamic patient population.
+ */
+class PatientSlabTest {
+
+    /**
+     * Tests that arbitrary patient IDs get dense slots that are reused after a discharge.
+     */
+    @Test
+    void testSparseIdsAndSlotReuse() {
+        PatientSlab slab = new PatientSlab(0);
+        int first = slab.admit(1_000_000);
+        int second = slab.admit(-7);
+
+        assertEquals(0, first);
+        assertEquals(1, second);
+        assertEquals(first, slab.admit(1_000_000));
+        assertEquals(2, slab.size());
+
+        assertEquals(first, slab.discharge(1_000_000));
+        assertEquals(-1, slab.slotOf(1_000_000));
+        assertEquals(-1, slab.discharge(1_000_000));
+        assertEquals(second, slab.slotOf(-7));
+        assertEquals(first, slab.admit(42));
+    }
+
+    /**
+     * Tests that a patient admitted right after a discharge does not get the freed slot, so
+     * a reading still running for the discharged patient keeps its state, and that freed
+     * slots are reused oldest first once the quarantine has passed.
+     *
+     * @throws InterruptedException if interrupted while waiting for the quarantine
+     */
+    @Test
+    void testFreedSlotQuarantine() throws InterruptedException {
+        PatientSlab slab = new PatientSlab(TimeUnit.MILLISECONDS.toNanos(50));
+        PatientSlab.DoubleColumn values = slab.doubleColumn();
+        int discharged = slab.admit(1);
+        values.set(discharged, 98.5);
+        int second = slab.admit(2);
+
+        slab.discharge(1);
+        int admitted = slab.admit(3);
+        values.set(admitted, 0);
+        assertNotEquals(discharged, admitted);
+        assertEquals(98.5, values.get(discharged));
+
+        slab.discharge(2);
+        Thread.sleep(100);
+        assertEquals(discharged, slab.admit(4));
+        assertEquals(second, slab.admit(5));
+    }
+
+    /**
+     * Tests that the columns keep their values while the slab grows past one chunk and
+     * patients are discharged in between.
+     */
+    @Test
+    void testColumnsSurviveGrowth() {
+        PatientSlab slab = new PatientSlab();
+        PatientSlab.DoubleColumn values = slab.doubleColumn();
+        int count = PatientSlab.CHUNK_SIZE * 3;
+        for (int i = 0; i < count; i++) {
+            int patientId = i * 31;
+            values.set(slab.admit(patientId), patientId);
+        }
+        for (int i = 0; i < count; i += 2) {
+            slab.discharge(i * 31);
+        }
+
+        assertEquals(count / 2, slab.size());
+        for (int i = 1; i < count; i += 2) {
+            assertEquals(i * 31, values.get(slab.slotOf(i * 31)));
+        }
+        for (int i = 0; i < count; i += 2) {
+            assertEquals(-1, slab.slotOf(i * 31));
+        }
+    }
+
+    /**
+     * Tests that a generator produces readings for a patient admitted at runtime with an
+     * arbitrary ID and stops after the patient is discharged.
+     */
+    @Test
+    void testGeneratorAdmitsAndDischarges() {
+        BloodSaturationDataGenerator generator = new BloodSaturationDataGenerator(2, 7);
+        List<Integer> patients = new ArrayList<>();
+        OutputStrategy output = (patientId, timestamp, label, data) -> patients.add(patientId);
+
+        generator.admit(90210);
+        generator.generate(90210, output);
+        assertEquals(List.of(90210), patients);
+        assertEquals(3, generator.getPatientCount());
+
+        generator.discharge(1);
+        generator.generate(1, output);
+        assertEquals(List.of(90210), patients);
+        assertEquals(2, generator.getPatientCount());
+    }
+
+    /**
+     * Tests that a readmitted patient replays the random stream of its first admission.
+     */
+    @Test
+    void testReadmissionRestartsStream() {
+        BloodSaturationDataGenerator generator = new BloodSaturationDataGenerator(0, 7);
+        List<String> first = new ArrayList<>();
+        List<String> second = new ArrayList<>();
+
+        generator.admit(5);
+        for (int i = 0; i < 3; i++) {
+            generator.generate(5, (patientId, timestamp, label, data) -> first.add(data));
+        }
+        generator.discharge(5);
+        generator.admit(12);
+        generator.admit(5);
+        for (int i = 0; i < 3; i++) {
+            generator.generate(5, (patientId, timestamp, label, data) -> second.add(data));
+        }
+
+        assertEquals(3, first.size());
+        assertEquals(first, second);
+        assertEquals(2, generator.getPatientCount());
+    }
+}
@@ -0,0 +1,76 @@
+package cardio_generator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import com.cardio_generator.benchmark.BurstinessRecorder;
+import com.cardio_generator.scheduling.PhaseSpread;
+
+/**
+ * Unit tests for the phase offsets of scheduled tasks and the burstiness measurement.
+ */
+class PhaseSpreadTest {
+
+    private static final long PERIOD_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    /**
+     * Tests that any number of consecutive phases cover the period without large gaps.
+     */
+    @Test
+    void testPhasesSpreadEvenly() {
+        PhaseSpread phases = new PhaseSpread(0);
+        for (int count : new int[] {10, 1000, 12345}) {
+            long[] offsets = new long[count];
+            for (int i = 0; i < count; i++) {
+                offsets[i] = phases.nextOffsetNanos(PERIOD_NANOS);
+            }
+            Arrays.sort(offsets);
+            long largestGap = offsets[0] + PERIOD_NANOS - offsets[count - 1];
+            for (int i = 1; i < count; i++) {
+                largestGap = Math.max(largestGap, offsets[i] - offsets[i - 1]);
+            }
+            assertTrue(largestGap <= 3 * PERIOD_NANOS / count, "Gap " + largestGap + " for " + count);
+        }
+    }
+
+    /**
+     * Tests that jitter keeps the phases within the period and close to the even phases.
+     */
+    @Test
+    void testJitterStaysWithinBounds() {
+        long jitter = TimeUnit.MILLISECONDS.toNanos(5);
+        PhaseSpread even = new PhaseSpread(0);
+        PhaseSpread jittered = new PhaseSpread(jitter);
+        for (int i = 0; i < 1000; i++) {
+            long expected = even.nextOffsetNanos(PERIOD_NANOS);
+            long offset = jittered.nextOffsetNanos(PERIOD_NANOS);
+            assertTrue(offset >= 0 && offset < PERIOD_NANOS);
+            long deviation = Math.abs(offset - expected);
+            assertTrue(Math.min(deviation, PERIOD_NANOS - deviation) <= jitter);
+        }
+    }
+
+    /**
+     * Tests that the recorder counts readings and samples in the current bucket only while
+     * the window is open.
+     */
+    @Test
+    void testBurstinessRecorderCountsBuckets() {
+        BurstinessRecorder recorder = new BurstinessRecorder(null);
+        recorder.output(1, 0, "ECG", "0.1");
+        assertEquals(0, recorder.getBucketCounts().length);
+
+        recorder.start(1, TimeUnit.SECONDS);
+        recorder.output(1, 0, "ECG", "0.1");
+        recorder.outputSamples(1, 0, 250, "ECG", new double[250], 250);
+
+        long[] counts = recorder.getBucketCounts();
+        assertEquals(100, counts.length);
+        assertEquals(251, Arrays.stream(counts).sum());
+    }
+}
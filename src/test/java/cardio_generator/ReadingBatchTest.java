@@ -0,0 +1,87 @@
+package cardio_generator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.cardio_generator.generators.BloodLevelsDataGenerator;
+import com.cardio_generator.outputs.ConsoleOutputStrategy;
+import com.cardio_generator.outputs.OutputStrategy;
+import com.cardio_generator.outputs.ReadingBatch;
+
+/**
+ * Unit tests for batched output of several readings in one call.
+ */
+class ReadingBatchTest {
+
+    /**
+     * Tests that the default adapter passes every reading of a batch on in order, also after
+     * the batch has grown and been reused.
+     */
+    @Test
+    void testDefaultAdapterOutputsEveryReading() {
+        List<String> lines = new ArrayList<>();
+        OutputStrategy output = (patientId, timestamp, label, data) ->
+                lines.add(patientId + "," + timestamp + "," + label + "," + data);
+        ReadingBatch batch = new ReadingBatch(1);
+        batch.add(1, 10, "A", 1.5).add(2, 20, "B", 2.5).add(3, 30, "C", 3.5);
+        output.outputBatch(batch);
+        batch.clear();
+        batch.add(4, 40, "D", 4.5);
+        output.outputBatch(batch);
+
+        assertEquals(List.of("1,10,A,1.5", "2,20,B,2.5", "3,30,C,3.5", "4,40,D,4.5"), lines);
+    }
+
+    /**
+     * Tests that the blood levels of a patient arrive in a single batch with one timestamp.
+     */
+    @Test
+    void testBloodLevelsOutputOneBatch() {
+        List<Integer> batchSizes = new ArrayList<>();
+        List<Long> timestamps = new ArrayList<>();
+        OutputStrategy output = new OutputStrategy() {
+            @Override
+            public void output(int patientId, long timestamp, String label, String data) {
+                batchSizes.add(1);
+            }
+
+            @Override
+            public void outputBatch(ReadingBatch batch) {
+                batchSizes.add(batch.size());
+                for (int i = 0; i < batch.size(); i++) {
+                    timestamps.add(batch.getTimestamp(i));
+                }
+            }
+        };
+        new BloodLevelsDataGenerator(1, 3).generate(1, output);
+
+        assertEquals(List.of(3), batchSizes);
+        assertEquals(1, timestamps.stream().distinct().count());
+    }
+
+    /**
+     * Tests that the console output prints a batch in the format of single readings.
+     */
+    @Test
+    void testConsoleOutputsBatchLines() {
+        ByteArrayOutputStream printed = new ByteArrayOutputStream();
+        PrintStream originalOut = System.out;
+        System.setOut(new PrintStream(printed));
+        try (ConsoleOutputStrategy output = new ConsoleOutputStrategy()) {
+            output.outputBatch(new ReadingBatch(2).add(7, 100, "SystolicPressure", 120)
+                    .add(7, 100, "DiastolicPressure", 80));
+        } finally {
+            System.setOut(originalOut);
+        }
+
+        String separator = System.lineSeparator();
+        assertEquals("Patient ID: 7, Timestamp: 100, Label: SystolicPressure, Data: 120.0" + separator
+                + "Patient ID: 7, Timestamp: 100, Label: DiastolicPressure, Data: 80.0" + separator, printed.toString());
+    }
+}
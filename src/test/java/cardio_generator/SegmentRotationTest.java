@@ -0,0 +1,112 @@
+package cardio_generator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.cardio_generator.outputs.FileOutputStrategy;
+import com.cardio_generator.outputs.SegmentRotation;
+import com.data_management.DataStorage;
+import com.data_management.FileReader;
+
+/**
+ * Unit tests for the segment rotation of the file output and the reading of segments.
+ */
+class SegmentRotationTest {
+
+    private static final long START = Instant.parse("2026-10-16T10:00:00Z").toEpochMilli();
+    private static final long HOUR = TimeUnit.HOURS.toMillis(1);
+
+    @TempDir
+    Path directory;
+
+    @AfterEach
+    void clearStorage() {
+        DataStorage.getInstance().clear();
+    }
+
+    /**
+     * Tests that hourly rotation names the segments after their hour and lists each one in
+     * the manifest with its time range and reading count.
+     *
+     * @throws Exception if the files cannot be read
+     */
+    @Test
+    void testRotatesByTimeAndWritesManifest() throws Exception {
+        FileOutputStrategy output = new FileOutputStrategy(directory.toString(),
+                new SegmentRotation(1, TimeUnit.HOURS, 0, false));
+        for (int minute = 0; minute < 180; minute++) {
+            output.outputValue(1, START + minute * 60_000L, "ECG", minute);
+        }
+        output.close();
+
+        assertEquals(60, Files.readAllLines(directory.resolve("ECG-2026-10-16T10.txt")).size());
+        assertEquals(60, Files.readAllLines(directory.resolve("ECG-2026-10-16T11.txt")).size());
+        assertEquals(60, Files.readAllLines(directory.resolve("ECG-2026-10-16T12.txt")).size());
+        List<String> manifest = Files.readAllLines(directory.resolve(FileReader.MANIFEST_FILE));
+        assertEquals(List.of(
+                "ECG,ECG-2026-10-16T10.txt," + START + "," + (START + 59 * 60_000L) + ",60",
+                "ECG,ECG-2026-10-16T11.txt," + (START + HOUR) + "," + (START + HOUR + 59 * 60_000L) + ",60",
+                "ECG,ECG-2026-10-16T12.txt," + (START + 2 * HOUR) + "," + (START + 2 * HOUR + 59 * 60_000L) + ",60"),
+                manifest);
+    }
+
+    /**
+     * Tests that size rotation closes a segment once it reaches the size and that a later
+     * segment of the same second gets a sequence number instead of overwriting the first.
+     *
+     * @throws Exception if the files cannot be read
+     */
+    @Test
+    void testRotatesBySize() throws Exception {
+        FileOutputStrategy output = new FileOutputStrategy(directory.toString(),
+                new SegmentRotation(0, TimeUnit.HOURS, 1000, false));
+        for (int i = 0; i < 100; i++) {
+            output.outputValue(1, START, "Saturation", i);
+        }
+        output.close();
+
+        List<String> manifest = Files.readAllLines(directory.resolve(FileReader.MANIFEST_FILE));
+        assertTrue(manifest.size() > 1, manifest.toString());
+        assertTrue(Files.exists(directory.resolve("Saturation-2026-10-16T10-00-00.txt")));
+        assertTrue(Files.exists(directory.resolve("Saturation-2026-10-16T10-00-00.1.txt")));
+        assertEquals(100, manifest.stream().mapToLong(line -> Long.parseLong(line.split(",")[4])).sum());
+    }
+
+    /**
+     * Tests that compressed segments replace the plain ones and are read back by the file
+     * reader, and that a time range skips the segments outside it.
+     *
+     * @throws Exception if the files cannot be read
+     */
+    @Test
+    void testReadsCompressedSegmentsInTimeRange() throws Exception {
+        FileOutputStrategy output = new FileOutputStrategy(directory.toString(),
+                new SegmentRotation(1, TimeUnit.HOURS, 0, true));
+        for (int minute = 0; minute < 180; minute++) {
+            output.outputValue(1, START + minute * 60_000L, "ECG", minute);
+        }
+        output.close();
+
+        assertFalse(Files.exists(directory.resolve("ECG-2026-10-16T10.txt")));
+        assertTrue(Files.exists(directory.resolve("ECG-2026-10-16T10.txt.gz")));
+
+        DataStorage storage = DataStorage.getInstance();
+        new FileReader(directory.toString()).readData(storage);
+        assertEquals(180, storage.getRecords(1, 0, Long.MAX_VALUE).size());
+
+        storage.clear();
+        new FileReader(directory.toString(), START + HOUR + 30 * 60_000L, START + 2 * HOUR - 1).readData(storage);
+        assertEquals(30, storage.getRecords(1, 0, Long.MAX_VALUE).size());
+    }
+}
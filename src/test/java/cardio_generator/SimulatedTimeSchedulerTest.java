@@ -0,0 +1,76 @@
+package cardio_generator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import com.cardio_generator.generators.BloodSaturationDataGenerator;
+import com.cardio_generator.scheduling.SimulatedTimeScheduler;
+
+/**
+ * Unit tests for the scheduler running on a simulated clock.
+ */
+class SimulatedTimeSchedulerTest {
+
+    /**
+     * Tests that a day of readings is generated in far less than a day, with the timestamps
+     * spaced by the period.
+     *
+     * @throws InterruptedException if interrupted while waiting for the readings
+     */
+    @Test
+    void testAsFastAsPossibleKeepsSpacing() throws InterruptedException {
+        int readingsPerDay = 24 * 60;
+        List<Long> timestamps = new ArrayList<>();
+        CountDownLatch day = new CountDownLatch(readingsPerDay);
+
+        try (SimulatedTimeScheduler scheduler = new SimulatedTimeScheduler(Double.POSITIVE_INFINITY, 0)) {
+            BloodSaturationDataGenerator generator = new BloodSaturationDataGenerator(1, 1, scheduler);
+            scheduler.schedule(generator, new int[] {1}, 1, TimeUnit.MINUTES, (patientId, timestamp, label, data) -> {
+                synchronized (timestamps) {
+                    timestamps.add(timestamp);
+                }
+                day.countDown();
+            });
+            assertTrue(day.await(5, TimeUnit.SECONDS));
+        }
+
+        synchronized (timestamps) {
+            for (int i = 0; i < readingsPerDay; i++) {
+                assertEquals(i * 60_000L, timestamps.get(i));
+            }
+        }
+    }
+
+    /**
+     * Tests that the patients of a generator are spread over the period.
+     *
+     * @throws InterruptedException if interrupted while waiting for the readings
+     */
+    @Test
+    void testPatientsSpreadOverPeriod() throws InterruptedException {
+        long[] firstReadings = new long[5];
+        CountDownLatch allPatients = new CountDownLatch(4);
+
+        try (SimulatedTimeScheduler scheduler = new SimulatedTimeScheduler(Double.POSITIVE_INFINITY, 0)) {
+            scheduler.schedule((patientId, outputStrategy) -> {
+                if (firstReadings[patientId] == 0) {
+                    firstReadings[patientId] = scheduler.currentTimeMillis() + 1;
+                    allPatients.countDown();
+                }
+            }, new int[] {1, 2, 3, 4}, 1, TimeUnit.SECONDS, null);
+            assertTrue(allPatients.await(5, TimeUnit.SECONDS));
+        }
+
+        assertEquals(1, firstReadings[1]);
+        assertEquals(251, firstReadings[2]);
+        assertEquals(501, firstReadings[3]);
+        assertEquals(751, firstReadings[4]);
+    }
+}
@@ -0,0 +1,109 @@
+package cardio_generator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+import com.cardio_generator.outputs.ReadingBatch;
+import com.cardio_generator.outputs.TcpOutputStrategy;
+
+/**
+ * Unit tests for the multi-client TCP output.
+ */
+class TcpOutputStrategyTest {
+
+    /**
+     * Tests that every connected client receives every line.
+     *
+     * @throws Exception if a client cannot connect or read
+     */
+    @Test
+    void testBroadcastsToAllClients() throws Exception {
+        TcpOutputStrategy output = new TcpOutputStrategy(0, 10, 1 << 20);
+        try (Socket first = new Socket("localhost", output.getPort());
+                Socket second = new Socket("localhost", output.getPort())) {
+            awaitClients(output, 2);
+            output.output(1, 100, "Alert", "triggered");
+            output.outputValue(2, 200, "ECG", 0.5);
+            for (Socket client : new Socket[] {first, second}) {
+                BufferedReader reader = new BufferedReader(
+                        new InputStreamReader(client.getInputStream(), StandardCharsets.UTF_8));
+                assertEquals("1,100,Alert,triggered", reader.readLine());
+                assertEquals("2,200,ECG,0.5", reader.readLine());
+            }
+        } finally {
+            output.close();
+        }
+    }
+
+    /**
+     * Tests that a client that does not read is disconnected once its queue is full, while a
+     * client that keeps up receives every line.
+     *
+     * @throws Exception if a client cannot connect or read
+     */
+    @Test
+    void testDisconnectsSlowClient() throws Exception {
+        TcpOutputStrategy output = new TcpOutputStrategy(0, 5, 256 * 1024);
+        Socket slow = new Socket();
+        slow.setReceiveBufferSize(4096);
+        slow.connect(new InetSocketAddress("localhost", output.getPort()));
+        Socket fast = new Socket("localhost", output.getPort());
+        AtomicLong received = new AtomicLong();
+        Thread reader = new Thread(() -> {
+            try (BufferedReader lines = new BufferedReader(
+                    new InputStreamReader(fast.getInputStream(), StandardCharsets.UTF_8))) {
+                while (lines.readLine() != null) {
+                    received.incrementAndGet();
+                }
+            } catch (Exception e) {
+                // The connection is closed with the output
+            }
+        });
+        reader.start();
+        awaitClients(output, 2);
+
+        ReadingBatch batch = new ReadingBatch(100);
+        for (int i = 0; i < 100; i++) {
+            batch.add(i, i, "ECG", i);
+        }
+        long sent = 0;
+        long deadline = System.currentTimeMillis() + 20_000;
+        while (output.getSlowClientDisconnects() == 0 && System.currentTimeMillis() < deadline) {
+            output.outputBatch(batch);
+            sent += batch.size();
+            Thread.sleep(1);
+        }
+        assertEquals(1, output.getSlowClientDisconnects());
+        awaitClients(output, 1);
+        for (int i = 0; i < 100; i++) {
+            output.outputBatch(batch);
+            sent += batch.size();
+            Thread.sleep(1);
+        }
+        deadline = System.currentTimeMillis() + 10_000;
+        while (received.get() < sent && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(sent, received.get());
+        output.close();
+        reader.join();
+        slow.close();
+    }
+
+    private static void awaitClients(TcpOutputStrategy output, int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (output.getClientCount() != count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertTrue(output.getClientCount() == count, "clients: " + output.getClientCount());
+    }
+}
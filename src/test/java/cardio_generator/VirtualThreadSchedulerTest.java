@@ -0,0 +1,134 @@
+package cardio_generator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import com.cardio_generator.scheduling.VirtualThreadScheduler;
+
+/**
+ * Unit tests for the scheduler that runs every patient loop on its own virtual thread.
+ */
+class VirtualThreadSchedulerTest {
+
+    /**
+     * Tests that readings follow the period instead of running as fast as possible.
+     *
+     * @throws InterruptedException if interrupted while waiting for the generator
+     */
+    @Test
+    void testLoopKeepsPeriod() throws InterruptedException {
+        CountDownLatch readings = new CountDownLatch(10);
+        long start = System.nanoTime();
+
+        try (VirtualThreadScheduler scheduler = new VirtualThreadScheduler()) {
+            scheduler.schedule((patientId, outputStrategy) -> readings.countDown(),
+                    new int[] {1}, 20, TimeUnit.MILLISECONDS, null);
+
+            assertTrue(readings.await(5, TimeUnit.SECONDS));
+        }
+        // The first reading is taken within the first period, nine more follow one period apart
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(9 * 20));
+    }
+
+    /**
+     * Tests that an admitted patient gets readings, and none after it is discharged.
+     *
+     * @throws InterruptedException if interrupted while waiting for the generator
+     */
+    @Test
+    void testAdmitAndDischarge() throws InterruptedException {
+        Map<Integer, AtomicInteger> counts = new ConcurrentHashMap<>();
+        CountDownLatch admitted = new CountDownLatch(3);
+
+        try (VirtualThreadScheduler scheduler = new VirtualThreadScheduler()) {
+            scheduler.schedule((patientId, outputStrategy) -> {
+                counts.computeIfAbsent(patientId, k -> new AtomicInteger()).incrementAndGet();
+                if (patientId == 2) {
+                    admitted.countDown();
+                }
+            }, new int[] {1}, 5, TimeUnit.MILLISECONDS, null);
+            scheduler.admit(2);
+            scheduler.admit(2); // already scheduled, must not start a second loop
+
+            assertTrue(admitted.await(5, TimeUnit.SECONDS));
+            assertEquals(2, scheduler.getThreadCount());
+
+            scheduler.discharge(2);
+            Thread.sleep(20); // lets a reading that was in flight complete
+            int afterDischarge = counts.get(2).get();
+            Thread.sleep(100);
+            assertEquals(afterDischarge, counts.get(2).get());
+            assertTrue(counts.get(1).get() > 0);
+        }
+    }
+
+    /**
+     * Tests that a loop that has fallen behind its deadlines, and therefore never parks,
+     * still stops on discharge, and that the generator never sees an interrupt.
+     *
+     * @throws InterruptedException if interrupted while waiting for the generator
+     */
+    @Test
+    void testDischargeStopsLoopThatIsBehind() throws InterruptedException {
+        AtomicInteger readings = new AtomicInteger();
+        AtomicBoolean interrupted = new AtomicBoolean();
+
+        try (VirtualThreadScheduler scheduler = new VirtualThreadScheduler()) {
+            scheduler.schedule((patientId, outputStrategy) -> {
+                readings.incrementAndGet();
+                if (Thread.currentThread().isInterrupted()) {
+                    interrupted.set(true);
+                }
+                // Takes longer than the period, so the next deadline has always passed
+                long until = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(2);
+                while (System.nanoTime() < until) {
+                    Thread.onSpinWait();
+                }
+            }, new int[] {1}, 1, TimeUnit.MILLISECONDS, null);
+            Thread.sleep(50);
+
+            scheduler.discharge(1);
+            Thread.sleep(20);
+            int afterDischarge = readings.get();
+            Thread.sleep(100);
+            assertEquals(afterDischarge, readings.get());
+        }
+        assertFalse(interrupted.get());
+    }
+
+    /**
+     * Tests that closing the scheduler stops every loop and rejects new generators.
+     *
+     * @throws InterruptedException if interrupted while waiting for the generator
+     */
+    @Test
+    void testCloseStopsAllLoops() throws InterruptedException {
+        AtomicInteger readings = new AtomicInteger();
+        CountDownLatch running = new CountDownLatch(20);
+        VirtualThreadScheduler scheduler = new VirtualThreadScheduler();
+        scheduler.schedule((patientId, outputStrategy) -> {
+            readings.incrementAndGet();
+            running.countDown();
+        }, new int[] {1, 2, 3, 4}, 5, TimeUnit.MILLISECONDS, null);
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+
+        scheduler.close();
+        Thread.sleep(20);
+        int afterClose = readings.get();
+        Thread.sleep(100);
+        assertEquals(afterClose, readings.get());
+        assertThrows(IllegalStateException.class, () -> scheduler.schedule(
+                (patientId, outputStrategy) -> { }, new int[] {5}, 5, TimeUnit.MILLISECONDS, null));
+    }
+}
@@ -0,0 +1,138 @@
+package cardio_generator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.ServerSocket;
+import java.net.URI;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.java_websocket.client.WebSocketClient;
+import org.java_websocket.handshake.ServerHandshake;
+import org.junit.jupiter.api.Test;
+
+import com.cardio_generator.outputs.ReadingBatch;
+import com.cardio_generator.outputs.WebSocketOutputStrategy;
+
+/**
+ * Unit tests for the batched WebSocket broadcast and its slow-client protection.
+ */
+class WebSocketOutputStrategyTest {
+
+    /**
+     * Tests that readings output within one flush interval reach every client as one message
+     * with one line per reading.
+     *
+     * @throws Exception if a client cannot connect
+     */
+    @Test
+    void testCoalescesReadingsIntoOneMessage() throws Exception {
+        int port = freePort();
+        WebSocketOutputStrategy output = new WebSocketOutputStrategy(port, 200, 1 << 20);
+        RecordingClient first = connect(port, null);
+        RecordingClient second = connect(port, null);
+        try {
+            output.output(1, 100, "Alert", "triggered");
+            output.outputValue(2, 200, "ECG", 0.5);
+            for (RecordingClient client : List.of(first, second)) {
+                assertTrue(client.received.await(5, TimeUnit.SECONDS));
+                assertEquals(List.of("1,100,Alert,triggered\n2,200,ECG,0.5"), client.messages);
+            }
+        } finally {
+            first.closeBlocking();
+            second.closeBlocking();
+            output.close();
+        }
+    }
+
+    /**
+     * Tests that a client that stops reading is disconnected once its backlog exceeds the
+     * limit.
+     *
+     * @throws Exception if a client cannot connect
+     */
+    @Test
+    void testDisconnectsSlowClient() throws Exception {
+        int port = freePort();
+        WebSocketOutputStrategy output = new WebSocketOutputStrategy(port, 5, 256 * 1024);
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingClient stalled = connect(port, release);
+        try {
+            ReadingBatch batch = new ReadingBatch(1000);
+            for (int i = 0; i < 1000; i++) {
+                batch.add(i, i, "ECG", i);
+            }
+            long deadline = System.currentTimeMillis() + 20_000;
+            while (output.getSlowClientDisconnects() == 0 && System.currentTimeMillis() < deadline) {
+                output.outputBatch(batch);
+                Thread.sleep(1);
+            }
+            assertEquals(1, output.getSlowClientDisconnects());
+        } finally {
+            release.countDown();
+            output.close();
+        }
+    }
+
+    private static int freePort() throws Exception {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static RecordingClient connect(int port, CountDownLatch stall) throws Exception {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (true) {
+            RecordingClient client = new RecordingClient(new URI("ws://localhost:" + port), stall);
+            if (client.connectBlocking(1, TimeUnit.SECONDS)) {
+                return client;
+            }
+            assertTrue(System.currentTimeMillis() < deadline, "server did not start");
+            Thread.sleep(50);
+        }
+    }
+
+    /**
+     * A client that records the messages it receives and, if given a latch, stops reading on
+     * the first message until the latch is released.
+     */
+    private static class RecordingClient extends WebSocketClient {
+
+        private final List<String> messages = new CopyOnWriteArrayList<>();
+        private final CountDownLatch received = new CountDownLatch(1);
+        private final CountDownLatch stall;
+
+        RecordingClient(URI uri, CountDownLatch stall) {
+            super(uri);
+            this.stall = stall;
+        }
+
+        @Override
+        public void onOpen(ServerHandshake handshake) {
+        }
+
+        @Override
+        public void onMessage(String message) {
+            messages.add(message);
+            received.countDown();
+            if (stall != null) {
+                try {
+                    stall.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+
+        @Override
+        public void onClose(int code, String reason, boolean remote) {
+        }
+
+        @Override
+        public void onError(Exception ex) {
+        }
+    }
+}